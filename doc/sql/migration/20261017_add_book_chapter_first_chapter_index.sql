@@ -0,0 +1,7 @@
+-- 已有库升级：书架批量查询首章号（BookChapterMapper.selectFirstChapterNums）使用的覆盖索引。
+-- MIN(chapter_num) ... WHERE audit_status = 1 AND book_id IN (...) GROUP BY book_id 可走松散索引扫描（Using index for group-by），
+-- 每本书只读一个索引项，不再回表扫描全部章节行。
+-- 执行前请备份。
+
+CREATE INDEX idx_book_chapter_book_audit_num
+    ON book_chapter (book_id, audit_status, chapter_num);
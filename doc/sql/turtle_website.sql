@@ -156,6 +156,9 @@ create table book_chapter
 create index book_chapter_audit
     on book_chapter (chapter_num, audit_status, book_id);
 
+create index idx_book_chapter_book_audit_num
+    on book_chapter (book_id, audit_status, chapter_num);
+
 create table book_comment
 (
     id              bigint unsigned auto_increment comment '主键'
@@ -28,7 +28,7 @@ public class AuditExperienceUpsertReqDto {
 
     /**
      * 判例来源类型：{@code book} / {@code chapter} / {@code chapter_segment}。
-     * 与 {@link com.novel.ai.rag.AuditExperienceMetadata#SOURCE_TYPE_BOOK} 等常量对齐。
+     * 与 novel-ai-service 中 {@code AuditExperienceMetadata.SOURCE_TYPE_*} 常量对齐。
      */
     @Schema(description = "来源类型：book/chapter/chapter_segment",
             requiredMode = Schema.RequiredMode.REQUIRED)
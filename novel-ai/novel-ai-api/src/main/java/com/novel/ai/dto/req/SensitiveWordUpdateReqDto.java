@@ -0,0 +1,21 @@
+package com.novel.ai.dto.req;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 敏感词词表增删请求。词条会去除首尾空白并去重；已存在的新增、不存在的删除都会被忽略，
+ * 没有实际变化时词表版本不变。
+ */
+@Data
+@Schema(description = "敏感词词表增删请求")
+public class SensitiveWordUpdateReqDto {
+
+    @Schema(description = "新增词条")
+    private List<String> added;
+
+    @Schema(description = "删除词条")
+    private List<String> removed;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * 审核经验判例批量写入结果。字段含义与 {@code AuditExperienceIndexer.IndexResult} 对齐，
  * 扁平化后直接给 inner endpoint 的调用方观察。
@@ -29,4 +31,7 @@ public class AuditExperienceUpsertRespDto {
 
     @Schema(description = "是否 dryRun（只校验不写入）")
     private boolean dryRun;
+
+    @Schema(description = "逐条重试后仍写入失败的 auditId，调用方可只重推这些记录")
+    private List<Long> failedAuditIds;
 }
@@ -0,0 +1,28 @@
+package com.novel.ai.dto.resp;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 敏感词词表增删结果。各节点在收到版本通知（或下一次轮询）后切换到 {@link #version}。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "敏感词词表增删结果")
+public class SensitiveWordUpdateRespDto {
+
+    @Schema(description = "更新后的词表版本")
+    private long version;
+
+    @Schema(description = "实际新增的词条数")
+    private int added;
+
+    @Schema(description = "实际删除的词条数")
+    private int removed;
+
+    @Schema(description = "更新后的词条总数")
+    private long size;
+}
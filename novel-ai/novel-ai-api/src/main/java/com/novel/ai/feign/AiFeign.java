@@ -1,7 +1,9 @@
 package com.novel.ai.feign;
 
+import com.novel.ai.dto.req.AuditExperienceUpsertReqDto;
 import com.novel.ai.dto.req.AuditRuleReqDto;
 import com.novel.ai.dto.req.CoverImageAsyncSubmitReqDto;
+import com.novel.ai.dto.resp.AuditExperienceUpsertRespDto;
 import com.novel.ai.dto.resp.AuditRuleRespDto;
 import com.novel.ai.dto.resp.ImageGenJobStatusRespDto;
 import com.novel.ai.dto.resp.ImageGenJobSubmitRespDto;
@@ -23,6 +25,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 
 @Component
 @FeignClient(value = "novel-ai-service", fallback = AiFeign.AiFeignFallback.class)
@@ -77,6 +81,14 @@ public interface AiFeign {
     @PostMapping(ApiRouterConsts.API_INNER_AI_URL_PREFIX + "/audit/extractRule")
     RestResp<AuditRuleRespDto> extractAuditRule(@RequestBody AuditRuleReqDto req);
 
+    /**
+     * 审核经验判例批量写入向量库（与在线沉淀共用同一写入链路）
+     */
+    @PostMapping(ApiRouterConsts.API_INNER_AI_URL_PREFIX + "/audit-experience/upsert")
+    RestResp<AuditExperienceUpsertRespDto> upsertAuditExperience(
+            @RequestBody List<AuditExperienceUpsertReqDto> experiences,
+            @RequestParam("dryRun") boolean dryRun);
+
     @Component
     class AiFeignFallback implements AiFeign {
 
@@ -124,5 +136,11 @@ public interface AiFeign {
         public RestResp<AuditRuleRespDto> extractAuditRule(AuditRuleReqDto req) {
             return RestResp.fail(ErrorCodeEnum.SYSTEM_ERROR);
         }
+
+        @Override
+        public RestResp<AuditExperienceUpsertRespDto> upsertAuditExperience(
+                List<AuditExperienceUpsertReqDto> experiences, boolean dryRun) {
+            return RestResp.fail(ErrorCodeEnum.SYSTEM_ERROR);
+        }
     }
 }
@@ -1,8 +1,10 @@
 package com.novel.ai;
 
+import com.novel.ai.config.NovelAiAuditCacheProperties;
 import com.novel.ai.config.NovelAiAuditCategoryProperties;
 import com.novel.ai.config.NovelAiLearningAuditProperties;
 import com.novel.ai.invoker.NovelAiStructuredOutputProperties;
+import com.novel.ai.rag.NovelAiRagFallbackProperties;
 import com.novel.ai.ratelimit.config.AiRateLimitProperties;
 import com.novel.ai.ratelimit.config.AiTokenRateLimitProperties;
 import com.novel.ai.sensitive.SensitiveWordProperties;
@@ -29,7 +31,9 @@ import org.springframework.retry.annotation.EnableRetry;
         NovelAiAuditCategoryProperties.class,
         NovelAiLearningAuditProperties.class,
         AiRateLimitProperties.class,
-        AiTokenRateLimitProperties.class
+        AiTokenRateLimitProperties.class,
+        NovelAiRagFallbackProperties.class,
+        NovelAiAuditCacheProperties.class
 })
 public class NovelAiApplication {
     public static void main(String[] args) {
@@ -3,9 +3,11 @@ package com.novel.ai.agent.book.step;
 import com.novel.ai.agent.book.BookAuditContext;
 import com.novel.ai.agent.core.AuditStep;
 import com.novel.ai.agent.core.StepResult;
+import com.novel.ai.agent.support.AuditVerdictCache;
 import com.novel.ai.config.NovelAiLearningAuditProperties;
 import com.novel.ai.invoker.StructuredOutputInvoker;
 import com.novel.ai.model.AuditDecisionAiOutput;
+import com.novel.ai.prompt.NovelAiPromptKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -23,6 +25,8 @@ import org.springframework.stereotype.Component;
  * <p>
  * RAG advisor 作为可选依赖（{@link ObjectProvider}）：当
  * {@code novel.ai.rag.enabled=false} 时 bean 不装配，这里直接跳过，LlmStep 退化成"纯 Prompt"调用。
+ * <p>
+ * 调用前先查 {@link AuditVerdictCache}：书名简介未变的重复提交直接复用上次结论。
  */
 @Slf4j
 @Component
@@ -34,6 +38,7 @@ public class BookLlmInvokeStep implements AuditStep<BookAuditContext> {
     private final BookPromptAssembleStep promptStep;
     private final ObjectProvider<RetrievalAugmentationAdvisor> ragAdvisorProvider;
     private final NovelAiLearningAuditProperties learningAuditProperties;
+    private final AuditVerdictCache verdictCache;
 
     @Override
     public StepResult execute(BookAuditContext ctx) {
@@ -56,13 +61,18 @@ public class BookLlmInvokeStep implements AuditStep<BookAuditContext> {
                 req != null ? req.getAuthorId() : null,
                 learning,
                 extras != null);
-        AuditDecisionAiOutput output = invoker.invoke(
-                chatClient,
+        NovelAiPromptKey promptKey = learning ? NovelAiPromptKey.BOOK_AUDIT_LEARNING : NovelAiPromptKey.BOOK_AUDIT;
+        AuditDecisionAiOutput output = verdictCache.getOrLoad(
+                promptKey,
                 ctx.getSystemPrompt(),
                 ctx.getUserPrompt(),
-                promptStep.converter(),
-                learning ? "book-audit-learning" : "book-audit",
-                extras);
+                () -> invoker.invoke(
+                        chatClient,
+                        ctx.getSystemPrompt(),
+                        ctx.getUserPrompt(),
+                        promptStep.converter(),
+                        learning ? "book-audit-learning" : "book-audit",
+                        extras));
         log.info("[BookLlmInvoke] 模型调用完成 bookId={} auditStatus={} confidence={}",
                 req != null ? req.getId() : null,
                 output != null ? output.auditStatus() : null,
@@ -8,7 +8,9 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 章节审核流水线上下文。章节内容可能较长并被切分为多段，因此上下文里既保留
@@ -22,9 +24,21 @@ public class ChapterAuditContext extends AuditContext<ChapterAuditReqDto, Chapte
     /** 切分后的段文本，未分段时只含一项。 */
     private List<String> segments = Collections.emptyList();
 
-    /** 各段的审核响应；在 {@link com.novel.ai.agent.chapter.step.ChapterSegmentAuditStep} 中逐项填充。 */
+    /**
+     * 各段的审核响应，按段号排列；在 {@link com.novel.ai.agent.chapter.step.ChapterSegmentAuditStep} 中填充。
+     * 因其他段确定不通过而被跳过的段为 null。
+     */
     private final List<ChapterAuditRespDto> segmentResults = new ArrayList<>();
 
+    /**
+     * 增量复审：段号（从 0 开始）→ 复用的上次"通过"结论，这些段不再调用模型。
+     * 由 {@link com.novel.ai.agent.chapter.support.ChapterSegmentHistory#planSegments} 填充。
+     */
+    private final Map<Integer, ChapterAuditRespDto> reusedSegmentResults = new HashMap<>();
+
+    /** 本次审核画像，保存分段快照时使用；未开启增量复审时为 null。 */
+    private String auditProfile;
+
     /**
      * 学习资料绿色通道截断等说明，拼入 user prompt；无则空串。
      */
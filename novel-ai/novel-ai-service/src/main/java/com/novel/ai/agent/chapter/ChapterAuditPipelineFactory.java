@@ -23,7 +23,7 @@ import java.util.List;
 import java.util.function.Function;
 
 /**
- * 装配章节审核流水线。顺序：参数校验 → 切分 → 逐段 RAG+LLM → 合并结果。
+ * 装配章节审核流水线。顺序：参数校验 → 切分 → 分段并发 RAG+LLM → 合并结果。
  */
 @Configuration
 public class ChapterAuditPipelineFactory {
@@ -1,22 +1,26 @@
 package com.novel.ai.agent.chapter.step;
 
 import com.novel.ai.agent.chapter.ChapterAuditContext;
+import com.novel.ai.agent.chapter.support.ChapterSegmentHistory;
 import com.novel.ai.agent.core.AuditErrorClassifier;
 import com.novel.ai.agent.core.AuditStep;
 import com.novel.ai.agent.core.StepResult;
 import com.novel.ai.agent.support.AuditDecisionResolver;
 import com.novel.ai.agent.support.AuditCategoryPromptResolver;
+import com.novel.ai.agent.support.AuditVerdictCache;
 import com.novel.ai.agent.support.PromptVars;
 import com.novel.ai.config.NovelAiLearningAuditProperties;
 import com.novel.ai.invoker.StructuredOutputInvoker;
 import com.novel.ai.model.AuditDecisionAiOutput;
 import com.novel.ai.prompt.NovelAiPromptKey;
 import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.ai.ratelimit.AiTokenEstimator;
 import com.novel.book.dto.req.ChapterAuditReqDto;
 import com.novel.book.dto.resp.ChapterAuditRespDto;
 import com.novel.common.constant.ErrorCodeEnum;
 import com.novel.config.exception.BusinessException;
-import lombok.RequiredArgsConstructor;
+import com.novel.ai.config.AuditPipelineExecutorConfig;
+import com.novel.ai.config.NovelAiAuditExecutionProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.toolkit.trace.ActiveSpan;
 import org.springframework.ai.chat.client.ChatClient;
@@ -24,29 +28,48 @@ import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.converter.BeanOutputConverter;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * 对 {@link ChapterAuditContext#getSegments()} 中的每一段依次做"Prompt + LLM 调用"。
+ * 对 {@link ChapterAuditContext#getSegments()} 中的每一段做"Prompt + LLM 调用"，各段并发执行。
  * <p>
  * <b>RAG 机制</b>：在调用 {@link StructuredOutputInvoker} 时局部挂载
  * {@link RetrievalAugmentationAdvisor}，Spring AI 会以 user prompt（当前段正文+审核指令）为
  * query 自动召回判例并注入 prompt，无需在业务代码里手写"拼判例字符串"。
  * <p>
+ * <b>并发</b>：各段在审核执行器（虚拟线程）上并发调用模型，单章并行度受
+ * {@code novel.ai.audit.segment-concurrency} 限制，全实例在途段数受
+ * {@code novel.ai.audit.max-concurrent-segments} 信号量限制；每次调用仍经过 token 限流 Advisor 预扣/结算。
+ * 结果按段号落位，合并顺序与串行时一致。
+ * <p>
  * <b>异常策略沿用原实现</b>：
  * <ul>
  *     <li>某段触发内容安全拦截 → 整章立即短路为"审核不通过"；</li>
- *     <li>某段其他异常 → 该段记为"待审核"，继续审核下一段。</li>
+ *     <li>某段 {@link BusinessException}（含 token 预算限流）→ 整章抛出；</li>
+ *     <li>某段其他异常 → 该段记为"待审核"，不影响其余段。</li>
  * </ul>
+ * {@link ChapterAuditContext#getReusedSegmentResults()} 中的段（增量复审复用上次"通过"结论）不再送审；
+ * 每段调用前先查 {@link AuditVerdictCache}，正文未变的段直接复用上次结论，不占模型调用与 token 预算。
+ * <p>
+ * 以上终止性结果，以及"不通过且置信度 ≥ {@code segment-early-reject-confidence}"的确定性拒绝，
+ * 会取消尚未完成的其余段；被跳过的段在 {@link ChapterAuditContext#getSegmentResults()} 中以 null 占位。
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ChapterSegmentAuditStep implements AuditStep<ChapterAuditContext> {
 
     private final ChatClient chatClient;
@@ -57,10 +80,45 @@ public class ChapterSegmentAuditStep implements AuditStep<ChapterAuditContext> {
     private final ObjectProvider<RetrievalAugmentationAdvisor> ragAdvisorProvider;
     private final AuditCategoryPromptResolver categoryPromptResolver;
     private final NovelAiLearningAuditProperties learningAuditProperties;
+    private final NovelAiAuditExecutionProperties executionProperties;
+    private final Executor auditPipelineExecutor;
+    private final Semaphore segmentSemaphore;
+    private final AuditVerdictCache verdictCache;
+    private final ChapterSegmentHistory segmentHistory;
 
     private final BeanOutputConverter<AuditDecisionAiOutput> converter =
             new BeanOutputConverter<>(AuditDecisionAiOutput.class);
 
+    public ChapterSegmentAuditStep(ChatClient chatClient,
+                                   NovelAiPromptLoader promptLoader,
+                                   StructuredOutputInvoker invoker,
+                                   AuditDecisionResolver resolver,
+                                   AuditErrorClassifier errorClassifier,
+                                   ObjectProvider<RetrievalAugmentationAdvisor> ragAdvisorProvider,
+                                   AuditCategoryPromptResolver categoryPromptResolver,
+                                   NovelAiLearningAuditProperties learningAuditProperties,
+                                   NovelAiAuditExecutionProperties executionProperties,
+                                   @Qualifier(AuditPipelineExecutorConfig.AUDIT_PIPELINE_EXECUTOR)
+                                   Executor auditPipelineExecutor,
+                                   @Qualifier(AuditPipelineExecutorConfig.AUDIT_SEGMENT_SEMAPHORE)
+                                   Semaphore segmentSemaphore,
+                                   AuditVerdictCache verdictCache,
+                                   ChapterSegmentHistory segmentHistory) {
+        this.chatClient = chatClient;
+        this.promptLoader = promptLoader;
+        this.invoker = invoker;
+        this.resolver = resolver;
+        this.errorClassifier = errorClassifier;
+        this.ragAdvisorProvider = ragAdvisorProvider;
+        this.categoryPromptResolver = categoryPromptResolver;
+        this.learningAuditProperties = learningAuditProperties;
+        this.executionProperties = executionProperties;
+        this.auditPipelineExecutor = auditPipelineExecutor;
+        this.segmentSemaphore = segmentSemaphore;
+        this.verdictCache = verdictCache;
+        this.segmentHistory = segmentHistory;
+    }
+
     @Override
     public StepResult execute(ChapterAuditContext ctx) {
         ChapterAuditReqDto req = ctx.getRequest();
@@ -90,75 +148,270 @@ public class ChapterSegmentAuditStep implements AuditStep<ChapterAuditContext> {
                 req.getCategoryId(), req.getCategoryName());
         NovelAiPromptKey chapterKey = learning ? NovelAiPromptKey.CHAPTER_AUDIT_LEARNING : NovelAiPromptKey.CHAPTER_AUDIT;
 
-        for (int i = 0; i < segments.size(); i++) {
-            String segment = segments.get(i);
-            int index = i + 1;
-            String logContext = learning
-                    ? (isMultiSegment ? "chapter-audit-learning-seg-" + index : "chapter-audit-learning")
-                    : (isMultiSegment ? "chapter-audit-seg-" + index : "chapter-audit");
-
-            String systemPrompt = promptLoader.renderSystem(chapterKey)
-                    + "\n\n" + converter.getFormat();
-            if (!learning) {
-                String categoryExtra = categoryPromptResolver.resolveSystemExtra(req);
-                if (!categoryExtra.isEmpty()) {
-                    systemPrompt += "\n\n# Category-Specific Audit Guidelines（作品类别附加规则）\n" + categoryExtra;
-                }
+        String systemPrompt = promptLoader.renderSystem(chapterKey)
+                + "\n\n" + converter.getFormat();
+        if (!learning) {
+            String categoryExtra = categoryPromptResolver.resolveSystemExtra(req);
+            if (!categoryExtra.isEmpty()) {
+                systemPrompt += "\n\n# Category-Specific Audit Guidelines（作品类别附加规则）\n" + categoryExtra;
             }
-            String userPrompt = promptLoader.renderUser(
-                    chapterKey,
-                    buildUserVars(req, ctx, segment, index, segments.size()));
+        }
+        RetrievalAugmentationAdvisor ragAdvisor = ragAdvisorProvider.getIfAvailable();
+        Advisor[] extras = (learning || ragAdvisor == null) ? null : new Advisor[]{ragAdvisor};
 
-            RetrievalAugmentationAdvisor ragAdvisor = ragAdvisorProvider.getIfAvailable();
-            Advisor[] extras = (learning || ragAdvisor == null) ? null : new Advisor[]{ragAdvisor};
+        SegmentOutcome[] outcomes = auditSegments(ctx, learning, chapterKey, systemPrompt, extras);
 
-            long segmentStart = System.currentTimeMillis();
-            try {
-                AuditDecisionAiOutput aiOutput = invoker.invoke(
-                        chatClient, systemPrompt, userPrompt, converter, logContext, extras);
-                long duration = System.currentTimeMillis() - segmentStart;
-                if (isMultiSegment) {
-                    ActiveSpan.tag("segment." + index + ".duration.ms", String.valueOf(duration));
+        SegmentOutcome terminal = null;
+        int skipped = 0;
+        for (int i = 0; i < outcomes.length; i++) {
+            SegmentOutcome outcome = outcomes[i];
+            if (outcome == null) {
+                skipped++;
+                continue;
+            }
+            if (isMultiSegment && !ctx.getReusedSegmentResults().containsKey(i)) {
+                int index = i + 1;
+                ActiveSpan.tag("segment." + index + ".duration.ms", String.valueOf(outcome.durationMs()));
+                if (outcome.inspectionBlocked()) {
+                    ActiveSpan.tag("segment." + index + ".error.category", "content_inspection_failed");
                 }
-                log.info("AI审核响应，章节 bookId: {}, chapterNum: {}, 第 {}/{} 段, 耗时: {}ms, aiOutput: {}",
-                        req.getBookId(), req.getChapterNum(), index, segments.size(), duration, aiOutput);
+            }
+            if (terminal == null && outcome.isTerminal(earlyRejectConfidence())) {
+                terminal = outcome;
+            }
+        }
+        if (skipped > 0) {
+            ActiveSpan.tag("segments.skipped", String.valueOf(skipped));
+        }
 
-                ctx.getSegmentResults().add(buildSegmentResp(aiOutput, req));
-            } catch (BusinessException e) {
-                if (e.getErrorCodeEnum() == ErrorCodeEnum.AI_SERVICE_RATE_LIMIT) {
+        if (terminal != null && terminal.fatal() != null) {
+            throw terminal.fatal();
+        }
+        if (terminal != null && terminal.inspectionBlocked()) {
+            log.warn("第 {}/{} 段命中内容安全拦截，章节 bookId: {}, chapterNum: {}, 整章标记为审核不通过",
+                    terminal.index(), segments.size(), req.getBookId(), req.getChapterNum());
+            ctx.setResult(ChapterAuditRespDto.builder()
+                    .bookId(req.getBookId())
+                    .chapterNum(req.getChapterNum())
+                    .auditStatus(2)
+                    .aiConfidence(new BigDecimal("1.0"))
+                    .auditReason("内容包含不当信息，不符合平台规范")
+                    .build());
+            return StepResult.SHORT_CIRCUIT;
+        }
+        if (terminal != null && skipped > 0) {
+            log.info("[ChapterSegmentAudit] 第 {}/{} 段确定不通过，其余 {} 段未继续审核 bookId={} chapterNum={}",
+                    terminal.index(), segments.size(), skipped, req.getBookId(), req.getChapterNum());
+        }
+        for (SegmentOutcome outcome : outcomes) {
+            ctx.getSegmentResults().add(outcome == null ? null : outcome.resp());
+        }
+        long tokensSaved = 0;
+        for (Integer reusedIndex : ctx.getReusedSegmentResults().keySet()) {
+            tokensSaved += AiTokenEstimator.estimate(systemPrompt, 1.0)
+                    + AiTokenEstimator.estimate(segments.get(reusedIndex), 1.0);
+        }
+        segmentHistory.recordAudited(ctx, tokensSaved);
+        return StepResult.CONTINUE;
+    }
+
+    /**
+     * 复用结论的段直接落位；其余段以 {@code min(待审段数, segmentConcurrency)} 个 worker
+     * 在审核执行器上领取段号并发审核，结果按段号落位。
+     * 任一段产生终止性结果（确定不通过 / 内容安全拦截 / 业务异常）后，worker 不再领取新段，
+     * 并中断其余在途调用；被中断的调用由 token 限流 Advisor 在异常路径上退还预扣额度。
+     * 落位与"是否已终止"的判断在同一把锁内完成，终止后不会再有段结果写入；
+     * 等所有 worker 真正退出后才返回，在途调用不会比本步骤活得更久。
+     *
+     * @return 与段一一对应的结果，未审核（被提前终止跳过）的段为 null
+     */
+    private SegmentOutcome[] auditSegments(ChapterAuditContext ctx, boolean learning, NovelAiPromptKey chapterKey,
+                                           String systemPrompt, Advisor[] extras) {
+        List<String> segments = ctx.getSegments();
+        int total = segments.size();
+        SegmentOutcome[] outcomes = new SegmentOutcome[total];
+        int[] pending = new int[total];
+        int pendingCount = 0;
+        for (int i = 0; i < total; i++) {
+            ChapterAuditRespDto reused = ctx.getReusedSegmentResults().get(i);
+            if (reused != null) {
+                outcomes[i] = SegmentOutcome.of(i + 1, reused, 0L);
+            } else {
+                pending[pendingCount++] = i;
+            }
+        }
+        if (pendingCount == 0) {
+            return outcomes;
+        }
+        int pendingTotal = pendingCount;
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        int workerCount = Math.max(1, Math.min(pendingTotal, executionProperties.getSegmentConcurrency()));
+        CountDownLatch exited = new CountDownLatch(workerCount);
+
+        @SuppressWarnings("unchecked")
+        FutureTask<Void>[] workers = new FutureTask[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            int self = w;
+            workers[w] = new FutureTask<>(() -> {
+                try {
+                    while (!stopped.get()) {
+                        int next = nextIndex.getAndIncrement();
+                        if (next >= pendingTotal) {
+                            return null;
+                        }
+                        int i = pending[next];
+                        SegmentOutcome outcome;
+                        segmentSemaphore.acquire();
+                        try {
+                            if (stopped.get()) {
+                                return null;
+                            }
+                            outcome = auditSegment(ctx, learning, chapterKey, systemPrompt, extras, i);
+                        } finally {
+                            segmentSemaphore.release();
+                        }
+                        synchronized (outcomes) {
+                            if (stopped.get()) {
+                                // 其他段已决定整章结论，本段（多为被中断的调用）结果作废，按未审核处理
+                                return null;
+                            }
+                            outcomes[i] = outcome;
+                            if (outcome.isTerminal(earlyRejectConfidence())) {
+                                stopped.set(true);
+                                cancelOthers(workers, self);
+                            }
+                        }
+                    }
+                    return null;
+                } catch (RuntimeException e) {
+                    // 意外异常同样让其余 worker 尽快停下，异常由 get() 抛给调用方
+                    synchronized (outcomes) {
+                        stopped.set(true);
+                    }
+                    cancelOthers(workers, self);
                     throw e;
                 }
-                throw e;
-            } catch (Exception e) {
-                if (errorClassifier.isContentInspectionFailed(e)) {
-                    if (isMultiSegment) {
-                        ActiveSpan.tag("segment." + index + ".error.category", "content_inspection_failed");
+            });
+        }
+        int submitted = 0;
+        RuntimeException rejected = null;
+        try {
+            for (FutureTask<Void> worker : workers) {
+                // 被取消的 FutureTask 在 callable 真正退出后 run() 才返回，此时计数
+                auditPipelineExecutor.execute(() -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        exited.countDown();
                     }
-                    log.warn("第 {}/{} 段命中内容安全拦截，章节 bookId: {}, chapterNum: {}, 整章标记为审核不通过",
-                            index, segments.size(), req.getBookId(), req.getChapterNum());
-                    ctx.setResult(ChapterAuditRespDto.builder()
-                            .bookId(req.getBookId())
-                            .chapterNum(req.getChapterNum())
-                            .auditStatus(2)
-                            .aiConfidence(new BigDecimal("1.0"))
-                            .auditReason("内容包含不当信息，不符合平台规范")
-                            .build());
-                    return StepResult.SHORT_CIRCUIT;
+                });
+                submitted++;
+            }
+        } catch (RuntimeException e) {
+            // 执行器拒绝提交：已提交的 worker 停下后再抛出
+            rejected = e;
+            stop(outcomes, stopped, workers);
+            for (int w = submitted; w < workerCount; w++) {
+                exited.countDown();
+            }
+        }
+
+        try {
+            exited.await();
+        } catch (InterruptedException e) {
+            stop(outcomes, stopped, workers);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("章节分段审核被中断", e);
+        }
+        if (rejected != null) {
+            throw rejected;
+        }
+        for (FutureTask<Void> worker : workers) {
+            try {
+                worker.get();
+            } catch (CancellationException ignored) {
+                // 被终止性结果取消的 worker，其在途段的结果已无意义
+            } catch (InterruptedException e) {
+                // 所有 worker 均已退出，get() 不会阻塞
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) {
+                    throw re;
                 }
-                log.error("AI审核异常，章节 bookId: {}, chapterNum: {}, 第 {}/{} 段",
-                        req.getBookId(), req.getChapterNum(), index, segments.size(), e);
-                ctx.getSegmentResults().add(ChapterAuditRespDto.builder()
-                        .bookId(req.getBookId())
-                        .chapterNum(req.getChapterNum())
-                        .auditStatus(0)
-                        .aiConfidence(new BigDecimal("0.0"))
-                        .auditReason(isMultiSegment
-                                ? "第" + index + "段审核异常"
-                                : "AI审核服务异常")
-                        .build());
+                throw new RuntimeException(cause);
             }
         }
-        return StepResult.CONTINUE;
+        return outcomes;
+    }
+
+    private static void stop(SegmentOutcome[] outcomes, AtomicBoolean stopped, FutureTask<Void>[] workers) {
+        synchronized (outcomes) {
+            stopped.set(true);
+        }
+        cancelOthers(workers, -1);
+    }
+
+    private SegmentOutcome auditSegment(ChapterAuditContext ctx, boolean learning, NovelAiPromptKey chapterKey,
+                                        String systemPrompt, Advisor[] extras, int i) {
+        ChapterAuditReqDto req = ctx.getRequest();
+        List<String> segments = ctx.getSegments();
+        boolean isMultiSegment = segments.size() > 1;
+        int index = i + 1;
+        String logContext = learning
+                ? (isMultiSegment ? "chapter-audit-learning-seg-" + index : "chapter-audit-learning")
+                : (isMultiSegment ? "chapter-audit-seg-" + index : "chapter-audit");
+        String userPrompt = promptLoader.renderUser(
+                chapterKey,
+                buildUserVars(req, ctx, segments.get(i), index, segments.size()));
+
+        long segmentStart = System.currentTimeMillis();
+        try {
+            AuditDecisionAiOutput aiOutput = verdictCache.getOrLoad(chapterKey, systemPrompt, userPrompt,
+                    () -> invoker.invoke(chatClient, systemPrompt, userPrompt, converter, logContext, extras));
+            long duration = System.currentTimeMillis() - segmentStart;
+            log.info("AI审核响应，章节 bookId: {}, chapterNum: {}, 第 {}/{} 段, 耗时: {}ms, aiOutput: {}",
+                    req.getBookId(), req.getChapterNum(), index, segments.size(), duration, aiOutput);
+            return SegmentOutcome.of(index, buildSegmentResp(aiOutput, req), duration);
+        } catch (BusinessException e) {
+            // 含 AI_SERVICE_RATE_LIMIT：token 预算不足时整章失败，交由上层按限流处理
+            return SegmentOutcome.fatal(index, e, System.currentTimeMillis() - segmentStart);
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - segmentStart;
+            if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                // 被提前终止取消的在途调用，结果由调用方丢弃
+                log.debug("[ChapterSegmentAudit] 第 {}/{} 段已取消 bookId={} chapterNum={}",
+                        index, segments.size(), req.getBookId(), req.getChapterNum());
+                return SegmentOutcome.of(index, null, duration);
+            }
+            if (errorClassifier.isContentInspectionFailed(e)) {
+                return SegmentOutcome.inspectionBlocked(index, duration);
+            }
+            log.error("AI审核异常，章节 bookId: {}, chapterNum: {}, 第 {}/{} 段",
+                    req.getBookId(), req.getChapterNum(), index, segments.size(), e);
+            return SegmentOutcome.of(index, ChapterAuditRespDto.builder()
+                    .bookId(req.getBookId())
+                    .chapterNum(req.getChapterNum())
+                    .auditStatus(0)
+                    .aiConfidence(new BigDecimal("0.0"))
+                    .auditReason(isMultiSegment
+                            ? "第" + index + "段审核异常"
+                            : "AI审核服务异常")
+                    .build(), duration);
+        }
+    }
+
+    private static void cancelOthers(FutureTask<Void>[] workers, int self) {
+        for (int w = 0; w < workers.length; w++) {
+            if (w != self) {
+                workers[w].cancel(true);
+            }
+        }
+    }
+
+    private double earlyRejectConfidence() {
+        return executionProperties.getSegmentEarlyRejectConfidence();
     }
 
     private Map<String, Object> buildUserVars(ChapterAuditReqDto req, ChapterAuditContext ctx, String content,
@@ -185,4 +438,37 @@ public class ChapterSegmentAuditStep implements AuditStep<ChapterAuditContext> {
                 .auditReason(resolver.resolveReason(aiOutput))
                 .build();
     }
+
+    /**
+     * 单段审核结果。{@code resp} 为正常（含"审核异常→待审核"）结果；其余字段标记终止性情形。
+     */
+    private record SegmentOutcome(int index,
+                                  ChapterAuditRespDto resp,
+                                  boolean inspectionBlocked,
+                                  RuntimeException fatal,
+                                  long durationMs) {
+
+        static SegmentOutcome of(int index, ChapterAuditRespDto resp, long durationMs) {
+            return new SegmentOutcome(index, resp, false, null, durationMs);
+        }
+
+        static SegmentOutcome inspectionBlocked(int index, long durationMs) {
+            return new SegmentOutcome(index, null, true, null, durationMs);
+        }
+
+        static SegmentOutcome fatal(int index, RuntimeException e, long durationMs) {
+            return new SegmentOutcome(index, null, false, e, durationMs);
+        }
+
+        /** 该段结果已能决定整章结论（或整章必须失败），其余段无需继续。 */
+        boolean isTerminal(double earlyRejectConfidence) {
+            if (inspectionBlocked || fatal != null) {
+                return true;
+            }
+            return resp != null
+                    && Integer.valueOf(2).equals(resp.getAuditStatus())
+                    && resp.getAiConfidence() != null
+                    && resp.getAiConfidence().doubleValue() >= earlyRejectConfidence;
+        }
+    }
 }
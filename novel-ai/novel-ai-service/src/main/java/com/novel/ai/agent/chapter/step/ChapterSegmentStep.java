@@ -2,6 +2,7 @@ package com.novel.ai.agent.chapter.step;
 
 import com.novel.ai.agent.chapter.ChapterAuditContext;
 import com.novel.ai.agent.chapter.support.ChapterContentSplitter;
+import com.novel.ai.agent.chapter.support.ChapterSegmentHistory;
 import com.novel.ai.agent.core.AuditStep;
 import com.novel.ai.agent.core.StepResult;
 import com.novel.ai.config.NovelAiLearningAuditProperties;
@@ -18,6 +19,9 @@ import org.springframework.stereotype.Component;
  * 小说类默认每段 {@code novel.ai.chapter.max-content-length}（默认 5000）；学习资料类使用
  * {@code novel.ai.learning-audit.segment-chars}（或绿色通道 {@code green-channel-segment-chars}），
  * 且可配置绿色通道仅送审前 N 字以控制 Token。
+ * <p>
+ * 需要调用模型的章节经 {@link ChapterSegmentHistory} 与上次审核的分段对齐：未改动的段保持原边界，
+ * 上次通过的段直接复用结论，只有新增/修改部分重新切分送审。
  */
 @Slf4j
 @Component
@@ -25,6 +29,7 @@ import org.springframework.stereotype.Component;
 public class ChapterSegmentStep implements AuditStep<ChapterAuditContext> {
 
     private final ChapterContentSplitter splitter;
+    private final ChapterSegmentHistory segmentHistory;
     private final NovelAiLearningAuditProperties learningAuditProperties;
 
     @Value("${novel.ai.chapter.max-content-length:5000}")
@@ -51,10 +56,15 @@ public class ChapterSegmentStep implements AuditStep<ChapterAuditContext> {
             int segLen = learningAuditProperties.isGreenChannel(req.getAuthorId())
                     ? learningAuditProperties.getGreenChannelSegmentChars()
                     : learningAuditProperties.getSegmentChars();
-            ctx.setSegments(splitter.split(content, segLen));
+            if (learningAuditProperties.shouldBypassLlmForLearning(
+                    req.getCategoryId(), req.getCategoryName(), req.getAuthorId())) {
+                ctx.setSegments(splitter.split(content, segLen));
+            } else {
+                segmentHistory.planSegments(ctx, content, segLen, true);
+            }
             ActiveSpan.tag("learning.audit.segmentChars", String.valueOf(segLen));
         } else {
-            ctx.setSegments(splitter.split(content, maxContentLength));
+            segmentHistory.planSegments(ctx, content, maxContentLength, false);
         }
 
         if (ctx.getSegments().size() > 1) {
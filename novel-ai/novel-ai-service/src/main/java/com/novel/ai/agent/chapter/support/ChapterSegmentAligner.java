@@ -0,0 +1,112 @@
+package com.novel.ai.agent.chapter.support;
+
+import com.novel.ai.util.Sha256Utils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把修改后的章节正文与上次审核的分段指纹对齐，找出原样保留的旧段，只对变化部分重新切分。
+ * <p>
+ * 算法（确定性，不依赖模型）：
+ * <ol>
+ *     <li>按旧段顺序，在游标之后用 Rabin-Karp 滚动哈希查找与旧段等长、哈希相同的窗口，
+ *         再用 SHA-256 确认，命中则作为锚点并把游标移到该段末尾；未命中的旧段视为已修改；</li>
+ *     <li>相邻锚点之间（以及首尾）的文本为新增/修改部分，交给 {@link ChapterContentSplitter} 按原规则切分；
+ *         只含空白的间隙直接丢弃；</li>
+ *     <li>结果按正文顺序排列，锚点段携带其旧指纹（含上次结论），新切出的段不带。</li>
+ * </ol>
+ * 没有旧指纹时退化为普通切分，结果与 {@link ChapterContentSplitter#split} 完全一致。
+ */
+@Component
+public class ChapterSegmentAligner {
+
+    private static final long BASE = 1_000_003L;
+
+    private final ChapterContentSplitter splitter;
+
+    public ChapterSegmentAligner(ChapterContentSplitter splitter) {
+        this.splitter = splitter;
+    }
+
+    public List<AlignedSegment> align(String content, List<SegmentFingerprint> previous, int maxLength) {
+        List<AlignedSegment> result = new ArrayList<>();
+        if (content == null) {
+            return result;
+        }
+        if (previous == null || previous.isEmpty()) {
+            splitter.split(content, maxLength).forEach(text -> result.add(new AlignedSegment(text, null)));
+            return result;
+        }
+
+        int cursor = 0;
+        for (SegmentFingerprint old : previous) {
+            int at = find(content, cursor, old);
+            if (at < 0) {
+                continue;
+            }
+            appendGap(result, content.substring(cursor, at), maxLength);
+            result.add(new AlignedSegment(content.substring(at, at + old.length()), old));
+            cursor = at + old.length();
+        }
+        appendGap(result, content.substring(cursor), maxLength);
+        return result;
+    }
+
+    /**
+     * 生成一段文本的指纹（不含审核结论）。
+     */
+    public static SegmentFingerprint fingerprint(String text) {
+        return new SegmentFingerprint(text.length(), rollingHash(text, 0, text.length()), Sha256Utils.hex(text),
+                null, null, null);
+    }
+
+    private void appendGap(List<AlignedSegment> result, String gap, int maxLength) {
+        if (gap.isBlank()) {
+            return;
+        }
+        splitter.split(gap, maxLength).forEach(text -> result.add(new AlignedSegment(text, null)));
+    }
+
+    /**
+     * @return 旧段在 {@code from} 之后首次出现的位置，未找到返回 -1
+     */
+    private static int find(String content, int from, SegmentFingerprint old) {
+        int len = old.length();
+        if (len <= 0 || content.length() - from < len) {
+            return -1;
+        }
+        long power = 1;
+        for (int i = 1; i < len; i++) {
+            power *= BASE;
+        }
+        long hash = rollingHash(content, from, from + len);
+        for (int start = from; ; start++) {
+            if (hash == old.rollingHash()
+                    && Sha256Utils.hex(content.substring(start, start + len)).equals(old.sha256())) {
+                return start;
+            }
+            int next = start + len;
+            if (next >= content.length()) {
+                return -1;
+            }
+            hash = (hash - content.charAt(start) * power) * BASE + content.charAt(next);
+        }
+    }
+
+    /** 多项式滚动哈希，按 2^64 自然溢出取模。 */
+    private static long rollingHash(String text, int from, int to) {
+        long hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = hash * BASE + text.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * @param previous 与之对齐的旧段指纹；新增/修改的段为 null
+     */
+    public record AlignedSegment(String text, SegmentFingerprint previous) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.novel.ai.agent.chapter.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.ai.agent.chapter.ChapterAuditContext;
+import com.novel.ai.agent.support.AuditCategoryPromptResolver;
+import com.novel.ai.agent.support.AuditVerdictCache;
+import com.novel.ai.config.NovelAiAuditExecutionProperties;
+import com.novel.ai.prompt.NovelAiPromptKey;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.ai.util.Sha256Utils;
+import com.novel.book.dto.req.ChapterAuditReqDto;
+import com.novel.book.dto.resp.ChapterAuditRespDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.toolkit.trace.ActiveSpan;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 章节增量复审：保存每次审核的分段指纹与结论，下次同一章节（bookId + chapterNum）再审时
+ * 用 {@link ChapterSegmentAligner} 对齐新正文，原样保留且上次"通过"的段直接复用结论。
+ * <ul>
+ *     <li><b>审核画像</b>：快照带 prompt 场景、模板版本、模型标识（与 {@link AuditVerdictCache} 的 key 一致）
+ *         与类别附加规则的哈希，任一变化即不复用，整章重审；</li>
+ *     <li><b>只复用通过</b>：上次不通过/待审核的段即便未改动也重新送审；</li>
+ *     <li><b>存储</b>：Redis，key {@code novel:ai:audit:chapter-segments:{bookId}:{chapterNum}}，
+ *         只存指纹与结论，不存正文；读写失败降级为整章审核；</li>
+ *     <li><b>指标</b>：{@code novel.ai.audit.incremental.segments}（{@code result=reused|audited}）、
+ *         {@code novel.ai.audit.incremental.tokens.saved}（估算口径同 token 限流）。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ChapterSegmentHistory {
+
+    public static final String METRIC_SEGMENTS = "novel.ai.audit.incremental.segments";
+    public static final String METRIC_TOKENS_SAVED = "novel.ai.audit.incremental.tokens.saved";
+
+    static final String KEY_PREFIX = "novel:ai:audit:chapter-segments:";
+
+    private final ChapterSegmentAligner aligner;
+    private final NovelAiPromptLoader promptLoader;
+    private final AuditCategoryPromptResolver categoryPromptResolver;
+    private final AuditVerdictCache verdictCache;
+    private final NovelAiAuditExecutionProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ChapterSegmentHistory(ChapterSegmentAligner aligner,
+                                 NovelAiPromptLoader promptLoader,
+                                 AuditCategoryPromptResolver categoryPromptResolver,
+                                 AuditVerdictCache verdictCache,
+                                 NovelAiAuditExecutionProperties properties,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 ObjectMapper objectMapper,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.aligner = aligner;
+        this.promptLoader = promptLoader;
+        this.categoryPromptResolver = categoryPromptResolver;
+        this.verdictCache = verdictCache;
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * 切分正文并标出可复用结论的段：结果写入 {@code ctx.segments} 与 {@code ctx.reusedSegmentResults}。
+     * 未开启增量复审、无快照或审核画像不一致时等价于普通切分。
+     */
+    public void planSegments(ChapterAuditContext ctx, String content, int maxLength, boolean learning) {
+        ChapterAuditReqDto req = ctx.getRequest();
+        ctx.getReusedSegmentResults().clear();
+        if (!properties.isIncrementalReauditEnabled() || req.getBookId() == null || req.getChapterNum() == null) {
+            ctx.setSegments(aligner.align(content, null, maxLength).stream()
+                    .map(ChapterSegmentAligner.AlignedSegment::text).toList());
+            return;
+        }
+        String profile = profile(req, learning, maxLength);
+        ctx.setAuditProfile(profile);
+        Snapshot snapshot = load(req);
+        List<SegmentFingerprint> previous = snapshot != null && profile.equals(snapshot.profile())
+                ? snapshot.segments()
+                : null;
+
+        List<ChapterSegmentAligner.AlignedSegment> aligned = aligner.align(content, previous, maxLength);
+        List<String> segments = new ArrayList<>(aligned.size());
+        for (int i = 0; i < aligned.size(); i++) {
+            ChapterSegmentAligner.AlignedSegment segment = aligned.get(i);
+            segments.add(segment.text());
+            SegmentFingerprint old = segment.previous();
+            if (old != null && old.passed()) {
+                ctx.getReusedSegmentResults().put(i, ChapterAuditRespDto.builder()
+                        .bookId(req.getBookId())
+                        .chapterNum(req.getChapterNum())
+                        .auditStatus(old.auditStatus())
+                        .aiConfidence(old.aiConfidence())
+                        .auditReason(old.auditReason())
+                        .build());
+            }
+        }
+        ctx.setSegments(segments);
+    }
+
+    /**
+     * 审核完成后保存本次分段指纹与结论，并记录复用段数与估算节省的 token。
+     * 有段未审核（提前终止跳过）时不保存，避免下次把缺失结论当作基线。
+     */
+    public void recordAudited(ChapterAuditContext ctx, long tokensSaved) {
+        int reused = ctx.getReusedSegmentResults().size();
+        int audited = ctx.getSegments().size() - reused;
+        meterRegistry.counter(METRIC_SEGMENTS, "result", "reused").increment(reused);
+        meterRegistry.counter(METRIC_SEGMENTS, "result", "audited").increment(audited);
+        if (reused > 0) {
+            meterRegistry.counter(METRIC_TOKENS_SAVED).increment(tokensSaved);
+            ActiveSpan.tag("segments.reused", String.valueOf(reused));
+            ActiveSpan.tag("segments.reused.tokens.saved", String.valueOf(tokensSaved));
+            log.info("[ChapterSegmentHistory] 增量复审 bookId={} chapterNum={} 复用 {} 段、送审 {} 段，估算节省 {} tokens",
+                    ctx.getRequest().getBookId(), ctx.getRequest().getChapterNum(), reused, audited, tokensSaved);
+        }
+
+        if (ctx.getAuditProfile() == null || ctx.getSegmentResults().size() != ctx.getSegments().size()
+                || ctx.getSegmentResults().contains(null)) {
+            return;
+        }
+        List<SegmentFingerprint> fingerprints = new ArrayList<>(ctx.getSegments().size());
+        for (int i = 0; i < ctx.getSegments().size(); i++) {
+            ChapterAuditRespDto resp = ctx.getSegmentResults().get(i);
+            fingerprints.add(ChapterSegmentAligner.fingerprint(ctx.getSegments().get(i))
+                    .withVerdict(resp.getAuditStatus(), resp.getAiConfidence(), resp.getAuditReason()));
+        }
+        save(ctx.getRequest(), new Snapshot(ctx.getAuditProfile(), fingerprints));
+    }
+
+    private String profile(ChapterAuditReqDto req, boolean learning, int maxLength) {
+        NovelAiPromptKey key = learning ? NovelAiPromptKey.CHAPTER_AUDIT_LEARNING : NovelAiPromptKey.CHAPTER_AUDIT;
+        String categoryExtra = learning ? "" : categoryPromptResolver.resolveSystemExtra(req);
+        return key.name().toLowerCase() + ":" + promptLoader.version(key) + ":" + verdictCache.modelId() + ":"
+                + maxLength + ":" + Sha256Utils.shortHex(categoryExtra, 12);
+    }
+
+    private Snapshot load(ChapterAuditReqDto req) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key(req));
+            return json == null ? null : objectMapper.readValue(json, Snapshot.class);
+        } catch (Exception e) {
+            log.debug("[ChapterSegmentHistory] 读取分段快照失败，整章审核 bookId={} chapterNum={} error={}",
+                    req.getBookId(), req.getChapterNum(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(ChapterAuditReqDto req, Snapshot snapshot) {
+        try {
+            stringRedisTemplate.opsForValue().set(key(req), objectMapper.writeValueAsString(snapshot),
+                    Duration.ofDays(properties.getIncrementalSnapshotTtlDays()));
+        } catch (Exception e) {
+            log.debug("[ChapterSegmentHistory] 保存分段快照失败 bookId={} chapterNum={} error={}",
+                    req.getBookId(), req.getChapterNum(), e.getMessage());
+        }
+    }
+
+    private static String key(ChapterAuditReqDto req) {
+        return KEY_PREFIX + req.getBookId() + ":" + req.getChapterNum();
+    }
+
+    /**
+     * @param profile 审核画像：场景、模板版本、模型标识、分段长度与类别附加规则
+     */
+    record Snapshot(String profile, List<SegmentFingerprint> segments) {
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
  *     <li>置信度取各段均值；</li>
  *     <li>审核原因优先拼接不通过段 > 待审核段，超限截断，并在末尾补上通过段数。</li>
  * </ol>
+ * 列表中的 null 表示该段因其他段已确定不通过而未审核：不参与状态与置信度计算，只在原因末尾注明段数。
  */
 @Component
 public class ChapterSegmentMerger {
@@ -43,10 +44,15 @@ public class ChapterSegmentMerger {
         List<String> failedReasons = new ArrayList<>();
         List<String> pendingReasons = new ArrayList<>();
         int passedCount = 0;
+        int skippedCount = 0;
 
         for (int i = 0; i < segmentResults.size(); i++) {
             ChapterAuditRespDto segment = segmentResults.get(i);
             int segmentIndex = i + 1;
+            if (segment == null) {
+                skippedCount++;
+                continue;
+            }
 
             Integer status = segment.getAuditStatus();
             if (status != null) {
@@ -83,7 +89,7 @@ public class ChapterSegmentMerger {
                 : new BigDecimal("0.5");
 
         String mergedReason = buildMergedReason(
-                failedReasons, pendingReasons, passedCount, segmentResults.size(), overallStatus);
+                failedReasons, pendingReasons, passedCount, skippedCount, segmentResults.size(), overallStatus);
 
         return ChapterAuditRespDto.builder()
                 .bookId(bookId)
@@ -97,6 +103,7 @@ public class ChapterSegmentMerger {
     private String buildMergedReason(List<String> failedReasons,
                                      List<String> pendingReasons,
                                      int passedCount,
+                                     int skippedCount,
                                      int totalSegments,
                                      int overallStatus) {
         StringBuilder sb = new StringBuilder();
@@ -118,6 +125,12 @@ public class ChapterSegmentMerger {
                 sb.append(summary);
             }
         }
+        if (skippedCount > 0) {
+            String summary = String.format("（%d段未继续审核）", skippedCount);
+            if (sb.length() + summary.length() <= MAX_AUDIT_REASON_LENGTH - 10) {
+                sb.append(summary);
+            }
+        }
 
         String result = sb.toString().trim();
         if (result.endsWith("；")) {
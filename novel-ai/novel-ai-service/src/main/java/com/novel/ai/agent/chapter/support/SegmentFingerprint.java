@@ -0,0 +1,26 @@
+package com.novel.ai.agent.chapter.support;
+
+import java.math.BigDecimal;
+
+/**
+ * 单段正文指纹及其上次审核结论，供增量复审对齐与复用。
+ *
+ * @param length      段长度（字符数）
+ * @param rollingHash 滚动哈希，用于在新正文中快速定位候选窗口
+ * @param sha256      正文 SHA-256，确认候选窗口确实与旧段相同
+ */
+public record SegmentFingerprint(int length,
+                                 long rollingHash,
+                                 String sha256,
+                                 Integer auditStatus,
+                                 BigDecimal aiConfidence,
+                                 String auditReason) {
+
+    public SegmentFingerprint withVerdict(Integer auditStatus, BigDecimal aiConfidence, String auditReason) {
+        return new SegmentFingerprint(length, rollingHash, sha256, auditStatus, aiConfidence, auditReason);
+    }
+
+    public boolean passed() {
+        return Integer.valueOf(1).equals(auditStatus);
+    }
+}
@@ -0,0 +1,196 @@
+package com.novel.ai.agent.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.ai.config.NovelAiAuditCacheProperties;
+import com.novel.ai.model.AuditDecisionAiOutput;
+import com.novel.ai.prompt.NovelAiPromptKey;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.ai.ratelimit.AiTokenEstimator;
+import com.novel.ai.util.Sha256Utils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 审核结论缓存：作者重复提交正文未变的章节/书籍时，直接复用上次的结构化审核结论，不再调用模型。
+ * <ul>
+ *     <li><b>内容寻址</b>：key = 场景 + {@link NovelAiPromptLoader#version 模板版本} + 模型标识 +
+ *         规范化后的 system/user prompt 的 SHA-256。规范化做 NFKC 并折叠空白，只改排版的重复提交也能命中；
+ *         类别附加规则等拼进 prompt 的配置变化会直接体现在哈希里；</li>
+ *     <li><b>两级</b>：本地 Caffeine → Redis → 模型，Redis 命中回填本地；Redis 读写失败只降级为未命中；</li>
+ *     <li><b>只缓存确定结论</b>：仅 {@code auditStatus} 为 1/2 的结果入缓存，异常、待人审不缓存；</li>
+ *     <li><b>指标</b>：{@code novel.ai.audit.cache.requests}（{@code scene}、{@code tier=local|redis}、
+ *         {@code result=hit|miss}），{@code novel.ai.audit.cache.tokens.saved}（{@code scene}，
+ *         按 prompt + 结论文本估算，口径同 token 限流预估，不含 RAG 注入的判例）。</li>
+ * </ul>
+ * RAG 召回的判例不进入 key：判例库变化不会立即使旧结论失效，最长滞后一个 Redis TTL。
+ */
+@Slf4j
+@Component
+public class AuditVerdictCache {
+
+    public static final String METRIC_REQUESTS = "novel.ai.audit.cache.requests";
+    public static final String METRIC_TOKENS_SAVED = "novel.ai.audit.cache.tokens.saved";
+
+    static final String KEY_PREFIX = "novel:ai:audit:verdict:";
+
+    private static final String TIER_LOCAL = "local";
+    private static final String TIER_REDIS = "redis";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final NovelAiAuditCacheProperties properties;
+    private final NovelAiPromptLoader promptLoader;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ChatModel> chatModelProvider;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CachedVerdict> local;
+    private volatile String resolvedModelId;
+
+    public AuditVerdictCache(NovelAiAuditCacheProperties properties,
+                             NovelAiPromptLoader promptLoader,
+                             StringRedisTemplate stringRedisTemplate,
+                             ObjectMapper objectMapper,
+                             ObjectProvider<ChatModel> chatModelProvider,
+                             ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.properties = properties;
+        this.promptLoader = promptLoader;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.chatModelProvider = chatModelProvider;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofMinutes(properties.getLocalTtlMinutes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "auditVerdict");
+    }
+
+    /**
+     * 读取审核结论，未命中时调用 {@code loader}（通常是 {@code StructuredOutputInvoker#invoke}）并回填两级缓存。
+     * {@code loader} 抛出的异常原样透传。
+     */
+    public AuditDecisionAiOutput getOrLoad(NovelAiPromptKey promptKey,
+                                           String systemPrompt,
+                                           String userPrompt,
+                                           Supplier<AuditDecisionAiOutput> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        String scene = promptKey.name().toLowerCase();
+        String key = key(promptKey, systemPrompt, userPrompt);
+
+        CachedVerdict cached = local.getIfPresent(key);
+        record(scene, TIER_LOCAL, cached != null);
+        if (cached == null) {
+            cached = readRedis(key);
+            record(scene, TIER_REDIS, cached != null);
+            if (cached != null) {
+                local.put(key, cached);
+            }
+        }
+        if (cached != null) {
+            meterRegistry.counter(METRIC_TOKENS_SAVED, "scene", scene).increment(cached.estimatedTokens());
+            log.info("[AuditVerdictCache] 命中审核结论缓存，跳过模型调用 scene={} auditStatus={}",
+                    scene, cached.output().auditStatus());
+            return cached.output();
+        }
+
+        AuditDecisionAiOutput output = loader.get();
+        if (isCacheable(output)) {
+            long tokens = AiTokenEstimator.estimate(systemPrompt, 1.0)
+                    + AiTokenEstimator.estimate(userPrompt, 1.0)
+                    + AiTokenEstimator.estimate(String.valueOf(output.auditReason()), 1.0);
+            CachedVerdict fresh = new CachedVerdict(output, tokens);
+            local.put(key, fresh);
+            writeRedis(key, fresh);
+        }
+        return output;
+    }
+
+    String key(NovelAiPromptKey promptKey, String systemPrompt, String userPrompt) {
+        return KEY_PREFIX + promptKey.name().toLowerCase()
+                + ":" + promptLoader.version(promptKey)
+                + ":" + modelId()
+                + ":" + Sha256Utils.hex(normalize(systemPrompt) + "\u0000" + normalize(userPrompt));
+    }
+
+    /**
+     * NFKC（全角/半角、兼容字符归一）后把连续空白折叠为一个空格并去掉首尾空白。
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String nfkc = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(nfkc).replaceAll(" ").trim();
+    }
+
+    private static boolean isCacheable(AuditDecisionAiOutput output) {
+        return output != null
+                && output.auditStatus() != null
+                && (output.auditStatus() == 1 || output.auditStatus() == 2);
+    }
+
+    /**
+     * 审核所用模型标识：优先取配置，未配置时取 {@link ChatModel} 默认选项中的模型名，首次解析后固定。
+     * 分段快照的审核画像也用它，保证换模型后两处同时失效。
+     */
+    public String modelId() {
+        String modelId = resolvedModelId;
+        if (modelId == null) {
+            modelId = properties.getModelId();
+            if (modelId == null || modelId.isBlank()) {
+                ChatModel chatModel = chatModelProvider.getIfUnique();
+                ChatOptions options = chatModel != null ? chatModel.getDefaultOptions() : null;
+                modelId = options != null && options.getModel() != null ? options.getModel() : "default";
+            }
+            resolvedModelId = modelId;
+        }
+        return modelId;
+    }
+
+    private CachedVerdict readRedis(String key) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            return json == null ? null : objectMapper.readValue(json, CachedVerdict.class);
+        } catch (Exception e) {
+            log.debug("[AuditVerdictCache] 读取 Redis 失败，按未命中处理 key={} error={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, CachedVerdict verdict) {
+        try {
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(verdict),
+                    Duration.ofHours(properties.getRedisTtlHours()));
+        } catch (Exception e) {
+            log.debug("[AuditVerdictCache] 写入 Redis 失败 key={} error={}", key, e.getMessage());
+        }
+    }
+
+    private void record(String scene, String tier, boolean hit) {
+        meterRegistry.counter(METRIC_REQUESTS, "scene", scene, "tier", tier, "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+    /**
+     * @param estimatedTokens 该结论对应一次模型调用的估算 token 数，命中时计入"节省"
+     */
+    record CachedVerdict(AuditDecisionAiOutput output, long estimatedTokens) {
+    }
+}
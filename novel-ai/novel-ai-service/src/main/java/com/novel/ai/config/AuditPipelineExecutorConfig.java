@@ -16,7 +16,8 @@ import java.util.concurrent.Semaphore;
  * {@code spring.threads.virtual.enabled=false}）。见 {@link com.novel.ai.service.impl.TextServiceImpl#runAuditPipeline}。
  * <p>
  * 审核并发上限见 {@link NovelAiAuditExecutionProperties#getMaxConcurrent()} 与
- * {@link #auditConcurrencySemaphore(NovelAiAuditExecutionProperties)}。
+ * {@link #auditConcurrencySemaphore(NovelAiAuditExecutionProperties)}；章节分段并行审核同样跑在该执行器上，
+ * 全局在途分段数见 {@link #auditSegmentSemaphore(NovelAiAuditExecutionProperties)}。
  */
 @Configuration
 @EnableConfigurationProperties(NovelAiAuditExecutionProperties.class)
@@ -26,6 +27,8 @@ public class AuditPipelineExecutorConfig {
 
     public static final String AUDIT_CONCURRENCY_SEMAPHORE = "auditConcurrencySemaphore";
 
+    public static final String AUDIT_SEGMENT_SEMAPHORE = "auditSegmentSemaphore";
+
     /**
      * 限制同时进入 {@code AuditPipeline.execute} 的任务数；与虚拟线程执行器叠加使用：
      * 先 {@link Semaphore#acquire()}，再 {@code runAsync(...).join()}，最后在 {@code finally} 中 {@code release()}。
@@ -39,6 +42,18 @@ public class AuditPipelineExecutorConfig {
         return new Semaphore(permits);
     }
 
+    /**
+     * 限制全实例同时在途的分段模型调用数，由 {@code ChapterSegmentAuditStep} 在每段调用前后获取/释放。
+     */
+    @Bean(name = AUDIT_SEGMENT_SEMAPHORE)
+    public Semaphore auditSegmentSemaphore(NovelAiAuditExecutionProperties properties) {
+        int permits = properties.getMaxConcurrentSegments();
+        if (permits <= 0) {
+            return new Semaphore(Integer.MAX_VALUE);
+        }
+        return new Semaphore(permits);
+    }
+
     @Bean(name = AUDIT_PIPELINE_EXECUTOR, destroyMethod = "shutdown")
     @ConditionalOnProperty(prefix = "novel.ai.audit", name = "virtual-thread-execution", havingValue = "true", matchIfMissing = true)
     public ExecutorService auditPipelineVirtualExecutor() {
@@ -0,0 +1,75 @@
+package com.novel.ai.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 审核结论缓存配置，见 {@link com.novel.ai.agent.support.AuditVerdictCache}。
+ */
+@ConfigurationProperties(prefix = "novel.ai.audit-cache")
+public class NovelAiAuditCacheProperties {
+
+    /**
+     * 是否启用审核结论缓存；关闭后每次审核都调用模型。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地 Caffeine 最大条目数。
+     */
+    private long localMaxSize = 10_000;
+
+    /**
+     * 本地缓存写入后存活时间（分钟）。
+     */
+    private long localTtlMinutes = 30;
+
+    /**
+     * Redis 缓存存活时间（小时）。判例库会持续沉淀，TTL 同时限定了"结论未参考新判例"的最长时间。
+     */
+    private long redisTtlHours = 72;
+
+    /**
+     * 参与缓存 key 的模型标识；为空时取 ChatModel 默认选项中的模型名。切换模型后旧结论自然不再命中。
+     */
+    private String modelId = "";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getLocalMaxSize() {
+        return localMaxSize;
+    }
+
+    public void setLocalMaxSize(long localMaxSize) {
+        this.localMaxSize = localMaxSize;
+    }
+
+    public long getLocalTtlMinutes() {
+        return localTtlMinutes;
+    }
+
+    public void setLocalTtlMinutes(long localTtlMinutes) {
+        this.localTtlMinutes = localTtlMinutes;
+    }
+
+    public long getRedisTtlHours() {
+        return redisTtlHours;
+    }
+
+    public void setRedisTtlHours(long redisTtlHours) {
+        this.redisTtlHours = redisTtlHours;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public void setModelId(String modelId) {
+        this.modelId = modelId;
+    }
+}
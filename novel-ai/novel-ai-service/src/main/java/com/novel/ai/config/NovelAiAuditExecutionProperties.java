@@ -20,6 +20,33 @@ public class NovelAiAuditExecutionProperties {
      */
     private int maxConcurrent = 16;
 
+    /**
+     * 单章分段审核的并行度：同一章最多同时有几段在调用模型。≤1 表示逐段串行（改造前的行为）。
+     */
+    private int segmentConcurrency = 4;
+
+    /**
+     * 全实例内同时在途的分段模型调用上限（所有章节共用），防止长章节集中涌入时把 token 预算一次性预扣光。
+     * ≤0 表示不限制。
+     */
+    private int maxConcurrentSegments = 32;
+
+    /**
+     * 某段判定"不通过"且置信度不低于该值时视为确定性拒绝：整章结论已定，取消尚未完成的其余段。
+     * 大于 1 表示关闭提前终止。
+     */
+    private double segmentEarlyRejectConfidence = 0.9;
+
+    /**
+     * 章节增量复审：保存每段指纹与结论，同一章节再次送审时只审新增/修改的段，原样保留且上次通过的段复用结论。
+     */
+    private boolean incrementalReauditEnabled = true;
+
+    /**
+     * 章节分段快照在 Redis 中的保留天数。
+     */
+    private long incrementalSnapshotTtlDays = 30;
+
     public boolean isVirtualThreadExecution() {
         return virtualThreadExecution;
     }
@@ -35,4 +62,44 @@ public class NovelAiAuditExecutionProperties {
     public void setMaxConcurrent(int maxConcurrent) {
         this.maxConcurrent = maxConcurrent;
     }
+
+    public int getSegmentConcurrency() {
+        return segmentConcurrency;
+    }
+
+    public void setSegmentConcurrency(int segmentConcurrency) {
+        this.segmentConcurrency = segmentConcurrency;
+    }
+
+    public int getMaxConcurrentSegments() {
+        return maxConcurrentSegments;
+    }
+
+    public void setMaxConcurrentSegments(int maxConcurrentSegments) {
+        this.maxConcurrentSegments = maxConcurrentSegments;
+    }
+
+    public double getSegmentEarlyRejectConfidence() {
+        return segmentEarlyRejectConfidence;
+    }
+
+    public void setSegmentEarlyRejectConfidence(double segmentEarlyRejectConfidence) {
+        this.segmentEarlyRejectConfidence = segmentEarlyRejectConfidence;
+    }
+
+    public boolean isIncrementalReauditEnabled() {
+        return incrementalReauditEnabled;
+    }
+
+    public void setIncrementalReauditEnabled(boolean incrementalReauditEnabled) {
+        this.incrementalReauditEnabled = incrementalReauditEnabled;
+    }
+
+    public long getIncrementalSnapshotTtlDays() {
+        return incrementalSnapshotTtlDays;
+    }
+
+    public void setIncrementalSnapshotTtlDays(long incrementalSnapshotTtlDays) {
+        this.incrementalSnapshotTtlDays = incrementalSnapshotTtlDays;
+    }
 }
@@ -1,6 +1,7 @@
 package com.novel.ai.config;
 
 import com.novel.ai.rag.AuditExperienceDocumentRetriever;
+import com.novel.ai.rag.AuditExperienceVectorSearcher;
 import com.novel.ai.rag.NovelAiRagProperties;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
@@ -67,8 +68,8 @@ public class RagAdvisorConfig {
 
     @Bean
     public AuditExperienceDocumentRetriever auditExperienceDocumentRetriever(
-            VectorStore vectorStore, NovelAiRagProperties properties) {
-        return new AuditExperienceDocumentRetriever(vectorStore, properties);
+            AuditExperienceVectorSearcher searcher, NovelAiRagProperties properties) {
+        return new AuditExperienceDocumentRetriever(searcher, properties);
     }
 
     @Bean
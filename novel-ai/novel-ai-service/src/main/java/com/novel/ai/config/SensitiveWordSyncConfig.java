@@ -0,0 +1,29 @@
+package com.novel.ai.config;
+
+import com.novel.ai.sensitive.SensitiveWordDictionaryService;
+import com.novel.ai.sensitive.SensitiveWordDictionaryStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 订阅敏感词词表的版本变更通知（{@link SensitiveWordDictionaryStore#CHANNEL}），收到即投递一次后台同步。
+ * 消息只作为「该检查了」的信号，版本以 Redis 中的值为准；订阅断开期间由轮询兜底。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "novel.ai.sensitive-filter", name = "sync-enabled", havingValue = "true", matchIfMissing = true)
+public class SensitiveWordSyncConfig {
+
+    @Bean
+    public RedisMessageListenerContainer sensitiveWordDictListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          SensitiveWordDictionaryService dictionaryService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> dictionaryService.requestSync("pubsub"),
+                new ChannelTopic(SensitiveWordDictionaryStore.CHANNEL));
+        return container;
+    }
+}
@@ -3,14 +3,18 @@ package com.novel.ai.controller.inner;
 import com.novel.ai.dto.req.AuditExperienceUpsertReqDto;
 import com.novel.ai.dto.req.AuditRuleReqDto;
 import com.novel.ai.dto.req.CoverImageAsyncSubmitReqDto;
+import com.novel.ai.dto.req.SensitiveWordUpdateReqDto;
 import com.novel.ai.dto.resp.AuditExperienceUpsertRespDto;
 import com.novel.ai.dto.resp.AuditRuleRespDto;
 import com.novel.ai.dto.resp.ImageGenJobStatusRespDto;
 import com.novel.ai.dto.resp.ImageGenJobSubmitRespDto;
+import com.novel.ai.dto.resp.SensitiveWordUpdateRespDto;
 import com.novel.ai.image.job.ImageAsyncGenerationService;
 import com.novel.ai.ratelimit.AiRateLimitScene;
 import com.novel.ai.ratelimit.annotation.AiRateLimit;
 import com.novel.ai.rag.AuditExperienceIndexer;
+import com.novel.ai.sensitive.SensitiveWordDictionaryService;
+import com.novel.ai.sensitive.SensitiveWordDictionaryStore;
 import com.novel.book.dto.req.BookAuditReqDto;
 import com.novel.book.dto.req.BookCoverReqDto;
 import com.novel.book.dto.req.ChapterAuditReqDto;
@@ -19,6 +23,7 @@ import com.novel.book.dto.resp.ChapterAuditRespDto;
 import com.novel.ai.service.ImageGenerationGate;
 import com.novel.ai.service.TextService;
 import com.novel.common.constant.ApiRouterConsts;
+import com.novel.common.constant.ErrorCodeEnum;
 import com.novel.common.resp.RestResp;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -46,6 +51,7 @@ public class InnerAiController {
     private final ImageGenerationGate imageGenerationGate;
     private final ImageAsyncGenerationService imageAsyncGenerationService;
     private final AuditExperienceIndexer auditExperienceIndexer;
+    private final SensitiveWordDictionaryService sensitiveWordDictionaryService;
 
     /**
      * 审核书籍内容
@@ -155,6 +161,26 @@ public class InnerAiController {
                 result.getAccepted(),
                 result.getSkipped(),
                 result.getFailed(),
-                dryRun));
+                dryRun,
+                result.getFailedAuditIds()));
+    }
+
+    /**
+     * 增删敏感词。词表存于 Redis 并带版本号，写入后各节点经 pub/sub（兜底轮询）在后台切换到新版本，
+     * 无需重新发布服务或逐台刷新配置。
+     */
+    @Operation(summary = "敏感词词表增删（集群同步）")
+    @PostMapping("/sensitive-words/update")
+    public RestResp<SensitiveWordUpdateRespDto> updateSensitiveWords(@RequestBody SensitiveWordUpdateReqDto req) {
+        try {
+            SensitiveWordDictionaryStore.UpdateResult result =
+                    sensitiveWordDictionaryService.update(req.getAdded(), req.getRemoved());
+            return RestResp.ok(new SensitiveWordUpdateRespDto(
+                    result.version(), result.added(), result.removed(), result.size()));
+        } catch (IllegalArgumentException e) {
+            return RestResp.fail(ErrorCodeEnum.USER_REQUEST_PARAM_ERROR, e.getMessage());
+        } catch (IllegalStateException e) {
+            return RestResp.fail(ErrorCodeEnum.SYSTEM_ERROR, e.getMessage());
+        }
     }
 }
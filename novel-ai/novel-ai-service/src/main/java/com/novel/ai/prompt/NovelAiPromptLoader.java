@@ -1,5 +1,6 @@
 package com.novel.ai.prompt;
 
+import com.novel.ai.util.Sha256Utils;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.prompt.PromptTemplate;
@@ -18,6 +19,8 @@ import java.util.Map;
  * - 启动阶段一次性读取 {@code resources/prompts/*.st}，在内存中构造 {@link PromptTemplate} 并缓存。
  * - 对外只暴露 system / user 两类模板的获取方法，业务层通过 {@link NovelAiPromptKey} 选择场景。
  * - 后续若需要支持动态热更新（例如从 Nacos 拉取 prompt），只需改造本类的加载入口即可，业务层不感知。
+ * - 每个场景按模板原文计算 {@link #version(NovelAiPromptKey) 版本号}，模板内容一变版本即变，
+ *   依赖它的缓存（如审核结论缓存）无需手工失效。
  */
 @Slf4j
 @Component
@@ -27,6 +30,7 @@ public class NovelAiPromptLoader {
 
     private final Map<NovelAiPromptKey, PromptTemplate> systemTemplates = new EnumMap<>(NovelAiPromptKey.class);
     private final Map<NovelAiPromptKey, PromptTemplate> userTemplates = new EnumMap<>(NovelAiPromptKey.class);
+    private final Map<NovelAiPromptKey, String> versions = new EnumMap<>(NovelAiPromptKey.class);
 
     public NovelAiPromptLoader(ResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
@@ -35,9 +39,12 @@ public class NovelAiPromptLoader {
     @PostConstruct
     public void init() {
         for (NovelAiPromptKey key : NovelAiPromptKey.values()) {
-            PromptTemplate system = loadTemplate(key.systemPath());
+            String systemSource = loadSource(key.systemPath());
+            String userSource = loadSource(key.userPath());
+            PromptTemplate system = new PromptTemplate(systemSource);
             systemTemplates.put(key, system);
-            userTemplates.put(key, loadTemplate(key.userPath()));
+            userTemplates.put(key, new PromptTemplate(userSource));
+            versions.put(key, Sha256Utils.shortHex(systemSource + "\u0000" + userSource, 12));
             // 启动自检：system 模板都是无变量的静态 prompt，立即 render 一次，
             // 任何 `{...}` 被 ST 误当表达式解析的情况都会在启动阶段暴露，而不是等到线上请求。
             try {
@@ -62,6 +69,17 @@ public class NovelAiPromptLoader {
         return template;
     }
 
+    /**
+     * 场景模板版本号：system + user 模板原文的 SHA-256 前 12 位十六进制。
+     */
+    public String version(NovelAiPromptKey key) {
+        String version = versions.get(key);
+        if (version == null) {
+            throw new IllegalStateException("prompt version not initialized for key: " + key);
+        }
+        return version;
+    }
+
     /**
      * 获取 user 提示词模板。
      */
@@ -94,14 +112,13 @@ public class NovelAiPromptLoader {
         return user(key).render(variables);
     }
 
-    private PromptTemplate loadTemplate(String location) {
+    private String loadSource(String location) {
         Resource resource = resourceLoader.getResource(location);
         if (!resource.exists()) {
             throw new IllegalStateException("prompt resource not found: " + location);
         }
         try {
-            String content = resource.getContentAsString(StandardCharsets.UTF_8);
-            return new PromptTemplate(content);
+            return resource.getContentAsString(StandardCharsets.UTF_8);
         } catch (IOException e) {
             throw new IllegalStateException("failed to load prompt resource: " + location, e);
         }
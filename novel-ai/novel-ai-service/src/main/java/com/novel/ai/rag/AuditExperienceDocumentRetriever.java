@@ -4,7 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
-import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 
 import java.util.Collections;
@@ -17,9 +17,10 @@ import java.util.List;
  * <ol>
  *     <li><b>Spring AI 一级抽象</b>：实现 {@link DocumentRetriever} 后可以直接挂到
  *         {@code RetrievalAugmentationAdvisor}，不再需要业务侧手写"拼 prompt 上下文"的胶水；</li>
- *     <li><b>本地向量库</b>：直接注入 {@link VectorStore}（配置里已绑定 novel-ai-service
+ *     <li><b>本地向量库</b>：对接 {@link VectorStore}（配置里已绑定 novel-ai-service
  *         专属的 {@code novel_ai_audit_experiences} ES 索引），彻底断开对 novel-search-service
- *         的 Feign 反向依赖；</li>
+ *         的 Feign 反向依赖；检索经 {@link AuditExperienceVectorSearcher}，ES 慢或不可用时由
+ *         本地 HNSW 副本兜底返回；</li>
  *     <li><b>失败降级</b>：检索过程中任何 {@link RuntimeException}（ES 瞬断 / embedding 超时 / 网络异常）
  *         都会被吞掉并返回 {@link Collections#emptyList()}——RAG 只是 prompt 的增强信号，
  *         "召不到"绝不能把主审核流程带挂；</li>
@@ -37,14 +38,12 @@ import java.util.List;
 @Slf4j
 public class AuditExperienceDocumentRetriever implements DocumentRetriever {
 
-    private final VectorStoreDocumentRetriever delegate;
+    private final AuditExperienceVectorSearcher searcher;
+    private final NovelAiRagProperties properties;
 
-    public AuditExperienceDocumentRetriever(VectorStore vectorStore, NovelAiRagProperties properties) {
-        this.delegate = VectorStoreDocumentRetriever.builder()
-                .vectorStore(vectorStore)
-                .topK(properties.getTopK())
-                .similarityThreshold(properties.getSimilarityThreshold())
-                .build();
+    public AuditExperienceDocumentRetriever(AuditExperienceVectorSearcher searcher, NovelAiRagProperties properties) {
+        this.searcher = searcher;
+        this.properties = properties;
     }
 
     @Override
@@ -53,7 +52,11 @@ public class AuditExperienceDocumentRetriever implements DocumentRetriever {
             return Collections.emptyList();
         }
         try {
-            List<Document> docs = delegate.retrieve(query);
+            List<Document> docs = searcher.search(SearchRequest.builder()
+                    .query(query.text())
+                    .topK(properties.getTopK())
+                    .similarityThreshold(properties.getSimilarityThreshold())
+                    .build(), null);
             if (log.isDebugEnabled()) {
                 log.debug("[AuditExperienceRetriever] query.len={}, hits={}",
                         query.text().length(), docs == null ? 0 : docs.size());
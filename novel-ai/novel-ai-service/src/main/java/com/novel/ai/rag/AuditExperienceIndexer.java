@@ -26,7 +26,10 @@ import java.util.Map;
  *         Spring AI {@code ElasticsearchVectorStore} 底层走 ES {@code _doc} 的 index 语义（即 upsert），
  *         所以重复执行 {@link #upsert(List, boolean)} 不会产生脏数据，只会重新 embedding。</li>
  *     <li><b>写失败不阻塞</b>：Indexer 把单次 {@code vectorStore.add} 失败吞掉并计入失败计数，
- *         不抛给调用方——在线路径上入库失败绝不能影响主审核流程。</li>
+ *         不抛给调用方——在线路径上入库失败绝不能影响主审核流程；整批失败时逐条重试，
+ *         只把真正失败的 auditId 返回给调用方（全量导入据此只重推失败记录）。</li>
+ *     <li><b>本地副本跟随</b>：写入成功后通知 {@link LocalAuditExperienceIndex} 回读同批文档，
+ *         ES 故障时本地兜底检索也能看到最新判例。</li>
  * </ol>
  * <p>
  * 向量化的 {@code content} 拼接策略：
@@ -46,9 +49,11 @@ public class AuditExperienceIndexer {
     private static final int DEFAULT_BATCH_SIZE = 20;
 
     private final VectorStore vectorStore;
+    private final LocalAuditExperienceIndex localIndex;
 
-    public AuditExperienceIndexer(VectorStore vectorStore) {
+    public AuditExperienceIndexer(VectorStore vectorStore, LocalAuditExperienceIndex localIndex) {
         this.vectorStore = vectorStore;
+        this.localIndex = localIndex;
     }
 
     /**
@@ -90,15 +95,43 @@ public class AuditExperienceIndexer {
             log.info("[AuditExperienceIndexer] dryRun=true，本批拟入库 {} 条（未实际写入）", buffer.size());
             return;
         }
+        List<Document> written;
         try {
             vectorStore.add(buffer);
             result.accepted += buffer.size();
+            written = buffer;
             log.info("[AuditExperienceIndexer] 向量库写入成功: {} 条", buffer.size());
         } catch (RuntimeException e) {
-            result.failed += buffer.size();
-            log.error("[AuditExperienceIndexer] 向量库批量写入失败: batch={}, error={}",
-                    buffer.size(), e.getMessage(), e);
+            log.warn("[AuditExperienceIndexer] 向量库批量写入失败，逐条重试定位失败记录: batch={}, error={}",
+                    buffer.size(), e.getMessage());
+            written = addOneByOne(buffer, result);
         }
+        if (!written.isEmpty()) {
+            // 同步本地兜底索引：向量只在 ES 侧生成，按 ID 回读，不重复调用 embedding 模型
+            localIndex.refreshFromStore(written.stream().map(Document::getId).toList());
+        }
+    }
+
+    /**
+     * 整批失败时逐条写入：一条坏数据（超长、非法字符等）不拖累同批其他判例
+     *
+     * @return 写入成功的文档
+     */
+    private List<Document> addOneByOne(List<Document> buffer, IndexResult result) {
+        List<Document> written = new ArrayList<>(buffer.size());
+        for (Document doc : buffer) {
+            try {
+                vectorStore.add(List.of(doc));
+                result.accepted++;
+                written.add(doc);
+            } catch (RuntimeException e) {
+                result.failed++;
+                result.failedAuditIds.add(Long.valueOf(doc.getId()));
+                log.error("[AuditExperienceIndexer] 判例写入失败: auditId={}, error={}",
+                        doc.getId(), e.getMessage(), e);
+            }
+        }
+        return written;
     }
 
     /**
@@ -212,11 +245,13 @@ public class AuditExperienceIndexer {
         public int accepted;
         public int skipped;
         public int failed;
+        public final List<Long> failedAuditIds = new ArrayList<>();
 
         public int getTotalScanned() { return totalScanned; }
         public int getAccepted() { return accepted; }
         public int getSkipped() { return skipped; }
         public int getFailed() { return failed; }
+        public List<Long> getFailedAuditIds() { return failedAuditIds; }
 
         public IndexResult merge(IndexResult other) {
             if (other == null) {
@@ -226,6 +261,7 @@ public class AuditExperienceIndexer {
             this.accepted += other.accepted;
             this.skipped += other.skipped;
             this.failed += other.failed;
+            this.failedAuditIds.addAll(other.failedAuditIds);
             return this;
         }
 
@@ -0,0 +1,132 @@
+package com.novel.ai.rag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * 审核经验判例的统一检索入口：优先走 ES 向量库，ES 超出延迟预算或报错时改由
+ * {@link LocalAuditExperienceIndex} 本地返回。
+ * <p>
+ * 策略：
+ * <ol>
+ *     <li><b>延迟预算</b>：ES 检索在虚拟线程里执行，等待 {@code esBudgetMillis} 仍未返回即放弃等待（并中断），
+ *         同一请求改走本地；</li>
+ *     <li><b>熔断窗口</b>：一次超时/报错后 {@code cooldownMillis} 内的请求直接走本地，
+ *         避免每个请求都先白等一个预算；窗口结束后的第一个请求重新探测 ES；</li>
+ *     <li><b>过滤语义</b>：调用方同时给出 ES 的 {@code filterExpression} 与等价的本地元数据谓词，
+ *         两条路径的召回口径一致；</li>
+ *     <li><b>未就绪直连</b>：兜底关闭或本地索引未预热完成时行为与改造前一致，直接调用 {@link VectorStore}。</li>
+ * </ol>
+ * 本地路径仍需调用 embedding 模型生成查询向量，因此只能兜住"ES 慢/挂"，兜不住"embedding 模型慢/挂"。
+ * <p>
+ * 指标：{@code novel.ai.rag.retrieval}（{@code source=es|local}，{@code result=success|timeout|error}）、
+ * {@code novel.ai.rag.retrieval.latency}（{@code source=es|local}）。
+ */
+@Slf4j
+@Component
+public class AuditExperienceVectorSearcher {
+
+    private static final String METRIC_RETRIEVAL = "novel.ai.rag.retrieval";
+
+    private final VectorStore vectorStore;
+    private final EmbeddingModel embeddingModel;
+    private final LocalAuditExperienceIndex localIndex;
+    private final NovelAiRagFallbackProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer esTimer;
+    private final Timer localTimer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long cooldownUntil;
+
+    public AuditExperienceVectorSearcher(VectorStore vectorStore,
+                                         EmbeddingModel embeddingModel,
+                                         LocalAuditExperienceIndex localIndex,
+                                         NovelAiRagFallbackProperties properties,
+                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.localIndex = localIndex;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.esTimer = latencyTimer("es");
+        this.localTimer = latencyTimer("local");
+    }
+
+    /**
+     * @param localFilter 与 {@code request.filterExpression} 等价的本地元数据谓词；无过滤时传 null
+     */
+    public List<Document> search(SearchRequest request, Predicate<Map<String, Object>> localFilter) {
+        if (!properties.isEnabled() || !localIndex.isReady()) {
+            return vectorStore.similaritySearch(request);
+        }
+        if (System.currentTimeMillis() < cooldownUntil) {
+            return searchLocal(request, localFilter);
+        }
+        long start = System.nanoTime();
+        Future<List<Document>> future = executor.submit(() -> vectorStore.similaritySearch(request));
+        try {
+            List<Document> docs = future.get(properties.getEsBudgetMillis(), TimeUnit.MILLISECONDS);
+            esTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter(METRIC_RETRIEVAL, "source", "es", "result", "success").increment();
+            return docs;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            openCooldown("timeout", "超出 " + properties.getEsBudgetMillis() + "ms 预算");
+        } catch (ExecutionException e) {
+            openCooldown("error", String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return List.of();
+        }
+        return searchLocal(request, localFilter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<Document> searchLocal(SearchRequest request, Predicate<Map<String, Object>> localFilter) {
+        long start = System.nanoTime();
+        float[] query = embeddingModel.embed(request.getQuery());
+        List<Document> docs = localIndex.search(query, request.getTopK(), request.getSimilarityThreshold(), localFilter);
+        localTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter(METRIC_RETRIEVAL, "source", "local", "result", "success").increment();
+        return docs;
+    }
+
+    private void openCooldown(String result, String reason) {
+        meterRegistry.counter(METRIC_RETRIEVAL, "source", "es", "result", result).increment();
+        cooldownUntil = System.currentTimeMillis() + properties.getCooldownMillis();
+        log.warn("[AuditExperienceVectorSearcher] ES 判例检索{}，{}ms 内改走本地索引: {}",
+                result, properties.getCooldownMillis(), reason);
+    }
+
+    private Timer latencyTimer(String source) {
+        return Timer.builder(METRIC_RETRIEVAL + ".latency")
+                .description("Audit experience vector retrieval latency by serving source")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,429 @@
+package com.novel.ai.rag;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.novel.ai.rag.ann.HnswIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * 审核经验判例库的进程内副本：整库向量常驻内存，用 {@link HnswIndex} 做近似检索，
+ * 供 {@link AuditExperienceVectorSearcher} 在 ES 慢或不可用时兜底。
+ * <p>
+ * 数据来源与一致性：
+ * <ol>
+ *     <li><b>启动预热</b>：应用就绪后在虚拟线程里用 PIT + search_after 分页读出 ES 索引中的
+ *         {@code content/metadata/embedding}，不重新调用 embedding 模型；</li>
+ *     <li><b>增量跟随</b>：{@link AuditExperienceIndexer} 每批写入 ES 成功后调用 {@link #refreshFromStore}，
+ *         按 ID 从 ES mget 回向量（mget 为实时读，无需等待 refresh）覆盖本地条目；</li>
+ *     <li><b>离锁重建</b>：预热与墓碑过多时的重建都在锁外建图，建图期间到达的增量先记入 pending，
+ *         切换前在写锁内重放，检索不会被长时间阻塞；</li>
+ *     <li><b>尽力而为</b>：本地副本只用于降级，预热失败或 ES 中没有向量时保持未就绪，
+ *         调用方照常走 ES。</li>
+ * </ol>
+ * 指标：{@code novel.ai.rag.local.size}（本地有效判例数）、{@code novel.ai.rag.local.ready}（0/1）。
+ */
+@Slf4j
+@Component
+public class LocalAuditExperienceIndex {
+
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_METADATA = "metadata";
+    private static final String PIT_KEEP_ALIVE = "1m";
+
+    private final VectorStore vectorStore;
+    private final NovelAiRagFallbackProperties properties;
+    private final String indexName;
+    private final String embeddingField;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean building = new AtomicBoolean();
+    /** 以下字段只在持有 {@link #lock} 时访问；graph 为 null 表示尚未完成首次预热 */
+    private Graph graph;
+    /** 非 null 表示正在离锁建图，期间的增量同时记入此处，切换前重放 */
+    private List<Entry> pending;
+
+    public LocalAuditExperienceIndex(VectorStore vectorStore,
+                                     NovelAiRagFallbackProperties properties,
+                                     @Value("${spring.ai.vectorstore.elasticsearch.index-name:novel_ai_audit_experiences}")
+                                     String indexName,
+                                     @Value("${spring.ai.vectorstore.elasticsearch.embedding-field-name:embedding}")
+                                     String embeddingField,
+                                     ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.vectorStore = vectorStore;
+        this.properties = properties;
+        this.indexName = indexName;
+        this.embeddingField = embeddingField;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("novel.ai.rag.local.size", this, LocalAuditExperienceIndex::size)
+                .description("Live audit experiences held by the in-process fallback index")
+                .register(meterRegistry);
+        Gauge.builder("novel.ai.rag.local.ready", this, index -> index.isReady() ? 1 : 0)
+                .description("Whether the in-process fallback index has finished warming up")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (nativeClient().isEmpty()) {
+            log.warn("[LocalAuditExperienceIndex] 当前 VectorStore 不是 Elasticsearch，本地兜底索引不预热");
+            return;
+        }
+        rebuildAsync("warmup", this::loadFromStore);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return graph != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return graph == null ? 0 : graph.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按 ID 从 ES 读回最新文档（含向量）并覆盖本地条目；ES 中已不存在的 ID 从本地删除。
+     * 失败只打日志——下次预热/重建时会自然修正。
+     */
+    public void refreshFromStore(Collection<String> ids) {
+        if (!properties.isEnabled() || ids == null || ids.isEmpty()) {
+            return;
+        }
+        Optional<ElasticsearchClient> client = nativeClient();
+        if (client.isEmpty()) {
+            return;
+        }
+        List<Entry> upserts = new ArrayList<>(ids.size());
+        Set<String> removed = new HashSet<>(ids);
+        try {
+            MgetResponse<Map> response = client.get().mget(m -> m
+                    .index(indexName)
+                    .ids(new ArrayList<>(ids)), Map.class);
+            for (MultiGetResponseItem<Map> item : response.docs()) {
+                if (!item.isResult() || !item.result().found()) {
+                    continue;
+                }
+                Entry entry = toEntry(item.result().id(), item.result().source());
+                if (entry != null) {
+                    upserts.add(entry);
+                    removed.remove(entry.id());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[LocalAuditExperienceIndex] 增量回读失败，本地副本暂不更新: ids={}, error={}",
+                    ids.size(), e.getMessage());
+            return;
+        }
+        apply(upserts, removed);
+    }
+
+    /**
+     * 本地近似检索，语义与 ES 向量检索一致：{@code score} 为余弦相似度，
+     * {@code metadata.distance = 1 - score}，低于阈值的结果丢弃。
+     *
+     * @param filter 元数据过滤条件，可为 null；过滤过严导致 HNSW 凑不满 topK 时退化为精确扫描
+     */
+    public List<Document> search(float[] query, int topK, double threshold, Predicate<Map<String, Object>> filter) {
+        lock.readLock().lock();
+        try {
+            if (graph == null || graph.index == null || query.length != graph.index.dimension()) {
+                return List.of();
+            }
+            IntPredicate accept = filter == null ? null : node -> filter.test(graph.entries.get(node).metadata());
+            List<HnswIndex.Neighbor> neighbors = graph.index.search(query, topK,
+                    Math.max(properties.getHnswEfSearch(), topK), accept);
+            if (accept != null && neighbors.size() < topK) {
+                neighbors = graph.index.exactSearch(query, topK, accept);
+            }
+            List<Document> docs = new ArrayList<>(neighbors.size());
+            for (HnswIndex.Neighbor neighbor : neighbors) {
+                if (neighbor.score() < threshold) {
+                    continue;
+                }
+                Entry entry = graph.entries.get(neighbor.node());
+                Map<String, Object> metadata = new HashMap<>(entry.metadata());
+                metadata.put(DocumentMetadata.DISTANCE.value(), 1 - neighbor.score());
+                docs.add(Document.builder()
+                        .id(entry.id())
+                        .text(entry.content())
+                        .metadata(metadata)
+                        .score((double) neighbor.score())
+                        .build());
+            }
+            return docs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(List<Entry> upserts, Set<String> removed) {
+        boolean rebuild;
+        lock.writeLock().lock();
+        try {
+            if (graph != null) {
+                removed.forEach(graph::remove);
+                upserts.forEach(graph::put);
+            }
+            if (pending != null) {
+                removed.forEach(id -> pending.add(Entry.tombstone(id)));
+                pending.addAll(upserts);
+            }
+            rebuild = graph != null && graph.deletedRatio() > properties.getRebuildDeletedRatio();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuild) {
+            rebuildAsync("compact", this::snapshotLiveEntries);
+        }
+    }
+
+    /**
+     * 在虚拟线程里离锁建图，建好后在写锁内重放 pending 并切换。同一时刻只有一个建图任务。
+     */
+    private void rebuildAsync(String reason, Callable<List<Entry>> loader) {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("audit-experience-ann-" + reason).start(() -> {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                Graph fresh = newGraph();
+                loader.call().forEach(fresh::put);
+                int replayed;
+                lock.writeLock().lock();
+                try {
+                    replayed = pending.size();
+                    pending.forEach(entry -> {
+                        if (entry.vector() == null) {
+                            fresh.remove(entry.id());
+                        } else {
+                            fresh.put(entry);
+                        }
+                    });
+                    graph = fresh;
+                } finally {
+                    pending = null;
+                    lock.writeLock().unlock();
+                }
+                log.info("[LocalAuditExperienceIndex] 本地索引{}完成: size={}, replayed={}, cost={}ms",
+                        reason, fresh.liveCount(), replayed, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.warn("[LocalAuditExperienceIndex] 本地索引{}失败，检索继续只走 ES: {}", reason, e.getMessage(), e);
+            } finally {
+                building.set(false);
+            }
+        });
+    }
+
+    private List<Entry> snapshotLiveEntries() {
+        lock.readLock().lock();
+        try {
+            return graph == null ? List.of() : graph.liveEntries();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * PIT + search_after 按 {@code _shard_doc} 顺序分页读出整个索引，最多 {@code maxDocuments} 条
+     */
+    private List<Entry> loadFromStore() throws Exception {
+        ElasticsearchClient client = nativeClient().orElseThrow();
+        String pitId = client.openPointInTime(p -> p
+                .index(indexName)
+                .keepAlive(t -> t.time(PIT_KEEP_ALIVE))).id();
+        List<Entry> entries = new ArrayList<>();
+        try {
+            List<FieldValue> searchAfter = null;
+            int pageSize = Math.max(1, properties.getWarmupPageSize());
+            while (entries.size() < properties.getMaxDocuments()) {
+                List<FieldValue> after = searchAfter;
+                SearchResponse<Map> response = client.search(s -> {
+                    s.pit(p -> p.id(pitId).keepAlive(t -> t.time(PIT_KEEP_ALIVE)))
+                            .size(pageSize)
+                            .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)));
+                    if (after != null) {
+                        s.searchAfter(after);
+                    }
+                    return s;
+                }, Map.class);
+                List<Hit<Map>> hits = response.hits().hits();
+                for (Hit<Map> hit : hits) {
+                    Entry entry = toEntry(hit.id(), hit.source());
+                    if (entry != null && entries.size() < properties.getMaxDocuments()) {
+                        entries.add(entry);
+                    }
+                }
+                if (hits.size() < pageSize) {
+                    break;
+                }
+                searchAfter = hits.getLast().sort();
+            }
+        } finally {
+            try {
+                client.closePointInTime(c -> c.id(pitId));
+            } catch (Exception e) {
+                log.debug("[LocalAuditExperienceIndex] 关闭 PIT 失败，等待其自然过期: {}", e.getMessage());
+            }
+        }
+        if (entries.size() >= properties.getMaxDocuments()) {
+            log.warn("[LocalAuditExperienceIndex] 判例数达到本地上限 {}，超出部分不进入本地索引",
+                    properties.getMaxDocuments());
+        }
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry toEntry(String id, Map source) {
+        if (id == null || source == null || !(source.get(embeddingField) instanceof List<?> raw) || raw.isEmpty()) {
+            return null;
+        }
+        float[] vector = new float[raw.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = ((Number) raw.get(i)).floatValue();
+        }
+        Object metadata = source.get(FIELD_METADATA);
+        return new Entry(id,
+                source.get(FIELD_CONTENT) == null ? "" : source.get(FIELD_CONTENT).toString(),
+                metadata instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of(),
+                vector);
+    }
+
+    private Optional<ElasticsearchClient> nativeClient() {
+        return vectorStore.getNativeClient();
+    }
+
+    private Graph newGraph() {
+        return new Graph(properties.getHnswM(), properties.getHnswEfConstruction(), properties.getMaxDocuments());
+    }
+
+    /**
+     * @param vector 进入图后置 null；在 pending 中为 null 时表示删除标记
+     */
+    private record Entry(String id, String content, Map<String, Object> metadata, float[] vector) {
+        static Entry tombstone(String id) {
+            return new Entry(id, null, null, null);
+        }
+    }
+
+    /**
+     * HNSW 图 + 节点到判例的映射。节点被覆盖/删除后在图里留墓碑，entries 对应位置置 null 释放正文。
+     * 非线程安全，由外层锁保护；离锁建图时只有建图线程持有引用。
+     */
+    private static final class Graph {
+        private final int m;
+        private final int efConstruction;
+        private final int maxDocuments;
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<String, Integer> nodes = new HashMap<>();
+        /** 首条向量到达时按其维度创建 */
+        private HnswIndex index;
+
+        private Graph(int m, int efConstruction, int maxDocuments) {
+            this.m = m;
+            this.efConstruction = efConstruction;
+            this.maxDocuments = maxDocuments;
+        }
+
+        void put(Entry entry) {
+            if (index == null) {
+                index = new HnswIndex(entry.vector().length, m, efConstruction, 42L);
+            }
+            if (entry.vector().length != index.dimension()) {
+                log.warn("[LocalAuditExperienceIndex] 向量维度不一致，跳过: id={}, dim={}, expected={}",
+                        entry.id(), entry.vector().length, index.dimension());
+                return;
+            }
+            Integer old = nodes.get(entry.id());
+            if (old == null && nodes.size() >= maxDocuments) {
+                return;
+            }
+            if (old != null) {
+                index.markDeleted(old);
+                entries.set(old, null);
+            }
+            int node = index.add(entry.vector());
+            // 向量只在图里保留一份（归一化后），条目本身不再持有
+            entries.add(new Entry(entry.id(), entry.content(), entry.metadata(), null));
+            nodes.put(entry.id(), node);
+        }
+
+        void remove(String id) {
+            Integer old = nodes.remove(id);
+            if (old != null) {
+                index.markDeleted(old);
+                entries.set(old, null);
+            }
+        }
+
+        int liveCount() {
+            return nodes.size();
+        }
+
+        double deletedRatio() {
+            return index == null || index.size() == 0 ? 0 : (double) index.deletedCount() / index.size();
+        }
+
+        List<Entry> liveEntries() {
+            List<Entry> live = new ArrayList<>(nodes.size());
+            nodes.values().forEach(node -> {
+                Entry entry = entries.get(node);
+                live.add(new Entry(entry.id(), entry.content(), entry.metadata(), index.vector(node).clone()));
+            });
+            return live;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.novel.ai.rag;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 审核经验判例库"本地兜底索引"的可调参数，见 {@link LocalAuditExperienceIndex} 与
+ * {@link AuditExperienceVectorSearcher}。
+ * <p>
+ * 判例库体量小（万级），整库向量常驻内存代价可控；ES 慢或不可用时由本地 HNSW 索引接管检索，
+ * 避免 RAG 在故障期间静默退化为空召回。
+ */
+@Data
+@ConfigurationProperties(prefix = "novel.ai.rag.fallback")
+public class NovelAiRagFallbackProperties {
+
+    /**
+     * 是否启用本地兜底索引。关闭时不预热、不占内存，检索直接走 ES（失败时仍按原逻辑空召回）。
+     */
+    private boolean enabled = true;
+
+    /**
+     * ES 检索的延迟预算（毫秒，含 query embedding）。超时即改由本地索引返回结果。
+     */
+    private long esBudgetMillis = 800;
+
+    /**
+     * ES 超时或报错后的熔断窗口（毫秒）：窗口内的检索直接走本地，不再等待 ES。
+     */
+    private long cooldownMillis = 30_000;
+
+    /**
+     * 本地索引最多装载的判例数，超出部分不再预热（防止判例库意外膨胀把堆撑爆）。
+     */
+    private int maxDocuments = 200_000;
+
+    /**
+     * 预热时每页从 ES 拉取的文档数。
+     */
+    private int warmupPageSize = 500;
+
+    /**
+     * HNSW 每层邻居数 M（第 0 层为 2M）。
+     */
+    private int hnswM = 16;
+
+    /**
+     * HNSW 建图候选队列长度。
+     */
+    private int hnswEfConstruction = 200;
+
+    /**
+     * HNSW 查询候选队列长度，越大召回越高；实际取 {@code max(efSearch, topK)}。
+     */
+    private int hnswEfSearch = 64;
+
+    /**
+     * 墓碑（被覆盖/删除的节点）占比超过该值时后台重建本地索引。
+     */
+    private double rebuildDeletedRatio = 0.3;
+}
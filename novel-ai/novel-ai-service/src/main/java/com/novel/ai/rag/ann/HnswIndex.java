@@ -0,0 +1,359 @@
+package com.novel.ai.rag.ann;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * 内存 HNSW（Hierarchical Navigable Small World）近邻索引，相似度为余弦。
+ * <p>
+ * 实现要点：
+ * <ol>
+ *     <li><b>归一化入库</b>：向量写入时归一化，查询时只算点积，点积即余弦相似度；</li>
+ *     <li><b>启发式选邻</b>：候选按相似度从高到低，只保留"离查询点比离已选邻居更近"的点，
+ *         不足 M 个再用被剪掉的候选补齐，避免邻居扎堆在同一簇里导致跨簇召回变差；</li>
+ *     <li><b>墓碑删除</b>：删除只打标记，节点仍参与路由但不进入结果；墓碑比例过高时由调用方整体重建；</li>
+ *     <li><b>并发约定</b>：写入（{@link #add}/{@link #markDeleted}）必须由调用方串行化，
+ *         查询可与查询并发，但不能与写入并发——调用方用读写锁保护。</li>
+ * </ol>
+ * 节点 ID 为写入顺序的连续整数，由调用方维护业务 ID 与节点 ID 的映射。
+ */
+public final class HnswIndex {
+
+    private static final Comparator<Neighbor> BY_SCORE_ASC = Comparator.comparingDouble(Neighbor::score);
+    private static final Comparator<Neighbor> BY_SCORE_DESC = BY_SCORE_ASC.reversed();
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private float[][] vectors;
+    /** links[node][level] = 邻居数组，下标 0 存邻居个数 */
+    private int[][][] links;
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param m              每层邻居数上限（第 0 层为 2M）
+     * @param efConstruction 建图时的候选队列长度，越大图质量越高、写入越慢
+     */
+    public HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        if (dimension <= 0 || m < 2 || efConstruction < m) {
+            throw new IllegalArgumentException("invalid hnsw params: dimension=" + dimension
+                    + ", m=" + m + ", efConstruction=" + efConstruction);
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        this.vectors = new float[16][];
+        this.links = new int[16][][];
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /** 已写入节点数（含墓碑） */
+    public int size() {
+        return size;
+    }
+
+    public int deletedCount() {
+        return deletedCount;
+    }
+
+    public boolean isDeleted(int node) {
+        return deleted.get(node);
+    }
+
+    /** 返回归一化后的向量（调用方不得修改） */
+    public float[] vector(int node) {
+        return vectors[node];
+    }
+
+    /**
+     * 写入一个向量
+     *
+     * @return 节点 ID
+     */
+    public int add(float[] vector) {
+        float[] v = normalize(vector);
+        int node = size;
+        ensureCapacity(node + 1);
+        int level = randomLevel();
+        vectors[node] = v;
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[maxConnections(l) + 1];
+        }
+        links[node] = nodeLinks;
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(v, ep, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Neighbor> candidates = searchLayer(v, ep, efConstruction, l, null);
+            List<Neighbor> selected = selectNeighbors(candidates, maxConnections(l));
+            int[] own = nodeLinks[l];
+            for (Neighbor n : selected) {
+                own[++own[0]] = n.node();
+            }
+            for (Neighbor n : selected) {
+                connect(n.node(), node, l);
+            }
+            ep = candidates.getFirst().node();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    public void markDeleted(int node) {
+        if (node >= 0 && node < size && !deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * 近似 Top-K 检索
+     *
+     * @param ef     查询候选队列长度（≥k），越大召回越高、越慢
+     * @param accept 额外过滤条件，可为 null；墓碑节点总是被排除
+     * @return 按相似度降序
+     */
+    public List<Neighbor> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        float[] q = normalize(query);
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedyClosest(q, ep, l);
+        }
+        IntPredicate filter = accept == null ? node -> !deleted.get(node) : node -> !deleted.get(node) && accept.test(node);
+        List<Neighbor> result = searchLayer(q, ep, Math.max(ef, k), 0, filter);
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    /**
+     * 精确 Top-K（暴力扫描），用于过滤条件极严时的兜底与召回率基线
+     */
+    public List<Neighbor> exactSearch(float[] query, int k, IntPredicate accept) {
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] q = normalize(query);
+        PriorityQueue<Neighbor> top = new PriorityQueue<>(k + 1, BY_SCORE_ASC);
+        for (int node = 0; node < size; node++) {
+            if (deleted.get(node) || (accept != null && !accept.test(node))) {
+                continue;
+            }
+            float score = dot(q, vectors[node]);
+            if (top.size() < k) {
+                top.add(new Neighbor(node, score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Neighbor(node, score));
+            }
+        }
+        List<Neighbor> result = new ArrayList<>(top);
+        result.sort(BY_SCORE_DESC);
+        return result;
+    }
+
+    /**
+     * 单层 best-first 搜索。{@code accept} 为 null 时所有节点都可进入结果（建图用），
+     * 否则不满足条件的节点只用于路由。
+     *
+     * @return 按相似度降序，最多 ef 个
+     */
+    private List<Neighbor> searchLayer(float[] q, int ep, int ef, int level, IntPredicate accept) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Neighbor> candidates = new PriorityQueue<>(BY_SCORE_DESC);
+        PriorityQueue<Neighbor> results = new PriorityQueue<>(ef + 1, BY_SCORE_ASC);
+
+        Neighbor start = new Neighbor(ep, dot(q, vectors[ep]));
+        visited.set(ep);
+        candidates.add(start);
+        if (accept == null || accept.test(ep)) {
+            results.add(start);
+        }
+        while (!candidates.isEmpty()) {
+            Neighbor current = candidates.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+            int[] neighbors = links[current.node()][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int next = neighbors[i];
+                if (visited.get(next)) {
+                    continue;
+                }
+                visited.set(next);
+                float score = dot(q, vectors[next]);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Neighbor n = new Neighbor(next, score);
+                    candidates.add(n);
+                    if (accept == null || accept.test(next)) {
+                        results.add(n);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Neighbor> sorted = new ArrayList<>(results);
+        sorted.sort(BY_SCORE_DESC);
+        return sorted;
+    }
+
+    private int greedyClosest(float[] q, int ep, int level) {
+        int current = ep;
+        float best = dot(q, vectors[current]);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[current][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                float score = dot(q, vectors[neighbors[i]]);
+                if (score > best) {
+                    best = score;
+                    current = neighbors[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 启发式选邻（HNSW 论文 Algorithm 4，keepPrunedConnections=true）
+     *
+     * @param candidates 按相似度降序
+     */
+    private List<Neighbor> selectNeighbors(List<Neighbor> candidates, int max) {
+        List<Neighbor> selected = new ArrayList<>(max);
+        List<Neighbor> pruned = new ArrayList<>();
+        for (Neighbor c : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            boolean diverse = true;
+            for (Neighbor s : selected) {
+                if (dot(vectors[c.node()], vectors[s.node()]) > c.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(c);
+            } else {
+                pruned.add(c);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    /**
+     * 在 {@code node} 的第 {@code level} 层加入反向边，超出上限时按启发式重新选邻
+     */
+    private void connect(int node, int newNeighbor, int level) {
+        int[] current = links[node][level];
+        int max = maxConnections(level);
+        if (current[0] < max) {
+            current[++current[0]] = newNeighbor;
+            return;
+        }
+        float[] base = vectors[node];
+        List<Neighbor> candidates = new ArrayList<>(current[0] + 1);
+        for (int i = 1; i <= current[0]; i++) {
+            candidates.add(new Neighbor(current[i], dot(base, vectors[current[i]])));
+        }
+        candidates.add(new Neighbor(newNeighbor, dot(base, vectors[newNeighbor])));
+        candidates.sort(BY_SCORE_DESC);
+        List<Neighbor> selected = selectNeighbors(candidates, max);
+        current[0] = 0;
+        for (Neighbor n : selected) {
+            current[++current[0]] = n.node();
+        }
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(r) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > vectors.length) {
+            int newCapacity = Math.max(capacity, vectors.length * 2);
+            vectors = Arrays.copyOf(vectors, newCapacity);
+            links = Arrays.copyOf(links, newCapacity);
+        }
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("vector dimension " + vector.length + " != " + dimension);
+        }
+        double norm = 0;
+        for (float x : vector) {
+            norm += x * x;
+        }
+        float[] v = new float[dimension];
+        if (norm == 0) {
+            return v;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < dimension; i++) {
+            v[i] = vector[i] * inv;
+        }
+        return v;
+    }
+
+    static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @param score 余弦相似度
+     */
+    public record Neighbor(int node, float score) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.novel.ai.ratelimit;
+
+/**
+ * 按字符粗估 token 数：非 ASCII（中文等）约 0.7 token/字，ASCII 约 4 字符/token。
+ * <p>
+ * 限流预扣与"缓存命中省下的 token"统计共用同一口径，两处数字可直接对比。
+ */
+public final class AiTokenEstimator {
+
+    private AiTokenEstimator() {
+    }
+
+    /**
+     * @param safetyFactor 放大系数，小于 1 按 1 处理
+     * @return 至少为 1
+     */
+    public static int estimate(CharSequence text, double safetyFactor) {
+        if (text == null || text.isEmpty()) {
+            return 1;
+        }
+        int ascii = 0;
+        int nonAscii = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) <= 127) {
+                ascii++;
+            } else {
+                nonAscii++;
+            }
+        }
+        double raw = nonAscii * 0.7 + ascii / 4.0;
+        return Math.max(1, (int) Math.ceil(raw * Math.max(1.0, safetyFactor)));
+    }
+}
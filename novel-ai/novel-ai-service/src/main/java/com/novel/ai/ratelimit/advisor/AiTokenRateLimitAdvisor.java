@@ -1,6 +1,7 @@
 package com.novel.ai.ratelimit.advisor;
 
 import com.novel.ai.ratelimit.AiTokenBucketRateLimiter;
+import com.novel.ai.ratelimit.AiTokenEstimator;
 import com.novel.ai.ratelimit.AiTokenRateLimitContext;
 import com.novel.ai.ratelimit.AiTokenUsageLogService;
 import com.novel.ai.ratelimit.config.AiTokenRateLimitProperties;
@@ -129,18 +130,7 @@ public class AiTokenRateLimitAdvisor implements CallAdvisor, StreamAdvisor {
         if (text == null || text.isBlank()) {
             return 1;
         }
-        int ascii = 0;
-        int nonAscii = 0;
-        for (int i = 0; i < text.length(); i++) {
-            if (text.charAt(i) <= 127) {
-                ascii++;
-            } else {
-                nonAscii++;
-            }
-        }
-        double raw = nonAscii * 0.7 + ascii / 4.0;
-        double factor = Math.max(1.0, properties.getEstimateSafetyFactor());
-        return Math.max(1, (int) Math.ceil(raw * factor));
+        return AiTokenEstimator.estimate(text, properties.getEstimateSafetyFactor());
     }
 
     private int resolveCompletionReserve(ChatClientRequest request, String scene, int promptTokens) {
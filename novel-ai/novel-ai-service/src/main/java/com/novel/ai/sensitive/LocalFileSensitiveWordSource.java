@@ -12,7 +12,9 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 从本地资源文件加载敏感词。约定：
@@ -22,6 +24,8 @@ import java.util.List;
  *     <li>空行忽略；</li>
  *     <li>文件不存在时返回空集合，并打 warn 日志——服务照常启动，视同过滤器禁用。</li>
  * </ul>
+ * 异体字映射文件（{@code variant-mapping-path}）同样一行一组，取行首、行尾两个字符作为「源字 → 目标字」，
+ * 中间可有空白；不是恰好两个 BMP 字符的行跳过。
  */
 @Slf4j
 @Component
@@ -56,4 +60,40 @@ public class LocalFileSensitiveWordSource implements SensitiveWordSource {
         }
         return words;
     }
+
+    @Override
+    public Map<Character, Character> loadVariants() {
+        String path = properties.getVariantMappingPath();
+        if (path == null || path.isBlank()) {
+            return Map.of();
+        }
+        Resource resource = resourceLoader.getResource(path);
+        if (!resource.exists()) {
+            log.warn("[SensitiveWord] 异体字映射资源不存在 path={}，不做异体字折叠", path);
+            return Map.of();
+        }
+        Map<Character, Character> variants = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String compact = line.replaceAll("\\s+", "");
+                if (compact.isEmpty() || compact.startsWith("#")) {
+                    continue;
+                }
+                if (compact.length() != 2 || Character.isSurrogate(compact.charAt(0))
+                        || Character.isSurrogate(compact.charAt(1))) {
+                    skipped++;
+                    continue;
+                }
+                variants.put(compact.charAt(0), compact.charAt(1));
+            }
+        } catch (IOException e) {
+            log.error("[SensitiveWord] 读取异体字映射失败 path={}，不做异体字折叠", path, e);
+            return Map.of();
+        }
+        log.info("[SensitiveWord] 异体字映射加载完成 path={}，条目数={}，跳过={}", path, variants.size(), skipped);
+        return variants;
+    }
 }
@@ -0,0 +1,78 @@
+package com.novel.ai.sensitive;
+
+import java.util.Map;
+
+/**
+ * 敏感词匹配用的逐字符折叠表：把 BMP 内每个 {@code char} 预先映射为「全角→半角 → 异体字→目标字 → 小写」后的结果，
+ * 扫描时每个字符只做一次数组下标访问。
+ *
+ * <p>约束：折叠严格一对一（一个 {@code char} 折成一个 {@code char}），因此命中区间与原文下标天然对齐，
+ * 不需要像 {@link String#toLowerCase()} 那样复制全文、再把长度可能变化的结果映射回原文。
+ * 代理对（增补平面字符）原样参与匹配，不做折叠。</p>
+ */
+final class SensitiveCharFolder {
+
+    private static final SensitiveCharFolder IDENTITY = new SensitiveCharFolder(null);
+
+    /** null 表示恒等折叠 */
+    private final char[] table;
+
+    private SensitiveCharFolder(char[] table) {
+        this.table = table;
+    }
+
+    /**
+     * @param variants 异体字映射（如繁→简），key/value 为代理区字符的条目会被忽略
+     */
+    static SensitiveCharFolder of(boolean ignoreCase, boolean foldWidth, Map<Character, Character> variants) {
+        if (!ignoreCase && !foldWidth && variants.isEmpty()) {
+            return IDENTITY;
+        }
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            char c = (char) i;
+            if (Character.isSurrogate(c)) {
+                table[i] = c;
+                continue;
+            }
+            if (foldWidth) {
+                c = toHalfWidth(c);
+            }
+            Character variant = variants.get(c);
+            if (variant != null && !Character.isSurrogate(variant)) {
+                c = variant;
+            }
+            if (ignoreCase) {
+                c = Character.toLowerCase(c);
+            }
+            table[i] = c;
+        }
+        return new SensitiveCharFolder(table);
+    }
+
+    char fold(char c) {
+        return table == null ? c : table[c];
+    }
+
+    /** 构建词典时对词条做同样的折叠；仅在 refresh 时调用。 */
+    String foldWord(String word) {
+        if (table == null) {
+            return word;
+        }
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = table[chars[i]];
+        }
+        return new String(chars);
+    }
+
+    private static char toHalfWidth(char c) {
+        if (c == '　') {
+            return ' ';
+        }
+        if (c >= '！' && c <= '～') {
+            return (char) (c - 0xFEE0);
+        }
+        return c;
+    }
+}
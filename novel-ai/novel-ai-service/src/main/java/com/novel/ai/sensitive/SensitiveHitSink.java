@@ -0,0 +1,14 @@
+package com.novel.ai.sensitive;
+
+/**
+ * 敏感词命中回调。{@code begin}/{@code end} 为命中在<b>原文</b>中的下标区间 [begin, end)，
+ * 流式扫描时从流的起点开始计数；{@code word} 为词典中（折叠后）的词条本身，不会为每次命中新建字符串。
+ */
+@FunctionalInterface
+public interface SensitiveHitSink {
+
+    /**
+     * @return false 立即中止扫描
+     */
+    boolean hit(int begin, int end, String word);
+}
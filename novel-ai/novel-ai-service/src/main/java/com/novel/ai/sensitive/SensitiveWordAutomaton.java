@@ -0,0 +1,194 @@
+package com.novel.ai.sensitive;
+
+import com.hankcs.algorithm.AhoCorasickDoubleArrayTrie;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 在双数组 AC 自动机上逐字符折叠、逐字符转移的扫描器：
+ * <ul>
+ *     <li>每个字符先经 {@link SensitiveCharFolder} 查表折叠再转移，不复制、不改写原文；</li>
+ *     <li>自动机状态只是一个 int，{@link Reader} 可分块读入，跨块的词照常命中；</li>
+ *     <li>命中以 (begin, end, 词条) 回调给 {@link SensitiveHitSink}，扫描过程本身不分配对象。</li>
+ * </ul>
+ * 构建后只读，可被多线程并发扫描。自动机数组可用 {@link #writeTo}/{@link #readFrom} 原样导出、导入，
+ * 导入不需要重新构建（见 {@link SensitiveWordDictionary} 快照）。
+ */
+final class SensitiveWordAutomaton extends AhoCorasickDoubleArrayTrie<String> {
+
+    private static final int READ_CHUNK = 4096;
+
+    private final SensitiveCharFolder folder;
+
+    private SensitiveWordAutomaton(SensitiveCharFolder folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @param foldedWords 已经过 {@code folder} 折叠、去重的非空词条
+     */
+    static SensitiveWordAutomaton build(Collection<String> foldedWords, SensitiveCharFolder folder) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String word : foldedWords) {
+            map.put(word, word);
+        }
+        SensitiveWordAutomaton automaton = new SensitiveWordAutomaton(folder);
+        automaton.build(map);
+        return automaton;
+    }
+
+    /**
+     * 按顺序写出 base/check/fail/output/l/v。不用父类的 {@code save}（Java 序列化），
+     * 读回时只接受这几个定长数组，不存在反序列化任意对象的问题。
+     */
+    void writeTo(DataOutput out) throws IOException {
+        writeInts(out, base);
+        writeInts(out, check);
+        writeInts(out, fail);
+        out.writeInt(output.length);
+        for (int[] hits : output) {
+            if (hits == null) {
+                out.writeInt(-1);
+            } else {
+                writeInts(out, hits);
+            }
+        }
+        writeInts(out, l);
+        int words = size();
+        out.writeInt(words);
+        for (int i = 0; i < words; i++) {
+            out.writeUTF(get(i));
+        }
+    }
+
+    static SensitiveWordAutomaton readFrom(DataInput in, SensitiveCharFolder folder) throws IOException {
+        SensitiveWordAutomaton automaton = new SensitiveWordAutomaton(folder);
+        automaton.base = readInts(in);
+        automaton.check = readInts(in);
+        automaton.fail = readInts(in);
+        int[][] output = new int[in.readInt()][];
+        for (int i = 0; i < output.length; i++) {
+            int length = in.readInt();
+            output[i] = length < 0 ? null : readInts(in, length);
+        }
+        automaton.output = output;
+        automaton.l = readInts(in);
+        String[] words = new String[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readUTF();
+        }
+        automaton.v = words;
+        return automaton;
+    }
+
+    /** 自动机数组与词条的粗略堆占用（按 64 位压缩指针估算），用于日志与基准。 */
+    long estimatedBytes() {
+        long bytes = intArrayBytes(base) + intArrayBytes(check) + intArrayBytes(fail) + intArrayBytes(l);
+        bytes += 16L + 4L * output.length;
+        for (int[] hits : output) {
+            if (hits != null) {
+                bytes += intArrayBytes(hits);
+            }
+        }
+        int words = size();
+        bytes += 16L + 4L * words;
+        for (int i = 0; i < words; i++) {
+            bytes += 40L + 2L * get(i).length();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 扫描到文本末尾返回 true；被 sink 中止返回 false
+     */
+    boolean scan(CharSequence text, SensitiveHitSink sink) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = next(state, folder.fold(text.charAt(i)));
+            if (output[state] != null && !emit(state, i + 1, sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按 {@value #READ_CHUNK} 字符分块读取并扫描；不关闭 reader。
+     *
+     * @return 读到流末尾返回 true；被 sink 中止返回 false
+     */
+    boolean scan(Reader reader, SensitiveHitSink sink) throws IOException {
+        char[] buffer = new char[READ_CHUNK];
+        int state = 0;
+        int offset = 0;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                state = next(state, folder.fold(buffer[i]));
+                if (output[state] != null && !emit(state, offset + i + 1, sink)) {
+                    return false;
+                }
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    /** 与父类 getState 相同的失败转移（父类未对子类开放）；{@code c} 须已折叠。 */
+    int next(int state, char c) {
+        int nextState = transitionWithRoot(state, c);
+        while (nextState == -1) {
+            state = fail[state];
+            nextState = transitionWithRoot(state, c);
+        }
+        return nextState;
+    }
+
+    /**
+     * 依次回调 {@code state} 上结束于 {@code end} 的命中；该状态无命中时直接返回 true。
+     *
+     * @return 被 sink 中止返回 false
+     */
+    boolean emit(int state, int end, SensitiveHitSink sink) {
+        int[] hits = output[state];
+        if (hits == null) {
+            return true;
+        }
+        for (int hit : hits) {
+            // 父类的 v 运行时是 Object[]，经 get 取元素，避免按 String[] 整体强转
+            if (!sink.hit(end - l[hit], end, get(hit))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInput in) throws IOException {
+        return readInts(in, in.readInt());
+    }
+
+    private static int[] readInts(DataInput in, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static long intArrayBytes(int[] values) {
+        return 16L + 4L * values.length;
+    }
+}
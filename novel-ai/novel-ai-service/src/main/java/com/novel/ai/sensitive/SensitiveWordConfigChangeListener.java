@@ -12,7 +12,8 @@ import org.springframework.stereotype.Component;
  * Nacos / Spring Cloud 刷新环境后，{@link SensitiveWordMatcher} 仅在启动时 {@link jakarta.annotation.PostConstruct}
  * 加载过一次；若不重载，会出现「控制台里 enabled 已改但运行期仍走 AI」的假象。
  * <p>
- * 在 {@code novel.ai.sensitive-filter.*} 变更时重建 AC 自动机。
+ * 在 {@code novel.ai.sensitive-filter.*} 变更时交给 {@link SensitiveWordDictionaryService} 在后台重建 AC 自动机并切换，
+ * 不占用配置刷新线程。
  */
 @Slf4j
 @Component
@@ -22,7 +23,7 @@ public class SensitiveWordConfigChangeListener {
 
     private static final String PREFIX = "novel.ai.sensitive-filter";
 
-    private final SensitiveWordMatcher sensitiveWordMatcher;
+    private final SensitiveWordDictionaryService dictionaryService;
 
     @EventListener
     public void onEnvironmentChange(EnvironmentChangeEvent event) {
@@ -39,7 +40,7 @@ public class SensitiveWordConfigChangeListener {
         if (!hit) {
             return;
         }
-        log.info("[SensitiveWord] 检测到配置变更 keys={}，重新加载词典", event.getKeys());
-        sensitiveWordMatcher.refresh();
+        log.info("[SensitiveWord] 检测到配置变更 keys={}，后台重新加载词典", event.getKeys());
+        dictionaryService.requestReload("config");
     }
 }
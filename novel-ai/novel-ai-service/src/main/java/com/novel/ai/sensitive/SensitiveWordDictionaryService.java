@@ -0,0 +1,378 @@
+package com.novel.ai.sensitive;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 敏感词词典的集群同步与后台切换。
+ * <p>
+ * 流程（全部在单个后台线程里串行执行，请求线程与配置刷新线程只负责投递）：
+ * <ol>
+ *     <li><b>感知</b>：{@link SensitiveWordDictionaryStore#CHANNEL} 的 pub/sub 消息、每 {@code sync-poll-seconds}
+ *         一次的版本轮询、本地配置变更都会投递一次同步，未执行的多次投递合并为一次；</li>
+ *     <li><b>种子</b>：Redis 中还没有词表时，用本地 {@link SensitiveWordSource} 的词表初始化为版本 1；</li>
+ *     <li><b>优先加载快照</b>：Redis 中已有「版本 + profile」的预构建快照就直接读回，不构建；</li>
+ *     <li><b>单点构建</b>：没有快照时，先把本地词表补到该版本（落后不多只补增量，否则全量拉取），
+ *         抢到构建锁的节点构建并上传快照（构建期间续期，完成后释放），其他节点在锁存续期间一直等待快照；
+ *         锁消失仍无快照（持锁节点宕机）时，由再次抢到锁的节点接手构建；快照超限时持锁节点只写超限标记，
+ *         其他节点看到标记即不再等锁，各自并行构建；</li>
+ *     <li><b>原子切换</b>：构建/加载完成后一次性替换 {@link SensitiveWordMatcher} 持有的词典，扫描不加锁、不等待。</li>
+ * </ol>
+ * Redis 不可用时保留当前词典（启动时即本地词表），下一次轮询再试；关闭时被中断的同步直接退出，不计为失败。
+ * <p>
+ * 指标：{@code novel.ai.sensitive.dict.install}（{@code source=snapshot|build|local}），
+ * {@code novel.ai.sensitive.dict.sync}（{@code result=success|error}），
+ * {@code novel.ai.sensitive.dict.version}、{@code novel.ai.sensitive.dict.words}。
+ */
+@Slf4j
+@Component
+public class SensitiveWordDictionaryService {
+
+    private static final long SNAPSHOT_POLL_MILLIS = 200;
+
+    private final SensitiveWordMatcher matcher;
+    private final SensitiveWordSource localSource;
+    private final SensitiveWordDictionaryStore store;
+    private final SensitiveWordProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final AtomicBoolean settingsChanged = new AtomicBoolean(true);
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sensitive-word-dict");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** worker 线程构建期间为构建锁续期 */
+    private final ScheduledExecutorService lockRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sensitive-word-dict-lock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 以下字段只在 worker 线程访问 */
+    private Map<Character, Character> variants = Map.of();
+    private Set<String> words;
+    private long wordsVersion = -1;
+
+    public SensitiveWordDictionaryService(SensitiveWordMatcher matcher,
+                                          SensitiveWordSource localSource,
+                                          SensitiveWordDictionaryStore store,
+                                          SensitiveWordProperties properties,
+                                          ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.matcher = matcher;
+        this.localSource = localSource;
+        this.store = store;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("novel.ai.sensitive.dict.version", matcher,
+                        m -> m.current() == null ? -1 : m.current().version())
+                .description("Version of the sensitive-word dictionary currently in use")
+                .register(meterRegistry);
+        Gauge.builder("novel.ai.sensitive.dict.words", matcher,
+                        m -> m.current() == null ? 0 : m.current().size())
+                .description("Words in the sensitive-word dictionary currently in use")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isSyncEnabled()) {
+            return;
+        }
+        long poll = Math.max(1, properties.getSyncPollSeconds());
+        worker.scheduleWithFixedDelay(() -> requestSync("poll"), 0, poll, TimeUnit.SECONDS);
+        log.info("[SensitiveWordDictionary] 集群词典同步已启动，轮询间隔={}s", poll);
+    }
+
+    /** 收到版本变更通知或轮询到期，投递一次同步。 */
+    public void requestSync(String reason) {
+        if (queued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                queued.set(false);
+                sync(reason);
+            });
+        }
+    }
+
+    /** {@code novel.ai.sensitive-filter.*} 变更：折叠配置可能变了，重新加载异体字映射后同步。 */
+    public void requestReload(String reason) {
+        settingsChanged.set(true);
+        requestSync(reason);
+    }
+
+    /**
+     * 增删词条并广播；本节点不等通知，直接投递一次同步。
+     *
+     * @throws IllegalStateException    未开启集群词典同步
+     * @throws IllegalArgumentException 同一词条同时出现在新增与删除中
+     */
+    public SensitiveWordDictionaryStore.UpdateResult update(Collection<String> added, Collection<String> removed) {
+        if (!properties.isSyncEnabled()) {
+            throw new IllegalStateException("未开启集群词典同步（novel.ai.sensitive-filter.sync-enabled=false）");
+        }
+        Set<String> overlap = trimmed(added);
+        overlap.retainAll(trimmed(removed));
+        if (!overlap.isEmpty()) {
+            throw new IllegalArgumentException("同一词条不能同时新增和删除: " + overlap);
+        }
+        if (store.currentVersion() == 0) {
+            store.seedIfAbsent(localSource.loadWords());
+        }
+        SensitiveWordDictionaryStore.UpdateResult result = store.update(added, removed);
+        log.info("[SensitiveWordDictionary] 词表已更新 version={} added={} removed={} size={}",
+                result.version(), result.added(), result.removed(), result.size());
+        requestSync("update");
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+        lockRenewer.shutdownNow();
+    }
+
+    void sync(String reason) {
+        try {
+            if (!properties.isEnabled() || !properties.isSyncEnabled()) {
+                long start = System.nanoTime();
+                matcher.refresh();
+                record("local", start);
+                words = null;
+                wordsVersion = -1;
+                return;
+            }
+            if (settingsChanged.getAndSet(false)) {
+                variants = Map.copyOf(localSource.loadVariants());
+            }
+            String profile = SensitiveWordDictionary.profile(properties.isIgnoreCase(), properties.isFoldWidth(), variants);
+            long version = store.currentVersion();
+            if (version == 0) {
+                version = store.seedIfAbsent(localSource.loadWords());
+                log.info("[SensitiveWordDictionary] Redis 中尚无词表，已用本地词表初始化 version={}", version);
+            }
+            SensitiveWordDictionary current = matcher.current();
+            if (current != null && current.version() == version && current.profile().equals(profile)) {
+                return;
+            }
+            long start = System.nanoTime();
+            SensitiveWordDictionary next = loadSnapshot(version, profile);
+            String source = "snapshot";
+            if (next == null) {
+                long built = syncWords(version);
+                boolean locked = false;
+                if (!store.isSnapshotOversize(built, profile)) {
+                    locked = store.tryLockBuild(built, profile, nodeId);
+                    if (!locked) {
+                        Awaited awaited = awaitSnapshot(built, profile);
+                        next = awaited.snapshot();
+                        locked = awaited.locked();
+                    }
+                }
+                if (next == null) {
+                    next = locked ? buildUnderLock(built, profile) : buildOversize(built, profile);
+                    source = "build";
+                }
+            }
+            matcher.install(next);
+            record(source, start);
+            log.info("[SensitiveWordDictionary] 词典已切换 reason={} source={} version={} words={} profile={} 约{}KB",
+                    reason, source, next.version(), next.size(), profile, next.estimatedBytes() / 1024);
+            meterRegistry.counter("novel.ai.sensitive.dict.sync", "result", "success").increment();
+        } catch (InterruptedException e) {
+            // 关闭时 shutdownNow 中断了等待快照的 worker，保留中断状态直接退出
+            Thread.currentThread().interrupt();
+            log.info("[SensitiveWordDictionary] 词典同步被中断 reason={}，保留当前词典", reason);
+        } catch (Exception e) {
+            meterRegistry.counter("novel.ai.sensitive.dict.sync", "result", "error").increment();
+            log.warn("[SensitiveWordDictionary] 词典同步失败 reason={}，保留当前词典 version={}: {}",
+                    reason, matcher.current() == null ? -1 : matcher.current().version(), e.toString());
+        }
+    }
+
+    /**
+     * 把本地词表补到不低于 {@code targetVersion} 的版本：变更日志能从本地版本连续接上就只应用增量，否则全量拉取。
+     *
+     * @return 本地词表对应的版本
+     */
+    private long syncWords(long targetVersion) {
+        if (words != null) {
+            List<SensitiveWordDictionaryStore.Change> changes =
+                    wordsVersion >= targetVersion ? List.of() : store.changesAfter(wordsVersion);
+            long reached = wordsVersion;
+            for (SensitiveWordDictionaryStore.Change change : changes) {
+                if (change.version() != reached + 1) {
+                    break;
+                }
+                reached = change.version();
+            }
+            if (reached >= targetVersion) {
+                for (SensitiveWordDictionaryStore.Change change : changes) {
+                    if (change.version() > reached) {
+                        break;
+                    }
+                    // 与 UPDATE 脚本相同的顺序：先 SADD 再 SREM
+                    words.addAll(change.added());
+                    change.removed().forEach(words::remove);
+                }
+                if (reached > wordsVersion) {
+                    log.info("[SensitiveWordDictionary] 增量应用 version {} → {}", wordsVersion, reached);
+                }
+                wordsVersion = reached;
+                return wordsVersion;
+            }
+        }
+        SensitiveWordDictionaryStore.VersionedWords loaded = store.loadWords();
+        words = new HashSet<>(loaded.words());
+        wordsVersion = loaded.version();
+        log.info("[SensitiveWordDictionary] 全量拉取词表 version={} words={}", wordsVersion, words.size());
+        return wordsVersion;
+    }
+
+    private static Set<String> trimmed(Collection<String> words) {
+        Set<String> result = new HashSet<>();
+        if (words != null) {
+            for (String word : words) {
+                if (word != null && !word.isBlank()) {
+                    result.add(word.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    private SensitiveWordDictionary build(long version) {
+        return SensitiveWordDictionary.compile(version, words,
+                properties.isIgnoreCase(), properties.isFoldWidth(), variants);
+    }
+
+    /**
+     * 已持有构建锁：构建并上传快照，期间按锁周期的 1/3 续期，结束后释放锁（其他节点随即读到快照或接手）。
+     */
+    private SensitiveWordDictionary buildUnderLock(long version, String profile) {
+        long period = Math.max(1, properties.getBuildLockTtlMillis() / 3);
+        ScheduledFuture<?> renewal = lockRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!store.renewBuildLock(version, profile, nodeId)) {
+                    log.warn("[SensitiveWordDictionary] 构建锁续期失败（已过期或被接手） version={} profile={}",
+                            version, profile);
+                }
+            } catch (Exception e) {
+                log.warn("[SensitiveWordDictionary] 构建锁续期异常 version={}: {}", version, e.toString());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        try {
+            SensitiveWordDictionary dictionary = build(version);
+            publishSnapshot(dictionary);
+            return dictionary;
+        } finally {
+            renewal.cancel(false);
+            try {
+                store.releaseBuildLock(version, profile, nodeId);
+            } catch (Exception e) {
+                log.warn("[SensitiveWordDictionary] 构建锁释放失败，等待过期 version={}: {}", version, e.toString());
+            }
+        }
+    }
+
+    /**
+     * 快照已知超限、不会上传：不抢锁、不上传，本节点直接构建，各节点互不等待。
+     */
+    private SensitiveWordDictionary buildOversize(long version, String profile) {
+        log.info("[SensitiveWordDictionary] version={} profile={} 的快照超过上限，本节点直接构建", version, profile);
+        return build(version);
+    }
+
+    private void publishSnapshot(SensitiveWordDictionary dictionary) {
+        byte[] snapshot = dictionary.toSnapshot();
+        if (store.saveSnapshot(dictionary.version(), dictionary.profile(), snapshot)) {
+            log.info("[SensitiveWordDictionary] 已上传词典快照 version={} profile={} bytes={}",
+                    dictionary.version(), dictionary.profile(), snapshot.length);
+        } else {
+            log.warn("[SensitiveWordDictionary] 词典快照 {} 字节超过上限 {}，不上传，已写超限标记，其他节点各自构建",
+                    snapshot.length, properties.getSnapshotMaxBytes());
+        }
+    }
+
+    /**
+     * 其他节点持有构建锁：锁存续期间一直等它的快照，不设固定超时（持锁节点会续期，宕机则锁在一个周期内过期）。
+     * 持锁节点报告快照超限时立即停止等待，由本节点自行构建。
+     *
+     * @return 读到的快照；或 snapshot 为 null，由本节点构建（{@code locked} 表示是否已抢到构建锁）
+     */
+    private Awaited awaitSnapshot(long version, String profile) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (true) {
+            SensitiveWordDictionary snapshot = loadSnapshot(version, profile);
+            if (snapshot != null) {
+                log.info("[SensitiveWordDictionary] 等到 version={} 的快照，耗时 {}ms",
+                        version, System.currentTimeMillis() - start);
+                return new Awaited(snapshot, false);
+            }
+            if (store.isSnapshotOversize(version, profile)) {
+                return new Awaited(null, false);
+            }
+            if (!store.isBuildLocked(version, profile) && store.tryLockBuild(version, profile, nodeId)) {
+                // 持锁节点先上传快照（或写超限标记）再释放锁，两次读取之间可能刚好完成，抢到锁后再确认一次
+                snapshot = loadSnapshot(version, profile);
+                if (snapshot != null || store.isSnapshotOversize(version, profile)) {
+                    store.releaseBuildLock(version, profile, nodeId);
+                    return new Awaited(snapshot, false);
+                }
+                log.warn("[SensitiveWordDictionary] version={} 的构建锁已释放但没有快照，由本节点接手构建", version);
+                return new Awaited(null, true);
+            }
+            Thread.sleep(SNAPSHOT_POLL_MILLIS);
+        }
+    }
+
+    private SensitiveWordDictionary loadSnapshot(long version, String profile) {
+        byte[] bytes = store.loadSnapshot(version, profile);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            SensitiveWordDictionary snapshot = SensitiveWordDictionary.fromSnapshot(bytes);
+            if (snapshot.version() == version && snapshot.profile().equals(profile)) {
+                return snapshot;
+            }
+            log.warn("[SensitiveWordDictionary] 快照内容与键不符 expect={}:{} actual={}:{}，忽略",
+                    version, profile, snapshot.version(), snapshot.profile());
+        } catch (IllegalArgumentException e) {
+            log.warn("[SensitiveWordDictionary] 快照无法读取 version={} profile={}，忽略: {}", version, profile, e.getMessage());
+        }
+        return null;
+    }
+
+    private void record(String source, long startNanos) {
+        Timer.builder("novel.ai.sensitive.dict.install")
+                .description("Time to make a sensitive-word dictionary version live, by how it was obtained")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 等待快照的结果：读到的快照，或由本节点构建时是否已持有构建锁。 */
+    private record Awaited(SensitiveWordDictionary snapshot, boolean locked) {
+    }
+}
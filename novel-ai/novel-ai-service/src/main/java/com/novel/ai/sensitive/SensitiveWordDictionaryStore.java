@@ -0,0 +1,302 @@
+package com.novel.ai.sensitive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 集群共享的敏感词词表，存于 Redis：
+ * <ul>
+ *     <li>{@value #VERSION_KEY}：词表版本号，每次有实际增删时 +1；</li>
+ *     <li>{@value #WORDS_KEY}：当前词表（Set）；</li>
+ *     <li>{@value #CHANGES_KEY}：最近若干次增删（List，每条 {@code {version, added, removed}}），落后不多的节点只补增量；</li>
+ *     <li>{@value #SNAPSHOT_KEY_PREFIX}{@code {version}:{profile}}：该版本在某折叠配置下预构建好的自动机快照（Base64），带 TTL；</li>
+ *     <li>{@value #BUILD_LOCK_KEY_PREFIX}{@code {version}:{profile}}：构建锁，值为持锁节点ID，续期与释放都先比对持有者；</li>
+ *     <li>{@value #OVERSIZE_KEY_PREFIX}{@code {version}:{profile}}：快照超过上限未上传的标记（值为快照字节数），
+ *         其他节点看到后不再排队等锁，各自构建；</li>
+ *     <li>{@value #CHANNEL}：版本变更的 pub/sub 通道，消息体为新版本号。</li>
+ * </ul>
+ * 种子写入与增删都在 Lua 里完成：改词表、递增版本、记变更、发通知是一个原子步骤，读到的版本号与词表一定对应。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SensitiveWordDictionaryStore {
+
+    public static final String CHANNEL = "novel:ai:sensitive:dict:changed";
+
+    static final String VERSION_KEY = "novel:ai:sensitive:dict:version";
+    static final String WORDS_KEY = "novel:ai:sensitive:dict:words";
+    static final String CHANGES_KEY = "novel:ai:sensitive:dict:changes";
+    static final String SNAPSHOT_KEY_PREFIX = "novel:ai:sensitive:dict:snapshot:";
+    static final String BUILD_LOCK_KEY_PREFIX = "novel:ai:sensitive:dict:build-lock:";
+    static final String OVERSIZE_KEY_PREFIX = "novel:ai:sensitive:dict:snapshot-oversize:";
+
+    private static final DefaultRedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<List> UPDATE_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<List> READ_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>();
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>();
+
+    static {
+        SEED_SCRIPT.setResultType(Long.class);
+        SEED_SCRIPT.setScriptText(
+                """
+                if redis.call('EXISTS', KEYS[1]) == 1 then
+                    return tonumber(redis.call('GET', KEYS[1]))
+                end
+                for i = 1, #ARGV do
+                    redis.call('SADD', KEYS[2], ARGV[i])
+                end
+                redis.call('SET', KEYS[1], 1)
+                return 1
+                """
+        );
+
+        UPDATE_SCRIPT.setResultType(List.class);
+        UPDATE_SCRIPT.setScriptText(
+                """
+                local added_count = tonumber(ARGV[3])
+                local added = {}
+                local removed = {}
+                for i = 4, 3 + added_count do
+                    if redis.call('SADD', KEYS[2], ARGV[i]) == 1 then
+                        table.insert(added, ARGV[i])
+                    end
+                end
+                for i = 4 + added_count, #ARGV do
+                    if redis.call('SREM', KEYS[2], ARGV[i]) == 1 then
+                        table.insert(removed, ARGV[i])
+                    end
+                end
+                local version = tonumber(redis.call('GET', KEYS[1]) or '0')
+                if #added > 0 or #removed > 0 then
+                    version = redis.call('INCR', KEYS[1])
+                    redis.call('RPUSH', KEYS[3], cjson.encode({version = version, added = added, removed = removed}))
+                    redis.call('LTRIM', KEYS[3], -tonumber(ARGV[2]), -1)
+                    redis.call('PUBLISH', ARGV[1], version)
+                end
+                return {version, #added, #removed, redis.call('SCARD', KEYS[2])}
+                """
+        );
+
+        READ_SCRIPT.setResultType(List.class);
+        READ_SCRIPT.setScriptText(
+                """
+                return {redis.call('GET', KEYS[1]) or '0', redis.call('SMEMBERS', KEYS[2])}
+                """
+        );
+
+        RENEW_LOCK_SCRIPT.setResultType(Long.class);
+        RENEW_LOCK_SCRIPT.setScriptText(
+                """
+                if redis.call('GET', KEYS[1]) == ARGV[1] then
+                    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                end
+                return 0
+                """
+        );
+
+        RELEASE_LOCK_SCRIPT.setResultType(Long.class);
+        RELEASE_LOCK_SCRIPT.setScriptText(
+                """
+                if redis.call('GET', KEYS[1]) == ARGV[1] then
+                    return redis.call('DEL', KEYS[1])
+                end
+                return 0
+                """
+        );
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SensitiveWordProperties properties;
+
+    /** 当前版本号；词表尚未写入 Redis 时为 0。 */
+    public long currentVersion() {
+        String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * Redis 中还没有词表时用 {@code seedWords} 初始化为版本 1；已有则原样返回当前版本，不覆盖。
+     */
+    public long seedIfAbsent(Collection<String> seedWords) {
+        List<String> args = normalize(seedWords);
+        Long version = stringRedisTemplate.execute(SEED_SCRIPT, List.of(VERSION_KEY, WORDS_KEY), args.toArray());
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * 增删词条；只有实际发生变化时才递增版本并广播。
+     */
+    public UpdateResult update(Collection<String> added, Collection<String> removed) {
+        List<String> add = normalize(added);
+        List<String> remove = normalize(removed);
+        List<String> args = new ArrayList<>(3 + add.size() + remove.size());
+        args.add(CHANNEL);
+        args.add(String.valueOf(properties.getChangelogMaxEntries()));
+        args.add(String.valueOf(add.size()));
+        args.addAll(add);
+        args.addAll(remove);
+        List<?> result = stringRedisTemplate.execute(UPDATE_SCRIPT,
+                List.of(VERSION_KEY, WORDS_KEY, CHANGES_KEY), args.toArray());
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("敏感词词表更新脚本返回异常: " + result);
+        }
+        return new UpdateResult(toLong(result.get(0)), (int) toLong(result.get(1)),
+                (int) toLong(result.get(2)), toLong(result.get(3)));
+    }
+
+    /** 原子读取版本号与完整词表。 */
+    public VersionedWords loadWords() {
+        List<?> result = stringRedisTemplate.execute(READ_SCRIPT, List.of(VERSION_KEY, WORDS_KEY));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("敏感词词表读取脚本返回异常: " + result);
+        }
+        Set<String> words = new HashSet<>();
+        if (result.get(1) instanceof Collection<?> members) {
+            members.forEach(member -> words.add(String.valueOf(member)));
+        }
+        return new VersionedWords(toLong(result.get(0)), words);
+    }
+
+    /** 版本号大于 {@code afterVersion} 的变更，按版本升序；解析失败的条目跳过（调用方会发现版本不连续并改走全量）。 */
+    public List<Change> changesAfter(long afterVersion) {
+        List<String> raw = stringRedisTemplate.opsForList().range(CHANGES_KEY, 0, -1);
+        List<Change> changes = new ArrayList<>();
+        if (raw == null) {
+            return changes;
+        }
+        for (String json : raw) {
+            try {
+                JsonNode node = objectMapper.readTree(json);
+                long version = node.path("version").asLong();
+                if (version > afterVersion) {
+                    changes.add(new Change(version, textList(node.path("added")), textList(node.path("removed"))));
+                }
+            } catch (Exception e) {
+                log.warn("[SensitiveWordDictionaryStore] 跳过无法解析的词表变更: {}", json);
+            }
+        }
+        changes.sort((a, b) -> Long.compare(a.version(), b.version()));
+        return changes;
+    }
+
+    /** 读取预构建快照，不存在返回 null。 */
+    public byte[] loadSnapshot(long version, String profile) {
+        String encoded = stringRedisTemplate.opsForValue().get(snapshotKey(version, profile));
+        return encoded == null ? null : Base64.getDecoder().decode(encoded);
+    }
+
+    /**
+     * 上传快照；超过 {@code snapshot-max-bytes} 时不上传，改写超限标记，返回 false。
+     */
+    public boolean saveSnapshot(long version, String profile, byte[] snapshot) {
+        if (snapshot.length > properties.getSnapshotMaxBytes()) {
+            stringRedisTemplate.opsForValue().set(oversizeKey(version, profile),
+                    String.valueOf(snapshot.length), Duration.ofDays(properties.getSnapshotTtlDays()));
+            return false;
+        }
+        stringRedisTemplate.opsForValue().set(snapshotKey(version, profile),
+                Base64.getEncoder().encodeToString(snapshot), Duration.ofDays(properties.getSnapshotTtlDays()));
+        return true;
+    }
+
+    /**
+     * 抢占某版本的构建权，同一版本 + profile 在锁有效期内只有一个节点构建，其余节点等快照。
+     */
+    public boolean tryLockBuild(long version, String profile, String owner) {
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                buildLockKey(version, profile), owner, Duration.ofMillis(properties.getBuildLockTtlMillis()));
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * 构建耗时较长时续期；锁已过期或已被其他节点持有时返回 false。
+     */
+    public boolean renewBuildLock(long version, String profile, String owner) {
+        Long renewed = stringRedisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(buildLockKey(version, profile)),
+                owner, String.valueOf(properties.getBuildLockTtlMillis()));
+        return renewed != null && renewed == 1;
+    }
+
+    /** 只释放自己持有的锁。 */
+    public void releaseBuildLock(long version, String profile, String owner) {
+        stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(buildLockKey(version, profile)), owner);
+    }
+
+    /** 是否有节点正持有该版本的构建锁。 */
+    public boolean isBuildLocked(long version, String profile) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(buildLockKey(version, profile)));
+    }
+
+    /** 该版本的快照是否已被判定超限、不会上传。 */
+    public boolean isSnapshotOversize(long version, String profile) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(oversizeKey(version, profile)));
+    }
+
+    private static String buildLockKey(long version, String profile) {
+        return BUILD_LOCK_KEY_PREFIX + version + ":" + profile;
+    }
+
+    private static String snapshotKey(long version, String profile) {
+        return SNAPSHOT_KEY_PREFIX + version + ":" + profile;
+    }
+
+    private static String oversizeKey(long version, String profile) {
+        return OVERSIZE_KEY_PREFIX + version + ":" + profile;
+    }
+
+    private static List<String> normalize(Collection<String> words) {
+        if (words == null || words.isEmpty()) {
+            return List.of();
+        }
+        Set<String> distinct = new HashSet<>();
+        List<String> result = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (word == null) {
+                continue;
+            }
+            String trimmed = word.trim();
+            if (!trimmed.isEmpty() && distinct.add(trimmed)) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+
+    /** cjson 把空数组编码成 {}，这里一并按空列表处理 */
+    private static List<String> textList(JsonNode node) {
+        List<String> values = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(item -> values.add(item.asText()));
+        }
+        return values;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    public record VersionedWords(long version, Set<String> words) {
+    }
+
+    public record Change(long version, List<String> added, List<String> removed) {
+    }
+
+    public record UpdateResult(long version, int added, int removed, long size) {
+    }
+}
@@ -1,28 +1,31 @@
 package com.novel.ai.sensitive;
 
-import com.hankcs.algorithm.AhoCorasickDoubleArrayTrie;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
  * 基于 Aho-Corasick 双数组 Trie 的敏感词匹配器。启动时从
  * {@link SensitiveWordSource} 加载词典、构建自动机；运行时对外提供
- * 一次 O(n) 的多模式串扫描。
+ * 一次 O(n) 的多模式串扫描。扫描时逐字符查表折叠（见 {@link SensitiveCharFolder}）后直接在自动机上转移，
+ * 不再先把全文 {@code toLowerCase()} 复制一份，命中下标即原文下标。
  *
  * <p>特性：
  * <ul>
  *     <li>词典为空 / 过滤器关闭 ⇒ 匹配器处于 disabled 状态，{@link #findAll(String)} 始终返回空；</li>
- *     <li>{@link SensitiveWordProperties#isIgnoreCase()} 控制大小写折叠；</li>
+ *     <li>{@link SensitiveWordProperties#isIgnoreCase()} 控制大小写折叠，
+ *         {@link SensitiveWordProperties#isFoldWidth()} 控制全角/半角折叠，
+ *         {@link SensitiveWordSource#loadVariants()} 提供繁简等异体字折叠；</li>
+ *     <li>{@link #scan(CharSequence, SensitiveHitSink)} / {@link #scan(Reader, SensitiveHitSink)}
+ *         以回调返回命中区间，后者分块读取，调用方不必先把整章读成一个 String；</li>
  *     <li>相同命中词会去重，保留首次出现顺序。</li>
  * </ul>
  */
@@ -34,9 +37,8 @@ public class SensitiveWordMatcher {
     private final SensitiveWordSource source;
     private final SensitiveWordProperties properties;
 
-    private volatile AhoCorasickDoubleArrayTrie<String> trie;
-    private volatile boolean enabled;
-    private volatile boolean ignoreCase;
+    /** 当前生效的词典；null 表示过滤器关闭或词典为空。整体替换，扫描中途切换不影响已开始的扫描。 */
+    private volatile SensitiveWordDictionary dictionary;
 
     @PostConstruct
     public void init() {
@@ -44,50 +46,45 @@ public class SensitiveWordMatcher {
     }
 
     /**
-     * 重新构建自动机。预留给未来 Nacos 热更新调用。
+     * 用 {@link SensitiveWordSource} 当前的词表同步重建并切换（本地词表，版本号记为 0）。
+     * 开启集群词典同步时只在启动时调用一次兜底，之后由 {@link SensitiveWordDictionaryService} 在后台切换。
      */
     public synchronized void refresh() {
-        this.ignoreCase = properties.isIgnoreCase();
         if (!properties.isEnabled()) {
-            this.trie = null;
-            this.enabled = false;
-            log.info("[SensitiveWord] 过滤器已关闭（enabled=false），跳过字典加载");
+            install(null);
             return;
         }
+        install(SensitiveWordDictionary.compile(0, source.loadWords(),
+                properties.isIgnoreCase(), properties.isFoldWidth(), source.loadVariants()));
+    }
 
-        Collection<String> raw = source.loadWords();
-        Set<String> dedup = new LinkedHashSet<>();
-        for (String w : raw) {
-            if (w == null) {
-                continue;
-            }
-            String trimmed = w.trim();
-            if (trimmed.isEmpty()) {
-                continue;
-            }
-            dedup.add(ignoreCase ? trimmed.toLowerCase() : trimmed);
+    /**
+     * 原子切换到给定词典。过滤器关闭时一律切为禁用态。
+     */
+    void install(SensitiveWordDictionary next) {
+        if (!properties.isEnabled()) {
+            this.dictionary = null;
+            log.info("[SensitiveWord] 过滤器已关闭（enabled=false），跳过字典加载");
+            return;
         }
-        if (dedup.isEmpty()) {
-            this.trie = null;
-            this.enabled = false;
+        if (next == null || next.isEmpty()) {
+            this.dictionary = null;
             log.warn("[SensitiveWord] 字典为空，敏感词过滤将不生效");
             return;
         }
-
-        Map<String, String> map = new LinkedHashMap<>();
-        for (String word : dedup) {
-            map.put(word, word);
-        }
-        AhoCorasickDoubleArrayTrie<String> newTrie = new AhoCorasickDoubleArrayTrie<>();
-        newTrie.build(map);
-        this.trie = newTrie;
-        this.enabled = true;
-        log.info("[SensitiveWord] 敏感词字典加载完成，词条数={}，ignoreCase={}", dedup.size(), ignoreCase);
+        this.dictionary = next;
+        log.info("[SensitiveWord] 敏感词字典加载完成，version={}，词条数={}，profile={}",
+                next.version(), next.size(), next.profile());
     }
 
     /** 匹配器是否处于可用状态。 */
     public boolean isEnabled() {
-        return enabled;
+        return dictionary != null;
+    }
+
+    /** 当前生效词典，禁用时为 null。 */
+    public SensitiveWordDictionary current() {
+        return dictionary;
     }
 
     /**
@@ -97,20 +94,19 @@ public class SensitiveWordMatcher {
      * 另设有单次扫描回调上限，防止极端重复命中拖慢扫描。
      */
     public List<String> findHitsUpTo(String text, int maxDistinctHits) {
-        if (text == null || text.isEmpty() || !enabled || maxDistinctHits <= 0) {
+        if (text == null || text.isEmpty() || maxDistinctHits <= 0) {
             return List.of();
         }
-        String target = ignoreCase ? text.toLowerCase() : text;
-        AhoCorasickDoubleArrayTrie<String> current = this.trie;
+        SensitiveWordDictionary current = this.dictionary;
         if (current == null) {
             return List.of();
         }
         LinkedHashSet<String> hits = new LinkedHashSet<>();
         int maxCallbacks = Math.max(64, maxDistinctHits * 20);
         int[] callbacks = {0};
-        current.parseText(target, (begin, end, value) -> {
+        current.scan(text, (begin, end, word) -> {
             callbacks[0]++;
-            hits.add(value);
+            hits.add(word);
             if (hits.size() >= maxDistinctHits) {
                 return false;
             }
@@ -127,36 +123,57 @@ public class SensitiveWordMatcher {
      * 文本为 null / 空、或匹配器被禁用时返回空列表。
      */
     public List<String> findAll(String text) {
-        if (text == null || text.isEmpty() || !enabled) {
+        if (text == null || text.isEmpty()) {
             return List.of();
         }
-        String target = ignoreCase ? text.toLowerCase() : text;
-        AhoCorasickDoubleArrayTrie<String> current = this.trie;
+        SensitiveWordDictionary current = this.dictionary;
         if (current == null) {
             return List.of();
         }
         Set<String> hits = new LinkedHashSet<>();
-        AhoCorasickDoubleArrayTrie.IHit<String> collector = (begin, end, value) -> hits.add(value);
-        current.parseText(target, collector);
+        current.scan(text, (begin, end, word) -> {
+            hits.add(word);
+            return true;
+        });
         return new ArrayList<>(hits);
     }
 
-    /** 文本中是否命中任一敏感词。基于 IHitCancellable 真正提前终止扫描。 */
+    /** 文本中是否命中任一敏感词。经 {@link SensitiveWordDictionary#scan} 扫描，首个命中时 sink 返回 false 提前终止。 */
     public boolean hasAny(String text) {
-        if (text == null || text.isEmpty() || !enabled) {
+        if (text == null || text.isEmpty()) {
             return false;
         }
-        String target = ignoreCase ? text.toLowerCase() : text;
-        AhoCorasickDoubleArrayTrie<String> current = this.trie;
+        SensitiveWordDictionary current = this.dictionary;
         if (current == null) {
             return false;
         }
-        boolean[] hit = new boolean[1];
-        AhoCorasickDoubleArrayTrie.IHitCancellable<String> cancellable = (begin, end, value) -> {
-            hit[0] = true;
-            return false; // 返回 false 中止遍历
-        };
-        current.parseText(target, cancellable);
-        return hit[0];
+        // 首个命中即返回 false 中止遍历，scan 没走完就说明命中
+        return !current.scan(text, (begin, end, word) -> false);
+    }
+
+    /**
+     * 扫描文本，每个命中回调一次 sink（同一词多次出现会多次回调），sink 返回 false 即停止。
+     *
+     * @return 是否扫描到了末尾；匹配器禁用时直接返回 true
+     */
+    public boolean scan(CharSequence text, SensitiveHitSink sink) {
+        SensitiveWordDictionary current = this.dictionary;
+        if (text == null || current == null) {
+            return true;
+        }
+        return current.scan(text, sink);
+    }
+
+    /**
+     * 分块读取 reader 并扫描，命中下标从流起点计数；不关闭 reader。
+     *
+     * @return 是否读到了流末尾；匹配器禁用时不读取、直接返回 true
+     */
+    public boolean scan(Reader reader, SensitiveHitSink sink) throws IOException {
+        SensitiveWordDictionary current = this.dictionary;
+        if (reader == null || current == null) {
+            return true;
+        }
+        return current.scan(reader, sink);
     }
 }
@@ -6,8 +6,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 /**
  * 敏感词过滤配置。配置键前缀：{@code novel.ai.sensitive-filter}。
  *
- * <p>当前阶段字典从本地 classpath 文件加载；后续会接入 Nacos 配置中心做热更新，
- * 届时只需新增另一个 {@link SensitiveWordSource} 实现并切换即可。</p>
+ * <p>本地 classpath 文件是启动兜底与集群词表的初始种子；开启 {@link #syncEnabled} 后，
+ * 词表以 Redis 中带版本的集合为准，由 {@link SensitiveWordDictionaryService} 在各节点间同步。</p>
  */
 @Data
 @ConfigurationProperties(prefix = "novel.ai.sensitive-filter")
@@ -21,4 +21,37 @@ public class SensitiveWordProperties {
 
     /** 匹配时是否忽略大小写。中文无影响；英文词典开启后更保险。 */
     private boolean ignoreCase = true;
+
+    /** 匹配时是否把全角 ASCII（Ａ、１、！）与全角空格折叠为半角，防止用全角字符绕过英文/数字词条。 */
+    private boolean foldWidth = false;
+
+    /**
+     * 异体字映射资源路径（如繁→简），每行一组「源字 目标字」，{@code #} 开头为注释。
+     * 为空时不做异体字折叠。
+     */
+    private String variantMappingPath = "";
+
+    /**
+     * 是否启用集群词典同步：词表存 Redis 并带版本号，节点经 pub/sub（兜底轮询）感知新版本后在后台切换。
+     * 关闭时只用本地词表文件。
+     */
+    private boolean syncEnabled = true;
+
+    /** 轮询 Redis 词表版本的间隔（秒），兜住 pub/sub 消息丢失。 */
+    private long syncPollSeconds = 30;
+
+    /** Redis 中保留的增量变更条数；落后超过这么多版本的节点改为全量拉取词表。 */
+    private int changelogMaxEntries = 1000;
+
+    /** 预构建自动机快照在 Redis 中的保留天数。 */
+    private long snapshotTtlDays = 7;
+
+    /** 快照（gzip 后）超过该字节数则不上传，只写超限标记，各节点并行自行构建。 */
+    private long snapshotMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 构建锁的过期时间（毫秒）。持锁节点在构建期间每 1/3 个周期续期一次，构建并上传快照后释放；
+     * 其他节点在锁存续期间一直等待快照，持锁节点宕机时最多等一个周期后由其中一个节点接手构建。
+     */
+    private long buildLockTtlMillis = 60_000;
 }
@@ -1,6 +1,7 @@
 package com.novel.ai.sensitive;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * 敏感词字典数据源抽象。当前实现为本地文件，后续可新增 Nacos 实现
@@ -13,4 +14,11 @@ public interface SensitiveWordSource {
      * 会统一去重与裁剪空白。实现方只需保证"能拿到当前应生效的词表"。
      */
     Collection<String> loadWords();
+
+    /**
+     * 加载异体字映射（源字 → 目标字），词条与正文在匹配前都会按此折叠。默认不折叠。
+     */
+    default Map<Character, Character> loadVariants() {
+        return Map.of();
+    }
 }
@@ -6,6 +6,7 @@ import com.novel.ai.mq.HumanReviewTaskProducer;
 import com.novel.ai.mq.dto.HumanReviewTaskMqDto;
 import com.novel.ai.rag.AuditExperienceIndexer;
 import com.novel.ai.rag.AuditExperienceMetadata;
+import com.novel.ai.rag.AuditExperienceVectorSearcher;
 import com.novel.ai.sensitive.SensitiveWordMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +14,6 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
 
 /**
  * Novel AI Agent 的工具箱。每个 {@link Tool} 方法都是大模型可自主调用的"外部能力"——
@@ -46,7 +48,7 @@ import java.util.Map;
 public class AuditTools {
 
     private final NovelAiPolicyProperties policyProperties;
-    private final VectorStore vectorStore;
+    private final AuditExperienceVectorSearcher vectorSearcher;
     private final AuditExperienceIndexer auditExperienceIndexer;
     private final SensitiveWordMatcher sensitiveWordMatcher;
     private final HumanReviewTaskProducer humanReviewTaskProducer;
@@ -95,11 +97,13 @@ public class AuditTools {
                     .query(queryText)
                     .topK(k)
                     .similarityThreshold(0.65);
+            Predicate<Map<String, Object>> localFilter = null;
             if (violationLabel != null && !violationLabel.isBlank()) {
-                builder.filterExpression(
-                        AuditExperienceMetadata.VIOLATION_LABEL + " == '" + violationLabel.trim() + "'");
+                String label = violationLabel.trim();
+                builder.filterExpression(AuditExperienceMetadata.VIOLATION_LABEL + " == '" + label + "'");
+                localFilter = md -> label.equals(md.get(AuditExperienceMetadata.VIOLATION_LABEL));
             }
-            List<Document> docs = vectorStore.similaritySearch(builder.build());
+            List<Document> docs = vectorSearcher.search(builder.build(), localFilter);
             List<SimilarCase> cases = new ArrayList<>();
             if (docs != null) {
                 for (Document d : docs) {
@@ -141,7 +145,9 @@ public class AuditTools {
                     .similarityThreshold(0.0)
                     .filterExpression(AuditExperienceMetadata.BOOK_ID + " == " + bookId)
                     .build();
-            List<Document> docs = vectorStore.similaritySearch(req);
+            String bookIdText = bookId.toString();
+            List<Document> docs = vectorSearcher.search(req,
+                    md -> bookIdText.equals(Objects.toString(md.get(AuditExperienceMetadata.BOOK_ID), null)));
             List<SimilarCase> cases = new ArrayList<>();
             if (docs != null) {
                 for (Document d : docs) {
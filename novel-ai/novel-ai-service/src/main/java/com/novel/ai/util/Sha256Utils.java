@@ -0,0 +1,40 @@
+package com.novel.ai.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 摘要（小写十六进制），供审核结论缓存 key、分段指纹、prompt 版本、敏感词折叠画像等内容寻址场景共用。
+ */
+public final class Sha256Utils {
+
+    private Sha256Utils() {
+    }
+
+    /**
+     * @return UTF-8 编码后的 SHA-256，64 位十六进制
+     */
+    public static String hex(String text) {
+        return hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return SHA-256，64 位十六进制
+     */
+    public static String hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return SHA-256 十六进制的前 {@code length} 位，用于版本号、画像等只需区分变化的短标识
+     */
+    public static String shortHex(String text, int length) {
+        return hex(text).substring(0, length);
+    }
+}
@@ -0,0 +1,176 @@
+package com.novel.ai.agent.chapter.step;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.ai.agent.chapter.ChapterAuditContext;
+import com.novel.ai.agent.chapter.support.ChapterContentSplitter;
+import com.novel.ai.agent.chapter.support.ChapterSegmentAligner;
+import com.novel.ai.agent.chapter.support.ChapterSegmentHistory;
+import com.novel.ai.agent.core.AuditErrorClassifier;
+import com.novel.ai.agent.core.StepResult;
+import com.novel.ai.agent.support.AuditCategoryPromptResolver;
+import com.novel.ai.agent.support.AuditDecisionResolver;
+import com.novel.ai.agent.support.AuditVerdictCache;
+import com.novel.ai.config.NovelAiAuditCategoryProperties;
+import com.novel.ai.config.NovelAiAuditExecutionProperties;
+import com.novel.ai.config.NovelAiLearningAuditProperties;
+import com.novel.ai.invoker.StructuredOutputInvoker;
+import com.novel.ai.model.AuditDecisionAiOutput;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.book.dto.req.ChapterAuditReqDto;
+import com.novel.book.dto.resp.ChapterAuditRespDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 切分 + 分段审核两个 Step 串起来，对桩模型验证增量复审：只有新增/修改的段会调用模型。
+ */
+class ChapterIncrementalReauditTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+    private final List<String> modelCalls = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private String modelId = "qwen-plus";
+    private ChapterSegmentStep segmentStep;
+    private ChapterSegmentAuditStep auditStep;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(ops.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> redis.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(ops).set(anyString(), anyString(), any(Duration.class));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+
+        NovelAiPromptLoader promptLoader = new NovelAiPromptLoader(new DefaultResourceLoader());
+        promptLoader.init();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        NovelAiAuditExecutionProperties executionProperties = new NovelAiAuditExecutionProperties();
+        NovelAiLearningAuditProperties learningProperties = new NovelAiLearningAuditProperties();
+        AuditCategoryPromptResolver categoryResolver =
+                new AuditCategoryPromptResolver(new NovelAiAuditCategoryProperties());
+        AuditVerdictCache verdictCache = mock(AuditVerdictCache.class);
+        when(verdictCache.getOrLoad(any(), anyString(), anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(3).get());
+        when(verdictCache.modelId()).thenAnswer(inv -> modelId);
+        ChapterContentSplitter splitter = new ChapterContentSplitter();
+        ChapterSegmentHistory history = new ChapterSegmentHistory(new ChapterSegmentAligner(splitter),
+                promptLoader, categoryResolver, verdictCache, executionProperties, redisTemplate, new ObjectMapper(),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+
+        // 桩模型：正文含"癸"判不通过（低置信度，不触发提前终止），其余通过
+        StructuredOutputInvoker invoker = mock(StructuredOutputInvoker.class);
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> {
+                    String userPrompt = inv.getArgument(2);
+                    synchronized (modelCalls) {
+                        modelCalls.add(userPrompt);
+                    }
+                    return userPrompt.contains("癸")
+                            ? new AuditDecisionAiOutput(2, 0.6, "疑似违规")
+                            : new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+
+        segmentStep = new ChapterSegmentStep(splitter, history, learningProperties);
+        ReflectionTestUtils.setField(segmentStep, "maxContentLength", 100);
+        auditStep = new ChapterSegmentAuditStep(mock(ChatClient.class), promptLoader, invoker,
+                new AuditDecisionResolver(), new AuditErrorClassifier(),
+                beanFactory.getBeanProvider(RetrievalAugmentationAdvisor.class), categoryResolver,
+                learningProperties, executionProperties, Runnable::run, new Semaphore(8), verdictCache, history);
+    }
+
+    @Test
+    void only_changed_segments_reach_the_model_on_reaudit() {
+        List<ChapterAuditRespDto> first = audit(paragraph("甲") + paragraph("乙") + paragraph("丙"));
+        assertThat(modelCalls).hasSize(3);
+        assertThat(first).extracting(ChapterAuditRespDto::getAuditStatus).containsExactly(1, 1, 1);
+
+        modelCalls.clear();
+        List<ChapterAuditRespDto> second = audit(paragraph("甲") + paragraph("丁") + paragraph("丙"));
+
+        assertThat(modelCalls).hasSize(1);
+        assertThat(modelCalls.get(0)).contains("丁的故事");
+        assertThat(second).extracting(ChapterAuditRespDto::getAuditStatus).containsExactly(1, 1, 1);
+        assertThat(meterRegistry.counter(ChapterSegmentHistory.METRIC_SEGMENTS, "result", "reused").count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.counter(ChapterSegmentHistory.METRIC_TOKENS_SAVED).count()).isPositive();
+    }
+
+    @Test
+    void unchanged_but_previously_rejected_segments_are_audited_again() {
+        audit(paragraph("甲") + paragraph("癸") + paragraph("丙"));
+        modelCalls.clear();
+
+        List<ChapterAuditRespDto> second = audit(paragraph("甲") + paragraph("癸") + paragraph("丙"));
+
+        assertThat(modelCalls).hasSize(1);
+        assertThat(modelCalls.get(0)).contains("癸的故事");
+        assertThat(second).extracting(ChapterAuditRespDto::getAuditStatus).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    void switching_model_reaudits_every_segment() {
+        audit(paragraph("甲") + paragraph("乙") + paragraph("丙"));
+        modelCalls.clear();
+
+        modelId = "qwen-max";
+        audit(paragraph("甲") + paragraph("乙") + paragraph("丙"));
+
+        assertThat(modelCalls).hasSize(3);
+    }
+
+    @Test
+    void reaudit_is_deterministic() {
+        String edited = paragraph("甲") + "补一句。" + paragraph("乙") + paragraph("丙");
+        audit(paragraph("甲") + paragraph("乙") + paragraph("丙"));
+        modelCalls.clear();
+        audit(edited);
+        List<String> firstRun = List.copyOf(modelCalls);
+
+        redis.clear();
+        audit(paragraph("甲") + paragraph("乙") + paragraph("丙"));
+        modelCalls.clear();
+        audit(edited);
+
+        assertThat(modelCalls).isEqualTo(firstRun);
+    }
+
+    private List<ChapterAuditRespDto> audit(String content) {
+        ChapterAuditContext ctx = new ChapterAuditContext(ChapterAuditReqDto.builder()
+                .bookId(7L).chapterNum(3).chapterName("第三章").content(content).build());
+        assertThat(segmentStep.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        assertThat(auditStep.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        return ctx.getSegmentResults();
+    }
+
+    private static String paragraph(String mark) {
+        return (mark + "的故事继续展开，").repeat(6) + "。";
+    }
+}
@@ -0,0 +1,196 @@
+package com.novel.ai.agent.chapter.step;
+
+import com.novel.ai.agent.chapter.ChapterAuditContext;
+import com.novel.ai.agent.chapter.support.ChapterSegmentHistory;
+import com.novel.ai.agent.core.AuditErrorClassifier;
+import com.novel.ai.agent.core.StepResult;
+import com.novel.ai.agent.support.AuditCategoryPromptResolver;
+import com.novel.ai.agent.support.AuditDecisionResolver;
+import com.novel.ai.agent.support.AuditVerdictCache;
+import com.novel.ai.config.NovelAiAuditCategoryProperties;
+import com.novel.ai.config.NovelAiAuditExecutionProperties;
+import com.novel.ai.config.NovelAiLearningAuditProperties;
+import com.novel.ai.invoker.StructuredOutputInvoker;
+import com.novel.ai.model.AuditDecisionAiOutput;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.book.dto.req.ChapterAuditReqDto;
+import com.novel.book.dto.resp.ChapterAuditRespDto;
+import com.novel.common.constant.ErrorCodeEnum;
+import com.novel.config.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChapterSegmentAuditStepTest {
+
+    private final StructuredOutputInvoker invoker = mock(StructuredOutputInvoker.class);
+    private final NovelAiAuditExecutionProperties executionProperties = new NovelAiAuditExecutionProperties();
+    private ExecutorService executor;
+    private ChapterSegmentAuditStep step;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        NovelAiPromptLoader promptLoader = mock(NovelAiPromptLoader.class);
+        when(promptLoader.renderSystem(any())).thenReturn("system");
+        when(promptLoader.renderUser(any(), anyMap()))
+                .thenAnswer(inv -> String.valueOf(inv.<Map<String, Object>>getArgument(1).get("chapterContent")));
+        ObjectProvider<RetrievalAugmentationAdvisor> ragProvider = mock(ObjectProvider.class);
+        AuditVerdictCache verdictCache = mock(AuditVerdictCache.class);
+        when(verdictCache.getOrLoad(any(), anyString(), anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(3).get());
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        step = new ChapterSegmentAuditStep(mock(ChatClient.class), promptLoader, invoker,
+                new AuditDecisionResolver(), new AuditErrorClassifier(), ragProvider,
+                new AuditCategoryPromptResolver(new NovelAiAuditCategoryProperties()),
+                new NovelAiLearningAuditProperties(), executionProperties, executor, new Semaphore(32), verdictCache,
+                mock(ChapterSegmentHistory.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void segments_are_audited_concurrently_and_kept_in_order() {
+        executionProperties.setSegmentConcurrency(4);
+        CountDownLatch allStarted = new CountDownLatch(4);
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> {
+                    allStarted.countDown();
+                    // 串行执行时后续段永远不会开始，这里会等到超时
+                    boolean concurrent = allStarted.await(5, TimeUnit.SECONDS);
+                    String segment = inv.getArgument(2);
+                    return new AuditDecisionAiOutput(concurrent ? 1 : 0, 0.8, segment);
+                });
+
+        ChapterAuditContext ctx = context("s1", "s2", "s3", "s4");
+
+        assertThat(step.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        assertThat(ctx.getSegmentResults()).extracting(ChapterAuditRespDto::getAuditReason)
+                .containsExactly("s1", "s2", "s3", "s4");
+        assertThat(ctx.getSegmentResults()).extracting(ChapterAuditRespDto::getAuditStatus)
+                .containsOnly(1);
+    }
+
+    @Test
+    void definitive_reject_cancels_remaining_segments() {
+        executionProperties.setSegmentConcurrency(2);
+        AtomicInteger calls = new AtomicInteger();
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> {
+                    calls.incrementAndGet();
+                    if ("reject".equals(inv.getArgument(2))) {
+                        return new AuditDecisionAiOutput(2, 0.95, "涉及违法内容");
+                    }
+                    Thread.sleep(10_000);
+                    return new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+
+        ChapterAuditContext ctx = context("reject", "slow", "slow", "slow", "slow");
+        long start = System.currentTimeMillis();
+
+        assertThat(step.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+        assertThat(ctx.getSegmentResults()).hasSize(5);
+        assertThat(ctx.getSegmentResults().get(0).getAuditStatus()).isEqualTo(2);
+        assertThat(ctx.getSegmentResults().subList(1, 5)).containsOnlyNulls();
+        assertThat(calls.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void returns_only_after_cancelled_calls_have_exited() {
+        executionProperties.setSegmentConcurrency(2);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        AtomicBoolean slowExited = new AtomicBoolean();
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> {
+                    if ("reject".equals(inv.getArgument(2))) {
+                        slowStarted.await(5, TimeUnit.SECONDS);
+                        return new AuditDecisionAiOutput(2, 0.95, "涉及违法内容");
+                    }
+                    slowStarted.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        // 模拟被中断后仍需收尾（如退还 token 预扣）的在途调用
+                        Thread.sleep(200);
+                        slowExited.set(true);
+                        throw e;
+                    }
+                    return new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+
+        ChapterAuditContext ctx = context("reject", "slow");
+
+        assertThat(step.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        assertThat(slowExited).isTrue();
+        assertThat(ctx.getSegmentResults().get(0).getAuditStatus()).isEqualTo(2);
+        assertThat(ctx.getSegmentResults().get(1)).isNull();
+    }
+
+    @Test
+    void low_confidence_reject_does_not_stop_other_segments() {
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> "reject".equals(inv.getArgument(2))
+                        ? new AuditDecisionAiOutput(2, 0.6, "疑似违规")
+                        : new AuditDecisionAiOutput(1, 0.9, "通过"));
+
+        ChapterAuditContext ctx = context("reject", "ok", "ok");
+
+        assertThat(step.execute(ctx)).isEqualTo(StepResult.CONTINUE);
+        assertThat(ctx.getSegmentResults()).doesNotContainNull();
+        assertThat(ctx.getSegmentResults()).extracting(ChapterAuditRespDto::getAuditStatus)
+                .containsExactly(2, 1, 1);
+    }
+
+    @Test
+    void rate_limit_fails_the_whole_chapter() {
+        when(invoker.invoke(any(), anyString(), anyString(), any(), anyString(), (Advisor[]) any()))
+                .thenAnswer(inv -> {
+                    if ("limited".equals(inv.getArgument(2))) {
+                        throw new BusinessException(ErrorCodeEnum.AI_SERVICE_RATE_LIMIT);
+                    }
+                    return new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+
+        ChapterAuditContext ctx = context("ok", "limited", "ok");
+
+        assertThatThrownBy(() -> step.execute(ctx))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCodeEnum())
+                .isEqualTo(ErrorCodeEnum.AI_SERVICE_RATE_LIMIT);
+    }
+
+    private static ChapterAuditContext context(String... segments) {
+        ChapterAuditContext ctx = new ChapterAuditContext(ChapterAuditReqDto.builder()
+                .bookId(1L).chapterNum(1).chapterName("章").content(String.join("", segments)).build());
+        ctx.setSegments(List.of(segments));
+        return ctx;
+    }
+}
@@ -0,0 +1,80 @@
+package com.novel.ai.agent.chapter.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChapterSegmentAlignerTest {
+
+    private static final int MAX = 100;
+
+    private final ChapterContentSplitter splitter = new ChapterContentSplitter();
+    private final ChapterSegmentAligner aligner = new ChapterSegmentAligner(splitter);
+
+    @Test
+    void without_history_matches_plain_split() {
+        String content = paragraph("甲") + paragraph("乙") + paragraph("丙");
+
+        List<ChapterSegmentAligner.AlignedSegment> aligned = aligner.align(content, null, MAX);
+
+        assertThat(aligned).extracting(ChapterSegmentAligner.AlignedSegment::text)
+                .containsExactlyElementsOf(splitter.split(content, MAX));
+        assertThat(aligned).extracting(ChapterSegmentAligner.AlignedSegment::previous).containsOnlyNulls();
+    }
+
+    @Test
+    void edited_middle_segment_is_the_only_new_one() {
+        String before = paragraph("甲") + paragraph("乙") + paragraph("丙");
+        List<SegmentFingerprint> history = fingerprints(splitter.split(before, MAX));
+        assertThat(history).hasSize(3);
+
+        String edited = paragraph("甲") + "新增一句。" + paragraph("乙").substring(3) + paragraph("丙");
+        List<ChapterSegmentAligner.AlignedSegment> aligned = aligner.align(edited, history, MAX);
+
+        assertThat(String.join("", aligned.stream().map(ChapterSegmentAligner.AlignedSegment::text).toList()))
+                .isEqualTo(edited);
+        assertThat(aligned).hasSize(3);
+        assertThat(aligned.get(0).previous()).isEqualTo(history.get(0));
+        assertThat(aligned.get(1).previous()).isNull();
+        assertThat(aligned.get(2).previous()).isEqualTo(history.get(2));
+    }
+
+    @Test
+    void inserted_prefix_and_deleted_segment_keep_remaining_anchors() {
+        String before = paragraph("甲") + paragraph("乙") + paragraph("丙");
+        List<SegmentFingerprint> history = fingerprints(splitter.split(before, MAX));
+
+        String edited = paragraph("序") + paragraph("甲") + paragraph("丙");
+        List<ChapterSegmentAligner.AlignedSegment> aligned = aligner.align(edited, history, MAX);
+
+        assertThat(aligned).extracting(ChapterSegmentAligner.AlignedSegment::text)
+                .containsExactly(paragraph("序"), paragraph("甲"), paragraph("丙"));
+        assertThat(aligned).extracting(ChapterSegmentAligner.AlignedSegment::previous)
+                .containsExactly(null, history.get(0), history.get(2));
+    }
+
+    @Test
+    void whitespace_only_gaps_are_dropped() {
+        String before = paragraph("甲") + paragraph("乙");
+        List<SegmentFingerprint> history = fingerprints(splitter.split(before, MAX));
+
+        List<ChapterSegmentAligner.AlignedSegment> aligned =
+                aligner.align(paragraph("甲") + "\n\n" + paragraph("乙"), history, MAX);
+
+        assertThat(aligned).extracting(ChapterSegmentAligner.AlignedSegment::previous)
+                .containsExactly(history.get(0), history.get(1));
+    }
+
+    /** 约 60 字、以句号结尾的一段，MAX=100 时恰好独立成一段。 */
+    static String paragraph(String mark) {
+        return (mark + "的故事继续展开，").repeat(6) + "。";
+    }
+
+    private static List<SegmentFingerprint> fingerprints(List<String> segments) {
+        return segments.stream()
+                .map(text -> ChapterSegmentAligner.fingerprint(text).withVerdict(1, null, "通过"))
+                .toList();
+    }
+}
@@ -90,6 +90,22 @@ class ChapterSegmentMergerTest {
         assertThat(resp.getAuditReason().length()).isLessThanOrEqualTo(500);
     }
 
+    @Test
+    void skipped_segments_keep_numbering_and_are_noted_in_reason() {
+        List<ChapterAuditRespDto> segments = new ArrayList<>();
+        segments.add(seg(1, new BigDecimal("0.90"), "通过"));
+        segments.add(seg(2, new BigDecimal("0.95"), "涉及违法内容"));
+        segments.add(null);
+        segments.add(null);
+
+        ChapterAuditRespDto resp = merger.merge(segments, 1L, 2);
+
+        assertThat(resp.getAuditStatus()).isEqualTo(2);
+        // 只对已审核的两段取均值
+        assertThat(resp.getAiConfidence()).isEqualTo(new BigDecimal("0.93"));
+        assertThat(resp.getAuditReason()).contains("第2段：涉及违法内容", "其余1段通过", "2段未继续审核");
+    }
+
     private static ChapterAuditRespDto seg(int status, BigDecimal confidence, String reason) {
         return ChapterAuditRespDto.builder()
                 .bookId(1L)
@@ -0,0 +1,128 @@
+package com.novel.ai.agent.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.ai.config.NovelAiAuditCacheProperties;
+import com.novel.ai.model.AuditDecisionAiOutput;
+import com.novel.ai.prompt.NovelAiPromptKey;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditVerdictCacheTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NovelAiAuditCacheProperties properties = new NovelAiAuditCacheProperties();
+    private NovelAiPromptLoader promptLoader;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        promptLoader = new NovelAiPromptLoader(new DefaultResourceLoader());
+        promptLoader.init();
+        properties.setModelId("qwen-test");
+
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(ops.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> redis.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(ops).set(anyString(), anyString(), any(Duration.class));
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+    }
+
+    @Test
+    void whitespace_and_width_only_changes_hit_the_local_tier() {
+        AuditVerdictCache cache = newCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        AuditDecisionAiOutput first = cache.getOrLoad(NovelAiPromptKey.CHAPTER_AUDIT, "system", "第一章  正文\r\n内容",
+                () -> {
+                    calls.incrementAndGet();
+                    return new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+        AuditDecisionAiOutput second = cache.getOrLoad(NovelAiPromptKey.CHAPTER_AUDIT, "system", "第一章　正文\n内容 ",
+                () -> {
+                    calls.incrementAndGet();
+                    return new AuditDecisionAiOutput(2, 0.9, "不应被调用");
+                });
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(meterRegistry.counter(AuditVerdictCache.METRIC_REQUESTS,
+                "scene", "chapter_audit", "tier", "local", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter(AuditVerdictCache.METRIC_TOKENS_SAVED, "scene", "chapter_audit").count())
+                .isPositive();
+    }
+
+    @Test
+    void redis_tier_is_shared_across_instances() {
+        newCache().getOrLoad(NovelAiPromptKey.BOOK_AUDIT, "system", "书名：测试",
+                () -> new AuditDecisionAiOutput(2, 0.95, "违规"));
+
+        AtomicInteger calls = new AtomicInteger();
+        AuditDecisionAiOutput output = newCache().getOrLoad(NovelAiPromptKey.BOOK_AUDIT, "system", "书名：测试",
+                () -> {
+                    calls.incrementAndGet();
+                    return new AuditDecisionAiOutput(1, 0.9, "通过");
+                });
+
+        assertThat(calls.get()).isZero();
+        assertThat(output.auditStatus()).isEqualTo(2);
+        assertThat(output.auditReason()).isEqualTo("违规");
+    }
+
+    @Test
+    void pending_verdicts_are_not_cached() {
+        AuditVerdictCache cache = newCache();
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.getOrLoad(NovelAiPromptKey.CHAPTER_AUDIT, "system", "正文", () -> {
+                calls.incrementAndGet();
+                return new AuditDecisionAiOutput(null, 0.5, "解析缺字段");
+            });
+        }
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(redis).isEmpty();
+    }
+
+    @Test
+    void key_changes_with_prompt_scene_and_model() {
+        AuditVerdictCache cache = newCache();
+        String chapter = cache.key(NovelAiPromptKey.CHAPTER_AUDIT, "system", "正文");
+        String learning = cache.key(NovelAiPromptKey.CHAPTER_AUDIT_LEARNING, "system", "正文");
+        properties.setModelId("qwen-other");
+        String otherModel = newCache().key(NovelAiPromptKey.CHAPTER_AUDIT, "system", "正文");
+
+        assertThat(chapter).contains(":" + promptLoader.version(NovelAiPromptKey.CHAPTER_AUDIT) + ":qwen-test:");
+        assertThat(learning).isNotEqualTo(chapter);
+        assertThat(otherModel).isNotEqualTo(chapter);
+    }
+
+    private AuditVerdictCache newCache() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return new AuditVerdictCache(properties, promptLoader, redisTemplate, new ObjectMapper(),
+                beanFactory.getBeanProvider(ChatModel.class), beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+}
@@ -0,0 +1,207 @@
+package com.novel.ai.benchmark;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.novel.ai.rag.ann.HnswIndex;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 审核判例向量检索基准：本地 HNSW、暴力精确扫描与 ES kNN 的单次 Top-K 延迟，以及各自相对精确结果的 recall@k。
+ * <p>
+ * 数据为按簇分布的随机向量（模拟"同类违规判例聚集"），维度默认与 DashScope text-embedding-v3 一致。
+ * recall@k 在 Trial 开始时用固定的一组查询计算并打印，延迟由 JMH 测量。
+ * <p>
+ * {@code source=es} 需要一个可写的 Elasticsearch，默认 {@code http://127.0.0.1:9200}，
+ * 可用 {@code -Dbenchmark.es.url=...} 覆盖；只使用 {@code bench_audit_experience_ann} 索引，结束后删除。
+ * 运行：{@code mvn -pl novel-ai/novel-ai-service -am test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditExperienceAnnBenchmark {
+
+    private static final String ES_INDEX = "bench_audit_experience_ann";
+    private static final String ES_FIELD = "embedding";
+    private static final int CLUSTERS = 64;
+    private static final int QUERIES = 200;
+    private static final int RECALL_QUERIES = 100;
+    private static final int BULK_CHUNK = 500;
+
+    @Param({"10000", "50000"})
+    public int docs;
+
+    @Param({"1024"})
+    public int dimension;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"hnsw", "exact", "es"})
+    public String source;
+
+    /** HNSW 查询队列长度；ES 侧对应 num_candidates */
+    @Param({"64"})
+    public int ef;
+
+    private HnswIndex index;
+    private float[][] queries;
+    private RestClient restClient;
+    private ElasticsearchClient esClient;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(20240501L);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, 1.0f);
+        }
+        index = new HnswIndex(dimension, 16, 200, 42L);
+        float[][] vectors = new float[docs][];
+        for (int i = 0; i < docs; i++) {
+            vectors[i] = around(centroids[random.nextInt(CLUSTERS)], random);
+            index.add(vectors[i]);
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = around(centroids[random.nextInt(CLUSTERS)], random);
+        }
+        if ("es".equals(source)) {
+            restClient = RestClient.builder(HttpHost.create(
+                    System.getProperty("benchmark.es.url", "http://127.0.0.1:9200"))).build();
+            esClient = new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+            loadEs(vectors);
+        }
+        System.out.printf("%n>>> source=%s, docs=%d, dim=%d, k=%d, ef=%d, recall@k=%.4f%n",
+                source, docs, dimension, k, ef, recall());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (esClient != null) {
+            esClient.indices().delete(d -> d.index(ES_INDEX).ignoreUnavailable(true));
+            restClient.close();
+        }
+    }
+
+    @Benchmark
+    public Object search() throws IOException {
+        float[] query = queries[cursor++ % QUERIES];
+        return topK(query);
+    }
+
+    private Set<String> topK(float[] query) throws IOException {
+        Set<String> ids = new HashSet<>();
+        switch (source) {
+            case "hnsw" -> index.search(query, k, ef, null).forEach(n -> ids.add(String.valueOf(n.node())));
+            case "exact" -> index.exactSearch(query, k, null).forEach(n -> ids.add(String.valueOf(n.node())));
+            case "es" -> esClient.search(s -> s
+                            .index(ES_INDEX)
+                            .source(src -> src.fetch(false))
+                            .knn(kn -> kn.field(ES_FIELD).queryVector(toList(query)).k(k).numCandidates(ef)),
+                    Void.class).hits().hits().forEach(hit -> ids.add(hit.id()));
+            default -> throw new IllegalArgumentException(source);
+        }
+        return ids;
+    }
+
+    private double recall() throws IOException {
+        int hits = 0;
+        for (int i = 0; i < RECALL_QUERIES; i++) {
+            Set<String> expected = new HashSet<>();
+            index.exactSearch(queries[i], k, null).forEach(n -> expected.add(String.valueOf(n.node())));
+            for (String id : topK(queries[i])) {
+                if (expected.contains(id)) {
+                    hits++;
+                }
+            }
+        }
+        return (double) hits / (RECALL_QUERIES * k);
+    }
+
+    private void loadEs(float[][] vectors) throws IOException {
+        esClient.indices().delete(d -> d.index(ES_INDEX).ignoreUnavailable(true));
+        esClient.indices().create(c -> c
+                .index(ES_INDEX)
+                .mappings(m -> m.properties(ES_FIELD, p -> p.denseVector(dv -> dv
+                        .dims(dimension)
+                        .index(true)
+                        .similarity("cosine")))));
+        for (int from = 0; from < vectors.length; from += BULK_CHUNK) {
+            List<BulkOperation> operations = new ArrayList<>(BULK_CHUNK);
+            for (int i = from; i < Math.min(from + BULK_CHUNK, vectors.length); i++) {
+                String id = String.valueOf(i);
+                Map<String, Object> doc = Map.of(ES_FIELD, toList(vectors[i]));
+                operations.add(BulkOperation.of(op -> op.index(idx -> idx.index(ES_INDEX).id(id).document(doc))));
+            }
+            if (esClient.bulk(BulkRequest.of(b -> b.operations(operations))).errors()) {
+                throw new IllegalStateException("bulk load failed at offset " + from);
+            }
+        }
+        esClient.indices().refresh(r -> r.index(ES_INDEX));
+        // 合并为单段，避免多段各自搜索放大延迟（与生产小索引 force merge 后的状态一致）
+        esClient.indices().forcemerge(f -> f.index(ES_INDEX).maxNumSegments(1L));
+    }
+
+    private float[] gaussian(Random random, float scale) {
+        float[] v = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            v[i] = (float) random.nextGaussian() * scale;
+        }
+        return v;
+    }
+
+    private float[] around(float[] centroid, Random random) {
+        float[] noise = gaussian(random, 0.6f);
+        for (int i = 0; i < dimension; i++) {
+            noise[i] += centroid[i];
+        }
+        return noise;
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float v : vector) {
+            list.add(v);
+        }
+        return list;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditExperienceAnnBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
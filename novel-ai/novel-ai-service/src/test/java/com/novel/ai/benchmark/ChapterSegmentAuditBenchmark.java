@@ -0,0 +1,161 @@
+package com.novel.ai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.ai.agent.chapter.ChapterAuditContext;
+import com.novel.ai.agent.chapter.step.ChapterSegmentAuditStep;
+import com.novel.ai.agent.chapter.support.ChapterContentSplitter;
+import com.novel.ai.agent.chapter.support.ChapterSegmentAligner;
+import com.novel.ai.agent.chapter.support.ChapterSegmentHistory;
+import com.novel.ai.agent.core.AuditErrorClassifier;
+import com.novel.ai.agent.support.AuditCategoryPromptResolver;
+import com.novel.ai.agent.support.AuditDecisionResolver;
+import com.novel.ai.agent.support.AuditVerdictCache;
+import com.novel.ai.config.NovelAiAuditCacheProperties;
+import com.novel.ai.config.NovelAiAuditCategoryProperties;
+import com.novel.ai.config.NovelAiAuditExecutionProperties;
+import com.novel.ai.config.NovelAiLearningAuditProperties;
+import com.novel.ai.invoker.NovelAiStructuredOutputProperties;
+import com.novel.ai.invoker.StructuredOutputInvoker;
+import com.novel.ai.prompt.NovelAiPromptLoader;
+import com.novel.book.dto.req.ChapterAuditReqDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 章节分段审核端到端耗时随段数的变化：串行（{@code concurrency=1}）对比分段并发。
+ * <p>
+ * 模型为本地桩 {@link ChatModel}，每次调用固定休眠 {@code latencyMs} 后返回"通过"，
+ * 其余组件（Prompt 渲染、结构化输出解析、结果落位）均为生产实现，不挂 RAG 与 token 限流 Advisor，
+ * 审核结论缓存与增量复审关闭（每次迭代审核的是同一章，开启后除首轮外都不会调用模型）。
+ * 串行耗时约为 {@code segments × latencyMs}，并发时约为 {@code ceil(segments / concurrency) × latencyMs}。
+ * 运行：{@code mvn -pl novel-ai/novel-ai-service -am test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ChapterSegmentAuditBenchmark {
+
+    private static final String PASS_JSON = "{\"auditStatus\":1,\"aiConfidence\":0.92,\"auditReason\":\"内容符合平台规范\"}";
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int segments;
+
+    @Param({"1", "4", "8"})
+    public int concurrency;
+
+    @Param({"200"})
+    public long latencyMs;
+
+    private ExecutorService executor;
+    private ChapterSegmentAuditStep step;
+    private List<String> segmentTexts;
+
+    @Setup
+    public void setUp() {
+        NovelAiPromptLoader promptLoader = new NovelAiPromptLoader(new DefaultResourceLoader());
+        promptLoader.init();
+        NovelAiAuditExecutionProperties executionProperties = new NovelAiAuditExecutionProperties();
+        executionProperties.setSegmentConcurrency(concurrency);
+        executionProperties.setIncrementalReauditEnabled(false);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        ChatModel stubModel = new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+                return new ChatResponse(List.of(new Generation(new AssistantMessage(PASS_JSON))));
+            }
+        };
+
+        NovelAiAuditCacheProperties cacheProperties = new NovelAiAuditCacheProperties();
+        cacheProperties.setEnabled(false);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        AuditVerdictCache verdictCache = new AuditVerdictCache(cacheProperties, promptLoader, null,
+                new ObjectMapper(), beanFactory.getBeanProvider(ChatModel.class),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+
+        AuditCategoryPromptResolver categoryPromptResolver =
+                new AuditCategoryPromptResolver(new NovelAiAuditCategoryProperties());
+        ChapterSegmentHistory segmentHistory = new ChapterSegmentHistory(
+                new ChapterSegmentAligner(new ChapterContentSplitter()), promptLoader, categoryPromptResolver,
+                verdictCache, executionProperties, null, new ObjectMapper(), beanFactory.getBeanProvider(MeterRegistry.class));
+
+        step = new ChapterSegmentAuditStep(
+                ChatClient.builder(stubModel).build(),
+                promptLoader,
+                new StructuredOutputInvoker(new NovelAiStructuredOutputProperties()),
+                new AuditDecisionResolver(),
+                new AuditErrorClassifier(),
+                beanFactory.getBeanProvider(RetrievalAugmentationAdvisor.class),
+                categoryPromptResolver,
+                new NovelAiLearningAuditProperties(),
+                executionProperties,
+                executor,
+                new Semaphore(Integer.MAX_VALUE),
+                verdictCache,
+                segmentHistory);
+
+        segmentTexts = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            segmentTexts.add("第" + (i + 1) + "段正文。".repeat(200));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ChapterAuditContext auditChapter() {
+        ChapterAuditContext ctx = new ChapterAuditContext(ChapterAuditReqDto.builder()
+                .bookId(1L)
+                .chapterNum(1)
+                .chapterName("基准章节")
+                .content(String.join("", segmentTexts))
+                .build());
+        ctx.setSegments(segmentTexts);
+        step.execute(ctx);
+        return ctx;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChapterSegmentAuditBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
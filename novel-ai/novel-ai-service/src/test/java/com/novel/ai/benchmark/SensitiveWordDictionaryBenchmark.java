@@ -0,0 +1,107 @@
+package com.novel.ai.benchmark;
+
+import com.novel.ai.sensitive.LocalFileSensitiveWordSource;
+import com.novel.ai.sensitive.SensitiveWordDictionary;
+import com.novel.ai.sensitive.SensitiveWordProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词词典切换成本基准：同一词表「从词条构建自动机」与「从预构建快照读回」的耗时对比，
+ * 以及快照编码耗时；词表规模 15k（内置词表量级）、100k、1M。
+ * <p>
+ * 词表以内置 {@code sensitive-words.txt} 为底，不足部分补随机 2~6 字中文词，约 5% 为英文/数字混排词。
+ * 常驻内存（自动机数组估算）与快照大小在 Trial 开始时打印；构建/读回过程的分配量看 GC profiler 的
+ * {@code gc.alloc.rate.norm}（B/op）。1M 词建议 {@code -Xmx4g}。
+ * 运行：{@code mvn -pl novel-ai/novel-ai-service -am test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SensitiveWordDictionaryBenchmark {
+
+    private static final String[] ASCII_PARTS = {"qq", "vx", "vip", "app", "wx", "btc", "888", "666", "18", "3p"};
+
+    @Param({"15000", "100000", "1000000"})
+    public int words;
+
+    private List<String> wordList;
+    private SensitiveWordDictionary dictionary;
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() {
+        wordList = buildWords(words, new Random(42));
+        dictionary = build();
+        snapshot = dictionary.toSnapshot();
+        System.out.printf("%n[SensitiveWordDictionaryBenchmark] words=%d 去重后=%d 自动机约 %.1f MB 快照 %.1f MB%n",
+                words, dictionary.size(), dictionary.estimatedBytes() / 1048576.0, snapshot.length / 1048576.0);
+    }
+
+    @Benchmark
+    public SensitiveWordDictionary build() {
+        return SensitiveWordDictionary.compile(1, wordList, true, false, Map.of());
+    }
+
+    @Benchmark
+    public SensitiveWordDictionary loadSnapshot() {
+        return SensitiveWordDictionary.fromSnapshot(snapshot);
+    }
+
+    @Benchmark
+    public byte[] encodeSnapshot() {
+        return dictionary.toSnapshot();
+    }
+
+    static List<String> buildWords(int count, Random random) {
+        SensitiveWordProperties properties = new SensitiveWordProperties();
+        Set<String> result = new LinkedHashSet<>(
+                new LocalFileSensitiveWordSource(properties, new DefaultResourceLoader()).loadWords());
+        while (result.size() < count) {
+            StringBuilder sb = new StringBuilder();
+            int length = 2 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                if (random.nextInt(20) == 0) {
+                    sb.append(ASCII_PARTS[random.nextInt(ASCII_PARTS.length)]);
+                } else {
+                    // 常用汉字集中在 U+4E00 起的前 ~7000 个码位
+                    sb.append((char) ('一' + random.nextInt(7000)));
+                }
+            }
+            result.add(sb.toString());
+        }
+        return new ArrayList<>(result).subList(0, count);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SensitiveWordDictionaryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,234 @@
+package com.novel.ai.benchmark;
+
+import com.hankcs.algorithm.AhoCorasickDoubleArrayTrie;
+import com.novel.ai.sensitive.LocalFileSensitiveWordSource;
+import com.novel.ai.sensitive.SensitiveWordMatcher;
+import com.novel.ai.sensitive.SensitiveWordProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词扫描基准：改造前「整串 toLowerCase + parseText」的实现（{@code impl=legacy}，原样保留在本类中）
+ * 对比逐字符折叠扫描（{@code impl=folding}）的吞吐与分配。
+ * <p>
+ * 词典以内置 {@code sensitive-words.txt} 为底，不足 {@code dictionarySize} 时补随机 2~4 字中文词；
+ * 正文为按常用字、标点、对话引号、少量英文/数字混排生成的章节，{@code hitsPerChapter} 控制埋入的命中数
+ * （0 对应绝大多数章节「扫完全文无命中」的情况）。
+ * <p>
+ * {@link #scanReader()} 模拟调用方手里只有 {@link Reader}：legacy 需先读成整串再扫描，folding 直接分块扫描。
+ * 分配率看 GC profiler 的 {@code gc.alloc.rate.norm}（B/op）。
+ * 运行：{@code mvn -pl novel-ai/novel-ai-service -am test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SensitiveWordMatcherBenchmark {
+
+    private static final String COMMON_CHARS = "的一是了我不人在他有这个上们来到时大地为子中你说生国年着就那和要她出也得里后自以会"
+            + "家可下而过天去能对小多然于心学么之都好看起发当没成只如事把还用第样道想作种开美总从无情己面最女但现前些所同日手"
+            + "又行意动方期它头经长儿回位分爱老因很给名法间斯知世什两次使身者被高已亲其进此话常与活正感见明问力理尔点文几定本"
+            + "公特做外孩相西果走将月十实向声车全信重三机工物气每并别真打太新比才便夫再书部水像眼等体却加电主界门利海受听表德少"
+            + "克代员许先口由死安写性马光白或住难望教命花结乐色更拉东神记处让母父应直字场平报友关放至张认接告入笑内英军候民岁往";
+    private static final String[] ASCII_TOKENS = {"QQ", "VIP", "Boss", "OK", "2024", "App", "WiFi", "No.1"};
+    private static final String[] PUNCTUATION = {"，", "。", "！", "？", "……", "；"};
+
+    @Param({"1000", "15000", "50000"})
+    public int dictionarySize;
+
+    @Param({"3000", "20000"})
+    public int chapterChars;
+
+    @Param({"0", "20"})
+    public int hitsPerChapter;
+
+    @Param({"legacy", "folding"})
+    public String impl;
+
+    private LegacyMatcher legacy;
+    private SensitiveWordMatcher folding;
+    private String chapter;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> words = buildDictionary(random);
+        legacy = new LegacyMatcher(words);
+        SensitiveWordProperties properties = new SensitiveWordProperties();
+        folding = new SensitiveWordMatcher(() -> words, properties);
+        folding.init();
+        chapter = buildChapter(random, words);
+    }
+
+    @Benchmark
+    public List<String> findAll() {
+        return "legacy".equals(impl) ? legacy.findAll(chapter) : folding.findAll(chapter);
+    }
+
+    @Benchmark
+    public boolean hasAny() {
+        return "legacy".equals(impl) ? legacy.hasAny(chapter) : folding.hasAny(chapter);
+    }
+
+    @Benchmark
+    public int scanReader() throws IOException {
+        Reader reader = new StringReader(chapter);
+        if ("legacy".equals(impl)) {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, read);
+            }
+            return legacy.countHits(sb.toString());
+        }
+        int[] hits = {0};
+        folding.scan(reader, (begin, end, word) -> {
+            hits[0]++;
+            return true;
+        });
+        return hits[0];
+    }
+
+    private List<String> buildDictionary(Random random) {
+        SensitiveWordProperties properties = new SensitiveWordProperties();
+        Collection<String> bundled = new LocalFileSensitiveWordSource(properties, new DefaultResourceLoader()).loadWords();
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : bundled) {
+            if (words.size() >= dictionarySize) {
+                break;
+            }
+            words.add(word);
+        }
+        while (words.size() < dictionarySize) {
+            int length = 2 + random.nextInt(3);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append((char) ('一' + random.nextInt(0x9fa5 - 0x4e00)));
+            }
+            words.add(sb.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * 常用字组句，句长 8~30 字，约 1/6 的句子是对话，约 2% 的位置插入英文/数字，埋词均匀分布在全文中。
+     * 常用字随机组合难免碰上词典里的词，{@code hitsPerChapter=0} 时把这些偶然命中的首字替换成逗号，直到扫不到为止。
+     */
+    private String buildChapter(Random random, List<String> words) {
+        StringBuilder sb = new StringBuilder(chapterChars + 64);
+        int nextHitAt = hitsPerChapter > 0 ? chapterChars / (hitsPerChapter + 1) : Integer.MAX_VALUE;
+        int hitsPlaced = 0;
+        while (sb.length() < chapterChars) {
+            boolean dialogue = random.nextInt(6) == 0;
+            if (dialogue) {
+                sb.append('“');
+            }
+            int sentence = 8 + random.nextInt(23);
+            for (int i = 0; i < sentence; i++) {
+                if (sb.length() >= nextHitAt && hitsPlaced < hitsPerChapter) {
+                    sb.append(words.get(random.nextInt(words.size())));
+                    hitsPlaced++;
+                    nextHitAt = (int) ((long) chapterChars * (hitsPlaced + 1) / (hitsPerChapter + 1));
+                } else if (random.nextInt(50) == 0) {
+                    sb.append(ASCII_TOKENS[random.nextInt(ASCII_TOKENS.length)]);
+                } else {
+                    sb.append(COMMON_CHARS.charAt(random.nextInt(COMMON_CHARS.length())));
+                }
+            }
+            sb.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+            if (dialogue) {
+                sb.append('”');
+            }
+            if (random.nextInt(8) == 0) {
+                sb.append("\n\n　　");
+            }
+        }
+        if (hitsPerChapter == 0) {
+            boolean[] dirty = {true};
+            while (dirty[0]) {
+                dirty[0] = false;
+                folding.scan(sb, (begin, end, word) -> {
+                    sb.setCharAt(begin, '，');
+                    dirty[0] = true;
+                    return true;
+                });
+            }
+        }
+        return sb.toString();
+    }
+
+    /** 改造前 SensitiveWordMatcher 的扫描方式：词典与正文都整串 toLowerCase 后交给 parseText。 */
+    private static final class LegacyMatcher {
+
+        private final AhoCorasickDoubleArrayTrie<String> trie = new AhoCorasickDoubleArrayTrie<>();
+
+        LegacyMatcher(List<String> words) {
+            Map<String, String> map = new LinkedHashMap<>();
+            for (String word : words) {
+                String lower = word.toLowerCase();
+                map.put(lower, lower);
+            }
+            trie.build(map);
+        }
+
+        List<String> findAll(String text) {
+            String target = text.toLowerCase();
+            Set<String> hits = new LinkedHashSet<>();
+            trie.parseText(target, (AhoCorasickDoubleArrayTrie.IHit<String>) (begin, end, value) -> hits.add(value));
+            return new ArrayList<>(hits);
+        }
+
+        int countHits(String text) {
+            int[] hits = {0};
+            trie.parseText(text.toLowerCase(), (AhoCorasickDoubleArrayTrie.IHit<String>) (begin, end, value) -> hits[0]++);
+            return hits[0];
+        }
+
+        boolean hasAny(String text) {
+            String target = text.toLowerCase();
+            boolean[] hit = new boolean[1];
+            trie.parseText(target, (AhoCorasickDoubleArrayTrie.IHitCancellable<String>) (begin, end, value) -> {
+                hit[0] = true;
+                return false;
+            });
+            return hit[0];
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SensitiveWordMatcherBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.novel.ai.rag;
+
+import com.novel.ai.dto.req.AuditExperienceUpsertReqDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 判例写入：整批失败时逐条重试，只把真正失败的 auditId 返回，成功的同步给本地兜底索引。
+ */
+class AuditExperienceIndexerTest {
+
+    private static AuditExperienceUpsertReqDto experience(long auditId, String label) {
+        AuditExperienceUpsertReqDto dto = new AuditExperienceUpsertReqDto();
+        dto.setAuditId(auditId);
+        dto.setViolationLabel(label);
+        dto.setKeySnippet("片段" + auditId);
+        return dto;
+    }
+
+    @Test
+    void shouldIsolateFailedRecordsWhenBatchFails() {
+        VectorStore vectorStore = mock(VectorStore.class);
+        LocalAuditExperienceIndex localIndex = mock(LocalAuditExperienceIndex.class);
+        doThrow(new IllegalStateException("bulk rejected"))
+                .when(vectorStore).add(argThat((List<Document> docs) -> docs.size() > 1
+                        || docs.getFirst().getId().equals("2")));
+        AuditExperienceIndexer indexer = new AuditExperienceIndexer(vectorStore, localIndex);
+
+        AuditExperienceIndexer.IndexResult result = indexer.upsert(
+                List.of(experience(1, "violence"), experience(2, "porn"), experience(3, "ad")), false);
+
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailedAuditIds()).containsExactly(2L);
+        verify(localIndex).refreshFromStore(List.of("1", "3"));
+    }
+
+    @Test
+    void shouldSkipRecordsWithoutLabelAndNotWriteOnDryRun() {
+        VectorStore vectorStore = mock(VectorStore.class);
+        AuditExperienceIndexer indexer = new AuditExperienceIndexer(vectorStore, mock(LocalAuditExperienceIndex.class));
+
+        AuditExperienceIndexer.IndexResult result = indexer.upsert(
+                List.of(experience(1, "violence"), experience(2, " ")), true);
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        verify(vectorStore, never()).add(anyList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.novel.ai.rag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 判例检索的延迟预算与熔断窗口：ES 正常直接返回，超时/报错改走本地，窗口内不再等待 ES。
+ */
+class AuditExperienceVectorSearcherTest {
+
+    private static final Document ES_DOC = new Document("es", "es", Map.of());
+    private static final Document LOCAL_DOC = new Document("local", "local", Map.of());
+
+    private VectorStore vectorStore;
+    private EmbeddingModel embeddingModel;
+    private LocalAuditExperienceIndex localIndex;
+    private NovelAiRagFallbackProperties properties;
+    private AuditExperienceVectorSearcher searcher;
+    private final SearchRequest request = SearchRequest.builder().query("暴力").topK(3).build();
+
+    @BeforeEach
+    void setUp() {
+        vectorStore = mock(VectorStore.class);
+        embeddingModel = mock(EmbeddingModel.class);
+        localIndex = mock(LocalAuditExperienceIndex.class);
+        properties = new NovelAiRagFallbackProperties();
+        properties.setEsBudgetMillis(100);
+        properties.setCooldownMillis(60_000);
+        when(localIndex.isReady()).thenReturn(true);
+        when(embeddingModel.embed("暴力")).thenReturn(new float[]{1f, 0f});
+        when(localIndex.search(any(), anyInt(), anyDouble(), isNull())).thenReturn(List.of(LOCAL_DOC));
+        searcher = new AuditExperienceVectorSearcher(vectorStore, embeddingModel, localIndex, properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void shouldServeFromEsWithinBudget() {
+        when(vectorStore.similaritySearch(request)).thenReturn(List.of(ES_DOC));
+
+        assertThat(searcher.search(request, null)).containsExactly(ES_DOC);
+        verify(embeddingModel, never()).embed(any(String.class));
+    }
+
+    @Test
+    void shouldFallBackToLocalWhenEsExceedsBudgetAndSkipEsDuringCooldown() {
+        when(vectorStore.similaritySearch(request)).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return List.of(ES_DOC);
+        });
+
+        assertThat(searcher.search(request, null)).containsExactly(LOCAL_DOC);
+        assertThat(searcher.search(request, null)).containsExactly(LOCAL_DOC);
+        verify(vectorStore, times(1)).similaritySearch(request);
+    }
+
+    @Test
+    void shouldFallBackToLocalWhenEsFails() {
+        when(vectorStore.similaritySearch(request)).thenThrow(new IllegalStateException("es down"));
+
+        assertThat(searcher.search(request, null)).containsExactly(LOCAL_DOC);
+    }
+
+    @Test
+    void shouldCallEsDirectlyWhenLocalIndexNotReady() {
+        when(localIndex.isReady()).thenReturn(false);
+        when(vectorStore.similaritySearch(request)).thenThrow(new IllegalStateException("es down"));
+
+        assertThatThrownBy(() -> searcher.search(request, null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.novel.ai.rag.ann;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HNSW 索引的召回率与墓碑/过滤语义测试：以暴力扫描结果为基准。
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 64;
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return v;
+    }
+
+    private static HnswIndex build(int size, Random random) {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 200, 7L);
+        for (int i = 0; i < size; i++) {
+            index.add(randomVector(random));
+        }
+        return index;
+    }
+
+    @Test
+    void shouldReachHighRecallAgainstExactSearch() {
+        Random random = new Random(1);
+        HnswIndex index = build(5000, random);
+        int k = 10;
+        int hits = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Integer> expected = new HashSet<>();
+            index.exactSearch(query, k, null).forEach(n -> expected.add(n.node()));
+            for (HnswIndex.Neighbor n : index.search(query, k, 64, null)) {
+                if (expected.contains(n.node())) {
+                    hits++;
+                }
+            }
+        }
+        assertThat((double) hits / (queries * k)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void shouldReturnScoresInDescendingOrderAsCosine() {
+        HnswIndex index = new HnswIndex(2, 4, 8, 1L);
+        int same = index.add(new float[]{2, 0});
+        int orthogonal = index.add(new float[]{0, 3});
+        int opposite = index.add(new float[]{-1, 0});
+
+        List<HnswIndex.Neighbor> result = index.search(new float[]{5, 0}, 3, 8, null);
+
+        assertThat(result).extracting(HnswIndex.Neighbor::node).containsExactly(same, orthogonal, opposite);
+        assertThat(result.get(0).score()).isCloseTo(1f, Offset.offset(1e-6f));
+        assertThat(result.get(2).score()).isCloseTo(-1f, Offset.offset(1e-6f));
+    }
+
+    @Test
+    void shouldExcludeDeletedNodes() {
+        Random random = new Random(2);
+        HnswIndex index = build(500, random);
+        float[] query = randomVector(random);
+        int nearest = index.exactSearch(query, 1, null).getFirst().node();
+
+        index.markDeleted(nearest);
+        index.markDeleted(nearest);
+
+        assertThat(index.deletedCount()).isEqualTo(1);
+        assertThat(index.search(query, 10, 64, null)).extracting(HnswIndex.Neighbor::node).doesNotContain(nearest);
+        assertThat(index.exactSearch(query, 10, null)).extracting(HnswIndex.Neighbor::node).doesNotContain(nearest);
+    }
+
+    @Test
+    void shouldOnlyReturnAcceptedNodesWhileRoutingThroughOthers() {
+        Random random = new Random(3);
+        HnswIndex index = build(2000, random);
+        float[] query = randomVector(random);
+
+        List<HnswIndex.Neighbor> result = index.search(query, 5, 64, node -> node % 10 == 0);
+
+        assertThat(result).isNotEmpty().allSatisfy(n -> assertThat(n.node() % 10).isZero());
+        assertThat(result).extracting(HnswIndex.Neighbor::node)
+                .containsAnyElementsOf(index.exactSearch(query, 5, node -> node % 10 == 0)
+                        .stream().map(HnswIndex.Neighbor::node).toList());
+    }
+
+    @Test
+    void shouldReturnEmptyForEmptyIndex() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 200, 1L);
+        assertThat(index.search(new float[DIMENSION], 5, 64, null)).isEmpty();
+        assertThat(index.exactSearch(new float[DIMENSION], 5, null)).isEmpty();
+    }
+}
@@ -0,0 +1,348 @@
+package com.novel.ai.sensitive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 集群词典同步：种子写入、单点构建 + 快照复用、持锁期间等待快照 / 锁消失后接手构建、快照超限时并行构建、
+ * 增量补齐、变更日志断档时全量拉取、Redis 故障时保留当前词典、关闭时中断等待。
+ * 两个 service 共用一个内存版 store，模拟两个节点。
+ */
+class SensitiveWordDictionaryServiceTest {
+
+    private final List<String> localWords = List.of("暴力", "血腥");
+    private InMemoryStore store;
+    private SensitiveWordProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SensitiveWordProperties();
+        store = new InMemoryStore(properties);
+    }
+
+    @Test
+    void firstNodeSeedsBuildsAndUploadsSnapshotSecondNodeLoadsIt() {
+        Node first = node();
+        Node second = node();
+
+        first.service.sync("test");
+        second.service.sync("test");
+
+        assertThat(first.matcher.current().version()).isEqualTo(1);
+        assertThat(first.matcher.findAll("暴力")).containsExactly("暴力");
+        assertThat(store.fullLoads).isEqualTo(1);
+        assertThat(store.snapshots).hasSize(1);
+        assertThat(second.matcher.current().version()).isEqualTo(1);
+        assertThat(second.matcher.findAll("血腥")).containsExactly("血腥");
+    }
+
+    @Test
+    void appliesChangesIncrementallyWhenChangelogIsContiguous() {
+        Node node = node();
+        node.service.sync("test");
+        store.update(List.of("赌博"), List.of("暴力"));
+        store.update(List.of("诈骗"), List.of());
+        store.snapshots.clear();
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(3);
+        assertThat(node.matcher.findAll("暴力赌博诈骗血腥")).containsExactly("赌博", "诈骗", "血腥");
+        assertThat(store.fullLoads).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsUpdateThatAddsAndRemovesTheSameWord() {
+        Node node = node();
+        node.service.sync("test");
+
+        assertThatThrownBy(() -> node.service.update(List.of("赌博", "诈骗"), List.of(" 赌博 ")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("赌博");
+        assertThat(store.currentVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void replaysChangeWithSameWordAddedAndRemovedInScriptOrder() {
+        Node node = node();
+        node.service.sync("test");
+        // 脚本先 SADD 再 SREM：同一请求里既加又删的新词最终不在词表中，变更日志两边都记着它
+        store.update(List.of("赌博"), List.of("赌博"));
+        store.snapshots.clear();
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(2);
+        assertThat(store.fullLoads).isEqualTo(1);
+        assertThat(node.matcher.findAll("赌博暴力")).containsExactly("暴力");
+    }
+
+    @Test
+    void fallsBackToFullLoadWhenChangelogHasGap() {
+        Node node = node();
+        node.service.sync("test");
+        store.update(List.of("赌博"), List.of());
+        store.update(List.of("诈骗"), List.of());
+        store.changes.remove(0);
+        store.snapshots.clear();
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(3);
+        assertThat(node.matcher.findAll("赌博诈骗")).containsExactly("赌博", "诈骗");
+        assertThat(store.fullLoads).isEqualTo(2);
+    }
+
+    @Test
+    void waitsForSnapshotWhileAnotherNodeHoldsTheLock() {
+        Node node = node();
+        store.seedIfAbsent(localWords);
+        store.lockOwner = "other";
+        // 第二次检查锁时「其他节点」上传快照，锁仍被持有
+        store.onLockCheck = checks -> {
+            if (checks == 2) {
+                SensitiveWordDictionary built = SensitiveWordDictionary.compile(1, localWords,
+                        properties.isIgnoreCase(), properties.isFoldWidth(), Map.of());
+                store.snapshots.put("1:" + built.profile(), built.toSnapshot());
+            }
+        };
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(1);
+        assertThat(node.matcher.findAll("暴力")).containsExactly("暴力");
+        assertThat(store.snapshotSaves).isZero();
+        assertThat(store.lockOwner).isEqualTo("other");
+    }
+
+    @Test
+    void takesOverBuildWhenLockDisappearsWithoutSnapshot() {
+        Node node = node();
+        store.seedIfAbsent(localWords);
+        store.lockOwner = "other";
+        // 持锁节点宕机：锁在第三次检查时过期，没有快照
+        store.onLockCheck = checks -> {
+            if (checks == 3) {
+                store.lockOwner = null;
+            }
+        };
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(1);
+        assertThat(store.snapshotSaves).isEqualTo(1);
+        assertThat(store.lockOwner).isNull();
+    }
+
+    @Test
+    void stopsWaitingAndBuildsLocallyOnceHolderReportsSnapshotTooBig() {
+        Node node = node();
+        store.seedIfAbsent(localWords);
+        store.lockOwner = "other";
+        // 持锁节点构建完发现快照超限，只写超限标记，锁还没释放
+        store.onLockCheck = checks -> {
+            if (checks == 2) {
+                store.oversize.add("1:" + SensitiveWordDictionary.profile(
+                        properties.isIgnoreCase(), properties.isFoldWidth(), Map.of()));
+            }
+        };
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(1);
+        assertThat(node.matcher.findAll("暴力")).containsExactly("暴力");
+        assertThat(store.snapshotSaves).isZero();
+        assertThat(store.lockOwner).isEqualTo("other");
+    }
+
+    @Test
+    void oversizeSnapshotLetsLaterNodesBuildWithoutTheLock() {
+        properties.setSnapshotMaxBytes(1);
+        Node first = node();
+        Node second = node();
+        first.service.sync("test");
+        // 构建锁被一个仍在构建的节点持有，已知超限时不必等它
+        store.lockOwner = "other";
+
+        second.service.sync("test");
+
+        assertThat(store.snapshots).isEmpty();
+        assertThat(store.oversize).hasSize(1);
+        assertThat(second.matcher.current().version()).isEqualTo(1);
+        assertThat(store.lockChecks).isZero();
+    }
+
+    @Test
+    void interruptedWhileWaitingKeepsInterruptStatusAndCurrentDictionary() throws InterruptedException {
+        Node node = node();
+        store.seedIfAbsent(localWords);
+        store.lockOwner = "other";
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread worker = new Thread(() -> {
+            node.service.sync("test");
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        store.onLockCheck = checks -> {
+            if (checks == 2) {
+                worker.interrupt();
+            }
+        };
+
+        worker.start();
+        worker.join(5_000);
+
+        assertThat(worker.isAlive()).isFalse();
+        assertThat(interrupted).isTrue();
+        assertThat(node.matcher.current().version()).isZero();
+    }
+
+    @Test
+    void keepsCurrentDictionaryWhenStoreFails() {
+        Node node = node();
+        node.service.sync("test");
+        store.update(List.of("赌博"), List.of());
+        store.failing = true;
+
+        node.service.sync("test");
+
+        assertThat(node.matcher.current().version()).isEqualTo(1);
+        assertThat(node.matcher.findAll("暴力")).containsExactly("暴力");
+    }
+
+    private Node node() {
+        SensitiveWordSource source = () -> localWords;
+        SensitiveWordMatcher matcher = new SensitiveWordMatcher(source, properties);
+        matcher.init();
+        SensitiveWordDictionaryService service = new SensitiveWordDictionaryService(matcher, source, store, properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        return new Node(matcher, service);
+    }
+
+    private record Node(SensitiveWordMatcher matcher, SensitiveWordDictionaryService service) {
+    }
+
+    /** 与 Lua 脚本语义一致的内存实现 */
+    private static final class InMemoryStore extends SensitiveWordDictionaryStore {
+
+        private final Set<String> words = new HashSet<>();
+        private final List<Change> changes = new ArrayList<>();
+        private final Map<String, byte[]> snapshots = new HashMap<>();
+        private final Set<String> oversize = new HashSet<>();
+        private final SensitiveWordProperties properties;
+        private long version;
+        private int fullLoads;
+        private int snapshotSaves;
+        private int lockChecks;
+        private String lockOwner;
+        private IntConsumer onLockCheck = checks -> {
+        };
+        private boolean failing;
+
+        InMemoryStore(SensitiveWordProperties properties) {
+            super(null, null, properties);
+            this.properties = properties;
+        }
+
+        @Override
+        public long currentVersion() {
+            if (failing) {
+                throw new IllegalStateException("redis down");
+            }
+            return version;
+        }
+
+        @Override
+        public long seedIfAbsent(Collection<String> seedWords) {
+            if (version == 0) {
+                words.addAll(seedWords);
+                version = 1;
+            }
+            return version;
+        }
+
+        @Override
+        public UpdateResult update(Collection<String> added, Collection<String> removed) {
+            List<String> add = added.stream().filter(words::add).toList();
+            List<String> remove = removed.stream().filter(words::remove).toList();
+            if (!add.isEmpty() || !remove.isEmpty()) {
+                version++;
+                changes.add(new Change(version, add, remove));
+            }
+            return new UpdateResult(version, add.size(), remove.size(), words.size());
+        }
+
+        @Override
+        public VersionedWords loadWords() {
+            fullLoads++;
+            return new VersionedWords(version, new HashSet<>(words));
+        }
+
+        @Override
+        public List<Change> changesAfter(long afterVersion) {
+            return changes.stream().filter(change -> change.version() > afterVersion).toList();
+        }
+
+        @Override
+        public byte[] loadSnapshot(long version, String profile) {
+            return snapshots.get(version + ":" + profile);
+        }
+
+        @Override
+        public boolean saveSnapshot(long version, String profile, byte[] snapshot) {
+            if (snapshot.length > properties.getSnapshotMaxBytes()) {
+                oversize.add(version + ":" + profile);
+                return false;
+            }
+            snapshots.put(version + ":" + profile, snapshot);
+            snapshotSaves++;
+            return true;
+        }
+
+        @Override
+        public boolean tryLockBuild(long version, String profile, String owner) {
+            if (lockOwner != null) {
+                return false;
+            }
+            lockOwner = owner;
+            return true;
+        }
+
+        @Override
+        public boolean renewBuildLock(long version, String profile, String owner) {
+            return owner.equals(lockOwner);
+        }
+
+        @Override
+        public void releaseBuildLock(long version, String profile, String owner) {
+            if (owner.equals(lockOwner)) {
+                lockOwner = null;
+            }
+        }
+
+        @Override
+        public boolean isSnapshotOversize(long version, String profile) {
+            return oversize.contains(version + ":" + profile);
+        }
+
+        @Override
+        public boolean isBuildLocked(long version, String profile) {
+            onLockCheck.accept(++lockChecks);
+            return lockOwner != null;
+        }
+    }
+}
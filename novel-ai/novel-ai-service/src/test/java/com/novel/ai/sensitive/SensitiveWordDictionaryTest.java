@@ -0,0 +1,89 @@
+package com.novel.ai.sensitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 词典编译与快照：快照读回后与直接构建的扫描结果一致，profile 只取决于折叠配置。
+ */
+class SensitiveWordDictionaryTest {
+
+    @Test
+    void snapshotRoundTripScansLikeFreshBuild() {
+        SensitiveWordDictionary built = SensitiveWordDictionary.compile(7,
+                List.of(" 暴力 ", "血腥", "QQ", "暴力", "", "賭博"), true, true, Map.of('賭', '赌'));
+
+        SensitiveWordDictionary loaded = SensitiveWordDictionary.fromSnapshot(built.toSnapshot());
+
+        assertThat(loaded.version()).isEqualTo(7);
+        assertThat(loaded.profile()).isEqualTo(built.profile());
+        assertThat(loaded.size()).isEqualTo(built.size()).isEqualTo(4);
+        String text = "加ＱＱ看暴力与賭博，血腥";
+        assertThat(hits(loaded, text)).isEqualTo(hits(built, text)).hasSize(4);
+    }
+
+    @Test
+    void emptyDictionaryRoundTrips() {
+        SensitiveWordDictionary empty = SensitiveWordDictionary.compile(3, List.of(" "), true, false, Map.of());
+
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(SensitiveWordDictionary.fromSnapshot(empty.toSnapshot()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shardedDictionaryFindsSameHitsAsSingleAutomaton() throws IOException {
+        List<String> words = List.of("暴力", "力与", "暴", "賭博", "博", "QQ", "血腥", "与赌");
+        SensitiveWordDictionary single = SensitiveWordDictionary.compile(1, words, true, true, Map.of('賭', '赌'));
+        SensitiveWordDictionary sharded = SensitiveWordDictionary.compile(1, words, true, true, Map.of('賭', '赌'), 3);
+        SensitiveWordDictionary loaded = SensitiveWordDictionary.fromSnapshot(sharded.toSnapshot());
+
+        assertThat(single.shardCount()).isEqualTo(1);
+        assertThat(sharded.shardCount()).isEqualTo(3);
+        assertThat(loaded.shardCount()).isEqualTo(3);
+        assertThat(sharded.size()).isEqualTo(loaded.size()).isEqualTo(8);
+        String text = "加ＱＱ看暴力与賭博，血腥暴力";
+        List<String> expected = hits(single, text);
+        assertThat(hits(sharded, text)).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(hits(loaded, text)).containsExactlyInAnyOrderElementsOf(expected);
+
+        List<String> fromReader = new ArrayList<>();
+        sharded.scan(new StringReader(text), (begin, end, word) -> fromReader.add(begin + ":" + end + ":" + word));
+        assertThat(fromReader).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void rejectsCorruptSnapshot() {
+        assertThatThrownBy(() -> SensitiveWordDictionary.fromSnapshot(new byte[]{1, 2, 3}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void profileDependsOnFoldingOnly() {
+        Map<Character, Character> a = new LinkedHashMap<>();
+        a.put('賭', '赌');
+        a.put('從', '从');
+        Map<Character, Character> b = new LinkedHashMap<>();
+        b.put('從', '从');
+        b.put('賭', '赌');
+
+        assertThat(SensitiveWordDictionary.profile(true, false, a))
+                .isEqualTo(SensitiveWordDictionary.profile(true, false, b))
+                .isNotEqualTo(SensitiveWordDictionary.profile(true, true, a))
+                .isNotEqualTo(SensitiveWordDictionary.profile(true, false, Map.of()));
+    }
+
+    private static List<String> hits(SensitiveWordDictionary dictionary, String text) {
+        List<String> hits = new ArrayList<>();
+        dictionary.scan(text, (begin, end, word) -> hits.add(begin + ":" + end + ":" + word));
+        return hits;
+    }
+}
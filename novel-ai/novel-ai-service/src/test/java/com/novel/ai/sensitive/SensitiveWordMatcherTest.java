@@ -2,12 +2,17 @@ package com.novel.ai.sensitive;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * 敏感词匹配器的核心行为测试：字典加载、多命中去重、大小写折叠、禁用态。
+ * 敏感词匹配器的核心行为测试：字典加载、多命中去重、大小写/全半角/异体字折叠、命中下标、分块扫描、禁用态。
  */
 class SensitiveWordMatcherTest {
 
@@ -63,4 +68,78 @@ class SensitiveWordMatcherTest {
         SensitiveWordMatcher matcher = build(true, true, List.of("一", "二", "三"));
         assertThat(matcher.findHitsUpTo("一二三四五六", 2)).containsExactly("一", "二");
     }
+
+    @Test
+    void shouldFoldFullWidthWhenEnabled() {
+        SensitiveWordProperties props = new SensitiveWordProperties();
+        props.setFoldWidth(true);
+        SensitiveWordMatcher matcher = new SensitiveWordMatcher(() -> List.of("QQ"), props);
+        matcher.init();
+
+        assertThat(matcher.findAll("加ＱＱ：１２３")).containsExactly("qq");
+        assertThat(build(true, true, List.of("QQ")).hasAny("加ＱＱ")).isFalse();
+    }
+
+    @Test
+    void shouldFoldVariantsFromSource() {
+        SensitiveWordSource source = new SensitiveWordSource() {
+            @Override
+            public Collection<String> loadWords() {
+                return List.of("賭博");
+            }
+
+            @Override
+            public Map<Character, Character> loadVariants() {
+                return Map.of('賭', '赌');
+            }
+        };
+        SensitiveWordMatcher matcher = new SensitiveWordMatcher(source, new SensitiveWordProperties());
+        matcher.init();
+
+        assertThat(matcher.findAll("网上赌博")).containsExactly("赌博");
+        assertThat(matcher.findAll("网上賭博")).containsExactly("赌博");
+    }
+
+    @Test
+    void hitRangesPointIntoOriginalText() {
+        // String.toLowerCase 会把 İ 变成两个字符，整串转小写后下标整体右移
+        String text = "İİ Pure VIOLENCE";
+        SensitiveWordMatcher matcher = build(true, true, List.of("violence"));
+        List<int[]> ranges = new ArrayList<>();
+
+        boolean completed = matcher.scan(text, (begin, end, word) -> ranges.add(new int[]{begin, end}));
+
+        assertThat(completed).isTrue();
+        assertThat(ranges).hasSize(1);
+        assertThat(text.substring(ranges.get(0)[0], ranges.get(0)[1])).isEqualTo("VIOLENCE");
+    }
+
+    @Test
+    void readerScanMatchesWordsAcrossChunks() throws IOException {
+        String text = "啊".repeat(4095) + "暴力" + "啊".repeat(10) + "血腥";
+        SensitiveWordMatcher matcher = build(true, true, List.of("暴力", "血腥"));
+        List<String> hits = new ArrayList<>();
+        List<Integer> begins = new ArrayList<>();
+
+        boolean completed = matcher.scan(new StringReader(text), (begin, end, word) -> {
+            hits.add(word);
+            begins.add(begin);
+            return true;
+        });
+
+        assertThat(completed).isTrue();
+        assertThat(hits).containsExactly("暴力", "血腥");
+        assertThat(begins).containsExactly(4095, 4107);
+    }
+
+    @Test
+    void scanStopsWhenSinkReturnsFalse() throws IOException {
+        SensitiveWordMatcher matcher = build(true, true, List.of("暴力"));
+        int[] calls = {0};
+
+        boolean completed = matcher.scan(new StringReader("暴力暴力暴力"), (begin, end, word) -> ++calls[0] < 2);
+
+        assertThat(completed).isFalse();
+        assertThat(calls[0]).isEqualTo(2);
+    }
 }
@@ -0,0 +1,27 @@
+package com.novel.book.dto.mq;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 书籍访问量同步 MQ 消息 DTO（一条消息携带一批，ES 端按 bulk 局部更新）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookVisitCountMqDto {
+
+    /**
+     * 小说ID
+     */
+    private Long bookId;
+
+    /**
+     * 数据库中的最新访问量
+     */
+    private Long visitCount;
+
+}
@@ -80,4 +80,10 @@ public class BookSearchReqDto extends PageReqDto {
      */
     @Parameter(description = "搜索模式；0-普通文本搜索 1-AI混合搜索")
     private Integer searchMode;
+
+    /**
+     * 续页游标，取上一页响应中的 nextCursor；传入时忽略 pageNum，深翻页请使用游标
+     */
+    @Parameter(description = "续页游标，取上一页响应中的 nextCursor")
+    private String cursor;
 }
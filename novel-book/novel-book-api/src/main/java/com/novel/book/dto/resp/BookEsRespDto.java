@@ -99,6 +99,11 @@ public class BookEsRespDto {
      */
     private java.util.List<Float> embedding;
 
+    /**
+     * 生成 embedding 所用文本的摘要，文本未变时复用已有向量
+     */
+    private String embeddingHash;
+
 }
 
 /*
@@ -97,6 +97,12 @@ public interface BookFeign {
     @PostMapping(ApiRouterConsts.API_INNER_BOOK_URL_PREFIX + "/listNextAuditExperience")
     RestResp<List<ContentAuditRespDto>> listNextAuditExperience(@RequestBody(required = false) Long maxId);
 
+    /**
+     * 根据 ID 批量查询审核经验数据（用于重推导入失败的记录，已不满足导入条件的记录不返回）
+     */
+    @PostMapping(ApiRouterConsts.API_INNER_BOOK_URL_PREFIX + "/listAuditExperienceByIds")
+    RestResp<List<ContentAuditRespDto>> listAuditExperienceByIds(@RequestBody List<Long> auditIds);
+
     /**
      * 查询下一批保存到 ES 中的小说列表
      */
@@ -109,6 +115,12 @@ public interface BookFeign {
     @GetMapping(ApiRouterConsts.API_INNER_BOOK_URL_PREFIX + "/getEsBookById")
     RestResp<BookEsRespDto> getEsBookById(@RequestParam("bookId") Long bookId);
 
+    /**
+     * 根据 ID 批量获取 ES 书籍数据（不存在或未审核通过的书籍不返回）
+     */
+    @PostMapping(ApiRouterConsts.API_INNER_BOOK_URL_PREFIX + "/listEsBooksByIds")
+    RestResp<List<BookEsRespDto>> listEsBooksByIds(@RequestBody List<Long> bookIds);
+
 
     /**
      * 发表评论
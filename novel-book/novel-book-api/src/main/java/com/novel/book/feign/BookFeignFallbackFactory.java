@@ -114,7 +114,8 @@ public class BookFeignFallbackFactory implements FallbackFactory<BookFeign> {
             @Override
             public RestResp<List<BookEsRespDto>> listNextEsBooks(Long maxBookId) {
                 log.error("调用 listNextEsBooks 异常", cause);
-                return RestResp.ok(new ArrayList<>(0));
+                // 返回失败而不是空列表，避免全量重建把服务异常当作"已无数据"
+                return RestResp.fail(ErrorCodeEnum.THIRD_SERVICE_ERROR);
             }
 
             @Override
@@ -123,6 +124,12 @@ public class BookFeignFallbackFactory implements FallbackFactory<BookFeign> {
                 return RestResp.fail(ErrorCodeEnum.THIRD_SERVICE_ERROR);
             }
 
+            @Override
+            public RestResp<List<BookEsRespDto>> listEsBooksByIds(List<Long> bookIds) {
+                log.error("调用 listEsBooksByIds 异常", cause);
+                return RestResp.fail(ErrorCodeEnum.THIRD_SERVICE_ERROR);
+            }
+
             @Override
             public RestResp<Void> publishComment(BookCommentReqDto dto) {
                 log.error("调用 publishComment 异常", cause);
@@ -144,7 +151,14 @@ public class BookFeignFallbackFactory implements FallbackFactory<BookFeign> {
             @Override
             public RestResp<List<ContentAuditRespDto>> listNextAuditExperience(Long maxId) {
                 log.error("调用 listNextAuditExperience 异常", cause);
-                return RestResp.ok(new ArrayList<>(0));
+                // 返回失败而不是空列表，避免判例导入把服务异常当作"已无数据"
+                return RestResp.fail(ErrorCodeEnum.THIRD_SERVICE_ERROR);
+            }
+
+            @Override
+            public RestResp<List<ContentAuditRespDto>> listAuditExperienceByIds(List<Long> auditIds) {
+                log.error("调用 listAuditExperienceByIds 异常", cause);
+                return RestResp.fail(ErrorCodeEnum.THIRD_SERVICE_ERROR);
             }
         };
     }
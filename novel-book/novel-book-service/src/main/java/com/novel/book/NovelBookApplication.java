@@ -1,8 +1,18 @@
 package com.novel.book;
 
+import com.novel.book.cache.BookChapterIndexProperties;
+import com.novel.book.cache.BookContentCacheProperties;
+import com.novel.book.cache.BookContentPrefetchProperties;
+import com.novel.book.cache.codec.CacheValueCodecProperties;
+import com.novel.book.rank.BookHotRankProperties;
+import com.novel.book.rank.BookRankSnapshotProperties;
+import com.novel.book.visit.BookVisitAggregatorProperties;
+import com.novel.book.visit.BookVisitDedupProperties;
+import com.novel.book.visit.BookVisitRankProperties;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
@@ -15,6 +25,17 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableDiscoveryClient
 @EnableFeignClients(basePackages = {"com.novel.user.feign", "com.novel.ai.feign"})
 @EnableScheduling
+@EnableConfigurationProperties({
+        BookContentCacheProperties.class,
+        CacheValueCodecProperties.class,
+        BookVisitAggregatorProperties.class,
+        BookVisitDedupProperties.class,
+        BookVisitRankProperties.class,
+        BookHotRankProperties.class,
+        BookRankSnapshotProperties.class,
+        BookChapterIndexProperties.class,
+        BookContentPrefetchProperties.class
+})
 public class NovelBookApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,257 @@
+package com.novel.book.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.novel.book.dao.entity.BookChapter;
+import com.novel.book.dao.mapper.BookChapterMapper;
+import com.novel.common.constant.CacheConsts;
+import com.novel.common.constant.DatabaseConsts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 书籍章节序号索引：每本书已审核章节号的有序数组，上一章/下一章变为二分查找，不再每次翻页查库。
+ * <p>
+ * 存储：
+ * <ul>
+ *     <li>Redis {@code chapter_index:{bookId}} ZSet（member=score=章节号），另含哨兵成员 {@value #SENTINEL}，
+ *     用于区分"已构建但没有已审核章节"和"未构建"；</li>
+ *     <li>本地 Caffeine 镜像为排好序的 {@code int[]}，未命中时按书籍单飞加载：Redis → DB（并回写 Redis）。</li>
+ * </ul>
+ * 维护：章节提交/删除与审核结果在事务提交后调用 {@link #onChapterVisible}/{@link #onChapterHidden}，
+ * 以 Lua 在 Redis 索引存在时增量 ZADD/ZREM，并失效本实例镜像；其他实例由 book-change 广播或本地 TTL 失效。
+ * <p>
+ * 并发：全量构建的 DB 快照可能早于某次增量维护的提交。增量维护同时递增 {@code chapter_index_gen:{bookId}}，
+ * 全量构建在查库前读取代数（{@link #generation}），写入时代数已变化则放弃，由下次读取重建，
+ * 避免旧快照 DEL+ZADD 覆盖掉刚发布的章节。
+ */
+@Slf4j
+@Component
+public class BookChapterIndex {
+
+    private static final String SENTINEL = "-1";
+    private static final int[] EMPTY = new int[0];
+    private static final long UNKNOWN_GENERATION = -1;
+    private static final DefaultRedisScript<Long> UPDATE_CHAPTER_INDEX_SCRIPT;
+    private static final DefaultRedisScript<Long> SEED_CHAPTER_INDEX_SCRIPT;
+
+    static {
+        UPDATE_CHAPTER_INDEX_SCRIPT = new DefaultRedisScript<>();
+        UPDATE_CHAPTER_INDEX_SCRIPT.setLocation(new ClassPathResource("lua/updateChapterIndex.lua"));
+        UPDATE_CHAPTER_INDEX_SCRIPT.setResultType(Long.class);
+        SEED_CHAPTER_INDEX_SCRIPT = new DefaultRedisScript<>();
+        SEED_CHAPTER_INDEX_SCRIPT.setLocation(new ClassPathResource("lua/seedChapterIndex.lua"));
+        SEED_CHAPTER_INDEX_SCRIPT.setResultType(Long.class);
+    }
+
+    private final BookChapterMapper bookChapterMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BookChapterIndexProperties properties;
+    private final LoadingCache<Long, int[]> local;
+
+    public BookChapterIndex(BookChapterMapper bookChapterMapper,
+                            StringRedisTemplate stringRedisTemplate,
+                            BookChapterIndexProperties properties,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.bookChapterMapper = bookChapterMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxBooks())
+                .expireAfterWrite(Duration.ofSeconds(properties.getLocalExpireSeconds()))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new),
+                local, "bookChapterIndex");
+    }
+
+    /**
+     * @return 本书已审核章节号（升序，只读）
+     */
+    public int[] chapterNums(long bookId) {
+        return local.get(bookId);
+    }
+
+    /**
+     * @return 大于 {@code chapterNum} 的第一个已审核章节号，没有时返回 null
+     */
+    public Integer next(long bookId, int chapterNum) {
+        int[] nums = chapterNums(bookId);
+        int pos = Arrays.binarySearch(nums, chapterNum);
+        int idx = pos >= 0 ? pos + 1 : -pos - 1;
+        return idx < nums.length ? nums[idx] : null;
+    }
+
+    /**
+     * @return 小于 {@code chapterNum} 的最后一个已审核章节号，没有时返回 null
+     */
+    public Integer prev(long bookId, int chapterNum) {
+        int[] nums = chapterNums(bookId);
+        int pos = Arrays.binarySearch(nums, chapterNum);
+        int idx = pos >= 0 ? pos - 1 : -pos - 2;
+        return idx >= 0 ? nums[idx] : null;
+    }
+
+    /**
+     * 当前索引代数，须在查询 DB 目录之前读取并传给 {@link #seed}；读取失败返回 -1（此时 seed 不写入）。
+     */
+    public long generation(long bookId) {
+        try {
+            String gen = stringRedisTemplate.opsForValue().get(CacheConsts.BOOK_CHAPTER_INDEX_GEN_PREFIX + bookId);
+            return gen == null ? 0 : Long.parseLong(gen);
+        } catch (Exception e) {
+            log.warn("读取章节索引代数失败，bookId={}", bookId, e);
+            return UNKNOWN_GENERATION;
+        }
+    }
+
+    /**
+     * 用已从 DB 查出的完整目录（已审核章节，升序）直接构建索引，省去一次加载查询。
+     * 查库之后有章节变更（代数已变化）时放弃写入，索引留给下次读取重建。
+     *
+     * @param generation 查询 DB 之前通过 {@link #generation} 读到的代数
+     */
+    public void seed(long bookId, long generation, int[] sortedNums) {
+        if (writeRedis(bookId, generation, sortedNums)) {
+            local.put(bookId, sortedNums);
+        }
+    }
+
+    /**
+     * 章节变为可读（审核通过或免审发布），事务提交后生效。
+     */
+    public void onChapterVisible(long bookId, int chapterNum) {
+        afterCommit(() -> update(bookId, "add", chapterNum));
+    }
+
+    /**
+     * 章节变为不可读（重新送审、审核不通过、删除或改号后的旧章节号），事务提交后生效。
+     */
+    public void onChapterHidden(long bookId, int chapterNum) {
+        afterCommit(() -> update(bookId, "rem", chapterNum));
+    }
+
+    /**
+     * 书籍删除：删除 Redis 索引与本地镜像，事务提交后生效。
+     */
+    public void onBookDeleted(long bookId) {
+        afterCommit(() -> {
+            stringRedisTemplate.delete(CacheConsts.BOOK_CHAPTER_INDEX_PREFIX + bookId);
+            local.invalidate(bookId);
+        });
+    }
+
+    /**
+     * 仅失效本实例镜像（book-change 广播触发）。
+     */
+    public void invalidateLocal(long bookId) {
+        local.invalidate(bookId);
+    }
+
+    private void update(long bookId, String op, int chapterNum) {
+        try {
+            stringRedisTemplate.execute(UPDATE_CHAPTER_INDEX_SCRIPT,
+                    List.of(CacheConsts.BOOK_CHAPTER_INDEX_PREFIX + bookId, CacheConsts.BOOK_CHAPTER_INDEX_GEN_PREFIX + bookId),
+                    op, String.valueOf(chapterNum), String.valueOf(properties.getRedisExpireSeconds()));
+        } catch (Exception e) {
+            // 增量失败时删除索引，下次读取从 DB 全量重建
+            log.warn("增量更新章节索引失败，删除索引待重建，bookId={}, op={}, chapterNum={}", bookId, op, chapterNum, e);
+            stringRedisTemplate.delete(CacheConsts.BOOK_CHAPTER_INDEX_PREFIX + bookId);
+        } finally {
+            local.invalidate(bookId);
+        }
+    }
+
+    private int[] load(Long bookId) {
+        String key = CacheConsts.BOOK_CHAPTER_INDEX_PREFIX + bookId;
+        try {
+            Set<String> members = stringRedisTemplate.opsForZSet().range(key, 0, -1);
+            if (!CollectionUtils.isEmpty(members)) {
+                return members.stream()
+                        .filter(m -> !SENTINEL.equals(m))
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+            }
+        } catch (Exception e) {
+            log.warn("读取章节索引失败，降级查 DB，bookId={}", bookId, e);
+        }
+        long generation = generation(bookId);
+        int[] nums = selectChapterNums(bookId);
+        if (!writeRedis(bookId, generation, nums) && generation != UNKNOWN_GENERATION) {
+            // 查库期间有章节变更提交，重查一次拿到提交后的目录（索引留给下次读取重建）
+            nums = selectChapterNums(bookId);
+        }
+        return nums.length == 0 ? EMPTY : nums;
+    }
+
+    private int[] selectChapterNums(long bookId) {
+        return bookChapterMapper.selectList(new QueryWrapper<BookChapter>()
+                        .select(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
+                        .eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
+                        .eq("audit_status", 1)
+                        .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM))
+                .stream().mapToInt(BookChapter::getChapterNum).toArray();
+    }
+
+    /**
+     * @return 是否已写入；代数未知、已变化或写入失败时返回 false
+     */
+    private boolean writeRedis(long bookId, long generation, int[] sortedNums) {
+        if (generation == UNKNOWN_GENERATION) {
+            return false;
+        }
+        String[] args = new String[sortedNums.length + 3];
+        args[0] = String.valueOf(generation);
+        args[1] = String.valueOf(properties.getRedisExpireSeconds());
+        args[2] = SENTINEL;
+        for (int i = 0; i < sortedNums.length; i++) {
+            args[i + 3] = String.valueOf(sortedNums[i]);
+        }
+        try {
+            Long written = stringRedisTemplate.execute(SEED_CHAPTER_INDEX_SCRIPT,
+                    List.of(CacheConsts.BOOK_CHAPTER_INDEX_PREFIX + bookId, CacheConsts.BOOK_CHAPTER_INDEX_GEN_PREFIX + bookId),
+                    (Object[]) args);
+            if (written == null || written == 0) {
+                log.info("章节索引代数已变化，放弃本次全量写入，bookId={}", bookId);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("写入章节索引失败，bookId={}", bookId, e);
+            return false;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        action.run();
+                    } catch (Exception e) {
+                        log.error("事务提交后更新章节索引失败", e);
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.novel.book.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍章节序号索引参数。Redis 中为 {@code chapter_index:{bookId}} ZSet，本地镜像为排好序的 int 数组。
+ */
+@ConfigurationProperties(prefix = "novel.book.chapter-index")
+public class BookChapterIndexProperties {
+
+    /**
+     * 本地镜像最多缓存的书籍数。
+     */
+    private long localMaxBooks = 20000;
+
+    /**
+     * 本地镜像写入后过期秒数；其他实例的增量变更靠 book-change 广播失效，TTL 是消息丢失时的兜底上限。
+     */
+    private long localExpireSeconds = 60;
+
+    /**
+     * Redis 索引过期秒数；增量维护期间偶发丢失的变更最多存活到重建。
+     */
+    private long redisExpireSeconds = 6 * 60 * 60;
+
+    public long getLocalMaxBooks() {
+        return localMaxBooks;
+    }
+
+    public void setLocalMaxBooks(long localMaxBooks) {
+        this.localMaxBooks = localMaxBooks;
+    }
+
+    public long getLocalExpireSeconds() {
+        return localExpireSeconds;
+    }
+
+    public void setLocalExpireSeconds(long localExpireSeconds) {
+        this.localExpireSeconds = localExpireSeconds;
+    }
+
+    public long getRedisExpireSeconds() {
+        return redisExpireSeconds;
+    }
+
+    public void setRedisExpireSeconds(long redisExpireSeconds) {
+        this.redisExpireSeconds = redisExpireSeconds;
+    }
+}
@@ -0,0 +1,66 @@
+package com.novel.book.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 章节内容近端缓存（Caffeine L1）参数。L2 仍是 Redis 中的 {@code bookContentCache::content:*}。
+ * <ul>
+ *     <li>L1 按章节正文字节数加权淘汰，避免几本长章节挤掉大量短章节；</li>
+ *     <li>L1 TTL 需远小于 Redis TTL：跨实例失效依赖 book-change MQ 广播，TTL 是消息丢失时的兜底上限。</li>
+ * </ul>
+ */
+@ConfigurationProperties(prefix = "novel.book.content-cache")
+public class BookContentCacheProperties {
+
+    /**
+     * 是否启用 L1。关闭后每次请求直接走 Redis，单飞回源仍然生效。
+     */
+    private boolean l1Enabled = true;
+
+    /**
+     * L1 最大权重（字节，按 UTF-16 估算正文占用），默认 64MB。
+     */
+    private long l1MaxWeightBytes = 64L * 1024 * 1024;
+
+    /**
+     * L1 写入后过期秒数。
+     */
+    private long l1ExpireSeconds = 120;
+
+    /**
+     * 同 key 并发请求等待单飞回源结果的最长毫秒数，超时后自行回源，防止一个慢查询拖住所有读者。
+     */
+    private long singleFlightWaitMillis = 3000;
+
+    public boolean isL1Enabled() {
+        return l1Enabled;
+    }
+
+    public void setL1Enabled(boolean l1Enabled) {
+        this.l1Enabled = l1Enabled;
+    }
+
+    public long getL1MaxWeightBytes() {
+        return l1MaxWeightBytes;
+    }
+
+    public void setL1MaxWeightBytes(long l1MaxWeightBytes) {
+        this.l1MaxWeightBytes = l1MaxWeightBytes;
+    }
+
+    public long getL1ExpireSeconds() {
+        return l1ExpireSeconds;
+    }
+
+    public void setL1ExpireSeconds(long l1ExpireSeconds) {
+        this.l1ExpireSeconds = l1ExpireSeconds;
+    }
+
+    public long getSingleFlightWaitMillis() {
+        return singleFlightWaitMillis;
+    }
+
+    public void setSingleFlightWaitMillis(long singleFlightWaitMillis) {
+        this.singleFlightWaitMillis = singleFlightWaitMillis;
+    }
+}
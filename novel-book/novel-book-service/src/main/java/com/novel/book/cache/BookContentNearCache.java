@@ -0,0 +1,240 @@
+package com.novel.book.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.novel.book.dto.resp.BookContentAboutRespDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 章节内容两级缓存中的近端层：Caffeine L1（按正文大小加权）+ 同 key 单飞回源。
+ * <p>
+ * 读路径：L1 → （单飞）调用方 loader（内部再走 Redis L2 → MySQL）。
+ * 同一 {@code (bookId, chapterNum)} 并发未命中时只有一个线程执行 loader，其余线程等待其结果，
+ * 章节发布瞬间的上千并发读者只会产生一次 DB 回源。
+ * <p>
+ * 失效：{@link #invalidateBook(long)} 由 book-change MQ 广播触发，{@link #evict(long, int)} 由本实例审核流程直接调用。
+ * 为防止"回源开始 → 失效 → 回源结束写回旧值"，按书籍分段维护失效代数，代数变化后的回源结果不写入 L1。
+ * L1 另按书籍索引已缓存的章节号，书籍级失效只失效这本书的 key，不遍历整个 L1。
+ * <p>
+ * 指标（均带 {@code tier} 标签）：
+ * <ul>
+ *     <li>{@code novel.book.content.cache.requests} —— {@code tier=l1|l2}，{@code result=hit|miss}；</li>
+ *     <li>{@code novel.book.content.cache.load} —— 回源耗时 Timer，{@code tier=l2|db}；</li>
+ *     <li>{@code novel.book.content.cache.singleflight.joined} —— 搭便车等待他人回源的请求数。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class BookContentNearCache {
+
+    public static final String METRIC_REQUESTS = "novel.book.content.cache.requests";
+    public static final String METRIC_LOAD = "novel.book.content.cache.load";
+    public static final String METRIC_SINGLE_FLIGHT_JOINED = "novel.book.content.cache.singleflight.joined";
+
+    public static final String TIER_L1 = "l1";
+    public static final String TIER_L2 = "l2";
+    public static final String TIER_DB = "db";
+
+    /** DTO 中除正文外的对象头、章节名、作者名等的粗略估算 */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+    /** 失效代数分段数，按 bookId 取模，内存固定不随书籍数增长 */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BookContentCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<ContentKey, BookContentAboutRespDto> l1;
+    private final ConcurrentHashMap<ContentKey, CompletableFuture<BookContentAboutRespDto>> inFlight =
+            new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    /** bookId → L1 中该书的章节号；移除监听器同步清理，可能短暂多于 L1 实际内容（多失效一个 key 无副作用） */
+    private final ConcurrentHashMap<Long, Set<Integer>> chaptersByBook = new ConcurrentHashMap<>();
+    private final Counter singleFlightJoined;
+
+    public BookContentNearCache(BookContentCacheProperties properties,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        if (properties.isL1Enabled()) {
+            this.l1 = Caffeine.newBuilder()
+                    .maximumWeight(properties.getL1MaxWeightBytes())
+                    .weigher((ContentKey k, BookContentAboutRespDto v) -> weigh(v))
+                    .expireAfterWrite(Duration.ofSeconds(properties.getL1ExpireSeconds()))
+                    .removalListener(this::onL1Removal)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, l1, "bookContentL1");
+            Gauge.builder("novel.book.content.cache.l1.weight", l1,
+                            c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                    .description("Weighted size (bytes) of chapter content L1 cache")
+                    .register(meterRegistry);
+        } else {
+            this.l1 = null;
+        }
+        Gauge.builder("novel.book.content.cache.singleflight.inflight", inFlight, ConcurrentHashMap::size)
+                .description("Chapter content loads currently in flight")
+                .register(meterRegistry);
+        this.singleFlightJoined = Counter.builder(METRIC_SINGLE_FLIGHT_JOINED)
+                .description("Requests that waited for another caller's load instead of hitting L2/DB")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 读取章节内容：先查 L1，未命中时同 key 单飞执行 {@code loader}。
+     *
+     * @param loader L2/DB 回源逻辑；返回 null 表示结果不可缓存（如书籍未审核），原样返回给调用方
+     */
+    public BookContentAboutRespDto get(long bookId, int chapterNum, Supplier<BookContentAboutRespDto> loader) {
+        ContentKey key = new ContentKey(bookId, chapterNum);
+        if (l1 != null) {
+            BookContentAboutRespDto cached = l1.getIfPresent(key);
+            recordRequest(TIER_L1, cached != null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CompletableFuture<BookContentAboutRespDto> mine = new CompletableFuture<>();
+        CompletableFuture<BookContentAboutRespDto> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            singleFlightJoined.increment();
+            return awaitLeader(key, leader, loader);
+        }
+
+        long generation = generations.get(stripe(bookId));
+        try {
+            BookContentAboutRespDto value = loader.get();
+            if (value != null && l1 != null && generations.get(stripe(bookId)) == generation) {
+                l1.put(key, value);
+                chaptersByBook.computeIfAbsent(bookId, id -> ConcurrentHashMap.newKeySet()).add(chapterNum);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 章节是否已在本实例 L1 中；不计入命中统计，供预读提交前判断。
+     */
+    public boolean contains(long bookId, int chapterNum) {
+        return l1 != null && l1.asMap().containsKey(new ContentKey(bookId, chapterNum));
+    }
+
+    /**
+     * 失效某本书在本实例 L1 中的全部章节（book-change MQ 广播触发）。
+     */
+    public void invalidateBook(long bookId) {
+        generations.incrementAndGet(stripe(bookId));
+        Set<Integer> chapters = chaptersByBook.remove(bookId);
+        if (l1 != null && chapters != null) {
+            chapters.forEach(chapterNum -> l1.invalidate(new ContentKey(bookId, chapterNum)));
+        }
+    }
+
+    /**
+     * 失效单个章节（审核流程删除 Redis 缓存时同步调用）。
+     */
+    public void evict(long bookId, int chapterNum) {
+        generations.incrementAndGet(stripe(bookId));
+        if (l1 != null) {
+            l1.invalidate(new ContentKey(bookId, chapterNum));
+        }
+    }
+
+    /**
+     * 记录非 L1 层（Redis）的命中情况，由调用方的 loader 上报。
+     */
+    public void recordRemote(boolean hit) {
+        recordRequest(TIER_L2, hit);
+    }
+
+    /**
+     * 对某一层回源计时。
+     */
+    public <T> T timeLoad(String tier, Supplier<T> supplier) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return supplier.get();
+        } finally {
+            sample.stop(Timer.builder(METRIC_LOAD)
+                    .tag("tier", tier)
+                    .register(meterRegistry));
+        }
+    }
+
+    private BookContentAboutRespDto awaitLeader(ContentKey key,
+                                                CompletableFuture<BookContentAboutRespDto> leader,
+                                                Supplier<BookContentAboutRespDto> loader) {
+        try {
+            return leader.get(properties.getSingleFlightWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("等待章节内容单飞回源超时，自行回源，key={}", key);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("章节内容回源失败, key=" + key, cause);
+        }
+    }
+
+    /**
+     * L1 过期、淘汰或失效后从书籍索引中摘除；替换（同 key 重新写入）不摘除。
+     * 先写 L1 再写索引，这里在索引的同一把桶锁内确认 key 已不在 L1，不会摘掉刚写回的章节。
+     */
+    private void onL1Removal(ContentKey key, BookContentAboutRespDto value, RemovalCause cause) {
+        if (key == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        chaptersByBook.computeIfPresent(key.bookId(), (bookId, chapters) -> {
+            if (!l1.asMap().containsKey(key)) {
+                chapters.remove(key.chapterNum());
+            }
+            return chapters.isEmpty() ? null : chapters;
+        });
+    }
+
+    private void recordRequest(String tier, boolean hit) {
+        meterRegistry.counter(METRIC_REQUESTS, "tier", tier, "result", hit ? "hit" : "miss").increment();
+    }
+
+    private static int weigh(BookContentAboutRespDto dto) {
+        String content = dto.getBookContent();
+        long bytes = ENTRY_OVERHEAD_BYTES + (content == null ? 0L : content.length() * 2L);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int stripe(long bookId) {
+        return (int) Math.floorMod(bookId, (long) GENERATION_STRIPES);
+    }
+
+    record ContentKey(long bookId, int chapterNum) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.novel.book.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 章节内容预读参数：读者打开第 N 章后异步预热下一章（翻页快的读者再多预热一章）。
+ */
+@ConfigurationProperties(prefix = "novel.book.content-prefetch")
+public class BookContentPrefetchProperties {
+
+    /**
+     * 是否启用预读。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 同时执行的预读回源数上限。
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * 排队中的预读任务上限（按章节去重），超出直接丢弃。
+     */
+    private int maxPending = 1000;
+
+    /**
+     * 数据库连接池活跃连接占比达到该值时跳过预读，把连接留给前台请求。
+     */
+    private double dbBusyRatio = 0.5;
+
+    /**
+     * 同一读者连续两章间隔小于该毫秒数视为快速翻页，额外预热 N+2。
+     */
+    private long fastPageTurnMillis = 60000;
+
+    /**
+     * 预热结果等待被读取的最长秒数，超时未读计为浪费（用于命中率统计）。
+     */
+    private long hitWindowSeconds = 600;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public double getDbBusyRatio() {
+        return dbBusyRatio;
+    }
+
+    public void setDbBusyRatio(double dbBusyRatio) {
+        this.dbBusyRatio = dbBusyRatio;
+    }
+
+    public long getFastPageTurnMillis() {
+        return fastPageTurnMillis;
+    }
+
+    public void setFastPageTurnMillis(long fastPageTurnMillis) {
+        this.fastPageTurnMillis = fastPageTurnMillis;
+    }
+
+    public long getHitWindowSeconds() {
+        return hitWindowSeconds;
+    }
+
+    public void setHitWindowSeconds(long hitWindowSeconds) {
+        this.hitWindowSeconds = hitWindowSeconds;
+    }
+}
@@ -0,0 +1,224 @@
+package com.novel.book.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.novel.book.dto.resp.BookContentAboutRespDto;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * 章节内容预读：读者打开第 N 章后，异步把下一章（按章节序号索引，而非简单 N+1）预热进 L1 与 Redis L2；
+ * 同一读者翻页间隔小于 {@code fastPageTurnMillis} 时再预热下下章。
+ * <p>
+ * 背压：
+ * <ul>
+ *     <li>排队任务按章节去重，总数超过 {@code maxPending} 直接丢弃；</li>
+ *     <li>每个任务一个虚拟线程，真正回源前需拿到 {@code maxConcurrency} 个许可之一；</li>
+ *     <li>已在本实例 L1 中的章节在提交前跳过，不占线程与许可；</li>
+ *     <li>Redis L2 未命中、需要查库前检查连接池活跃连接占比，达到 {@code dbBusyRatio} 时放弃，前台请求优先。</li>
+ * </ul>
+ * 指标：
+ * <ul>
+ *     <li>{@code novel.book.content.prefetch.requests} —— {@code result=submitted|dedup|queue_full|db_busy|cached|failed}；</li>
+ *     <li>{@code novel.book.content.prefetch.usage} —— 预热结果在窗口内被读取 {@code result=hit}，或过期未读 {@code result=wasted}，
+ *     两者之比即预读命中率；</li>
+ *     <li>{@code novel.book.content.prefetch.pending} —— 排队中的任务数。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class BookContentPrefetcher {
+
+    public static final String METRIC_REQUESTS = "novel.book.content.prefetch.requests";
+    public static final String METRIC_USAGE = "novel.book.content.prefetch.usage";
+
+    private final BookContentNearCache bookContentNearCache;
+    private final BookChapterIndex bookChapterIndex;
+    private final BookContentPrefetchProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final HikariDataSource hikari;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("book-prefetch-", 0).factory());
+    private final Semaphore permits;
+    private final Set<BookContentNearCache.ContentKey> pending = ConcurrentHashMap.newKeySet();
+    /** 已预热、等待被读取的章节 */
+    private final Cache<BookContentNearCache.ContentKey, Boolean> warmed;
+    /** 读者在某本书上最近一次读章的时间，用于判断翻页节奏 */
+    private final Cache<ReaderBook, Long> lastRead;
+    private final Counter hitCounter;
+    private final Counter wastedCounter;
+
+    public BookContentPrefetcher(BookContentNearCache bookContentNearCache,
+                                 BookChapterIndex bookChapterIndex,
+                                 BookContentPrefetchProperties properties,
+                                 ObjectProvider<DataSource> dataSourceProvider,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.bookContentNearCache = bookContentNearCache;
+        this.bookChapterIndex = bookChapterIndex;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrency()));
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        this.hikari = dataSource instanceof HikariDataSource h ? h : null;
+        this.hitCounter = Counter.builder(METRIC_USAGE).tag("result", "hit")
+                .description("Prefetched chapters read before the hit window expired")
+                .register(meterRegistry);
+        this.wastedCounter = Counter.builder(METRIC_USAGE).tag("result", "wasted")
+                .description("Prefetched chapters never read within the hit window")
+                .register(meterRegistry);
+        this.warmed = Caffeine.newBuilder()
+                .maximumSize(Math.max(1000L, properties.getMaxPending() * 20L))
+                .expireAfterWrite(Duration.ofSeconds(properties.getHitWindowSeconds()))
+                .removalListener((BookContentNearCache.ContentKey k, Boolean v, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        wastedCounter.increment();
+                    }
+                })
+                .build();
+        this.lastRead = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(properties.getFastPageTurnMillis()))
+                .build();
+        Gauge.builder("novel.book.content.prefetch.pending", pending, Set::size)
+                .description("Chapter prefetch tasks queued or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 前台读完第 {@code chapterNum} 章后调用：统计命中并提交预读，不阻塞调用方。
+     *
+     * @param readerId 读者标识（未登录为 null，此时只预热下一章）
+     * @param l2Loader 章节号 → Redis L2 中的内容，未命中返回 null
+     * @param dbLoader 章节号 → 查库并回写 Redis 的内容，与前台读路径相同
+     */
+    public void afterRead(long bookId, int chapterNum, Long readerId,
+                          IntFunction<BookContentAboutRespDto> l2Loader,
+                          IntFunction<BookContentAboutRespDto> dbLoader) {
+        BookContentNearCache.ContentKey key = new BookContentNearCache.ContentKey(bookId, chapterNum);
+        if (warmed.asMap().remove(key) != null) {
+            hitCounter.increment();
+        }
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int depth = 1;
+        if (readerId != null) {
+            ReaderBook readerBook = new ReaderBook(readerId, bookId);
+            if (lastRead.getIfPresent(readerBook) != null) {
+                depth = 2;
+            }
+            lastRead.put(readerBook, System.currentTimeMillis());
+        }
+        Integer target = chapterNum;
+        for (int i = 0; i < depth; i++) {
+            target = bookChapterIndex.next(bookId, target);
+            if (target == null) {
+                return;
+            }
+            submit(bookId, target, l2Loader, dbLoader);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(long bookId, int chapterNum, IntFunction<BookContentAboutRespDto> l2Loader,
+                        IntFunction<BookContentAboutRespDto> dbLoader) {
+        BookContentNearCache.ContentKey key = new BookContentNearCache.ContentKey(bookId, chapterNum);
+        if (warmed.getIfPresent(key) != null) {
+            record("dedup");
+            return;
+        }
+        if (bookContentNearCache.contains(bookId, chapterNum)) {
+            // 已在本实例 L1 中，预热没有收益，不占线程与许可，也不计入 L1 命中
+            record("cached");
+            return;
+        }
+        if (pending.size() >= properties.getMaxPending()) {
+            record("queue_full");
+            return;
+        }
+        if (!pending.add(key)) {
+            record("dedup");
+            return;
+        }
+        record("submitted");
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    warm(key, l2Loader, dbLoader);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                record("failed");
+                log.debug("章节预读失败，bookId={}, chapterNum={}", bookId, chapterNum, e);
+            } finally {
+                pending.remove(key);
+            }
+        });
+    }
+
+    private void warm(BookContentNearCache.ContentKey key, IntFunction<BookContentAboutRespDto> l2Loader,
+                      IntFunction<BookContentAboutRespDto> dbLoader) {
+        // 只有查库才受连接池繁忙限制：L2 命中照常预热进 L1
+        BookContentAboutRespDto fromL2 = l2Loader.apply(key.chapterNum());
+        if (fromL2 == null && dbBusy()) {
+            record("db_busy");
+            return;
+        }
+        boolean[] loaded = new boolean[1];
+        BookContentAboutRespDto value = bookContentNearCache.get(key.bookId(), key.chapterNum(), () -> {
+            loaded[0] = true;
+            return fromL2 != null ? fromL2 : dbLoader.apply(key.chapterNum());
+        });
+        if (!loaded[0]) {
+            // 提交后、执行前被前台读入 L1（或与前台同时回源），预热没有带来收益，不计入命中率
+            record("cached");
+            return;
+        }
+        if (value != null) {
+            warmed.put(key, Boolean.TRUE);
+        }
+    }
+
+    private boolean dbBusy() {
+        // 连接池在首次获取连接时才初始化，MXBean 之前为 null
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return false;
+        }
+        return pool.getActiveConnections() >= hikari.getMaximumPoolSize() * properties.getDbBusyRatio();
+    }
+
+    private void record(String result) {
+        meterRegistry.counter(METRIC_REQUESTS, "result", result).increment();
+    }
+
+    record ReaderBook(long readerId, long bookId) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.novel.book.cache.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+
+/**
+ * 缓存值编解码器：只负责对象与字节之间的转换，不关心版本头和压缩（由 {@link CacheValueFormat} 统一封装）。
+ * <p>
+ * 新增实现时必须分配新的 {@link #id()}，已发布的 id 不可复用，否则 Redis 中的旧值会被错误解码。
+ */
+public interface CacheValueCodec {
+
+    /**
+     * 写入版本头的编码器标识。
+     */
+    byte id();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] bytes, int offset, int length, JavaType type) throws IOException;
+}
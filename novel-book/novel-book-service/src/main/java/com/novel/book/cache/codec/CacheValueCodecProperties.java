@@ -0,0 +1,57 @@
+package com.novel.book.cache.codec;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 大体积 Redis 缓存值（章节正文、目录、首页/相关推荐列表）的编码参数。
+ * <p>
+ * 读取时总能识别历史 JSON 与任意已知编码器写入的值，因此切换 {@code format} 不需要清缓存。
+ * 灰度发布期间新旧实例并存时，先以 {@code format=json} 上线，全部实例升级后再切到 {@code smile}。
+ */
+@ConfigurationProperties(prefix = "novel.book.cache-codec")
+public class CacheValueCodecProperties {
+
+    /**
+     * 写入格式：{@code json} 为无版本头的历史格式（默认，旧实例可读），{@code smile} 为带版本头的二进制格式，全部实例升级后通过配置切换。
+     */
+    private Format format = Format.JSON;
+
+    /**
+     * 写入时是否对达到阈值的值做 LZ4 压缩（仅 {@code smile} 格式生效）。
+     */
+    private boolean compressionEnabled = true;
+
+    /**
+     * 编码后达到该字节数才尝试压缩，默认 1KB；压缩后未变小则仍存原文。
+     */
+    private int compressThresholdBytes = 1024;
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void setFormat(Format format) {
+        this.format = format;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public int getCompressThresholdBytes() {
+        return compressThresholdBytes;
+    }
+
+    public void setCompressThresholdBytes(int compressThresholdBytes) {
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    public enum Format {
+        JSON,
+        SMILE
+    }
+}
@@ -0,0 +1,121 @@
+package com.novel.book.cache.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 缓存值的字节布局（版本头 + 可选 LZ4 压缩），与具体编码器解耦：
+ * <pre>
+ * | MAGIC(1) | VERSION(1) | codecId(1) | flags(1) | [rawLength(4) 仅压缩时] | payload |
+ * </pre>
+ * <ul>
+ *     <li>首字节不是 {@link #MAGIC} 时按无版本头的历史 JSON 解码。历史值是 {@code StringRedisTemplate} 写入的
+ *     UTF-8 JSON，首字节只可能是 {@code [}、{@code {}、{@code "} 等 ASCII 字符，不会与 0xC7 冲突；</li>
+ *     <li>payload 达到阈值且压缩后确实更小才压缩，短列表类缓存不会因为压缩反而变大。</li>
+ * </ul>
+ * 线程安全：LZ4 压缩器/解压器本身无状态，可共享。
+ */
+public final class CacheValueFormat {
+
+    public static final byte MAGIC = (byte) 0xC7;
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_LZ4 = 1;
+    private static final int HEADER_BYTES = 4;
+    private static final int RAW_LENGTH_BYTES = 4;
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final CacheValueCodec writeCodec;
+    private final CacheValueCodec[] codecsById;
+    private final CacheValueCodec legacyCodec;
+    private final boolean compressionEnabled;
+    private final int compressThresholdBytes;
+
+    /**
+     * @param writeCodec             写入使用的编码器；为 null 时写入无版本头的历史 JSON（灰度发布期间兼容旧版本实例）
+     * @param compressionEnabled     是否启用 LZ4
+     * @param compressThresholdBytes 编码后达到该字节数才尝试压缩
+     */
+    public CacheValueFormat(CacheValueCodec writeCodec, boolean compressionEnabled, int compressThresholdBytes) {
+        this.writeCodec = writeCodec;
+        this.compressionEnabled = compressionEnabled;
+        this.compressThresholdBytes = compressThresholdBytes;
+        this.legacyCodec = new JsonCacheValueCodec();
+        this.codecsById = new CacheValueCodec[8];
+        register(legacyCodec);
+        register(new SmileCacheValueCodec());
+        if (writeCodec != null) {
+            register(writeCodec);
+        }
+    }
+
+    public byte[] encode(Object value) throws IOException {
+        if (writeCodec == null) {
+            return legacyCodec.encode(value);
+        }
+        byte[] payload = writeCodec.encode(value);
+        if (compressionEnabled && payload.length >= compressThresholdBytes) {
+            int maxLength = LZ4_COMPRESSOR.maxCompressedLength(payload.length);
+            byte[] out = new byte[HEADER_BYTES + RAW_LENGTH_BYTES + maxLength];
+            int compressedLength = LZ4_COMPRESSOR.compress(payload, 0, payload.length,
+                    out, HEADER_BYTES + RAW_LENGTH_BYTES, maxLength);
+            if (compressedLength < payload.length) {
+                writeHeader(out, writeCodec.id(), FLAG_LZ4);
+                ByteBuffer.wrap(out, HEADER_BYTES, RAW_LENGTH_BYTES).putInt(payload.length);
+                return Arrays.copyOf(out, HEADER_BYTES + RAW_LENGTH_BYTES + compressedLength);
+            }
+        }
+        byte[] out = new byte[HEADER_BYTES + payload.length];
+        writeHeader(out, writeCodec.id(), 0);
+        System.arraycopy(payload, 0, out, HEADER_BYTES, payload.length);
+        return out;
+    }
+
+    public <T> T decode(byte[] bytes, JavaType type) throws IOException {
+        if (bytes.length == 0 || bytes[0] != MAGIC) {
+            return legacyCodec.decode(bytes, 0, bytes.length, type);
+        }
+        if (bytes.length < HEADER_BYTES) {
+            throw new IOException("缓存值版本头不完整，length=" + bytes.length);
+        }
+        if (bytes[1] != FORMAT_VERSION) {
+            throw new IOException("不支持的缓存值格式版本：" + bytes[1]);
+        }
+        CacheValueCodec codec = codecOf(bytes[2]);
+        int flags = bytes[3];
+        if ((flags & FLAG_LZ4) == 0) {
+            return codec.decode(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES, type);
+        }
+        int rawLength = ByteBuffer.wrap(bytes, HEADER_BYTES, RAW_LENGTH_BYTES).getInt();
+        byte[] raw = new byte[rawLength];
+        LZ4_DECOMPRESSOR.decompress(bytes, HEADER_BYTES + RAW_LENGTH_BYTES, raw, 0, rawLength);
+        return codec.decode(raw, 0, rawLength, type);
+    }
+
+    private CacheValueCodec codecOf(byte id) throws IOException {
+        CacheValueCodec codec = id >= 0 && id < codecsById.length ? codecsById[id] : null;
+        if (codec == null) {
+            throw new IOException("未知的缓存值编码器：" + id);
+        }
+        return codec;
+    }
+
+    private void register(CacheValueCodec codec) {
+        codecsById[codec.id()] = codec;
+    }
+
+    private static void writeHeader(byte[] out, byte codecId, int flags) {
+        out[0] = MAGIC;
+        out[1] = FORMAT_VERSION;
+        out[2] = codecId;
+        out[3] = (byte) flags;
+    }
+}
@@ -0,0 +1,64 @@
+package com.novel.book.cache.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以原始字节读写 Redis 缓存值，编码由 {@link CacheValueFormat} 决定。
+ * <p>
+ * 复用 {@link StringRedisTemplate} 的连接，但绕过其 String 序列化器，避免二进制值被按 UTF-8 破坏；
+ * key 仍按 UTF-8 编码，与原有 key 完全一致，审核流程中的 {@code delete(key)} 无需改动。
+ */
+@Component
+public class CacheValueRedisStore {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheValueFormat format;
+
+    public CacheValueRedisStore(StringRedisTemplate stringRedisTemplate, CacheValueCodecProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        CacheValueCodec writeCodec = properties.getFormat() == CacheValueCodecProperties.Format.SMILE
+                ? new SmileCacheValueCodec() : null;
+        this.format = new CacheValueFormat(writeCodec, properties.isCompressionEnabled(),
+                properties.getCompressThresholdBytes());
+    }
+
+    /**
+     * @return 缓存值；key 不存在时返回 null
+     * @throws IOException 缓存值无法解码（调用方应视为未命中并回源）
+     */
+    public <T> T get(String key, Class<T> type) throws IOException {
+        return get(key, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    public <T> T get(String key, TypeReference<T> type) throws IOException {
+        return get(key, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    public void set(String key, Object value, long timeout, TimeUnit unit) throws IOException {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        byte[] rawValue = format.encode(value);
+        stringRedisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(rawKey, rawValue, Expiration.from(timeout, unit), RedisStringCommands.SetOption.upsert()));
+    }
+
+    private <T> T get(String key, JavaType type) throws IOException {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        byte[] rawValue = stringRedisTemplate.execute(
+                (RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        if (rawValue == null) {
+            return null;
+        }
+        return format.decode(rawValue, type);
+    }
+}
@@ -95,6 +95,26 @@ public class FrontBookController {
         return bookSearchService.listVisitRankBooksHome();
     }
 
+    /**
+     * 小说日/周/月热榜（排行榜页表格）
+     */
+    @Operation(summary = "小说日/周/月热榜（排行榜页表格）")
+    @GetMapping("hot_rank/{window}")
+    public RestResp<List<BookRankTableRespDto>> listHotRankBooks(
+            @Parameter(description = "时间窗口：day/week/month") @PathVariable("window") String window) {
+        return bookSearchService.listHotRankBooks(window);
+    }
+
+    /**
+     * 小说日/周/月热榜（首页侧栏，仅第一名含封面与简介预览）
+     */
+    @Operation(summary = "小说日/周/月热榜（首页侧栏）")
+    @GetMapping("hot_rank/{window}/home")
+    public RestResp<List<BookRankHomeItemRespDto>> listHotRankBooksHome(
+            @Parameter(description = "时间窗口：day/week/month") @PathVariable("window") String window) {
+        return bookSearchService.listHotRankBooksHome(window);
+    }
+
     /**
      * 小说新书榜（排行榜页表格）
      */
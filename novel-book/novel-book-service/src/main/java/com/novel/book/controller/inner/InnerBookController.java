@@ -5,6 +5,7 @@ import com.novel.book.dto.resp.BookChapterRespDto;
 import com.novel.book.dto.resp.BookEsRespDto;
 import com.novel.book.dto.resp.BookInfoRespDto;
 import com.novel.book.dto.resp.ContentAuditRespDto;
+import com.novel.book.job.BookRankCacheJob;
 import com.novel.book.service.BookAuditService;
 import com.novel.book.service.BookReadService;
 import com.novel.book.service.BookSearchService;
@@ -36,6 +37,7 @@ public class InnerBookController {
     private final BookReadService bookReadService;
     private final BookAuditService bookAuditService;
     private final AuditExperienceExtractService auditExperienceExtractService;
+    private final BookRankCacheJob bookRankCacheJob;
 
     /**
      * 查询下一批审核经验数据（用于同步到ES向量库）
@@ -46,6 +48,15 @@ public class InnerBookController {
         return bookAuditService.listNextAuditExperience(maxId);
     }
 
+    /**
+     * 根据 ID 批量查询审核经验数据
+     */
+    @Operation(summary = "根据 ID 批量查询审核经验数据")
+    @PostMapping("listAuditExperienceByIds")
+    public RestResp<List<ContentAuditRespDto>> listAuditExperienceByIds(@Parameter(description = "审核记录ID列表") @RequestBody List<Long> auditIds) {
+        return bookAuditService.listAuditExperienceByIds(auditIds);
+    }
+
     /**
      * 临时手动触发全量提炼审核经验标签（针对历史数据）
      */
@@ -63,6 +74,23 @@ public class InnerBookController {
         return RestResp.ok("全量提炼审核经验标签任务已触发，正在后台执行，请观察后台日志");
     }
 
+    /**
+     * 手动触发点击榜全量校准（日常由增量引擎维护，校准可从上次中断的游标续扫）
+     */
+    @Operation(summary = "手动触发点击榜全量校准")
+    @GetMapping("sync/visitRankReconcile")
+    public RestResp<String> reconcileVisitRank() {
+        log.info(">>> 收到点击榜全量校准请求，开始异步执行任务");
+        CompletableFuture.runAsync(() -> {
+            try {
+                bookRankCacheJob.refreshVisitRankCache();
+            } catch (Exception e) {
+                log.error(">>> 异步执行点击榜全量校准时发生异常", e);
+            }
+        });
+        return RestResp.ok("点击榜全量校准任务已触发，正在后台执行，请观察后台日志");
+    }
+
     /**
      * 查询下一批保存到 ES 中的小说列表
      */
@@ -81,6 +109,15 @@ public class InnerBookController {
         return bookSearchService.getEsBookById(bookId);
     }
 
+    /**
+     * 根据 ID 批量获取 ES 书籍数据
+     */
+    @Operation(summary = "根据 ID 批量获取 ES 书籍数据")
+    @PostMapping("listEsBooksByIds")
+    public RestResp<List<BookEsRespDto>> listEsBooksByIds(@Parameter(description = "书籍ID列表") @RequestBody List<Long> bookIds) {
+        return bookSearchService.listEsBooksByIds(bookIds);
+    }
+
     /**
      * 批量查询小说信息
      */
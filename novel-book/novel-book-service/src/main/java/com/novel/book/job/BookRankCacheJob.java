@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.novel.book.dao.entity.BookInfo;
 import com.novel.book.dao.mapper.BookInfoMapper;
 import com.novel.book.dao.mapper.BookChapterMapper;
+import com.novel.book.visit.BookVisitRankEngine;
+import com.novel.book.visit.BookVisitRankProperties;
 import com.novel.common.constant.CacheConsts;
 import com.novel.common.constant.DatabaseConsts;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,9 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
 import org.springframework.data.redis.core.DefaultTypedTuple;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.util.CollectionUtils;
@@ -45,6 +50,8 @@ public class BookRankCacheJob {
     private final BookInfoMapper bookInfoMapper;
     private final BookChapterMapper bookChapterMapper;
     private final StringRedisTemplate stringRedisTemplate;
+    private final BookVisitRankEngine bookVisitRankEngine;
+    private final BookVisitRankProperties bookVisitRankProperties;
     private final ScheduledExecutorService lockWatchdogExecutor = Executors.newSingleThreadScheduledExecutor(
             r -> new Thread(r, "visit-rank-lock-watchdog"));
 
@@ -60,8 +67,14 @@ public class BookRankCacheJob {
     public void initCacheOnStartup() {
         log.info("应用启动完成，开始初始化榜单缓存...");
         try {
-            // 初始化点击榜缓存
-            refreshVisitRankCache();
+            // 初始化点击榜缓存：榜单为空或上一轮校准未完成时才全量扫描，否则由增量引擎接管
+            Long liveSize = stringRedisTemplate.opsForZSet().size(CacheConsts.BOOK_VISIT_RANK_ZSET);
+            if (liveSize == null || liveSize == 0
+                    || Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY))) {
+                refreshVisitRankCache();
+            } else {
+                bookVisitRankEngine.reloadFromRedis();
+            }
             // 初始化新书榜缓存
             refreshNewestRankCache();
             // 初始化更新榜缓存
@@ -73,12 +86,13 @@ public class BookRankCacheJob {
     }
 
     /**
-     * 点击榜全量校准任务：
+     * 点击榜全量校准任务（兜底，日常排名由 {@link BookVisitRankEngine} 增量维护）：
      * 1. 按主键游标分批扫描 MySQL（避免 visit_count 排序压力）
      * 2. 在 Redis 构建候选 TopK（默认200）
      * 3. 扫描完成后合并到实时榜单并裁剪
+     * 4. 中断（锁丢失、异常、停机）的轮次保留游标与构建 ZSet，下一次执行从游标处续扫
      */
-    @Scheduled(cron = "0 */15 * * * ?")
+    @Scheduled(cron = "${novel.book.visit-rank.reconcile-cron:0 30 4 * * ?}")
     public void refreshVisitRankCache() {
         String lockToken = UUID.randomUUID().toString();
         Boolean lockSuccess = stringRedisTemplate.opsForValue().setIfAbsent(
@@ -93,15 +107,28 @@ public class BookRankCacheJob {
         AtomicBoolean lockLost = new AtomicBoolean(false);
         AtomicInteger renewFailCount = new AtomicInteger(0);
         ScheduledFuture<?> watchdogFuture = startLockWatchdog(lockToken, lockLost, renewFailCount);
-        String roundId = String.valueOf(System.currentTimeMillis());
+        String roundId = stringRedisTemplate.opsForValue().get(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY);
+        String lastIdValue = stringRedisTemplate.opsForValue().get(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY);
+        boolean resumed = roundId != null && lastIdValue != null
+                && Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConsts.BOOK_VISIT_RANK_BUILD_ZSET_PREFIX + roundId));
+        if (!resumed) {
+            roundId = String.valueOf(System.currentTimeMillis());
+            lastIdValue = "0";
+        }
         String buildKey = CacheConsts.BOOK_VISIT_RANK_BUILD_ZSET_PREFIX + roundId;
+        int batchSize = bookVisitRankProperties.getScanBatchSize();
+        boolean completed = false;
         try {
-            log.info("开始点击榜全量校准，roundId={}", roundId);
-            stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY, roundId);
-            stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY, "0");
-            stringRedisTemplate.delete(buildKey);
+            long lastId = Long.parseLong(lastIdValue);
+            if (resumed) {
+                log.info("继续上一轮点击榜全量校准，roundId={}, lastId={}", roundId, lastId);
+            } else {
+                log.info("开始点击榜全量校准，roundId={}", roundId);
+                stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY, roundId);
+                stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY, "0");
+                stringRedisTemplate.delete(buildKey);
+            }
 
-            long lastId = 0L;
             int scanned = 0;
             while (true) {
                 if (lockLost.get()) {
@@ -109,35 +136,40 @@ public class BookRankCacheJob {
                     emitScanAbortAlert(roundId, scanned, renewFailCount.get(), lockToken);
                     return;
                 }
-                List<BookInfo> batch = loadVisitScanBatch(lastId, CacheConsts.BOOK_VISIT_RANK_SCAN_BATCH_SIZE);
+                List<BookInfo> batch = loadVisitScanBatch(lastId, batchSize);
                 if (CollectionUtils.isEmpty(batch)) {
                     break;
                 }
                 scanned += batch.size();
                 appendBatchToBuildRank(buildKey, batch);
                 trimRankZSet(buildKey, CacheConsts.BOOK_VISIT_RANK_CANDIDATE_SIZE);
+                stringRedisTemplate.expire(buildKey, CacheConsts.BOOK_VISIT_RANK_BUILD_ZSET_TTL_SECONDS, TimeUnit.SECONDS);
                 lastId = batch.get(batch.size() - 1).getId();
                 stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY, String.valueOf(lastId));
 
-                if (batch.size() < CacheConsts.BOOK_VISIT_RANK_SCAN_BATCH_SIZE) {
+                if (batch.size() < batchSize) {
                     break;
                 }
             }
 
             mergeBuildRankToLive(buildKey);
             trimRankZSet(CacheConsts.BOOK_VISIT_RANK_ZSET, CacheConsts.BOOK_VISIT_RANK_CANDIDATE_SIZE);
+            completed = true;
+            bookVisitRankEngine.reloadFromRedis();
             refreshVisitRankBookDetailCache();
-            log.info("点击榜全量校准完成，roundId={}, 扫描书籍数={}", roundId, scanned);
+            log.info("点击榜全量校准完成，roundId={}, 本次扫描书籍数={}", roundId, scanned);
         } catch (Exception e) {
-            log.error("点击榜全量校准失败，roundId={}", roundId, e);
+            log.error("点击榜全量校准失败，保留游标待下次续扫，roundId={}", roundId, e);
         } finally {
             if (watchdogFuture != null) {
                 watchdogFuture.cancel(true);
             }
-            stringRedisTemplate.delete(buildKey);
+            if (completed) {
+                stringRedisTemplate.delete(buildKey);
+                stringRedisTemplate.delete(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY);
+                stringRedisTemplate.delete(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY);
+            }
             releaseLock(lockToken);
-            stringRedisTemplate.delete(CacheConsts.BOOK_VISIT_RANK_SCAN_LAST_ID_KEY);
-            stringRedisTemplate.delete(CacheConsts.BOOK_VISIT_RANK_SCAN_ROUND_ID_KEY);
         }
     }
 
@@ -269,19 +301,20 @@ public class BookRankCacheJob {
         if (CollectionUtils.isEmpty(buildTopSet)) {
             return;
         }
-        Set<ZSetOperations.TypedTuple<String>> mergedTuples = new HashSet<>();
+        Set<Tuple> mergedTuples = new HashSet<>();
         for (ZSetOperations.TypedTuple<String> tuple : buildTopSet) {
             String member = tuple.getValue();
             Double buildScore = tuple.getScore();
             if (member == null || buildScore == null) {
                 continue;
             }
-            Double liveScore = stringRedisTemplate.opsForZSet().score(CacheConsts.BOOK_VISIT_RANK_ZSET, member);
-            double mergedScore = liveScore == null ? buildScore : Math.max(liveScore, buildScore);
-            mergedTuples.add(new DefaultTypedTuple<>(member, mergedScore));
+            mergedTuples.add(new DefaultTuple(stringRedisTemplate.getStringSerializer().serialize(member), buildScore));
         }
         if (!mergedTuples.isEmpty()) {
-            stringRedisTemplate.opsForZSet().add(CacheConsts.BOOK_VISIT_RANK_ZSET, mergedTuples);
+            // ZADD GT：只在校准值更大时覆盖，等价于 max(实时分数, 校准分数)，一次往返完成合并
+            stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.zSetCommands().zAdd(
+                    stringRedisTemplate.getStringSerializer().serialize(CacheConsts.BOOK_VISIT_RANK_ZSET),
+                    mergedTuples, RedisZSetCommands.ZAddArgs.empty().gt()));
         }
     }
 
@@ -316,7 +349,7 @@ public class BookRankCacheJob {
         Map<String, Map<String, String>> allBookHashes = new HashMap<>();
         for (BookInfo book : bookInfos) {
             String hashKey = CacheConsts.BOOK_INFO_HASH_PREFIX + book.getId();
-            allBookHashes.put(hashKey, buildBookInfoMap(book, firstChapterMap.getOrDefault(book.getId(), 1)));
+            allBookHashes.put(hashKey, buildBookInfoMap(book, firstChapterMap.get(book.getId())));
         }
         batchWriteBookDetailHashes(allBookHashes);
     }
@@ -420,7 +453,7 @@ public class BookRankCacheJob {
             Map<String, Map<String, String>> allBookHashes = new HashMap<>();
             for (BookInfo book : bookInfos) {
                 String hashKey = CacheConsts.BOOK_INFO_HASH_PREFIX + book.getId();
-                allBookHashes.put(hashKey, buildBookInfoMap(book, firstChapterMap.getOrDefault(book.getId(), 1)));
+                allBookHashes.put(hashKey, buildBookInfoMap(book, firstChapterMap.get(book.getId())));
             }
 
             // 4. Pipeline 批量更新详情 Hash（保留 visitCount 字段，不覆盖实时更新的值）
@@ -453,7 +486,8 @@ public class BookRankCacheJob {
         // visitCount 字段：如果 Hash 已存在则不会包含（避免覆盖实时更新的值），如果不存在则包含（初始化）
         map.put("visitCount", String.valueOf(book.getVisitCount()));
         map.put("lastChapterName", book.getLastChapterName());
-        map.put("firstChapterNum", String.valueOf(firstChapterNum));
+        // 没有已审核章节时不写，避免存入字符串 "null"
+        if (firstChapterNum != null) map.put("firstChapterNum", String.valueOf(firstChapterNum));
 
         if (book.getLastChapterNum() != null) map.put("lastChapterNum", String.valueOf(book.getLastChapterNum()));
         if (book.getWordCount() != null) map.put("wordCount", String.valueOf(book.getWordCount()));
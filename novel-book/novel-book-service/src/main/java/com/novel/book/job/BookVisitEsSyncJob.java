@@ -3,36 +3,45 @@ package com.novel.book.job;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.novel.book.dao.entity.BookInfo;
 import com.novel.book.dao.mapper.BookInfoMapper;
+import com.novel.book.dto.mq.BookVisitCountMqDto;
 import com.novel.common.constant.AmqpConsts;
+import com.novel.common.constant.CacheConsts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
-
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * 书籍访问量ES同步任务
  * 功能：批量更新ES中的书籍访问量数据
  * 频率：每小时执行一次（整点执行）
- * 
+ *
  * 优化说明：
  * - 将ES更新从高频的数据库同步任务中分离出来
  * - 每小时批量更新一次，避免高并发时ES压力过大导致服务宕机
  * - 只更新审核通过的书籍（auditStatus = 1）
+ * - 只同步上次任务以来访问量有变化的书籍（BookVisitSyncJob 落库时记录），
+ *   走独立的 visit_count Tag，ES 端按 bulk 局部更新 visitCount，不回查书籍、不重新生成向量
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BookVisitEsSyncJob {
 
+    /**
+     * 每条消息携带的书籍数，对应 ES 端一次 bulk 请求
+     */
+    private static final int BATCH_SIZE = 1000;
+
     private final BookInfoMapper bookInfoMapper;
     private final RocketMQTemplate rocketMQTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
     /**
      * 批量更新ES中的书籍访问量
@@ -40,63 +49,85 @@ public class BookVisitEsSyncJob {
      */
     @Scheduled(cron = "0 0 * * * ?")
     public void syncVisitCountToEs() {
-        log.info("开始批量更新ES中的书籍访问量...");
-        
+        String dirtyKey = CacheConsts.BOOK_VISIT_ES_DIRTY_SET;
+        String processingKey = dirtyKey + ":processing";
+
         try {
-            // 1. 查询所有审核通过的书籍（只查询ID，减少内存占用）
-            QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
-            queryWrapper.eq("audit_status", 1) // 只查询审核通过的书籍
-                       .select("id"); // 只查询ID字段，减少内存占用
-            
-            List<BookInfo> bookList = bookInfoMapper.selectList(queryWrapper);
-            
-            if (bookList.isEmpty()) {
-                log.info("没有需要更新ES的书籍");
+            // 1. 先处理上次发送失败遗留的数据
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(processingKey))) {
+                log.info("检测到上次未同步完成的ES访问量数据，开始重试...");
+                if (!processDirtyBooks(processingKey)) {
+                    log.warn("ES访问量重试同步失败，将在下次任务时继续重试");
+                    return;
+                }
+            }
+
+            // 2. 原子重命名本周期的待同步集合，处理期间新落库的书籍进入新集合
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(dirtyKey))) {
+                log.info("没有访问量变化的书籍，无需更新ES");
                 return;
             }
-            
-            // 2. 提取书籍ID列表
-            List<Long> bookIds = bookList.stream()
-                    .map(BookInfo::getId)
-                    .toList();
-            
-            log.info("准备更新ES，书籍数量：{}", bookIds.size());
-            
-            // 3. 批量发送MQ消息更新ES
-            // 使用批量发送，减少网络IO
-            String destination = AmqpConsts.BookChangeMq.TOPIC + ":" + AmqpConsts.BookChangeMq.TAG_UPDATE;
-            
-            // 分批处理，每批1000条，避免单次发送过多消息
-            int batchSize = 1000;
-            int totalBatches = (bookIds.size() + batchSize - 1) / batchSize;
-            
-            for (int i = 0; i < totalBatches; i++) {
-                int start = i * batchSize;
-                int end = Math.min(start + batchSize, bookIds.size());
-                List<Long> batchIds = bookIds.subList(start, end);
-                
-                try {
-                    // 构建批量消息
-                    List<Message<Long>> messages = batchIds.stream()
-                            .map(id -> MessageBuilder.withPayload(id).build())
-                            .collect(Collectors.toList());
-                    
-                    // 批量发送
-                    rocketMQTemplate.syncSend(destination, messages);
-                    log.debug("已发送第 {}/{} 批ES更新消息，本批数量：{}", 
-                            i + 1, totalBatches, batchIds.size());
-                } catch (Exception e) {
-                    log.error("批量发送ES更新消息失败，批次：{}/{}, 书籍数量：{}", 
-                            i + 1, totalBatches, batchIds.size(), e);
-                    // 继续处理下一批，不中断整个任务
-                }
+            try {
+                stringRedisTemplate.rename(dirtyKey, processingKey);
+            } catch (Exception e) {
+                log.warn("重命名待同步ES集合失败，可能已被其他实例处理", e);
+                return;
             }
-            
-            log.info("ES访问量批量更新任务完成，共处理 {} 本书籍，分 {} 批发送", 
-                    bookIds.size(), totalBatches);
-            
+            processDirtyBooks(processingKey);
         } catch (Exception e) {
             log.error("批量更新ES访问量失败", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 分批查询最新访问量并发送局部更新消息
+     * @return 是否全部发送成功；成功时删除 key，否则保留下次重试
+     */
+    private boolean processDirtyBooks(String key) {
+        Set<String> members = stringRedisTemplate.opsForSet().members(key);
+        if (members == null || members.isEmpty()) {
+            stringRedisTemplate.delete(key);
+            return true;
+        }
+        List<Long> bookIds = members.stream().map(Long::valueOf).toList();
+        String destination = AmqpConsts.BookChangeMq.TOPIC + ":" + AmqpConsts.BookChangeMq.TAG_VISIT_COUNT;
+        int totalBatches = (bookIds.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+        int sent = 0;
+        boolean allSent = true;
+
+        for (int i = 0; i < totalBatches; i++) {
+            List<Long> batchIds = bookIds.subList(i * BATCH_SIZE, Math.min((i + 1) * BATCH_SIZE, bookIds.size()));
+            try {
+                // 只查 ID 与访问量，只同步审核通过的书籍
+                List<BookInfo> books = bookInfoMapper.selectList(new QueryWrapper<BookInfo>()
+                        .select("id", "visit_count")
+                        .in("id", batchIds)
+                        .eq("audit_status", 1));
+                if (books.isEmpty()) {
+                    continue;
+                }
+                List<BookVisitCountMqDto> payload = new ArrayList<>(books.size());
+                for (BookInfo book : books) {
+                    payload.add(BookVisitCountMqDto.builder()
+                            .bookId(book.getId())
+                            .visitCount(book.getVisitCount())
+                            .build());
+                }
+                rocketMQTemplate.syncSend(destination, payload);
+                sent += payload.size();
+                log.debug("已发送第 {}/{} 批ES访问量更新消息，本批数量：{}", i + 1, totalBatches, payload.size());
+            } catch (Exception e) {
+                // 继续处理下一批，不中断整个任务；重试时整批重发，visitCount 为绝对值，重复更新无副作用
+                allSent = false;
+                log.error("发送ES访问量更新消息失败，批次：{}/{}, 书籍数量：{}", i + 1, totalBatches, batchIds.size(), e);
+            }
+        }
+
+        if (allSent) {
+            stringRedisTemplate.delete(key);
+        }
+        log.info("ES访问量批量更新任务完成，变化书籍 {} 本，发送 {} 本，分 {} 批，是否全部成功：{}",
+                bookIds.size(), sent, totalBatches, allSent);
+        return allSent;
+    }
+}
@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
  * - 增加失败重试机制：同步失败时保留临时Key，下次重试，避免数据丢失
  * - ES更新已分离到独立的定时任务（BookVisitEsSyncJob），每小时批量更新一次
  * - 这样可以避免高并发时ES压力过大导致服务宕机
+ * - 落库成功的书籍ID记入待同步集合，ES任务只处理访问量真正变化的书籍
  */
 @Component
 @RequiredArgsConstructor
@@ -99,6 +100,9 @@ public class BookVisitSyncJob {
         try {
             bookInfoMapper.batchUpdateVisitCount(updateList);
             log.info("访问量同步完成，处理书籍数量：{}，是否重试：{}", updateList.size(), isRetry);
+
+            // 记录访问量有变化的书籍，由 BookVisitEsSyncJob 只对这些书局部更新 ES
+            markEsDirty(updateList);
             
             // 同步成功，删除临时Key
             stringRedisTemplate.delete(key);
@@ -124,4 +128,18 @@ public class BookVisitSyncJob {
             return false;
         }
     }
+
+    /**
+     * 标记待同步 ES 的书籍；失败只影响 ES 中访问量的新鲜度，不影响落库结果
+     */
+    private void markEsDirty(List<BookInfo> updateList) {
+        try {
+            String[] bookIds = updateList.stream()
+                    .map(book -> String.valueOf(book.getId()))
+                    .toArray(String[]::new);
+            stringRedisTemplate.opsForSet().add(CacheConsts.BOOK_VISIT_ES_DIRTY_SET, bookIds);
+        } catch (Exception e) {
+            log.warn("记录待同步ES的书籍失败，本批书籍访问量将在下次变化时再同步，书籍数量：{}", updateList.size(), e);
+        }
+    }
 }
\ No newline at end of file
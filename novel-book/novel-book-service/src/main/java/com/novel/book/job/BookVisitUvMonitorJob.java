@@ -1,5 +1,6 @@
 package com.novel.book.job;
 
+import com.novel.book.visit.BookVisitDedupProperties;
 import com.novel.common.constant.CacheConsts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,8 @@ import java.util.Set;
  * UV 去重集合监控任务：
  * 1. UV key 总量监控
  * 2. 热门书籍 UV 集合基数（SCARD）监控
+ * <p>
+ * HLL 去重模式下单 key 内存恒定（最大约 12KB），热门书籍基数（PFCOUNT）只作为指标输出，不再告警。
  */
 @Component
 @RequiredArgsConstructor
@@ -28,6 +31,7 @@ public class BookVisitUvMonitorJob {
     private static final String UV_HOT_SCARD_ALERT_PREFIX = "[MONITOR_ALERT][VISIT_UV_HOT_SCARD]";
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final BookVisitDedupProperties bookVisitDedupProperties;
 
     @Scheduled(cron = "0 */5 * * * ?")
     public void monitorVisitUvMetrics() {
@@ -37,7 +41,7 @@ public class BookVisitUvMonitorJob {
 
     private void monitorUvKeyCount() {
         Long uvKeyCount = stringRedisTemplate.execute((RedisCallback<Long>) connection -> scanKeyCount(connection,
-                CacheConsts.BOOK_VISIT_UV_SET_PREFIX + "*"));
+                uvKeyPrefix() + "*"));
         if (uvKeyCount == null) {
             return;
         }
@@ -59,8 +63,14 @@ public class BookVisitUvMonitorJob {
             return;
         }
         long currentBucket = (System.currentTimeMillis() / 1000) / CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS;
+        boolean hll = bookVisitDedupProperties.isHll();
         for (String bookId : topBookIds) {
-            String uvKey = CacheConsts.BOOK_VISIT_UV_SET_PREFIX + bookId + ":" + currentBucket;
+            String uvKey = uvKeyPrefix() + bookId + ":" + currentBucket;
+            if (hll) {
+                Long cardinality = stringRedisTemplate.opsForHyperLogLog().size(uvKey);
+                log.info("[METRIC][VISIT_UV_HOT_PFCOUNT] bookId={}, uvKey={}, pfcount={}", bookId, uvKey, cardinality);
+                continue;
+            }
             Long scard = stringRedisTemplate.opsForSet().size(uvKey);
             if (scard == null) {
                 continue;
@@ -76,6 +86,12 @@ public class BookVisitUvMonitorJob {
         }
     }
 
+    private String uvKeyPrefix() {
+        return bookVisitDedupProperties.isHll()
+                ? CacheConsts.BOOK_VISIT_UV_HLL_PREFIX
+                : CacheConsts.BOOK_VISIT_UV_SET_PREFIX;
+    }
+
     private long scanKeyCount(RedisConnection connection, String pattern) {
         ScanOptions options = ScanOptions.scanOptions()
                 .match(pattern)
@@ -0,0 +1,36 @@
+package com.novel.book.mq;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 书籍变更消息（topic-book-change / update tag）解析：消息体为单个 bookId 或 bookId 的 JSON 数组。
+ */
+final class BookChangeMessages {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BookChangeMessages() {
+    }
+
+    /**
+     * @return 消息中的 bookId（已去掉 null），空消息返回空列表
+     * @throws IllegalArgumentException 消息格式错误
+     */
+    static List<Long> parseBookIds(String message) {
+        if (message == null || message.isBlank()) {
+            return List.of();
+        }
+        try {
+            List<Long> bookIds = message.startsWith("[")
+                    ? OBJECT_MAPPER.readValue(message, new TypeReference<List<Long>>() {})
+                    : List.of(Long.valueOf(message.trim()));
+            return bookIds.stream().filter(Objects::nonNull).toList();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("书籍变更消息格式错误: " + message, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.novel.book.mq;
+
+import com.novel.book.cache.BookChapterIndex;
+import com.novel.book.cache.BookContentNearCache;
+import com.novel.common.constant.AmqpConsts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 书籍变更 MQ 广播消费者：失效本实例章节内容 L1 缓存与章节序号索引镜像。
+ * 与 ES 同步共用 topic-book-change / update tag，消息格式见 {@link BookChangeMessages}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+    topic = AmqpConsts.BookChangeMq.TOPIC,
+    selectorExpression = AmqpConsts.BookChangeMq.TAG_UPDATE,
+    consumerGroup = AmqpConsts.BookChangeMq.CONSUMER_GROUP_CONTENT_CACHE_EVICT,
+    messageModel = MessageModel.BROADCASTING
+)
+public class BookContentCacheEvictListener implements RocketMQListener<String> {
+
+    private final BookContentNearCache bookContentNearCache;
+    private final BookChapterIndex bookChapterIndex;
+
+    @Override
+    public void onMessage(String message) {
+        List<Long> bookIds;
+        try {
+            bookIds = BookChangeMessages.parseBookIds(message);
+        } catch (IllegalArgumentException e) {
+            // 格式错误不重试，L1 TTL 兜底
+            log.warn("书籍变更消息格式错误，跳过本地缓存失效，message={}", message);
+            return;
+        }
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        for (Long bookId : bookIds) {
+            bookContentNearCache.invalidateBook(bookId);
+            bookChapterIndex.invalidateLocal(bookId);
+        }
+        log.debug("已失效章节内容本地缓存，bookIds={}", bookIds);
+    }
+}
@@ -1,6 +1,7 @@
 package com.novel.book.mq;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novel.book.cache.BookChapterIndex;
 import com.novel.book.dao.entity.BookChapter;
 import com.novel.book.dao.entity.BookInfo;
 import com.novel.book.dao.mapper.BookChapterMapper;
@@ -25,6 +26,7 @@ public class BookLocalTxExecutor {
 
     private final BookInfoMapper bookInfoMapper;
     private final BookChapterMapper bookChapterMapper;
+    private final BookChapterIndex bookChapterIndex;
 
     /**
      * 删除章节并更新书籍汇总信息（与事务半消息同事务：成功则投递 ES 同步消息）。
@@ -82,6 +84,7 @@ public class BookLocalTxExecutor {
         }
 
         bookChapterMapper.delete(queryWrapper);
+        bookChapterIndex.onChapterHidden(dto.getBookId(), bookChapter.getChapterNum());
     }
 
     /**
@@ -92,5 +95,6 @@ public class BookLocalTxExecutor {
         chapterWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, dto.getBookId());
         bookChapterMapper.delete(chapterWrapper);
         bookInfoMapper.deleteById(dto.getBookId());
+        bookChapterIndex.onBookDeleted(dto.getBookId());
     }
 }
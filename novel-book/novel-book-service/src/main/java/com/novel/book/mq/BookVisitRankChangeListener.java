@@ -0,0 +1,46 @@
+package com.novel.book.mq;
+
+import com.novel.book.visit.BookVisitRankEngine;
+import com.novel.common.constant.AmqpConsts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 书籍变更 MQ 广播消费者：通知本实例的点击榜增量引擎复核上榜条件（审核状态、字数）。
+ * 消息格式见 {@link BookChangeMessages}。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+    topic = AmqpConsts.BookChangeMq.TOPIC,
+    selectorExpression = AmqpConsts.BookChangeMq.TAG_UPDATE,
+    consumerGroup = AmqpConsts.BookChangeMq.CONSUMER_GROUP_VISIT_RANK,
+    messageModel = MessageModel.BROADCASTING
+)
+public class BookVisitRankChangeListener implements RocketMQListener<String> {
+
+    private final BookVisitRankEngine bookVisitRankEngine;
+
+    @Override
+    public void onMessage(String message) {
+        List<Long> bookIds;
+        try {
+            bookIds = BookChangeMessages.parseBookIds(message);
+        } catch (IllegalArgumentException e) {
+            // 格式错误不重试，全量校准兜底
+            log.warn("书籍变更消息格式错误，跳过点击榜复核，message={}", message);
+            return;
+        }
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        bookVisitRankEngine.onBooksChanged(bookIds);
+    }
+}
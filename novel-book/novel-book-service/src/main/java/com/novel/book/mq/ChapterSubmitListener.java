@@ -1,6 +1,7 @@
 package com.novel.book.mq;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novel.book.cache.BookChapterIndex;
 import com.novel.book.dao.entity.BookChapter;
 import com.novel.book.dao.entity.BookInfo;
 import com.novel.book.dao.entity.ContentAudit;
@@ -43,6 +44,7 @@ public class ChapterSubmitListener implements RocketMQListener<ChapterSubmitMqDt
     private final BookChapterMapper bookChapterMapper;
     private final ContentAuditMapper contentAuditMapper;
     private final BookRocketMqTxPublisher bookRocketMqTxPublisher;
+    private final BookChapterIndex bookChapterIndex;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -114,6 +116,7 @@ public class ChapterSubmitListener implements RocketMQListener<ChapterSubmitMqDt
         }
         
         // 4. 更新章节信息
+        Integer oldChapterNum = chapter.getChapterNum();
         chapter.setChapterNum(submitDto.getChapterNum());
         chapter.setChapterName(submitDto.getChapterName());
         chapter.setContent(submitDto.getContent());
@@ -132,6 +135,16 @@ public class ChapterSubmitListener implements RocketMQListener<ChapterSubmitMqDt
         bookChapterMapper.updateById(chapter);
         log.debug("章节更新完成，chapterId: {}, bookId: {}", chapter.getId(), submitDto.getBookId());
 
+        // 同步章节序号索引（事务提交后）：改号时旧号下线；重新送审时新号下线，否则沿用原审核状态
+        if (!Objects.equals(oldChapterNum, chapter.getChapterNum())) {
+            bookChapterIndex.onChapterHidden(chapter.getBookId(), oldChapterNum);
+        }
+        if (Objects.equals(chapter.getAuditStatus(), 1)) {
+            bookChapterIndex.onChapterVisible(chapter.getBookId(), chapter.getChapterNum());
+        } else {
+            bookChapterIndex.onChapterHidden(chapter.getBookId(), chapter.getChapterNum());
+        }
+
         // 5. 更新书籍字数和最新章节信息（原 BookInfoUpdateListener 逻辑）
         updateBookInfo(bookInfo, oldWordCount, newWordCount, false);
 
@@ -178,6 +191,9 @@ public class ChapterSubmitListener implements RocketMQListener<ChapterSubmitMqDt
 
         bookChapterMapper.insert(chapter);
         log.debug("章节创建完成，chapterId: {}, bookId: {}", chapter.getId(), submitDto.getBookId());
+        if (Objects.equals(chapter.getAuditStatus(), 1)) {
+            bookChapterIndex.onChapterVisible(chapter.getBookId(), chapter.getChapterNum());
+        }
 
         // 3. 更新书籍字数和最新章节信息（原 BookInfoUpdateListener 逻辑）
         updateBookInfo(bookInfo, 0, newWordCount, true);
@@ -0,0 +1,88 @@
+package com.novel.book.rank;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日/周/月热榜参数。
+ */
+@ConfigurationProperties(prefix = "novel.book.hot-rank")
+public class BookHotRankProperties {
+
+    /**
+     * 访问增量写入小时桶/天桶的间隔（毫秒）。
+     */
+    private long flushIntervalMillis = 5000;
+
+    /**
+     * 合并桶并重建榜单成品缓存的间隔（毫秒）。
+     */
+    private long refreshIntervalMillis = 60000;
+
+    /**
+     * 每个桶相对于后一个桶的权重衰减系数，1 表示纯滑动窗口，小于 1 时越早的桶权重越低（指数衰减）。
+     */
+    private double decayFactor = 1.0;
+
+    /**
+     * 排行榜页展示条数。
+     */
+    private int tableSize = 30;
+
+    /**
+     * 首页侧栏展示条数。
+     */
+    private int homeSize = 10;
+
+    /**
+     * 自然日分桶使用的时区。
+     */
+    private String zoneId = "Asia/Shanghai";
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public double getDecayFactor() {
+        return decayFactor;
+    }
+
+    public void setDecayFactor(double decayFactor) {
+        this.decayFactor = decayFactor;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public void setTableSize(int tableSize) {
+        this.tableSize = tableSize;
+    }
+
+    public int getHomeSize() {
+        return homeSize;
+    }
+
+    public void setHomeSize(int homeSize) {
+        this.homeSize = homeSize;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(String zoneId) {
+        this.zoneId = zoneId;
+    }
+}
@@ -0,0 +1,331 @@
+package com.novel.book.rank;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.novel.book.cache.codec.CacheValueRedisStore;
+import com.novel.book.dao.entity.BookInfo;
+import com.novel.book.dao.mapper.BookInfoMapper;
+import com.novel.book.dto.resp.BookRankHomeItemRespDto;
+import com.novel.book.dto.resp.BookRankTableRespDto;
+import com.novel.common.constant.CacheConsts;
+import com.novel.common.constant.DatabaseConsts;
+import com.novel.common.util.RankBookDescUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 日/周/月热榜：访问增量按小时桶、天桶写入 ZSet，定时 ZUNIONSTORE 合并窗口内的桶并缓存组装好的榜单。
+ * <p>
+ * 写入：{@link #recordDeltas(Map)} 与点击榜共用同一输入（去重计数成功后的增量），本地累加后每
+ * {@code flushIntervalMillis} 以一次管道 ZINCRBY 写入当前小时桶与当前天桶，桶 Key 带过期时间自然滚出窗口。
+ * <p>
+ * 合并：每 {@code refreshIntervalMillis} 由抢到刷新锁的实例对每个窗口执行 ZUNIONSTORE（按桶龄设置权重，
+ * {@code decayFactor < 1} 时即指数衰减），取前若干名过滤可上榜书籍后组装排行榜页与首页两种形态写入缓存。
+ * <p>
+ * 读取只查成品缓存（一次 GET），缓存缺失时才在请求线程内合并。合并按窗口单飞：同一实例同一窗口同时只有一个合并，
+ * 其余请求有上次的榜单就直接返回（可能略旧），没有才等待这次合并的结果，避免缓存过期瞬间的请求全部打到 Redis 与 DB。
+ */
+@Slf4j
+@Component
+public class BookHotRankService {
+
+    /** 候选数相对展示条数的倍数，留出未审核/无字数书籍被过滤后的余量 */
+    private static final int CANDIDATE_FACTOR = 2;
+    private static final long HOUR_BUCKET_TTL_SECONDS = TimeUnit.HOURS.toSeconds(HotRankWindow.DAY.getBuckets() + 2);
+    private static final long DAY_BUCKET_TTL_SECONDS = TimeUnit.DAYS.toSeconds(HotRankWindow.MONTH.getBuckets() + 1);
+
+    private final BookInfoMapper bookInfoMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheValueRedisStore cacheValueRedisStore;
+    private final BookHotRankProperties properties;
+    private final ZoneId zoneId;
+
+    /** 回写线程写入、flush 任务取走的待写入增量 */
+    private final ConcurrentHashMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    /** 各窗口正在进行的合并 */
+    private final ConcurrentHashMap<HotRankWindow, CompletableFuture<Board>> refreshing = new ConcurrentHashMap<>();
+    /** 各窗口本实例最近一次合并出的榜单，合并进行中时代替等待 */
+    private final Map<HotRankWindow, Board> lastBoards = new ConcurrentHashMap<>();
+
+    public BookHotRankService(BookInfoMapper bookInfoMapper,
+                              StringRedisTemplate stringRedisTemplate,
+                              CacheValueRedisStore cacheValueRedisStore,
+                              BookHotRankProperties properties) {
+        this.bookInfoMapper = bookInfoMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheValueRedisStore = cacheValueRedisStore;
+        this.properties = properties;
+        this.zoneId = ZoneId.of(properties.getZoneId());
+    }
+
+    /**
+     * 记录访问量增量（去重计数成功后调用，仅做内存累加）。
+     */
+    public void recordDeltas(Map<Long, Long> deltas) {
+        if (CollectionUtils.isEmpty(deltas)) {
+            return;
+        }
+        deltas.forEach((bookId, delta) -> pendingDeltas.merge(bookId, delta, Long::sum));
+    }
+
+    /**
+     * 将累加的增量写入当前小时桶与天桶。
+     */
+    @Scheduled(fixedDelayString = "${novel.book.hot-rank.flush-interval-millis:5000}")
+    public void flush() {
+        if (pendingDeltas.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> batch = new HashMap<>();
+        for (Long bookId : pendingDeltas.keySet()) {
+            Long delta = pendingDeltas.remove(bookId);
+            if (delta != null && delta > 0) {
+                batch.put(bookId, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        byte[] hourKey = bytes(hourBucketKey(hourBucket(now)));
+        byte[] dayKey = bytes(dayBucketKey(dayBucket(now)));
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Long, Long> e : batch.entrySet()) {
+                    byte[] member = bytes(String.valueOf(e.getKey()));
+                    connection.zSetCommands().zIncrBy(hourKey, e.getValue(), member);
+                    connection.zSetCommands().zIncrBy(dayKey, e.getValue(), member);
+                }
+                connection.keyCommands().expire(hourKey, HOUR_BUCKET_TTL_SECONDS);
+                connection.keyCommands().expire(dayKey, DAY_BUCKET_TTL_SECONDS);
+                return null;
+            });
+        } catch (Exception e) {
+            batch.forEach((bookId, delta) -> pendingDeltas.merge(bookId, delta, Long::sum));
+            log.warn(">>> 热榜桶写入失败，增量留待下轮重试，books={}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 合并各窗口的桶并重建榜单缓存；多实例同一周期只有抢到锁的实例执行。
+     */
+    @Scheduled(fixedDelayString = "${novel.book.hot-rank.refresh-interval-millis:60000}")
+    public void refreshAll() {
+        long lockMillis = Math.max(1000L, properties.getRefreshIntervalMillis() - 1000L);
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                CacheConsts.BOOK_HOT_RANK_REFRESH_LOCK_KEY, "1", Duration.ofMillis(lockMillis));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        for (HotRankWindow window : HotRankWindow.values()) {
+            try {
+                refreshOnce(window);
+            } catch (Exception e) {
+                log.warn(">>> 热榜合并失败，window={}", window.getCode(), e);
+            }
+        }
+    }
+
+    /**
+     * 热榜（排行榜页表格）。
+     */
+    public List<BookRankTableRespDto> listTable(HotRankWindow window) {
+        String key = boardKey(window, "table");
+        try {
+            List<BookRankTableRespDto> cached = cacheValueRedisStore.get(key,
+                    new TypeReference<List<BookRankTableRespDto>>() {});
+            if (cached != null) {
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("解析热榜缓存失败，key={}", key, e);
+        }
+        return refreshOnce(window).table();
+    }
+
+    /**
+     * 热榜（首页侧栏，仅第一名含封面与简介预览）。
+     */
+    public List<BookRankHomeItemRespDto> listHome(HotRankWindow window) {
+        String key = boardKey(window, "home");
+        try {
+            List<BookRankHomeItemRespDto> cached = cacheValueRedisStore.get(key,
+                    new TypeReference<List<BookRankHomeItemRespDto>>() {});
+            if (cached != null) {
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("解析热榜缓存失败，key={}", key, e);
+        }
+        return refreshOnce(window).home();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 按窗口单飞合并：已有合并在进行时返回上次的榜单，本实例还没有榜单时等待进行中的合并。
+     */
+    private Board refreshOnce(HotRankWindow window) {
+        CompletableFuture<Board> mine = new CompletableFuture<>();
+        CompletableFuture<Board> running = refreshing.putIfAbsent(window, mine);
+        if (running != null) {
+            Board last = lastBoards.get(window);
+            if (last != null) {
+                return last;
+            }
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            Board board = refresh(window);
+            lastBoards.put(window, board);
+            mine.complete(board);
+            return board;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            refreshing.remove(window, mine);
+        }
+    }
+
+    private Board refresh(HotRankWindow window) {
+        Instant now = Instant.now();
+        List<String> keys = new ArrayList<>(window.getBuckets());
+        double[] weights = new double[window.getBuckets()];
+        long current = window.isDayBuckets() ? dayBucket(now) : hourBucket(now);
+        for (int age = 0; age < window.getBuckets(); age++) {
+            keys.add(window.isDayBuckets() ? dayBucketKey(current - age) : hourBucketKey(current - age));
+            weights[age] = Math.pow(properties.getDecayFactor(), age);
+        }
+        String mergedKey = CacheConsts.BOOK_HOT_RANK_MERGED_ZSET_PREFIX + window.getCode();
+        stringRedisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), mergedKey,
+                Aggregate.SUM, Weights.of(weights));
+        int size = Math.max(properties.getTableSize(), properties.getHomeSize());
+        Set<String> top = stringRedisTemplate.opsForZSet().reverseRange(mergedKey, 0, (long) size * CANDIDATE_FACTOR - 1);
+        stringRedisTemplate.expire(mergedKey, Duration.ofMillis(properties.getRefreshIntervalMillis() * 2));
+
+        List<BookInfo> books = loadEligibleInOrder(top, size);
+        List<BookRankTableRespDto> table = new ArrayList<>();
+        for (int i = 0; i < books.size() && i < properties.getTableSize(); i++) {
+            table.add(toTableDto(books.get(i), i + 1));
+        }
+        List<BookRankHomeItemRespDto> home = new ArrayList<>();
+        for (int i = 0; i < books.size() && i < properties.getHomeSize(); i++) {
+            home.add(toHomeDto(books.get(i), i + 1));
+        }
+        long ttlMillis = properties.getRefreshIntervalMillis() * 3;
+        try {
+            cacheValueRedisStore.set(boardKey(window, "table"), table, ttlMillis, TimeUnit.MILLISECONDS);
+            cacheValueRedisStore.set(boardKey(window, "home"), home, ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("写入热榜缓存失败，window={}", window.getCode(), e);
+        }
+        log.debug(">>> 热榜已重建，window={}，entries={}", window.getCode(), books.size());
+        return new Board(table, home);
+    }
+
+    private List<BookInfo> loadEligibleInOrder(Set<String> top, int limit) {
+        if (CollectionUtils.isEmpty(top)) {
+            return List.of();
+        }
+        List<Long> ids = top.stream().map(Long::valueOf).toList();
+        Map<Long, BookInfo> byId = bookInfoMapper.selectList(new QueryWrapper<BookInfo>()
+                        .in(DatabaseConsts.CommonColumnEnum.ID.getName(), ids)
+                        .eq("audit_status", 1)
+                        .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0))
+                .stream().collect(Collectors.toMap(BookInfo::getId, Function.identity()));
+        List<BookInfo> out = new ArrayList<>(limit);
+        for (Long id : ids) {
+            BookInfo b = byId.get(id);
+            if (b != null) {
+                out.add(b);
+                if (out.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static BookRankTableRespDto toTableDto(BookInfo b, int rank) {
+        BookRankTableRespDto dto = new BookRankTableRespDto();
+        dto.setRank(rank);
+        dto.setId(b.getId());
+        dto.setCategoryName(b.getCategoryName());
+        dto.setBookName(b.getBookName());
+        dto.setLastChapterName(b.getLastChapterName());
+        dto.setAuthorName(b.getAuthorName());
+        dto.setWordCount(b.getWordCount());
+        return dto;
+    }
+
+    private static BookRankHomeItemRespDto toHomeDto(BookInfo b, int rank) {
+        BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
+        dto.setRank(rank);
+        dto.setId(b.getId());
+        dto.setBookName(b.getBookName());
+        if (rank == 1) {
+            dto.setPicUrl(b.getPicUrl());
+            dto.setBookDesc(RankBookDescUtils.toRankPreview(b.getBookDesc()));
+        }
+        return dto;
+    }
+
+    private static long hourBucket(Instant now) {
+        return now.getEpochSecond() / TimeUnit.HOURS.toSeconds(1);
+    }
+
+    private long dayBucket(Instant now) {
+        return LocalDate.ofInstant(now, zoneId).toEpochDay();
+    }
+
+    private static String hourBucketKey(long bucket) {
+        return CacheConsts.BOOK_HOT_RANK_HOUR_ZSET_PREFIX + bucket;
+    }
+
+    private static String dayBucketKey(long bucket) {
+        return CacheConsts.BOOK_HOT_RANK_DAY_ZSET_PREFIX + bucket;
+    }
+
+    private static String boardKey(HotRankWindow window, String view) {
+        return CacheConsts.BOOK_HOT_RANK_BOARD_PREFIX + window.getCode() + ":" + view;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Board(List<BookRankTableRespDto> table, List<BookRankHomeItemRespDto> home) {
+    }
+}
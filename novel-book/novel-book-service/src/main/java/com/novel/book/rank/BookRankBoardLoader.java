@@ -0,0 +1,266 @@
+package com.novel.book.rank;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novel.book.dao.entity.BookInfo;
+import com.novel.book.dao.mapper.BookInfoMapper;
+import com.novel.book.dto.resp.BookRankHomeItemRespDto;
+import com.novel.book.dto.resp.BookRankTableRespDto;
+import com.novel.common.constant.CacheConsts;
+import com.novel.common.constant.DatabaseConsts;
+import com.novel.common.util.RankBookDescUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 榜单组装：点击榜读实时榜单 ZSet + 一次管道 HMGET 书籍信息 Hash，Hash 缺失的书籍合并为一次 DB 批量查询；
+ * 新书榜/更新榜直接查 DB。由 {@link BookRankSnapshotService} 在刷新周期内调用，也作为快照未就绪时的兜底。
+ */
+@Component
+@RequiredArgsConstructor
+public class BookRankBoardLoader {
+
+    public static final int RANK_PAGE_LIMIT = 30;
+    public static final int RANK_HOME_LIMIT = 10;
+
+    private final BookInfoMapper bookInfoMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 排行榜页表格。
+     */
+    public List<BookRankTableRespDto> loadTable(RankBoard board) {
+        if (board == RankBoard.VISIT) {
+            Set<String> bookIdSet = stringRedisTemplate.opsForZSet().reverseRange(
+                    CacheConsts.BOOK_VISIT_RANK_ZSET, 0, RANK_PAGE_LIMIT - 1);
+            if (!CollectionUtils.isEmpty(bookIdSet)) {
+                return loadVisitRankTableFromRedis(new ArrayList<>(bookIdSet));
+            }
+        }
+        return listRankTableFromDb(dbQuery(board), RANK_PAGE_LIMIT);
+    }
+
+    /**
+     * 首页侧栏（仅第一名含封面与简介预览）。
+     */
+    public List<BookRankHomeItemRespDto> loadHome(RankBoard board) {
+        if (board == RankBoard.VISIT) {
+            Set<String> bookIdSet = stringRedisTemplate.opsForZSet().reverseRange(
+                    CacheConsts.BOOK_VISIT_RANK_ZSET, 0, RANK_HOME_LIMIT - 1);
+            if (!CollectionUtils.isEmpty(bookIdSet)) {
+                return loadVisitRankHomeFromRedis(new ArrayList<>(bookIdSet));
+            }
+        }
+        return listRankHomeFromDb(dbQuery(board), RANK_HOME_LIMIT);
+    }
+
+    private static QueryWrapper<BookInfo> dbQuery(RankBoard board) {
+        QueryWrapper<BookInfo> qw = new QueryWrapper<>();
+        switch (board) {
+            case VISIT -> qw.orderByDesc(DatabaseConsts.BookTable.COLUMN_VISIT_COUNT);
+            case NEWEST -> qw.orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName());
+            case UPDATE -> qw.orderByDesc(DatabaseConsts.CommonColumnEnum.UPDATE_TIME.getName());
+        }
+        return qw;
+    }
+
+    private List<BookRankTableRespDto> listRankTableFromDb(QueryWrapper<BookInfo> qw, int limit) {
+        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
+                .eq("audit_status", 1)
+                .last("limit " + limit);
+        List<BookInfo> rows = bookInfoMapper.selectList(qw);
+        List<BookRankTableRespDto> out = new ArrayList<>();
+        int rank = 1;
+        for (BookInfo b : rows) {
+            out.add(toRankTableDto(b, rank++));
+        }
+        return out;
+    }
+
+    private List<BookRankHomeItemRespDto> listRankHomeFromDb(QueryWrapper<BookInfo> qw, int limit) {
+        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
+                .eq("audit_status", 1)
+                .last("limit " + limit);
+        List<BookInfo> rows = bookInfoMapper.selectList(qw);
+        List<BookRankHomeItemRespDto> out = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            out.add(toRankHomeDto(rows.get(i), i + 1, i == 0));
+        }
+        return out;
+    }
+
+    private List<BookRankTableRespDto> loadVisitRankTableFromRedis(List<String> bookIdStrList) {
+        List<Object> pipelineResults = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> ser = stringRedisTemplate.getStringSerializer();
+            for (String bookIdStr : bookIdStrList) {
+                byte[] key = ser.serialize(CacheConsts.BOOK_INFO_HASH_PREFIX + bookIdStr);
+                connection.hashCommands().hMGet(key,
+                        ser.serialize("categoryName"),
+                        ser.serialize("bookName"),
+                        ser.serialize("lastChapterName"),
+                        ser.serialize("authorName"),
+                        ser.serialize("wordCount"));
+            }
+            return null;
+        });
+        BookRankTableRespDto[] rows = new BookRankTableRespDto[bookIdStrList.size()];
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < bookIdStrList.size(); i++) {
+            long bookId = Long.parseLong(bookIdStrList.get(i));
+            @SuppressWarnings("unchecked")
+            List<Object> vals = (List<Object>) pipelineResults.get(i);
+            BookRankTableRespDto row = parseTableRowFromHmget(bookId, i + 1, vals);
+            if (row != null && row.getBookName() != null) {
+                rows[i] = row;
+            } else {
+                missing.add(bookId);
+            }
+        }
+        Map<Long, BookInfo> fallback = selectByIds(missing);
+        List<BookRankTableRespDto> out = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != null) {
+                out.add(rows[i]);
+                continue;
+            }
+            BookInfo b = fallback.get(Long.parseLong(bookIdStrList.get(i)));
+            if (b != null) {
+                out.add(toRankTableDto(b, i + 1));
+            }
+        }
+        return out;
+    }
+
+    private List<BookRankHomeItemRespDto> loadVisitRankHomeFromRedis(List<String> bookIdStrList) {
+        List<Object> pipelineResults = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> ser = stringRedisTemplate.getStringSerializer();
+            for (int i = 0; i < bookIdStrList.size(); i++) {
+                String bookIdStr = bookIdStrList.get(i);
+                byte[] key = ser.serialize(CacheConsts.BOOK_INFO_HASH_PREFIX + bookIdStr);
+                if (i == 0) {
+                    connection.hashCommands().hMGet(key,
+                            ser.serialize("bookName"),
+                            ser.serialize("picUrl"),
+                            ser.serialize("bookDesc"));
+                } else {
+                    connection.hashCommands().hMGet(key, ser.serialize("bookName"));
+                }
+            }
+            return null;
+        });
+        BookRankHomeItemRespDto[] rows = new BookRankHomeItemRespDto[bookIdStrList.size()];
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < bookIdStrList.size(); i++) {
+            long bookId = Long.parseLong(bookIdStrList.get(i));
+            @SuppressWarnings("unchecked")
+            List<Object> vals = (List<Object>) pipelineResults.get(i);
+            BookRankHomeItemRespDto row = parseHomeRowFromHmget(bookId, i + 1, vals, i == 0);
+            if (row != null && row.getBookName() != null) {
+                rows[i] = row;
+            } else {
+                missing.add(bookId);
+            }
+        }
+        Map<Long, BookInfo> fallback = selectByIds(missing);
+        List<BookRankHomeItemRespDto> out = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != null) {
+                out.add(rows[i]);
+                continue;
+            }
+            BookInfo b = fallback.get(Long.parseLong(bookIdStrList.get(i)));
+            if (b != null) {
+                out.add(toRankHomeDto(b, i + 1, i == 0));
+            }
+        }
+        return out;
+    }
+
+    private Map<Long, BookInfo> selectByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return bookInfoMapper.selectByIds(ids).stream()
+                .collect(Collectors.toMap(BookInfo::getId, Function.identity(), (a, b) -> a));
+    }
+
+    private static BookRankTableRespDto toRankTableDto(BookInfo b, int rank) {
+        BookRankTableRespDto dto = new BookRankTableRespDto();
+        dto.setRank(rank);
+        dto.setId(b.getId());
+        dto.setCategoryName(b.getCategoryName());
+        dto.setBookName(b.getBookName());
+        dto.setLastChapterName(b.getLastChapterName());
+        dto.setAuthorName(b.getAuthorName());
+        dto.setWordCount(b.getWordCount());
+        return dto;
+    }
+
+    private static BookRankHomeItemRespDto toRankHomeDto(BookInfo b, int rank, boolean top) {
+        BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
+        dto.setRank(rank);
+        dto.setId(b.getId());
+        dto.setBookName(b.getBookName());
+        if (top) {
+            dto.setPicUrl(b.getPicUrl());
+            dto.setBookDesc(RankBookDescUtils.toRankPreview(b.getBookDesc()));
+        }
+        return dto;
+    }
+
+    private static BookRankTableRespDto parseTableRowFromHmget(long bookId, int rank, List<Object> vals) {
+        if (vals == null || vals.size() < 5) {
+            return null;
+        }
+        BookRankTableRespDto dto = new BookRankTableRespDto();
+        dto.setRank(rank);
+        dto.setId(bookId);
+        dto.setCategoryName(stringVal(vals.get(0)));
+        dto.setBookName(stringVal(vals.get(1)));
+        dto.setLastChapterName(stringVal(vals.get(2)));
+        dto.setAuthorName(stringVal(vals.get(3)));
+        dto.setWordCount(parseIntWordCount(vals.get(4)));
+        return dto;
+    }
+
+    private static BookRankHomeItemRespDto parseHomeRowFromHmget(long bookId, int rank, List<Object> vals, boolean top) {
+        if (vals == null || vals.isEmpty()) {
+            return null;
+        }
+        BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
+        dto.setRank(rank);
+        dto.setId(bookId);
+        dto.setBookName(stringVal(vals.get(0)));
+        if (top && vals.size() >= 3) {
+            dto.setPicUrl(stringVal(vals.get(1)));
+            dto.setBookDesc(RankBookDescUtils.toRankPreview(stringVal(vals.get(2))));
+        }
+        return dto;
+    }
+
+    private static String stringVal(Object o) {
+        return o == null ? null : Objects.toString(o, null);
+    }
+
+    private static Integer parseIntWordCount(Object o) {
+        if (o == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(o.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
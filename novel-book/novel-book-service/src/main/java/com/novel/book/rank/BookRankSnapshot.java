@@ -0,0 +1,35 @@
+package com.novel.book.rank;
+
+import com.novel.book.dto.resp.BookRankHomeItemRespDto;
+import com.novel.book.dto.resp.BookRankTableRespDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 某一版本的全部榜单（表格 + 首页两种形态），构建后不再修改，可被并发读取。
+ *
+ * @param version 集群快照版本号，单调递增
+ * @param builtAt 构建时间（epoch 毫秒）
+ */
+public record BookRankSnapshot(long version,
+                               long builtAt,
+                               Map<RankBoard, List<BookRankTableRespDto>> tables,
+                               Map<RankBoard, List<BookRankHomeItemRespDto>> homes) {
+
+    public BookRankSnapshot {
+        tables = tables.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue())));
+        homes = homes.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue())));
+    }
+
+    public List<BookRankTableRespDto> table(RankBoard board) {
+        return tables.getOrDefault(board, List.of());
+    }
+
+    public List<BookRankHomeItemRespDto> home(RankBoard board) {
+        return homes.getOrDefault(board, List.of());
+    }
+}
@@ -0,0 +1,49 @@
+package com.novel.book.rank;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 排行榜内存快照参数。
+ */
+@ConfigurationProperties(prefix = "novel.book.rank-snapshot")
+public class BookRankSnapshotProperties {
+
+    /**
+     * 是否由内存快照提供榜单；关闭后每次请求直接读 Redis/DB。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 检查集群快照版本号的间隔（毫秒），决定其他实例跟上新快照的延迟。
+     */
+    private long pollIntervalMillis = 2000;
+
+    /**
+     * 集群内重建快照的间隔（毫秒），同一间隔内只有一个实例回源重建。
+     */
+    private long rebuildIntervalMillis = 30000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getRebuildIntervalMillis() {
+        return rebuildIntervalMillis;
+    }
+
+    public void setRebuildIntervalMillis(long rebuildIntervalMillis) {
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+    }
+}
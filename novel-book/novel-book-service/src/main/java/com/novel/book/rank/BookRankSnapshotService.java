@@ -0,0 +1,129 @@
+package com.novel.book.rank;
+
+import com.novel.book.cache.codec.CacheValueRedisStore;
+import com.novel.book.dto.resp.BookRankHomeItemRespDto;
+import com.novel.book.dto.resp.BookRankTableRespDto;
+import com.novel.common.constant.CacheConsts;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 排行榜内存快照：点击榜/新书榜/更新榜的表格与首页形态在每个刷新周期物化为一个不可变 {@link BookRankSnapshot}，
+ * 以 {@link AtomicReference} 整体替换发布，榜单接口直接读内存，不访问 Redis。
+ * <p>
+ * 集群协调（版本号 Key）：
+ * <ol>
+ *     <li>每 {@code pollIntervalMillis} 各实例尝试抢占重建锁（过期时间 = {@code rebuildIntervalMillis}），
+ *     抢到的实例经 {@link BookRankBoardLoader} 回源构建快照，写入快照 Key 后递增版本号；</li>
+ *     <li>未抢到锁的实例只读取版本号（一次 GET），高于本地版本时再拉取快照 Key 并替换。</li>
+ * </ol>
+ * 因此每个重建间隔集群只回源一次，其他实例最多落后一个轮询间隔。快照尚未就绪时（冷启动）回退为直接读 Redis/DB。
+ */
+@Slf4j
+@Component
+public class BookRankSnapshotService {
+
+    private final BookRankBoardLoader loader;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheValueRedisStore cacheValueRedisStore;
+    private final BookRankSnapshotProperties properties;
+    private final AtomicReference<BookRankSnapshot> current = new AtomicReference<>();
+
+    public BookRankSnapshotService(BookRankBoardLoader loader,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   CacheValueRedisStore cacheValueRedisStore,
+                                   BookRankSnapshotProperties properties,
+                                   ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.loader = loader;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheValueRedisStore = cacheValueRedisStore;
+        this.properties = properties;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("novel.book.rank.snapshot.age", current,
+                        ref -> ref.get() == null ? -1 : (System.currentTimeMillis() - ref.get().builtAt()) / 1000.0)
+                .description("Age in seconds of the in-memory rank snapshot currently served")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 榜单表格（排行榜页）。
+     */
+    public List<BookRankTableRespDto> table(RankBoard board) {
+        BookRankSnapshot snapshot = properties.isEnabled() ? current.get() : null;
+        return snapshot != null ? snapshot.table(board) : loader.loadTable(board);
+    }
+
+    /**
+     * 榜单首页形态（仅第一名含封面与简介预览）。
+     */
+    public List<BookRankHomeItemRespDto> home(RankBoard board) {
+        BookRankSnapshot snapshot = properties.isEnabled() ? current.get() : null;
+        return snapshot != null ? snapshot.home(board) : loader.loadHome(board);
+    }
+
+    @Scheduled(fixedDelayString = "${novel.book.rank-snapshot.poll-interval-millis:2000}")
+    public void tick() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(CacheConsts.BOOK_RANK_SNAPSHOT_LOCK_KEY, "1",
+                    Duration.ofMillis(properties.getRebuildIntervalMillis()));
+            if (Boolean.TRUE.equals(locked)) {
+                rebuild();
+            } else {
+                follow();
+            }
+        } catch (Exception e) {
+            log.warn(">>> 排行榜快照刷新失败，继续使用当前快照", e);
+        }
+    }
+
+    private void rebuild() throws Exception {
+        Map<RankBoard, List<BookRankTableRespDto>> tables = new EnumMap<>(RankBoard.class);
+        Map<RankBoard, List<BookRankHomeItemRespDto>> homes = new EnumMap<>(RankBoard.class);
+        for (RankBoard board : RankBoard.values()) {
+            tables.put(board, loader.loadTable(board));
+            homes.put(board, loader.loadHome(board));
+        }
+        Long version = stringRedisTemplate.opsForValue().increment(CacheConsts.BOOK_RANK_SNAPSHOT_VERSION_KEY);
+        BookRankSnapshot snapshot = new BookRankSnapshot(version == null ? 0L : version,
+                System.currentTimeMillis(), tables, homes);
+        // 快照 Key 保留数个重建周期，重建实例宕机时其他实例仍可拉取到最后一版
+        cacheValueRedisStore.set(CacheConsts.BOOK_RANK_SNAPSHOT_KEY, snapshot,
+                properties.getRebuildIntervalMillis() * 10, TimeUnit.MILLISECONDS);
+        publish(snapshot);
+        log.debug(">>> 排行榜快照已重建，version={}", snapshot.version());
+    }
+
+    private void follow() throws Exception {
+        String remote = stringRedisTemplate.opsForValue().get(CacheConsts.BOOK_RANK_SNAPSHOT_VERSION_KEY);
+        BookRankSnapshot local = current.get();
+        // 版本号不等即拉取（而非仅在更大时），Redis 数据被清空、版本号从头计数后仍能跟上
+        if (remote == null || (local != null && Long.parseLong(remote) == local.version())) {
+            return;
+        }
+        BookRankSnapshot snapshot = cacheValueRedisStore.get(CacheConsts.BOOK_RANK_SNAPSHOT_KEY, BookRankSnapshot.class);
+        if (snapshot != null && (local == null || snapshot.version() != local.version())) {
+            publish(snapshot);
+        }
+    }
+
+    private void publish(BookRankSnapshot snapshot) {
+        current.set(snapshot);
+    }
+}
@@ -0,0 +1,48 @@
+package com.novel.book.rank;
+
+import java.util.Arrays;
+
+/**
+ * 热榜时间窗口。日榜按小时桶滑动，周榜/月榜按天桶滑动（避免一次合并上百个小时桶）。
+ */
+public enum HotRankWindow {
+
+    DAY("day", false, 24),
+    WEEK("week", true, 7),
+    MONTH("month", true, 30);
+
+    private final String code;
+    private final boolean dayBuckets;
+    private final int buckets;
+
+    HotRankWindow(String code, boolean dayBuckets, int buckets) {
+        this.code = code;
+        this.dayBuckets = dayBuckets;
+        this.buckets = buckets;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 是否由天桶合并（否则由小时桶合并）。
+     */
+    public boolean isDayBuckets() {
+        return dayBuckets;
+    }
+
+    /**
+     * 参与合并的桶数（含当前未结束的桶）。
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * @return 对应窗口；未知编码返回 null
+     */
+    public static HotRankWindow of(String code) {
+        return Arrays.stream(values()).filter(w -> w.code.equalsIgnoreCase(code)).findFirst().orElse(null);
+    }
+}
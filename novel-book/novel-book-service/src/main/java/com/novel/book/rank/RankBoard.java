@@ -0,0 +1,22 @@
+package com.novel.book.rank;
+
+/**
+ * 由排行榜快照统一物化的榜单。
+ */
+public enum RankBoard {
+
+    /**
+     * 点击榜（实时榜单 ZSet，缺失时按 DB visit_count）
+     */
+    VISIT,
+
+    /**
+     * 新书榜（按创建时间）
+     */
+    NEWEST,
+
+    /**
+     * 更新榜（按更新时间）
+     */
+    UPDATE
+}
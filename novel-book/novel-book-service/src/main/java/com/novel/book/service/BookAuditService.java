@@ -46,5 +46,12 @@ public interface BookAuditService {
      */
     RestResp<java.util.List<com.novel.book.dto.resp.ContentAuditRespDto>> listNextAuditExperience(Long maxId);
 
+    /**
+     * 根据 ID 批量查询审核经验数据（条件与 {@link #listNextAuditExperience} 相同，不满足的记录不返回）
+     * @param auditIds 审核记录ID列表
+     * @return 审核经验数据列表
+     */
+    RestResp<java.util.List<com.novel.book.dto.resp.ContentAuditRespDto>> listAuditExperienceByIds(java.util.List<Long> auditIds);
+
 
 }
\ No newline at end of file
@@ -63,6 +63,13 @@ public interface BookSearchService {
      */
     RestResp<BookEsRespDto> getEsBookById(Long bookId);
 
+    /**
+     * 根据 ID 批量获取 ES 书籍数据，不存在或未审核通过的书籍不返回
+     * @param bookIds 书籍ID列表
+     * @return Elasticsearch 存储小说 DTO 列表
+     */
+    RestResp<List<BookEsRespDto>> listEsBooksByIds(List<Long> bookIds);
+
     /**
      * 小说点击榜（排行榜页表格，无封面简介）
      */
@@ -73,6 +80,20 @@ public interface BookSearchService {
      */
     RestResp<List<BookRankHomeItemRespDto>> listVisitRankBooksHome();
 
+    /**
+     * 小说日/周/月热榜（排行榜页表格）
+     *
+     * @param window 时间窗口：day / week / month
+     */
+    RestResp<List<BookRankTableRespDto>> listHotRankBooks(String window);
+
+    /**
+     * 小说日/周/月热榜（首页侧栏，仅第一名含封面与简介预览）
+     *
+     * @param window 时间窗口：day / week / month
+     */
+    RestResp<List<BookRankHomeItemRespDto>> listHotRankBooksHome(String window);
+
     /**
      * 小说新书榜（排行榜页表格）
      */
@@ -3,6 +3,8 @@ package com.novel.book.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.novel.book.cache.BookChapterIndex;
+import com.novel.book.cache.BookContentNearCache;
 import com.novel.book.dao.entity.BookChapter;
 import com.novel.book.dao.entity.BookInfo;
 import com.novel.book.dao.entity.ContentAudit;
@@ -38,6 +40,7 @@ import java.time.LocalDateTime;
 import com.novel.ai.feign.AiFeign;
 import com.novel.ai.dto.req.AuditRuleReqDto;
 import com.novel.ai.dto.resp.AuditRuleRespDto;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -58,6 +61,8 @@ public class BookAuditServiceImpl implements BookAuditService {
     private final StringRedisTemplate stringRedisTemplate; // 添加Redis依赖，用于清除缓存
     private final AiFeign aiFeign; // 添加AI服务依赖，用于提取审核规则
     private final BookExistBloomService bookExistBloomService;
+    private final BookContentNearCache bookContentNearCache;
+    private final BookChapterIndex bookChapterIndex;
 
     /**
      * AI审核置信度阈值，低于此值需要人工审核
@@ -261,6 +266,7 @@ public class BookAuditServiceImpl implements BookAuditService {
 
             final Long passBookId = bookChapter.getBookId();
             final Integer passChapterNum = bookChapter.getChapterNum();
+            bookChapterIndex.onChapterVisible(passBookId, passChapterNum);
             runAfterCommit(() -> {
                 try {
                     stringRedisTemplate.delete(CacheConsts.BOOK_CHAPTER_CACHE_NAME + "::" + passBookId);
@@ -270,6 +276,7 @@ public class BookAuditServiceImpl implements BookAuditService {
                 }
                 try {
                     stringRedisTemplate.delete(CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + passBookId + ":" + passChapterNum);
+                    bookContentNearCache.evict(passBookId, passChapterNum);
                     log.debug("已清除章节内容缓存，bookId: {}, chapterNum: {}", passBookId, passChapterNum);
                 } catch (Exception e) {
                     log.warn("清除章节内容缓存失败，bookId: {}, chapterNum: {}", passBookId, passChapterNum, e);
@@ -324,9 +331,11 @@ public class BookAuditServiceImpl implements BookAuditService {
 
             final Long rejectBookId = bookChapter.getBookId();
             final Integer rejectChapterNum = bookChapter.getChapterNum();
+            bookChapterIndex.onChapterHidden(rejectBookId, rejectChapterNum);
             runAfterCommit(() -> {
                 try {
                     stringRedisTemplate.delete(CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + rejectBookId + ":" + rejectChapterNum);
+                    bookContentNearCache.evict(rejectBookId, rejectChapterNum);
                     log.info("AI审核不通过，已删除章节内容缓存，bookId: {}, chapterNum: {}", rejectBookId, rejectChapterNum);
                 } catch (Exception e) {
                     log.warn("删除章节内容缓存失败，bookId: {}, chapterNum: {}", rejectBookId, rejectChapterNum, e);
@@ -657,6 +666,7 @@ public class BookAuditServiceImpl implements BookAuditService {
 
                     final Long manBookId = chapter.getBookId();
                     final Integer manChapterNum = chapter.getChapterNum();
+                    bookChapterIndex.onChapterVisible(manBookId, manChapterNum);
                     runAfterCommit(() -> {
                         try {
                             stringRedisTemplate.delete(CacheConsts.BOOK_CHAPTER_CACHE_NAME + "::" + manBookId);
@@ -666,6 +676,7 @@ public class BookAuditServiceImpl implements BookAuditService {
                         }
                         try {
                             stringRedisTemplate.delete(CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + manBookId + ":" + manChapterNum);
+                            bookContentNearCache.evict(manBookId, manChapterNum);
                             log.info("人工审核通过，已清除章节内容缓存，bookId: {}, chapterNum: {}", manBookId, manChapterNum);
                         } catch (Exception e) {
                             log.warn("清除章节内容缓存失败，bookId: {}, chapterNum: {}", manBookId, manChapterNum, e);
@@ -685,9 +696,11 @@ public class BookAuditServiceImpl implements BookAuditService {
                 if (chapter != null) {
                     final Long failBookId = chapter.getBookId();
                     final Integer failChapterNum = chapter.getChapterNum();
+                    bookChapterIndex.onChapterHidden(failBookId, failChapterNum);
                     runAfterCommit(() -> {
                         try {
                             stringRedisTemplate.delete(CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + failBookId + ":" + failChapterNum);
+                            bookContentNearCache.evict(failBookId, failChapterNum);
                             log.info("人工审核不通过，已删除章节内容缓存，bookId: {}, chapterNum: {}", failBookId, failChapterNum);
                         } catch (Exception e) {
                             log.warn("删除章节内容缓存失败，bookId: {}, chapterNum: {}", failBookId, failChapterNum, e);
@@ -1204,19 +1217,38 @@ public class BookAuditServiceImpl implements BookAuditService {
 
     @Override
     public RestResp<List<com.novel.book.dto.resp.ContentAuditRespDto>> listNextAuditExperience(Long maxId) {
-        QueryWrapper<ContentAudit> queryWrapper = new QueryWrapper<>();
-        queryWrapper.in("audit_status", 1, 2)
-                .eq("is_human_final", 1);
-                
+        QueryWrapper<ContentAudit> queryWrapper = auditExperienceQuery();
         if (maxId != null) {
             queryWrapper.gt("id", maxId);
         }
         
         queryWrapper.orderByAsc("id").last("LIMIT 100");
         
-        List<ContentAudit> auditList = contentAuditMapper.selectList(queryWrapper);
-        
-        List<com.novel.book.dto.resp.ContentAuditRespDto> respDtoList = auditList.stream()
+        return RestResp.ok(toAuditExperienceDtos(contentAuditMapper.selectList(queryWrapper)));
+    }
+
+    @Override
+    public RestResp<List<com.novel.book.dto.resp.ContentAuditRespDto>> listAuditExperienceByIds(List<Long> auditIds) {
+        if (auditIds == null || auditIds.isEmpty()) {
+            return RestResp.ok(new ArrayList<>(0));
+        }
+        QueryWrapper<ContentAudit> queryWrapper = auditExperienceQuery();
+        queryWrapper.in("id", auditIds).orderByAsc("id");
+        return RestResp.ok(toAuditExperienceDtos(contentAuditMapper.selectList(queryWrapper)));
+    }
+
+    /**
+     * 可作为审核经验的记录：人审终审的通过/拒绝记录
+     */
+    private QueryWrapper<ContentAudit> auditExperienceQuery() {
+        QueryWrapper<ContentAudit> queryWrapper = new QueryWrapper<>();
+        queryWrapper.in("audit_status", 1, 2)
+                .eq("is_human_final", 1);
+        return queryWrapper;
+    }
+
+    private List<com.novel.book.dto.resp.ContentAuditRespDto> toAuditExperienceDtos(List<ContentAudit> auditList) {
+        return auditList.stream()
                 .filter(audit -> audit.getContentText() != null && !audit.getContentText().trim().isEmpty())
                 .map(audit -> {
             com.novel.book.dto.resp.ContentAuditRespDto dto = new com.novel.book.dto.resp.ContentAuditRespDto();
@@ -1235,7 +1267,5 @@ public class BookAuditServiceImpl implements BookAuditService {
             dto.setUpdateTime(audit.getUpdateTime());
             return dto;
         }).collect(Collectors.toList());
-        
-        return RestResp.ok(respDtoList);
     }
 }
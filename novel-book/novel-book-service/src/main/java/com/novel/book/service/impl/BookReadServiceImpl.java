@@ -3,6 +3,10 @@ package com.novel.book.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.novel.book.cache.BookChapterIndex;
+import com.novel.book.cache.BookContentNearCache;
+import com.novel.book.cache.BookContentPrefetcher;
+import com.novel.book.cache.codec.CacheValueRedisStore;
 import com.novel.book.dao.entity.BookChapter;
 import com.novel.book.dao.entity.BookComment;
 import com.novel.book.dao.entity.BookInfo;
@@ -17,8 +21,7 @@ import com.novel.book.dto.resp.BookContentAboutRespDto;
 import com.novel.book.feign.UserFeignManager;
 import com.novel.book.service.BookReadService;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.novel.common.auth.UserHolder;
 import com.novel.common.constant.CacheConsts;
 
 import com.novel.common.constant.DatabaseConsts;
@@ -48,9 +51,10 @@ public class BookReadServiceImpl implements BookReadService {
     private final BookCommentMapper bookCommentMapper;
     private final UserFeignManager userFeignManager;
     private final StringRedisTemplate stringRedisTemplate;
-    
-    // 手动注入 ObjectMapper 并注册 JavaTimeModule
-    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final BookContentNearCache bookContentNearCache;
+    private final BookChapterIndex bookChapterIndex;
+    private final BookContentPrefetcher bookContentPrefetcher;
+    private final CacheValueRedisStore cacheValueRedisStore;
 
     /**
      * 看小说某章节内容
@@ -59,29 +63,11 @@ public class BookReadServiceImpl implements BookReadService {
      */
     @Override
     public RestResp<BookContentAboutRespDto> getBookContentAbout(Long bookId, Integer chapterNum) {
-        // 1. 尝试从 Redis 获取缓存
-        String cacheKey = CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + bookId + ":" + chapterNum;
-        String cacheValue = stringRedisTemplate.opsForValue().get(cacheKey);
-        
-        if (cacheValue != null) {
-            try {
-                BookContentAboutRespDto dto = objectMapper.readValue(cacheValue, BookContentAboutRespDto.class);
-                log.info(">>> 章节内容命中 Redis 缓存，bookId={}, chapterNum={}", bookId, chapterNum);
-                return RestResp.ok(dto);
-            } catch (Exception e) {
-                // 缓存解析失败，打印日志并降级查库
-                log.warn("解析章节内容缓存失败，key={}", cacheKey, e);
-            }
-        }
-
-        log.info(">>> 章节内容未命中缓存，回源查询 DB，bookId={}, chapterNum={}", bookId, chapterNum);
-
-        // 2. 查询小说基本信息
-        BookInfo bookInfo = bookInfoMapper.selectById(bookId);
-        
-        // 检查书籍审核状态：只有审核通过的书籍才能被读者查看
-        if (bookInfo == null || bookInfo.getAuditStatus() == null || bookInfo.getAuditStatus() != 1) {
-            // 书籍不存在或未审核通过，返回空内容
+        // 1. L1（本地 Caffeine）→ 单飞回源（Redis L2 → DB）
+        BookContentAboutRespDto data = bookContentNearCache.get(bookId, chapterNum,
+                () -> loadBookContentAbout(bookId, chapterNum));
+        if (data == null) {
+            // 书籍不存在或未审核通过，返回空内容（不进入任何一级缓存）
             return RestResp.ok(BookContentAboutRespDto.builder()
                 .bookInfo(BookContentAboutRespDto.BookInfo.builder()
                     .categoryName(null)
@@ -97,6 +83,68 @@ public class BookReadServiceImpl implements BookReadService {
                 .bookContent(null)
                 .build());
         }
+        // 2. 异步预读下一章（翻页快的读者再多一章），不阻塞本次响应
+        bookContentPrefetcher.afterRead(bookId, chapterNum, UserHolder.getUserId(),
+                next -> loadBookContentAboutFromRedis(bookId, next),
+                next -> loadBookContentAboutFromDb(bookId, next));
+        return RestResp.ok(data);
+    }
+
+    /**
+     * 章节内容回源：Redis L2 → DB，并回写 Redis。同一章节并发时由 {@link BookContentNearCache} 保证只执行一次。
+     * @return 章节内容；书籍不存在或未审核通过时返回 null
+     */
+    private BookContentAboutRespDto loadBookContentAbout(Long bookId, Integer chapterNum) {
+        BookContentAboutRespDto cached = loadBookContentAboutFromRedis(bookId, chapterNum);
+        if (cached != null) {
+            return cached;
+        }
+        log.info(">>> 章节内容未命中缓存，回源查询 DB，bookId={}, chapterNum={}", bookId, chapterNum);
+        return loadBookContentAboutFromDb(bookId, chapterNum);
+    }
+
+    /**
+     * @return Redis L2 中的章节内容，未命中或解析失败返回 null
+     */
+    private BookContentAboutRespDto loadBookContentAboutFromRedis(Long bookId, Integer chapterNum) {
+        String cacheKey = CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + bookId + ":" + chapterNum;
+        BookContentAboutRespDto cached = bookContentNearCache.timeLoad(BookContentNearCache.TIER_L2, () -> {
+            try {
+                return cacheValueRedisStore.get(cacheKey, BookContentAboutRespDto.class);
+            } catch (Exception e) {
+                // 缓存解析失败，打印日志并降级查库
+                log.warn("解析章节内容缓存失败，key={}", cacheKey, e);
+                return null;
+            }
+        });
+
+        if (cached != null) {
+            bookContentNearCache.recordRemote(true);
+            log.debug(">>> 章节内容命中 Redis 缓存，bookId={}, chapterNum={}", bookId, chapterNum);
+            return cached;
+        }
+        bookContentNearCache.recordRemote(false);
+        return null;
+    }
+
+    /**
+     * 章节内容查库并回写 Redis
+     * @return 章节内容；书籍不存在或未审核通过时返回 null
+     */
+    private BookContentAboutRespDto loadBookContentAboutFromDb(Long bookId, Integer chapterNum) {
+        String cacheKey = CacheConsts.BOOK_CONTENT_CACHE_NAME + "::content:" + bookId + ":" + chapterNum;
+        return bookContentNearCache.timeLoad(BookContentNearCache.TIER_DB,
+                () -> loadBookContentAboutFromDb(bookId, chapterNum, cacheKey));
+    }
+
+    private BookContentAboutRespDto loadBookContentAboutFromDb(Long bookId, Integer chapterNum, String cacheKey) {
+        // 2. 查询小说基本信息
+        BookInfo bookInfo = bookInfoMapper.selectById(bookId);
+        
+        // 检查书籍审核状态：只有审核通过的书籍才能被读者查看
+        if (bookInfo == null || bookInfo.getAuditStatus() == null || bookInfo.getAuditStatus() != 1) {
+            return null;
+        }
 
         // 3. 查询章节信息（包含 content），只查询审核通过的章节
         QueryWrapper<BookChapter> chapterQueryWrapper = new QueryWrapper<>();
@@ -108,8 +156,8 @@ public class BookReadServiceImpl implements BookReadService {
         // 4. 组装数据
         BookContentAboutRespDto data = BookContentAboutRespDto.builder()
             .bookInfo(BookContentAboutRespDto.BookInfo.builder()
-                .categoryName(bookInfo != null ? bookInfo.getCategoryName() : null)
-                .authorName(bookInfo != null ? bookInfo.getAuthorName() : null)
+                .categoryName(bookInfo.getCategoryName())
+                .authorName(bookInfo.getAuthorName())
                 .build())
             .chapterInfo(BookContentAboutRespDto.ChapterInfo.builder()
                 .bookId(bookChapter != null ? bookChapter.getBookId() : null)
@@ -124,31 +172,27 @@ public class BookReadServiceImpl implements BookReadService {
         // 5. 写入缓存（优化：所有书籍都缓存，非榜单书籍用较短 TTL）
         // 判断是否在榜单中：检查ZSet中是否存在该书籍ID
         try {
-            if (data != null) {
-                Double zsetScore = stringRedisTemplate.opsForZSet().score(CacheConsts.BOOK_VISIT_RANK_ZSET, String.valueOf(bookId));
-                boolean isInRank = (zsetScore != null && zsetScore > 0);
-
-                String json = objectMapper.writeValueAsString(data);
-
-                // 榜单书籍：连载中 12 小时，已完结 7 天
-                // 非榜单书籍：连载中 1 小时，已完结 6 小时
-                long ttl;
-                if (bookInfo != null && Integer.valueOf(1).equals(bookInfo.getBookStatus())) {
-                    // 已完结
-                    ttl = isInRank ? 604800L : 21600L;
-                } else {
-                    // 连载中
-                    ttl = isInRank ? 43200L : 3600L;
-                }
-
-                stringRedisTemplate.opsForValue().set(cacheKey, json, ttl, TimeUnit.SECONDS);
-                log.info(">>> 章节内容已写入 Redis，key={}，ttl={}s (榜单书籍={})", cacheKey, ttl, isInRank);
+            Double zsetScore = stringRedisTemplate.opsForZSet().score(CacheConsts.BOOK_VISIT_RANK_ZSET, String.valueOf(bookId));
+            boolean isInRank = (zsetScore != null && zsetScore > 0);
+
+            // 榜单书籍：连载中 12 小时，已完结 7 天
+            // 非榜单书籍：连载中 1 小时，已完结 6 小时
+            long ttl;
+            if (Integer.valueOf(1).equals(bookInfo.getBookStatus())) {
+                // 已完结
+                ttl = isInRank ? 604800L : 21600L;
+            } else {
+                // 连载中
+                ttl = isInRank ? 43200L : 3600L;
             }
+
+            cacheValueRedisStore.set(cacheKey, data, ttl, TimeUnit.SECONDS);
+            log.info(">>> 章节内容已写入 Redis，key={}，ttl={}s (榜单书籍={})", cacheKey, ttl, isInRank);
         } catch (Exception e) {
              log.error("写入章节内容缓存失败，key={}", cacheKey, e);
         }
         
-        return RestResp.ok(data);
+        return data;
     }
 
     /**
@@ -159,19 +203,8 @@ public class BookReadServiceImpl implements BookReadService {
      */
     @Override
     public RestResp<Integer> getNextChapterNum(Long bookId, Integer chapterNum) {
-
-        // 获取下一章（只查询审核通过的章节）
-        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
-                .eq("audit_status", 1) // 只查询审核通过的章节
-                .gt(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM, chapterNum)
-                .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
-                .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
-        return RestResp.ok(
-                Optional.ofNullable(bookChapterMapper.selectOne(queryWrapper))
-                        .map(BookChapter::getChapterNum).orElse(null)
-        );
-
+        // 章节序号索引二分查找（只含审核通过的章节）
+        return RestResp.ok(bookChapterIndex.next(bookId, chapterNum));
     }
 
     /**
@@ -182,17 +215,8 @@ public class BookReadServiceImpl implements BookReadService {
      */
     @Override
     public RestResp<Integer> getPreChapterNum(Long bookId, Integer chapterNum) {
-
-        // 获取上一章
-        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
-                .lt(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM, chapterNum)
-                .orderByDesc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
-                .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
-        return RestResp.ok(
-                Optional.ofNullable(bookChapterMapper.selectOne(queryWrapper))
-                        .map(BookChapter::getChapterNum).orElse(null)
-        );
+        // 章节序号索引二分查找（只含审核通过的章节）
+        return RestResp.ok(bookChapterIndex.prev(bookId, chapterNum));
     }
 
     /**
@@ -204,22 +228,22 @@ public class BookReadServiceImpl implements BookReadService {
     public RestResp<List<BookChapterRespDto>> getBookChapter(Long bookId) {
         // 1. 尝试从 Redis 获取缓存
         String cacheKey = CacheConsts.BOOK_CHAPTER_CACHE_NAME + "::" + bookId;
-        String cacheValue = stringRedisTemplate.opsForValue().get(cacheKey);
-
-        if (cacheValue != null) {
-            try {
-                // List 的反序列化需要使用 TypeReference
-                List<BookChapterRespDto> list = objectMapper.readValue(cacheValue, new TypeReference<List<BookChapterRespDto>>() {});
+        try {
+            // List 的反序列化需要使用 TypeReference
+            List<BookChapterRespDto> cached = cacheValueRedisStore.get(cacheKey, new TypeReference<List<BookChapterRespDto>>() {});
+            // 目录缓存与章节索引不一致（期间有章节审核通过/被驳回/删除）时视为未命中
+            if (cached != null && matchesChapterIndex(bookId, cached)) {
                 log.info(">>> 书籍目录命中 Redis 缓存，bookId={}", bookId);
-                return RestResp.ok(list);
-            } catch (Exception e) {
-                log.warn("解析书籍目录缓存失败，key={}", cacheKey, e);
+                return RestResp.ok(cached);
             }
+        } catch (Exception e) {
+            log.warn("解析书籍目录缓存失败，key={}", cacheKey, e);
         }
 
         log.info(">>> 书籍目录未命中缓存，回源查询 DB，bookId={}", bookId);
 
-        // 2. 查 DB：只查询审核通过的章节（auditStatus=1）
+        // 2. 查 DB：只查询审核通过的章节（auditStatus=1）；索引代数须在查库前读取
+        long indexGeneration = bookChapterIndex.generation(bookId);
         QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
                 .eq("audit_status", 1) // 只查询审核通过的章节
@@ -233,6 +257,7 @@ public class BookReadServiceImpl implements BookReadService {
                         .chapterUpdateTime(v.getUpdateTime())
                         .isVip(v.getIsVip()).build()
                 ).toList();
+        bookChapterIndex.seed(bookId, indexGeneration, list.stream().mapToInt(BookChapterRespDto::getChapterNum).toArray());
 
         // 3. 写入缓存（优化：所有书籍都缓存，非榜单书籍用较短 TTL）
         // 判断是否在榜单中：检查ZSet中是否存在该书籍ID
@@ -241,8 +266,6 @@ public class BookReadServiceImpl implements BookReadService {
                 Double zsetScore = stringRedisTemplate.opsForZSet().score(CacheConsts.BOOK_VISIT_RANK_ZSET, String.valueOf(bookId));
                 boolean isInRank = (zsetScore != null && zsetScore > 0);
 
-                String json = objectMapper.writeValueAsString(list);
-
                 // 查询书籍信息获取状态
                 BookInfo bookInfo = bookInfoMapper.selectById(bookId);
 
@@ -257,7 +280,7 @@ public class BookReadServiceImpl implements BookReadService {
                     ttl = isInRank ? 3600L : 1800L;
                 }
 
-                stringRedisTemplate.opsForValue().set(cacheKey, json, ttl, TimeUnit.SECONDS);
+                cacheValueRedisStore.set(cacheKey, list, ttl, TimeUnit.SECONDS);
                 log.info(">>> 书籍目录已写入 Redis，key={}，ttl={}s (榜单书籍={})", cacheKey, ttl, isInRank);
             }
         } catch (Exception e) {
@@ -268,6 +291,19 @@ public class BookReadServiceImpl implements BookReadService {
 
     }
 
+    private boolean matchesChapterIndex(Long bookId, List<BookChapterRespDto> catalog) {
+        int[] nums = bookChapterIndex.chapterNums(bookId);
+        if (nums.length != catalog.size()) {
+            return false;
+        }
+        for (int i = 0; i < nums.length; i++) {
+            if (!Objects.equals(catalog.get(i).getChapterNum(), nums[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     /**
      * 保存用户评论到数据库。
@@ -1,6 +1,7 @@
 package com.novel.book.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.novel.book.cache.codec.CacheValueRedisStore;
 import com.novel.book.dao.entity.BookCategory;
 import com.novel.book.dao.entity.BookChapter;
 import com.novel.book.dao.entity.BookInfo;
@@ -10,11 +11,18 @@ import com.novel.book.dao.mapper.BookChapterMapper;
 import com.novel.book.dao.mapper.BookInfoMapper;
 import com.novel.book.dao.mapper.HomeBookMapper;
 import com.novel.book.dto.resp.*;
+import com.novel.book.rank.BookHotRankService;
+import com.novel.book.rank.BookRankSnapshotService;
+import com.novel.book.rank.RankBoard;
+import com.novel.book.rank.HotRankWindow;
 import com.novel.book.service.BookExistBloomService;
 import com.novel.common.constant.DatabaseConsts;
 import com.novel.common.util.RankBookDescUtils;
 import com.novel.common.resp.RestResp;
 import com.novel.book.service.BookSearchService;
+import com.novel.book.visit.BookVisitAggregator;
+import com.novel.book.visit.BookVisitDedupProperties;
+import com.novel.book.visit.BookVisitRankEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -34,8 +42,6 @@ import org.springframework.cache.annotation.Cacheable;
 
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
@@ -60,10 +66,15 @@ public class BookSearchServiceImpl implements BookSearchService {
     private final BookExistBloomService bookExistBloomService;
 
     private final BookCategoryMapper bookCategoryMapper;
-
-    // 手动注入 ObjectMapper 并注册 JavaTimeModule
-    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
-
+    private final CacheValueRedisStore cacheValueRedisStore;
+    private final BookVisitAggregator bookVisitAggregator;
+    private final BookVisitDedupProperties bookVisitDedupProperties;
+    private final BookVisitRankEngine bookVisitRankEngine;
+    private final BookHotRankService bookHotRankService;
+    private final BookRankSnapshotService bookRankSnapshotService;
+
+    /** 书籍尚无已审核章节时详情页返回的首章章节号，DB 回源与 Hash 命中保持一致 */
+    private static final int DEFAULT_FIRST_CHAPTER_NUM = 1;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private final AtomicLong visitCountedCounter = new AtomicLong(0);
     private final AtomicLong visitDedupBlockedCounter = new AtomicLong(0);
@@ -71,11 +82,15 @@ public class BookSearchServiceImpl implements BookSearchService {
     // Lua 脚本：原子性地增加访问量
     @SuppressWarnings("rawtypes")
     private static final DefaultRedisScript<List> INCREMENT_VISIT_COUNT_SCRIPT;
+    private static final DefaultRedisScript<List> INCREMENT_VISIT_COUNT_HLL_SCRIPT;
 
     static {
         INCREMENT_VISIT_COUNT_SCRIPT = new DefaultRedisScript<>();
         INCREMENT_VISIT_COUNT_SCRIPT.setLocation(new ClassPathResource("lua/incrementVisitCount.lua"));
         INCREMENT_VISIT_COUNT_SCRIPT.setResultType(List.class);
+        INCREMENT_VISIT_COUNT_HLL_SCRIPT = new DefaultRedisScript<>();
+        INCREMENT_VISIT_COUNT_HLL_SCRIPT.setLocation(new ClassPathResource("lua/incrementVisitCountHll.lua"));
+        INCREMENT_VISIT_COUNT_HLL_SCRIPT.setResultType(List.class);
     }
 
     /**
@@ -104,32 +119,8 @@ public class BookSearchServiceImpl implements BookSearchService {
         Map<Object, Object> bookInfoMap = stringRedisTemplate.opsForHash().entries(CacheConsts.BOOK_INFO_HASH_PREFIX + bookId);
         if (!CollectionUtils.isEmpty(bookInfoMap)) {
             try {
-                // 检查关键字段是否存在 (防止缓存不完整)
-                if (bookInfoMap.containsKey("bookName") && bookInfoMap.containsKey("firstChapterNum")) {
-                    BookInfoRespDto dto = new BookInfoRespDto();
-                    dto.setId(bookId);
-                    dto.setBookName((String) bookInfoMap.get("bookName"));
-                    dto.setBookDesc((String) bookInfoMap.get("bookDesc"));
-                    dto.setBookStatus(Integer.parseInt((String) bookInfoMap.get("bookStatus")));
-                    dto.setAuthorId(Long.parseLong((String) bookInfoMap.get("authorId")));
-                    dto.setAuthorName((String) bookInfoMap.get("authorName"));
-                    dto.setCategoryName((String) bookInfoMap.get("categoryName"));
-                    dto.setPicUrl((String) bookInfoMap.get("picUrl"));
-                    dto.setLastChapterName((String) bookInfoMap.get("lastChapterName"));
-                    
-                    if (bookInfoMap.containsKey("categoryId")) dto.setCategoryId(Long.parseLong((String) bookInfoMap.get("categoryId")));
-                    if (bookInfoMap.containsKey("workDirection")) dto.setWorkDirection(Integer.parseInt((String) bookInfoMap.get("workDirection")));
-                    if (bookInfoMap.containsKey("commentCount")) dto.setCommentCount(Integer.parseInt((String) bookInfoMap.get("commentCount")));
-                    if (bookInfoMap.containsKey("firstChapterNum")) dto.setFirstChapterNum(Integer.parseInt((String) bookInfoMap.get("firstChapterNum")));
-                    if (bookInfoMap.containsKey("lastChapterNum")) dto.setLastChapterNum(Integer.parseInt((String) bookInfoMap.get("lastChapterNum")));
-                    if (bookInfoMap.containsKey("visitCount")) dto.setVisitCount(Long.parseLong((String) bookInfoMap.get("visitCount")));
-                    if (bookInfoMap.containsKey("wordCount")) dto.setWordCount(Integer.parseInt((String) bookInfoMap.get("wordCount")));
-                    
-                    String updateTimeStr = (String) bookInfoMap.get("updateTime");
-                    if (updateTimeStr != null) {
-                        dto.setUpdateTime(LocalDateTime.parse(updateTimeStr, DATE_TIME_FORMATTER));
-                    }
-                    
+                BookInfoRespDto dto = fromBookInfoHash(bookId, bookInfoMap);
+                if (dto != null) {
                     log.info(">>> 详情页命中 Redis Hash 缓存，bookId={}", bookId);
                     return RestResp.ok(dto);
                 }
@@ -178,7 +169,7 @@ public class BookSearchServiceImpl implements BookSearchService {
                 ttlSeconds = isInRank ? 7200L : 900L;
             }
 
-            Map<String, String> cacheMap = buildBookInfoMap(bookInfo, firstBookChapter != null ? firstBookChapter.getChapterNum() : 1);
+            Map<String, String> cacheMap = buildBookInfoMap(bookInfo, firstBookChapter != null ? firstBookChapter.getChapterNum() : null);
             String redisKey = CacheConsts.BOOK_INFO_HASH_PREFIX + bookId;
 
             stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
@@ -214,7 +205,7 @@ public class BookSearchServiceImpl implements BookSearchService {
                 .categoryName(bookInfo.getCategoryName())
                 .workDirection(bookInfo.getWorkDirection()) // Add this line
                 .commentCount(bookInfo.getCommentCount())
-                .firstChapterNum(firstBookChapter != null ? firstBookChapter.getChapterNum() : 1) // 增加判空处理
+                .firstChapterNum(firstBookChapter != null ? firstBookChapter.getChapterNum() : DEFAULT_FIRST_CHAPTER_NUM)
                 .lastChapterNum(bookInfo.getLastChapterNum())     // 使用 bookInfo 中的数据
                 .lastChapterName(bookInfo.getLastChapterName())   // 使用 bookInfo 中的数据
                 .picUrl(bookInfo.getPicUrl())
@@ -250,29 +241,124 @@ public class BookSearchServiceImpl implements BookSearchService {
 
     @Override
     public RestResp<List<BookInfoRespDto>> listBookInfoByIdsForBookshelf(List<Long> bookIds) {
+        if (CollectionUtils.isEmpty(bookIds)) {
+            return RestResp.ok(Collections.emptyList());
+        }
         // 用于书架查询，不过滤审核状态，返回所有书籍
         QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
         queryWrapper.in(DatabaseConsts.CommonColumnEnum.ID.getName(), bookIds);
+        List<BookInfo> bookInfos = bookInfoMapper.selectList(queryWrapper);
+        // 首章号批量获取：先读详情 Hash，缺失的再一次 GROUP BY 查询，书架多大都是固定次数的 IO
+        Map<Long, Integer> firstChapterMap = loadFirstChapterNums(bookInfos.stream().map(BookInfo::getId).toList());
         return RestResp.ok(
-                bookInfoMapper.selectList(queryWrapper).stream().map(v -> {
-                    // 查询首章ID（只查询审核通过的章节）
-                    QueryWrapper<BookChapter> chapterQueryWrapper = new QueryWrapper<>();
-                    chapterQueryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, v.getId())
-                            .eq("audit_status", 1) // 只查询审核通过的章节
-                            .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
-                            .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
-                    BookChapter firstBookChapter = bookChapterMapper.selectOne(chapterQueryWrapper);
-                    
-                    return BookInfoRespDto.builder()
-                            .id(v.getId())
-                            .bookName(v.getBookName())
-                            .authorName(v.getAuthorName())
-                            .picUrl(v.getPicUrl())
-                            .bookDesc(v.getBookDesc())
-                            .auditStatus(v.getAuditStatus() != null ? v.getAuditStatus() : 0) // 包含审核状态
-                            .firstChapterNum(firstBookChapter != null ? firstBookChapter.getChapterNum() : null)
-                            .build();
-                }).collect(Collectors.toList()));
+                bookInfos.stream().map(v -> BookInfoRespDto.builder()
+                        .id(v.getId())
+                        .bookName(v.getBookName())
+                        .authorName(v.getAuthorName())
+                        .picUrl(v.getPicUrl())
+                        .bookDesc(v.getBookDesc())
+                        .auditStatus(v.getAuditStatus() != null ? v.getAuditStatus() : 0) // 包含审核状态
+                        .firstChapterNum(firstChapterMap.get(v.getId()))
+                        .build()
+                ).collect(Collectors.toList()));
+    }
+
+    /**
+     * 批量获取书籍首章号（只统计审核通过的章节），没有已审核章节的书籍不在结果中。
+     * 热门书命中 {@code book_info:*} 详情 Hash（一次管道 HGET），其余走 {@code selectFirstChapterNums}。
+     */
+    private Map<Long, Integer> loadFirstChapterNums(List<Long> bookIds) {
+        Map<Long, Integer> result = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return result;
+        }
+        List<Long> missing = new ArrayList<>();
+        try {
+            List<Object> cached = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                RedisSerializer<String> ser = stringRedisTemplate.getStringSerializer();
+                byte[] field = ser.serialize("firstChapterNum");
+                for (Long bookId : bookIds) {
+                    connection.hashCommands().hGet(ser.serialize(CacheConsts.BOOK_INFO_HASH_PREFIX + bookId), field);
+                }
+                return null;
+            });
+            for (int i = 0; i < bookIds.size(); i++) {
+                // 逐条解析，个别脏值（如历史写入的 "null"）只让这本书回源，不拖累整个书架
+                Integer firstChapterNum = parseChapterNum(cached.get(i));
+                if (firstChapterNum != null) {
+                    result.put(bookIds.get(i), firstChapterNum);
+                } else {
+                    missing.add(bookIds.get(i));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("批量读取首章号缓存失败，全部回源 DB，books={}", bookIds.size(), e);
+            result.clear();
+            missing = bookIds;
+        }
+        if (!missing.isEmpty()) {
+            for (Map<String, Object> row : bookChapterMapper.selectFirstChapterNums(missing)) {
+                result.put(Long.valueOf(row.get("bookId").toString()),
+                        Integer.valueOf(row.get("firstChapterNum").toString()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将详情 Hash 还原为响应对象，缓存不完整时返回 null 回源 DB。
+     * 没有已审核章节的书籍不写 firstChapterNum 字段，缺失时按与 DB 回源一致的默认值命中；
+     * 字段存在但无法解析（如历史遗留的 "null"）视为缓存不完整。
+     */
+    static BookInfoRespDto fromBookInfoHash(Long bookId, Map<Object, Object> bookInfoMap) {
+        if (!bookInfoMap.containsKey("bookName")) {
+            return null;
+        }
+        Integer firstChapterNum = DEFAULT_FIRST_CHAPTER_NUM;
+        if (bookInfoMap.containsKey("firstChapterNum")) {
+            firstChapterNum = parseChapterNum(bookInfoMap.get("firstChapterNum"));
+            if (firstChapterNum == null) {
+                return null;
+            }
+        }
+        BookInfoRespDto dto = new BookInfoRespDto();
+        dto.setId(bookId);
+        dto.setBookName((String) bookInfoMap.get("bookName"));
+        dto.setBookDesc((String) bookInfoMap.get("bookDesc"));
+        dto.setBookStatus(Integer.parseInt((String) bookInfoMap.get("bookStatus")));
+        dto.setAuthorId(Long.parseLong((String) bookInfoMap.get("authorId")));
+        dto.setAuthorName((String) bookInfoMap.get("authorName"));
+        dto.setCategoryName((String) bookInfoMap.get("categoryName"));
+        dto.setPicUrl((String) bookInfoMap.get("picUrl"));
+        dto.setLastChapterName((String) bookInfoMap.get("lastChapterName"));
+
+        if (bookInfoMap.containsKey("categoryId")) dto.setCategoryId(Long.parseLong((String) bookInfoMap.get("categoryId")));
+        if (bookInfoMap.containsKey("workDirection")) dto.setWorkDirection(Integer.parseInt((String) bookInfoMap.get("workDirection")));
+        if (bookInfoMap.containsKey("commentCount")) dto.setCommentCount(Integer.parseInt((String) bookInfoMap.get("commentCount")));
+        dto.setFirstChapterNum(firstChapterNum);
+        if (bookInfoMap.containsKey("lastChapterNum")) dto.setLastChapterNum(Integer.parseInt((String) bookInfoMap.get("lastChapterNum")));
+        if (bookInfoMap.containsKey("visitCount")) dto.setVisitCount(Long.parseLong((String) bookInfoMap.get("visitCount")));
+        if (bookInfoMap.containsKey("wordCount")) dto.setWordCount(Integer.parseInt((String) bookInfoMap.get("wordCount")));
+
+        String updateTimeStr = (String) bookInfoMap.get("updateTime");
+        if (updateTimeStr != null) {
+            dto.setUpdateTime(LocalDateTime.parse(updateTimeStr, DATE_TIME_FORMATTER));
+        }
+        return dto;
+    }
+
+    /**
+     * 解析缓存中的章节号，缺失或无法解析时返回 null
+     */
+    private static Integer parseChapterNum(Object val) {
+        if (val == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(val.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     /**
@@ -283,24 +369,32 @@ public class BookSearchServiceImpl implements BookSearchService {
      */
     @Override
     public RestResp<Void> addVisitCount(Long bookId, String userIdentity) {
+        String safeUserIdentity = (userIdentity == null || userIdentity.isBlank())
+                ? "anonymous"
+                : userIdentity;
+        // 优先交给本地聚合器批量回写；未启用或本地缓冲已满时退回同步 Lua
+        if (bookVisitAggregator.offer(bookId, safeUserIdentity)) {
+            return RestResp.ok();
+        }
         try {
             // 使用 Lua 脚本原子性地执行：窗口去重 + 访问量更新
             String bookIdStr = String.valueOf(bookId);
-            String safeUserIdentity = (userIdentity == null || userIdentity.isBlank())
-                    ? "anonymous"
-                    : userIdentity;
             long currentEpochSeconds = System.currentTimeMillis() / 1000;
             long bucket = currentEpochSeconds / CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS;
             String uvSetKey = CacheConsts.BOOK_VISIT_UV_SET_PREFIX + bookId + ":" + bucket;
-            List<String> keys = Arrays.asList(
+            List<String> keys = new ArrayList<>(List.of(
                     CacheConsts.BOOK_VISIT_RANK_ZSET,
                     CacheConsts.BOOK_VISIT_COUNT_HASH,
-                    CacheConsts.BOOK_INFO_HASH_PREFIX + bookId,
-                    uvSetKey
-            );
+                    CacheConsts.BOOK_INFO_HASH_PREFIX + bookId
+            ));
+            if (bookVisitDedupProperties.isHll()) {
+                // HLL 去重：同窗口旧 Set 作为第 5 个 key，用于模式切换窗口内的迁移去重
+                keys.add(CacheConsts.BOOK_VISIT_UV_HLL_PREFIX + bookId + ":" + bucket);
+            }
+            keys.add(uvSetKey);
             @SuppressWarnings("unchecked")
             List<Long> result = stringRedisTemplate.execute(
-                    INCREMENT_VISIT_COUNT_SCRIPT,
+                    bookVisitDedupProperties.isHll() ? INCREMENT_VISIT_COUNT_HLL_SCRIPT : INCREMENT_VISIT_COUNT_SCRIPT,
                     keys,
                     bookIdStr,
                     safeUserIdentity,
@@ -311,6 +405,8 @@ public class BookSearchServiceImpl implements BookSearchService {
                 Long countedFlag = result.get(0);
                 if (Objects.equals(countedFlag, 1L)) {
                     visitCountedCounter.incrementAndGet();
+                    bookVisitRankEngine.recordDeltas(Map.of(bookId, 1L));
+                    bookHotRankService.recordDeltas(Map.of(bookId, 1L));
                     log.debug(">>> 访问量更新成功（UV去重后计数）, bookId={}, zsetScore={}, hashValue={}",
                             bookId, result.get(1), result.get(2));
                 } else {
@@ -334,8 +430,8 @@ public class BookSearchServiceImpl implements BookSearchService {
      */
     @Scheduled(cron = "0 * * * * ?")
     public void logVisitDedupMetrics() {
-        long counted = visitCountedCounter.getAndSet(0);
-        long dedupBlocked = visitDedupBlockedCounter.getAndSet(0);
+        long counted = visitCountedCounter.getAndSet(0) + bookVisitAggregator.drainCountedCount();
+        long dedupBlocked = visitDedupBlockedCounter.getAndSet(0) + bookVisitAggregator.drainDedupBlockedCount();
         long total = counted + dedupBlocked;
         if (total <= 0) {
             return;
@@ -413,16 +509,14 @@ public class BookSearchServiceImpl implements BookSearchService {
     public RestResp<List<HomeBookRespDto>> listHomeBook() {
         // 1. 尝试从 Redis 获取缓存
         String cacheKey = CacheConsts.HOME_BOOK_CACHE_NAME;
-        String cacheValue = stringRedisTemplate.opsForValue().get(cacheKey);
-        
-        if (cacheValue != null) {
-            try {
-                List<HomeBookRespDto> list = objectMapper.readValue(cacheValue, new TypeReference<List<HomeBookRespDto>>() {});
+        try {
+            List<HomeBookRespDto> cached = cacheValueRedisStore.get(cacheKey, new TypeReference<List<HomeBookRespDto>>() {});
+            if (cached != null) {
                 log.info(">>> 首页推荐命中 Redis 缓存");
-                return RestResp.ok(list);
-            } catch (Exception e) {
-                log.warn("解析首页推荐缓存失败，key={}", cacheKey, e);
+                return RestResp.ok(cached);
             }
+        } catch (Exception e) {
+            log.warn("解析首页推荐缓存失败，key={}", cacheKey, e);
         }
 
         log.info(">>> 首页推荐未命中缓存，回源查询 DB");
@@ -469,8 +563,7 @@ public class BookSearchServiceImpl implements BookSearchService {
         // 3. 写入缓存 (24小时)
         try {
             if (!CollectionUtils.isEmpty(respList)) {
-                String json = objectMapper.writeValueAsString(respList);
-                stringRedisTemplate.opsForValue().set(cacheKey, json, 24, TimeUnit.HOURS);
+                cacheValueRedisStore.set(cacheKey, respList, 24, TimeUnit.HOURS);
                 log.info(">>> 首页推荐已写入 Redis");
             }
         } catch (Exception e) {
@@ -542,64 +635,70 @@ public class BookSearchServiceImpl implements BookSearchService {
         return RestResp.ok(convertToBookEsRespDto(bookInfo));
     }
 
+    /**
+     * 根据 ID 批量获取 ES 书籍数据
+     * @param bookIds 书籍ID列表
+     * @return 审核通过的书籍对应的 Elasticsearch 存储小说 DTO
+     */
+    @Override
+    public RestResp<List<BookEsRespDto>> listEsBooksByIds(List<Long> bookIds) {
+        if (CollectionUtils.isEmpty(bookIds)) {
+            return RestResp.ok(Collections.emptyList());
+        }
+        // 只有审核通过的书籍才能被索引到ES，其余由调用方从ES删除
+        return RestResp.ok(bookInfoMapper.selectByIds(new HashSet<>(bookIds)).stream()
+                .filter(bookInfo -> Objects.equals(bookInfo.getAuditStatus(), 1))
+                .map(this::convertToBookEsRespDto)
+                .toList());
+    }
 
-    private static final int RANK_PAGE_LIMIT = 30;
-    private static final int RANK_HOME_LIMIT = 10;
 
     @Override
     public RestResp<List<BookRankTableRespDto>> listVisitRankBooks() {
-        Set<String> bookIdSet = stringRedisTemplate.opsForZSet().reverseRange(
-                CacheConsts.BOOK_VISIT_RANK_ZSET, 0, RANK_PAGE_LIMIT - 1);
-        if (CollectionUtils.isEmpty(bookIdSet)) {
-            QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-            qw.orderByDesc(DatabaseConsts.BookTable.COLUMN_VISIT_COUNT);
-            return RestResp.ok(listRankTableFromDb(qw, RANK_PAGE_LIMIT));
-        }
-        return RestResp.ok(loadVisitRankTableFromRedis(new ArrayList<>(bookIdSet)));
+        return RestResp.ok(bookRankSnapshotService.table(RankBoard.VISIT));
     }
 
     @Override
     public RestResp<List<BookRankHomeItemRespDto>> listVisitRankBooksHome() {
-        Set<String> bookIdSet = stringRedisTemplate.opsForZSet().reverseRange(
-                CacheConsts.BOOK_VISIT_RANK_ZSET, 0, RANK_HOME_LIMIT - 1);
-        if (CollectionUtils.isEmpty(bookIdSet)) {
-            QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-            qw.orderByDesc(DatabaseConsts.BookTable.COLUMN_VISIT_COUNT);
-            return RestResp.ok(listRankHomeFromDb(qw, RANK_HOME_LIMIT));
-        }
-        return RestResp.ok(loadVisitRankHomeFromRedis(new ArrayList<>(bookIdSet)));
+        return RestResp.ok(bookRankSnapshotService.home(RankBoard.VISIT));
+    }
+
+    @Override
+    public RestResp<List<BookRankTableRespDto>> listHotRankBooks(String window) {
+        HotRankWindow hotRankWindow = HotRankWindow.of(window);
+        if (hotRankWindow == null) {
+            return RestResp.fail(com.novel.common.constant.ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+        }
+        return RestResp.ok(bookHotRankService.listTable(hotRankWindow));
+    }
+
+    @Override
+    public RestResp<List<BookRankHomeItemRespDto>> listHotRankBooksHome(String window) {
+        HotRankWindow hotRankWindow = HotRankWindow.of(window);
+        if (hotRankWindow == null) {
+            return RestResp.fail(com.novel.common.constant.ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+        }
+        return RestResp.ok(bookHotRankService.listHome(hotRankWindow));
     }
 
     @Override
     public RestResp<List<BookRankTableRespDto>> listNewestRankBooks() {
-        QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName());
-        return RestResp.ok(listRankTableFromDb(qw, RANK_PAGE_LIMIT));
+        return RestResp.ok(bookRankSnapshotService.table(RankBoard.NEWEST));
     }
 
     @Override
     public RestResp<List<BookRankHomeItemRespDto>> listNewestRankBooksHome() {
-        QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName());
-        return RestResp.ok(listRankHomeFromDb(qw, RANK_HOME_LIMIT));
+        return RestResp.ok(bookRankSnapshotService.home(RankBoard.NEWEST));
     }
 
     @Override
     public RestResp<List<BookRankTableRespDto>> listUpdateRankBooks() {
-        QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .orderByDesc(DatabaseConsts.CommonColumnEnum.UPDATE_TIME.getName());
-        return RestResp.ok(listRankTableFromDb(qw, RANK_PAGE_LIMIT));
+        return RestResp.ok(bookRankSnapshotService.table(RankBoard.UPDATE));
     }
 
     @Override
     public RestResp<List<BookRankHomeItemRespDto>> listUpdateRankBooksHome() {
-        QueryWrapper<BookInfo> qw = new QueryWrapper<>();
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .orderByDesc(DatabaseConsts.CommonColumnEnum.UPDATE_TIME.getName());
-        return RestResp.ok(listRankHomeFromDb(qw, RANK_HOME_LIMIT));
+        return RestResp.ok(bookRankSnapshotService.home(RankBoard.UPDATE));
     }
 
     @Override
@@ -624,183 +723,6 @@ public class BookSearchServiceImpl implements BookSearchService {
         return dto;
     }
 
-    private List<BookRankTableRespDto> listRankTableFromDb(QueryWrapper<BookInfo> qw, int limit) {
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .eq("audit_status", 1)
-                .last("limit " + limit);
-        List<BookInfo> rows = bookInfoMapper.selectList(qw);
-        List<BookRankTableRespDto> out = new ArrayList<>();
-        int rank = 1;
-        for (BookInfo b : rows) {
-            out.add(toRankTableDto(b, rank++));
-        }
-        return out;
-    }
-
-    private List<BookRankHomeItemRespDto> listRankHomeFromDb(QueryWrapper<BookInfo> qw, int limit) {
-        qw.gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .eq("audit_status", 1)
-                .last("limit " + limit);
-        List<BookInfo> rows = bookInfoMapper.selectList(qw);
-        return mapDbBooksToHomeRankItems(rows);
-    }
-
-    private List<BookRankHomeItemRespDto> mapDbBooksToHomeRankItems(List<BookInfo> rows) {
-        List<BookRankHomeItemRespDto> out = new ArrayList<>();
-        for (int i = 0; i < rows.size(); i++) {
-            BookInfo b = rows.get(i);
-            BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
-            dto.setRank(i + 1);
-            dto.setId(b.getId());
-            dto.setBookName(b.getBookName());
-            if (i == 0) {
-                dto.setPicUrl(b.getPicUrl());
-                dto.setBookDesc(RankBookDescUtils.toRankPreview(b.getBookDesc()));
-            }
-            out.add(dto);
-        }
-        return out;
-    }
-
-    private BookRankTableRespDto toRankTableDto(BookInfo b, int rank) {
-        BookRankTableRespDto dto = new BookRankTableRespDto();
-        dto.setRank(rank);
-        dto.setId(b.getId());
-        dto.setCategoryName(b.getCategoryName());
-        dto.setBookName(b.getBookName());
-        dto.setLastChapterName(b.getLastChapterName());
-        dto.setAuthorName(b.getAuthorName());
-        dto.setWordCount(b.getWordCount());
-        return dto;
-    }
-
-    private List<BookRankTableRespDto> loadVisitRankTableFromRedis(List<String> bookIdStrList) {
-        List<Object> pipelineResults = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
-            RedisSerializer<String> ser = stringRedisTemplate.getStringSerializer();
-            for (String bookIdStr : bookIdStrList) {
-                byte[] key = ser.serialize(CacheConsts.BOOK_INFO_HASH_PREFIX + bookIdStr);
-                connection.hashCommands().hMGet(key,
-                        ser.serialize("categoryName"),
-                        ser.serialize("bookName"),
-                        ser.serialize("lastChapterName"),
-                        ser.serialize("authorName"),
-                        ser.serialize("wordCount"));
-            }
-            return null;
-        });
-        List<BookRankTableRespDto> out = new ArrayList<>();
-        for (int i = 0; i < bookIdStrList.size(); i++) {
-            long bookId = Long.parseLong(bookIdStrList.get(i));
-            int rank = i + 1;
-            @SuppressWarnings("unchecked")
-            List<Object> vals = (List<Object>) pipelineResults.get(i);
-            BookRankTableRespDto row = parseTableRowFromHmget(bookId, rank, vals);
-            if (row != null && row.getBookName() != null) {
-                out.add(row);
-            } else {
-                BookInfo b = bookInfoMapper.selectById(bookId);
-                if (b != null) {
-                    out.add(toRankTableDto(b, rank));
-                }
-            }
-        }
-        return out;
-    }
-
-    private List<BookRankHomeItemRespDto> loadVisitRankHomeFromRedis(List<String> bookIdStrList) {
-        List<Object> pipelineResults = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
-            RedisSerializer<String> ser = stringRedisTemplate.getStringSerializer();
-            for (int i = 0; i < bookIdStrList.size(); i++) {
-                String bookIdStr = bookIdStrList.get(i);
-                byte[] key = ser.serialize(CacheConsts.BOOK_INFO_HASH_PREFIX + bookIdStr);
-                if (i == 0) {
-                    connection.hashCommands().hMGet(key,
-                            ser.serialize("bookName"),
-                            ser.serialize("picUrl"),
-                            ser.serialize("bookDesc"));
-                } else {
-                    connection.hashCommands().hMGet(key, ser.serialize("bookName"));
-                }
-            }
-            return null;
-        });
-        List<BookRankHomeItemRespDto> out = new ArrayList<>();
-        for (int i = 0; i < bookIdStrList.size(); i++) {
-            long bookId = Long.parseLong(bookIdStrList.get(i));
-            int rank = i + 1;
-            @SuppressWarnings("unchecked")
-            List<Object> vals = (List<Object>) pipelineResults.get(i);
-            BookRankHomeItemRespDto row = parseHomeRowFromHmget(bookId, rank, vals, i == 0);
-            if (row != null && row.getBookName() != null) {
-                out.add(row);
-            } else {
-                BookInfo b = bookInfoMapper.selectById(bookId);
-                if (b != null) {
-                    out.add(singleDbBookToHomeItem(b, rank, i == 0));
-                }
-            }
-        }
-        return out;
-    }
-
-    private BookRankHomeItemRespDto singleDbBookToHomeItem(BookInfo b, int rank, boolean top) {
-        BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
-        dto.setRank(rank);
-        dto.setId(b.getId());
-        dto.setBookName(b.getBookName());
-        if (top) {
-            dto.setPicUrl(b.getPicUrl());
-            dto.setBookDesc(RankBookDescUtils.toRankPreview(b.getBookDesc()));
-        }
-        return dto;
-    }
-
-    private BookRankTableRespDto parseTableRowFromHmget(long bookId, int rank, List<Object> vals) {
-        if (vals == null || vals.size() < 5) {
-            return null;
-        }
-        BookRankTableRespDto dto = new BookRankTableRespDto();
-        dto.setRank(rank);
-        dto.setId(bookId);
-        dto.setCategoryName(stringVal(vals.get(0)));
-        dto.setBookName(stringVal(vals.get(1)));
-        dto.setLastChapterName(stringVal(vals.get(2)));
-        dto.setAuthorName(stringVal(vals.get(3)));
-        dto.setWordCount(parseIntWordCount(vals.get(4)));
-        return dto;
-    }
-
-    private BookRankHomeItemRespDto parseHomeRowFromHmget(long bookId, int rank, List<Object> vals, boolean top) {
-        if (vals == null || vals.isEmpty()) {
-            return null;
-        }
-        BookRankHomeItemRespDto dto = new BookRankHomeItemRespDto();
-        dto.setRank(rank);
-        dto.setId(bookId);
-        dto.setBookName(stringVal(vals.get(0)));
-        if (top && vals.size() >= 3) {
-            dto.setPicUrl(stringVal(vals.get(1)));
-            dto.setBookDesc(RankBookDescUtils.toRankPreview(stringVal(vals.get(2))));
-        }
-        return dto;
-    }
-
-    private static String stringVal(Object o) {
-        return o == null ? null : Objects.toString(o, null);
-    }
-
-    private static Integer parseIntWordCount(Object o) {
-        if (o == null) {
-            return null;
-        }
-        try {
-            return Integer.parseInt(o.toString().trim());
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
-
     /**
      * 获取根据书籍方向获取这个方向的书籍类型列表
      * @param workDirection 作品方向;0-男频 1-女频，null 表示查询所有分类
@@ -836,16 +758,14 @@ public class BookSearchServiceImpl implements BookSearchService {
     public RestResp<List<BookInfoRespDto>> listRecBooks(Long bookId) {
         // 1. 尝试从 Redis 获取缓存
         String cacheKey = CacheConsts.BOOK_REC_CACHE_NAME + "::" + bookId;
-        String cacheValue = stringRedisTemplate.opsForValue().get(cacheKey);
-
-        if (cacheValue != null) {
-            try {
-                List<BookInfoRespDto> list = objectMapper.readValue(cacheValue, new TypeReference<List<BookInfoRespDto>>() {});
+        try {
+            List<BookInfoRespDto> cached = cacheValueRedisStore.get(cacheKey, new TypeReference<List<BookInfoRespDto>>() {});
+            if (cached != null) {
                 log.info(">>> 相关推荐命中 Redis 缓存，bookId={}", bookId);
-                return RestResp.ok(list);
-            } catch (Exception e) {
-                log.warn("解析相关推荐缓存失败，key={}", cacheKey, e);
+                return RestResp.ok(cached);
             }
+        } catch (Exception e) {
+            log.warn("解析相关推荐缓存失败，key={}", cacheKey, e);
         }
 
         log.info(">>> 相关推荐未命中缓存，回源查询 DB，bookId={}", bookId);
@@ -874,8 +794,7 @@ public class BookSearchServiceImpl implements BookSearchService {
         // 3. 写入缓存 (24小时)
         try {
             if (!CollectionUtils.isEmpty(result)) {
-                String json = objectMapper.writeValueAsString(result);
-                stringRedisTemplate.opsForValue().set(cacheKey, json, 24, TimeUnit.HOURS);
+                cacheValueRedisStore.set(cacheKey, result, 24, TimeUnit.HOURS);
                 log.info(">>> 相关推荐已写入 Redis，bookId={}", bookId);
             }
         } catch (Exception e) {
@@ -920,7 +839,7 @@ public class BookSearchServiceImpl implements BookSearchService {
     /**
      * 构建书籍信息 Map (用于 Redis Hash)
      */
-    private Map<String, String> buildBookInfoMap(BookInfo book, Integer firstChapterNum) {
+    static Map<String, String> buildBookInfoMap(BookInfo book, Integer firstChapterNum) {
         Map<String, String> map = new HashMap<>();
         map.put("id", String.valueOf(book.getId()));
         map.put("bookName", book.getBookName());
@@ -932,7 +851,8 @@ public class BookSearchServiceImpl implements BookSearchService {
         map.put("bookStatus", String.valueOf(book.getBookStatus()));
         map.put("visitCount", String.valueOf(book.getVisitCount()));
         map.put("lastChapterName", book.getLastChapterName());
-        map.put("firstChapterNum", String.valueOf(firstChapterNum));
+        // 没有已审核章节时不写，避免存入字符串 "null"
+        if (firstChapterNum != null) map.put("firstChapterNum", String.valueOf(firstChapterNum));
 
         if (book.getLastChapterNum() != null) map.put("lastChapterNum", String.valueOf(book.getLastChapterNum()));
         if (book.getWordCount() != null) map.put("wordCount", String.valueOf(book.getWordCount()));
@@ -0,0 +1,355 @@
+package com.novel.book.visit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.book.rank.BookHotRankService;
+import com.novel.common.constant.CacheConsts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问量本地写后聚合器，位于 incrementVisitCount.lua 之前。
+ * <p>
+ * 每次访问只做内存操作：
+ * <ol>
+ *     <li>本地去重：同一实例、同一去重窗口内重复出现的 {@code (bookId, userIdentity)} 直接丢弃；</li>
+ *     <li>按 {@code (bookId, 窗口)} 聚合首次出现的访客，定时或达到阈值时以 pipeline 批量执行 flushVisitCount.lua。</li>
+ * </ol>
+ * 回写脚本仍以 Redis 窗口去重结构作为最终去重依据（Set 模式取 SADD 新增数，HLL 模式取基数增量，见
+ * {@link BookVisitDedupProperties}），再按新增访客数对排行榜 ZSet、访问量缓冲 Hash、book_info 详情 Hash 做增量，
+ * 与 {@code BookRankCacheJob}、{@code BookVisitSyncJob} 依赖的语义完全一致；
+ * 多实例之间、回写失败重试时都不会重复计数。
+ * <p>
+ * 丢失上界：待回写事件数（含回写中的）不超过 {@code maxBufferedEvents}，超出时 {@link #offer} 返回 false 由调用方同步写 Redis；
+ * 停机时先同步回写。
+ */
+@Slf4j
+@Component
+public class BookVisitAggregator {
+
+    public static final String METRIC_PENDING = "novel.book.visit.aggregator.pending";
+
+    /** 单次脚本调用的 SADD 成员数上限，避免 unpack 超出 Lua 栈 */
+    private static final int MAX_IDENTITIES_PER_SCRIPT = 1000;
+
+    private static final byte[] FLUSH_VISIT_COUNT_SCRIPT = loadScript("lua/flushVisitCount.lua");
+    private static final byte[] FLUSH_VISIT_COUNT_HLL_SCRIPT = loadScript("lua/flushVisitCountHll.lua");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BookVisitAggregatorProperties properties;
+    private final BookVisitDedupProperties dedupProperties;
+    private final BookVisitRankEngine bookVisitRankEngine;
+    private final BookHotRankService bookHotRankService;
+
+    /** (书籍, 窗口) → 本地首次出现的访客；ConcurrentHashMap 按桶加锁，天然分段 */
+    private final ConcurrentHashMap<WindowKey, Set<String>> pending = new ConcurrentHashMap<>();
+    /** 待回写事件数（含正在回写的），用于限流与丢失上界 */
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final Cache<SeenKey, Boolean> seen;
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "book-visit-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder counted = new LongAdder();
+    private final LongAdder dedupBlocked = new LongAdder();
+    private final Counter localDedupCounter;
+    private final Counter droppedCounter;
+    private final Counter flushFailureCounter;
+    private final Timer flushTimer;
+
+    public BookVisitAggregator(StringRedisTemplate stringRedisTemplate,
+                               BookVisitAggregatorProperties properties,
+                               BookVisitDedupProperties dedupProperties,
+                               BookVisitRankEngine bookVisitRankEngine,
+                               BookHotRankService bookHotRankService,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.dedupProperties = dedupProperties;
+        this.bookVisitRankEngine = bookVisitRankEngine;
+        this.bookHotRankService = bookHotRankService;
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalDedupMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS))
+                .build();
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder(METRIC_PENDING, pendingEvents, AtomicInteger::get)
+                .description("Visit events buffered locally and not yet flushed to Redis")
+                .register(meterRegistry);
+        this.localDedupCounter = Counter.builder("novel.book.visit.aggregator.local.dedup")
+                .description("Repeated visits dropped by the in-process UV window")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("novel.book.visit.aggregator.dropped")
+                .description("Buffered visit events discarded without reaching Redis")
+                .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("novel.book.visit.aggregator.flush.failures")
+                .description("Pipelined flush batches that failed and were re-queued")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("novel.book.visit.aggregator.flush")
+                .description("Duration of one pipelined visit flush batch")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, properties.getFlushIntervalMillis(),
+                    properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 记录一次访问。
+     *
+     * @return true 表示已被本地接收（计入缓冲或被本地去重）；false 表示未启用或缓冲已满，调用方需同步写 Redis
+     */
+    public boolean offer(long bookId, String userIdentity) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        long bucket = System.currentTimeMillis() / 1000 / CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS;
+        if (seen.asMap().putIfAbsent(new SeenKey(bookId, bucket, userIdentity), Boolean.TRUE) != null) {
+            localDedupCounter.increment();
+            dedupBlocked.increment();
+            return true;
+        }
+        if (!reserve()) {
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        pending.compute(new WindowKey(bookId, bucket), (k, identities) -> {
+            Set<String> set = identities == null ? new HashSet<>() : identities;
+            added[0] = set.add(userIdentity);
+            return set;
+        });
+        if (!added[0]) {
+            // 本地去重记录被淘汰后同一访客再次出现，缓冲中已有该访客
+            pendingEvents.decrementAndGet();
+            dedupBlocked.increment();
+        }
+        if (pendingEvents.get() >= properties.getFlushThresholdEvents() && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flushQuietly);
+        }
+        return true;
+    }
+
+    /**
+     * 取出并清零上次调用以来 Redis 确认计数的访问数。
+     */
+    public long drainCountedCount() {
+        return counted.sumThenReset();
+    }
+
+    /**
+     * 取出并清零上次调用以来被去重（本地或 Redis）的访问数。
+     */
+    public long drainDedupBlockedCount() {
+        return dedupBlocked.sumThenReset();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+        int left = pendingEvents.getAndSet(0);
+        if (left > 0) {
+            droppedCounter.increment(left);
+            log.error(">>> 停机回写访问量失败，丢弃 {} 次访问", left);
+        }
+    }
+
+    private boolean reserve() {
+        int max = properties.getMaxBufferedEvents();
+        while (true) {
+            int current = pendingEvents.get();
+            if (current >= max) {
+                return false;
+            }
+            if (pendingEvents.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush(false);
+        } catch (Exception e) {
+            log.error(">>> 访问量本地聚合回写异常", e);
+        }
+    }
+
+    private synchronized void flush(boolean finalFlush) {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<WindowBatch> drained = new ArrayList<>(pending.size());
+        for (WindowKey key : pending.keySet()) {
+            Set<String> identities = pending.remove(key);
+            if (identities != null && !identities.isEmpty()) {
+                drained.add(new WindowBatch(key, identities));
+            }
+        }
+        int batchSize = Math.max(1, properties.getFlushBatchSize());
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<WindowBatch> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                flushTimer.record(() -> writeBatch(batch));
+            } catch (Exception e) {
+                flushFailureCounter.increment();
+                log.warn(">>> 访问量批量回写失败，windows={}，{}", batch.size(),
+                        finalFlush ? "停机中不再重试" : "重新放回缓冲", e);
+                requeue(batch);
+                if (finalFlush) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<WindowBatch> batch) {
+        byte[] zsetKey = bytes(CacheConsts.BOOK_VISIT_RANK_ZSET);
+        byte[] hashKey = bytes(CacheConsts.BOOK_VISIT_COUNT_HASH);
+        byte[] ttl = bytes(String.valueOf(CacheConsts.BOOK_VISIT_UV_SET_TTL_SECONDS));
+        boolean hll = dedupProperties.isHll();
+        byte[] script = hll ? FLUSH_VISIT_COUNT_HLL_SCRIPT : FLUSH_VISIT_COUNT_SCRIPT;
+        int numKeys = hll ? 5 : 4;
+        int sent = 0;
+        // 与 pipeline 中每次脚本调用一一对应，用于把新增数归属到书籍
+        List<Long> callBookIds = new ArrayList<>();
+        for (WindowBatch window : batch) {
+            int size = window.identities().size();
+            sent += size;
+            for (int from = 0; from < size; from += MAX_IDENTITIES_PER_SCRIPT) {
+                callBookIds.add(window.key().bookId());
+            }
+        }
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (WindowBatch window : batch) {
+                long bookId = window.key().bookId();
+                byte[] bookIdBytes = bytes(String.valueOf(bookId));
+                byte[] bookInfoKey = bytes(CacheConsts.BOOK_INFO_HASH_PREFIX + bookId);
+                byte[] uvSetKey = bytes(CacheConsts.BOOK_VISIT_UV_SET_PREFIX + bookId + ":" + window.key().bucket());
+                byte[] uvHllKey = bytes(CacheConsts.BOOK_VISIT_UV_HLL_PREFIX + bookId + ":" + window.key().bucket());
+                List<String> identities = new ArrayList<>(window.identities());
+                for (int from = 0; from < identities.size(); from += MAX_IDENTITIES_PER_SCRIPT) {
+                    List<String> part = identities.subList(from, Math.min(from + MAX_IDENTITIES_PER_SCRIPT, identities.size()));
+                    byte[][] keysAndArgs = new byte[numKeys + 2 + part.size()][];
+                    int idx = 0;
+                    keysAndArgs[idx++] = zsetKey;
+                    keysAndArgs[idx++] = hashKey;
+                    keysAndArgs[idx++] = bookInfoKey;
+                    if (hll) {
+                        keysAndArgs[idx++] = uvHllKey;
+                    }
+                    keysAndArgs[idx++] = uvSetKey;
+                    keysAndArgs[idx++] = bookIdBytes;
+                    keysAndArgs[idx++] = ttl;
+                    for (String identity : part) {
+                        keysAndArgs[idx++] = bytes(identity);
+                    }
+                    connection.scriptingCommands().eval(script, ReturnType.INTEGER, numKeys, keysAndArgs);
+                }
+            }
+            return null;
+        });
+        long added = 0;
+        Map<Long, Long> deltas = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) instanceof Number number && number.longValue() > 0) {
+                added += number.longValue();
+                deltas.merge(callBookIds.get(i), number.longValue(), Long::sum);
+            }
+        }
+        bookVisitRankEngine.recordDeltas(deltas);
+        bookHotRankService.recordDeltas(deltas);
+        pendingEvents.addAndGet(-sent);
+        counted.add(added);
+        dedupBlocked.add(sent - added);
+        log.debug(">>> 访问量批量回写完成，windows={}，visitors={}，counted={}", batch.size(), sent, added);
+    }
+
+    /**
+     * 回写失败的窗口放回缓冲，事件仍计入 {@link #pendingEvents}，不会突破缓冲上限。
+     * 去重 key 已过期的窗口无法再防止重复计数，直接丢弃。
+     */
+    private void requeue(List<WindowBatch> batch) {
+        long currentBucket = System.currentTimeMillis() / 1000 / CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS;
+        long maxAgeBuckets = CacheConsts.BOOK_VISIT_UV_SET_TTL_SECONDS / CacheConsts.BOOK_VISIT_UV_WINDOW_SECONDS;
+        for (WindowBatch window : batch) {
+            if (currentBucket - window.key().bucket() > maxAgeBuckets) {
+                int size = window.identities().size();
+                pendingEvents.addAndGet(-size);
+                droppedCounter.increment(size);
+                continue;
+            }
+            int[] duplicates = new int[1];
+            pending.compute(window.key(), (k, identities) -> {
+                if (identities == null) {
+                    return window.identities();
+                }
+                for (String identity : window.identities()) {
+                    if (!identities.add(identity)) {
+                        duplicates[0]++;
+                    }
+                }
+                return identities;
+            });
+            pendingEvents.addAndGet(-duplicates[0]);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] loadScript(String location) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        return bytes(script.getScriptAsString());
+    }
+
+    record WindowKey(long bookId, long bucket) {
+    }
+
+    record SeenKey(long bookId, long bucket, String userIdentity) {
+    }
+
+    record WindowBatch(WindowKey key, Set<String> identities) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.novel.book.visit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 访问量本地写后聚合（write-behind）参数。
+ * <ul>
+ *     <li>本地缓冲的访问事件数永远不超过 {@code maxBufferedEvents}，达到上限后新请求直接走同步 Lua 脚本，
+ *     因此进程崩溃时最多丢失 {@code maxBufferedEvents} 次访问；正常停机会先同步回写；</li>
+ *     <li>回写延迟最多 {@code flushIntervalMillis}，或缓冲达到 {@code flushThresholdEvents} 时立即触发。</li>
+ * </ul>
+ */
+@ConfigurationProperties(prefix = "novel.book.visit-aggregator")
+public class BookVisitAggregatorProperties {
+
+    /**
+     * 是否启用本地聚合。关闭后每次访问同步执行 incrementVisitCount.lua。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 定时回写间隔（毫秒）。
+     */
+    private long flushIntervalMillis = 500;
+
+    /**
+     * 待回写事件数达到该值时立即触发一次回写。
+     */
+    private int flushThresholdEvents = 2000;
+
+    /**
+     * 本地最多缓冲的待回写事件数，即崩溃时的最大丢失量。
+     */
+    private int maxBufferedEvents = 50000;
+
+    /**
+     * 单次 pipeline 包含的 (书籍, 去重窗口) 数。
+     */
+    private int flushBatchSize = 200;
+
+    /**
+     * 本地去重记录的最大条数，超出后按 LRU 淘汰，淘汰后的重复访问交由 Redis SADD 去重。
+     */
+    private long localDedupMaxSize = 200000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public int getFlushThresholdEvents() {
+        return flushThresholdEvents;
+    }
+
+    public void setFlushThresholdEvents(int flushThresholdEvents) {
+        this.flushThresholdEvents = flushThresholdEvents;
+    }
+
+    public int getMaxBufferedEvents() {
+        return maxBufferedEvents;
+    }
+
+    public void setMaxBufferedEvents(int maxBufferedEvents) {
+        this.maxBufferedEvents = maxBufferedEvents;
+    }
+
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    public void setFlushBatchSize(int flushBatchSize) {
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public long getLocalDedupMaxSize() {
+        return localDedupMaxSize;
+    }
+
+    public void setLocalDedupMaxSize(long localDedupMaxSize) {
+        this.localDedupMaxSize = localDedupMaxSize;
+    }
+}
@@ -0,0 +1,332 @@
+package com.novel.book.visit;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.book.dao.entity.BookInfo;
+import com.novel.book.dao.mapper.BookInfoMapper;
+import com.novel.common.constant.CacheConsts;
+import com.novel.common.constant.DatabaseConsts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 点击榜增量引擎：每个实例维护一个容量为 K 的最小堆，取代每 15 分钟一次的全表扫描。
+ * <p>
+ * 输入：
+ * <ul>
+ *     <li>{@link #recordDeltas(Map)} —— 访问量回写成功后的每本书增量（本地聚合器回写或同步脚本计数）；</li>
+ *     <li>{@link #onBooksChanged(Collection)} —— book-change MQ，审核状态或字数变化导致不再满足上榜条件时移出榜单。</li>
+ * </ul>
+ * 每 {@code syncIntervalMillis}：
+ * <ol>
+ *     <li>堆内书籍直接累加增量；堆外书籍首次出现时从 DB visit_count + 访问量缓冲 Hash 取总量（批量、仅限可上榜书籍），
+ *     之后缓存在本地继续累加；</li>
+ *     <li>总量超过堆顶（第 K 名）的书籍入堆，挤出的书籍回到堆外缓存；</li>
+ *     <li>本轮分数有变化的堆内书籍以 {@code ZADD GT} 写入实时榜单并裁剪到 K 名。</li>
+ * </ol>
+ * {@code ZADD GT} 只会抬高分数：多实例各自的堆都是真实总量的下界，合并后取最大值；
+ * 被裁剪后又因访问重新进入 ZSet 的书籍（ZINCRBY 从增量起算）也会在下一轮被修正为总量。
+ */
+@Slf4j
+@Component
+public class BookVisitRankEngine {
+
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final String VISIT_RETRY_HASH = CacheConsts.BOOK_VISIT_COUNT_HASH + ":retry";
+
+    private final BookInfoMapper bookInfoMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BookVisitRankProperties properties;
+
+    /** 回写线程写入、同步任务取走的待处理增量 */
+    private final ConcurrentHashMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    /** 以下结构仅在持有 this 锁时访问 */
+    private final PriorityQueue<RankEntry> heap = new PriorityQueue<>(
+            Comparator.comparingLong(RankEntry::score).thenComparingLong(RankEntry::bookId));
+    private final Map<Long, RankEntry> heapIndex = new HashMap<>();
+    private final Cache<Long, Long> outsiderTotals;
+    private boolean loaded;
+
+    public BookVisitRankEngine(BookInfoMapper bookInfoMapper,
+                               StringRedisTemplate stringRedisTemplate,
+                               BookVisitRankProperties properties) {
+        this.bookInfoMapper = bookInfoMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.outsiderTotals = Caffeine.newBuilder()
+                .maximumSize(properties.getOutsiderCacheSize())
+                .build();
+    }
+
+    /**
+     * 记录已写入 Redis 的访问增量，只做内存累加，由 {@link #sync()} 统一处理。
+     */
+    public void recordDeltas(Map<Long, Long> deltas) {
+        deltas.forEach((bookId, delta) -> {
+            if (delta != null && delta > 0) {
+                pendingDeltas.merge(bookId, delta, Long::sum);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${novel.book.visit-rank.sync-interval-millis:10000}")
+    public void sync() {
+        try {
+            doSync();
+        } catch (Exception e) {
+            log.error(">>> 点击榜增量同步失败", e);
+        }
+    }
+
+    /**
+     * 以实时榜单 ZSet 重新初始化本实例的堆（启动后首次同步、全量校准完成后调用）。
+     */
+    public synchronized void reloadFromRedis() {
+        Set<ZSetOperations.TypedTuple<String>> top = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(CacheConsts.BOOK_VISIT_RANK_ZSET, 0, properties.getTopK() - 1);
+        heap.clear();
+        heapIndex.clear();
+        if (!CollectionUtils.isEmpty(top)) {
+            for (ZSetOperations.TypedTuple<String> tuple : top) {
+                if (tuple.getValue() == null || tuple.getScore() == null) {
+                    continue;
+                }
+                RankEntry entry = new RankEntry(Long.parseLong(tuple.getValue()), tuple.getScore().longValue());
+                heap.add(entry);
+                heapIndex.put(entry.bookId(), entry);
+            }
+        }
+        loaded = true;
+        log.info(">>> 点击榜增量引擎已从实时榜单加载，size={}", heapIndex.size());
+    }
+
+    /**
+     * 书籍变更：不再满足上榜条件（未审核通过、已删除、字数为 0）的书籍从本实例堆与实时榜单中移除。
+     * <p>
+     * 只检查本实例堆内/堆外缓存或实时榜单中存在的书籍，ES 同步任务批量推送的全量 bookId 不会引起额外的 DB 查询。
+     */
+    public void onBooksChanged(Collection<Long> bookIds) {
+        if (CollectionUtils.isEmpty(bookIds)) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        List<Object> scores = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] key = bytes(CacheConsts.BOOK_VISIT_RANK_ZSET);
+            for (Long id : ids) {
+                connection.zSetCommands().zScore(key, bytes(String.valueOf(id)));
+            }
+            return null;
+        });
+        List<Long> tracked = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                if (scores.get(i) != null || heapIndex.containsKey(id) || outsiderTotals.getIfPresent(id) != null) {
+                    tracked.add(id);
+                }
+            }
+        }
+        if (tracked.isEmpty()) {
+            return;
+        }
+        Set<Long> eligible = bookInfoMapper.selectList(new QueryWrapper<BookInfo>()
+                        .select(DatabaseConsts.CommonColumnEnum.ID.getName())
+                        .in(DatabaseConsts.CommonColumnEnum.ID.getName(), tracked)
+                        .eq("audit_status", 1)
+                        .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0))
+                .stream().map(BookInfo::getId).collect(Collectors.toSet());
+        List<String> removed = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : tracked) {
+                if (!eligible.contains(id)) {
+                    RankEntry entry = heapIndex.remove(id);
+                    if (entry != null) {
+                        heap.remove(entry);
+                    }
+                    outsiderTotals.invalidate(id);
+                    removed.add(String.valueOf(id));
+                }
+            }
+        }
+        if (!removed.isEmpty()) {
+            stringRedisTemplate.opsForZSet().remove(CacheConsts.BOOK_VISIT_RANK_ZSET, removed.toArray());
+            log.info(">>> 书籍不再满足上榜条件，已移出点击榜，bookIds={}", removed);
+        }
+    }
+
+    private void doSync() {
+        if (!loaded) {
+            reloadFromRedis();
+        }
+        Map<Long, Long> deltas = drainPendingDeltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Long> unknown = new ArrayList<>();
+        Map<Long, Long> touchedOutsiders = new HashMap<>();
+        Set<Long> dirty = new HashSet<>();
+        synchronized (this) {
+            deltas.forEach((bookId, delta) -> {
+                RankEntry entry = heapIndex.get(bookId);
+                if (entry != null) {
+                    replace(entry, new RankEntry(bookId, entry.score() + delta));
+                    dirty.add(bookId);
+                    return;
+                }
+                Long total = outsiderTotals.getIfPresent(bookId);
+                if (total != null) {
+                    touchedOutsiders.put(bookId, total + delta);
+                } else {
+                    unknown.add(bookId);
+                }
+            });
+        }
+
+        // 首次出现的堆外书籍：DB 中的总量 + Redis 中尚未落库的增量（已包含本轮增量），不可上榜的书籍不返回
+        touchedOutsiders.putAll(loadTotals(unknown));
+
+        synchronized (this) {
+            touchedOutsiders.forEach((bookId, total) -> {
+                if (heapIndex.containsKey(bookId)) {
+                    return;
+                }
+                if (heap.size() < properties.getTopK()) {
+                    admit(bookId, total);
+                    dirty.add(bookId);
+                    return;
+                }
+                RankEntry min = heap.peek();
+                if (min != null && total > min.score()) {
+                    heap.poll();
+                    heapIndex.remove(min.bookId());
+                    outsiderTotals.put(min.bookId(), min.score());
+                    dirty.remove(min.bookId());
+                    admit(bookId, total);
+                    dirty.add(bookId);
+                } else {
+                    outsiderTotals.put(bookId, total);
+                }
+            });
+        }
+        writeToLiveRank(dirty);
+    }
+
+    private Map<Long, Long> drainPendingDeltas() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long bookId : pendingDeltas.keySet()) {
+            Long delta = pendingDeltas.remove(bookId);
+            if (delta != null) {
+                deltas.put(bookId, delta);
+            }
+        }
+        return deltas;
+    }
+
+    private Map<Long, Long> loadTotals(List<Long> bookIds) {
+        Map<Long, Long> totals = new HashMap<>();
+        for (int from = 0; from < bookIds.size(); from += SEED_BATCH_SIZE) {
+            List<Long> batch = bookIds.subList(from, Math.min(from + SEED_BATCH_SIZE, bookIds.size()));
+            List<BookInfo> books = bookInfoMapper.selectList(new QueryWrapper<BookInfo>()
+                    .select(DatabaseConsts.CommonColumnEnum.ID.getName(), DatabaseConsts.BookTable.COLUMN_VISIT_COUNT)
+                    .in(DatabaseConsts.CommonColumnEnum.ID.getName(), batch)
+                    .eq("audit_status", 1)
+                    .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0));
+            if (books.isEmpty()) {
+                continue;
+            }
+            List<Object> fields = books.stream().map(b -> (Object) String.valueOf(b.getId())).toList();
+            List<Object> buffered = stringRedisTemplate.opsForHash().multiGet(CacheConsts.BOOK_VISIT_COUNT_HASH, fields);
+            List<Object> retrying = stringRedisTemplate.opsForHash().multiGet(VISIT_RETRY_HASH, fields);
+            for (int i = 0; i < books.size(); i++) {
+                BookInfo book = books.get(i);
+                long total = Objects.requireNonNullElse(book.getVisitCount(), 0L)
+                        + parseLong(buffered, i) + parseLong(retrying, i);
+                totals.put(book.getId(), total);
+            }
+        }
+        return totals;
+    }
+
+    private void writeToLiveRank(Set<Long> dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<Tuple> tuples = new HashSet<>();
+        synchronized (this) {
+            for (Long bookId : dirty) {
+                RankEntry entry = heapIndex.get(bookId);
+                if (entry != null) {
+                    tuples.add(new DefaultTuple(bytes(String.valueOf(bookId)), (double) entry.score()));
+                }
+            }
+        }
+        if (tuples.isEmpty()) {
+            return;
+        }
+        byte[] key = bytes(CacheConsts.BOOK_VISIT_RANK_ZSET);
+        int keep = properties.getTopK();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(key, tuples, RedisZSetCommands.ZAddArgs.empty().gt());
+            // 只保留前 K 名：删除排名 [0, -(K+1)] 的低分成员，ZSet 不足 K 名时为空操作
+            connection.zSetCommands().zRemRange(key, 0, -(keep + 1L));
+            return null;
+        });
+        log.debug(">>> 点击榜增量同步完成，updated={}", tuples.size());
+    }
+
+    private void admit(long bookId, long total) {
+        RankEntry entry = new RankEntry(bookId, total);
+        heap.add(entry);
+        heapIndex.put(bookId, entry);
+        outsiderTotals.invalidate(bookId);
+    }
+
+    private void replace(RankEntry old, RankEntry updated) {
+        heap.remove(old);
+        heap.add(updated);
+        heapIndex.put(updated.bookId(), updated);
+    }
+
+    private static long parseLong(List<Object> values, int index) {
+        if (values == null || index >= values.size() || values.get(index) == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(values.get(index).toString());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    record RankEntry(long bookId, long score) {
+    }
+}
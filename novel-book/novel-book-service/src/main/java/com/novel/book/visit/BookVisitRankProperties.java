@@ -0,0 +1,79 @@
+package com.novel.book.visit;
+
+import com.novel.common.constant.CacheConsts;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 点击榜增量引擎与全量校准参数。
+ * <p>
+ * 日常排名由 {@link BookVisitRankEngine} 根据回写的访问增量与书籍变更消息增量维护；
+ * 全量校准只作为兜底（默认每天一次），也可通过内部接口手动触发。
+ */
+@ConfigurationProperties(prefix = "novel.book.visit-rank")
+public class BookVisitRankProperties {
+
+    /**
+     * 本实例 TopK 堆容量，与实时榜单 ZSet 保留的候选数一致。
+     */
+    private int topK = CacheConsts.BOOK_VISIT_RANK_CANDIDATE_SIZE;
+
+    /**
+     * 增量同步到实时榜单 ZSet 的间隔（毫秒）。
+     */
+    private long syncIntervalMillis = 10000;
+
+    /**
+     * 堆外书籍总访问量的本地缓存条数，避免热门但未上榜的书籍每轮都回源 DB。
+     */
+    private long outsiderCacheSize = 50000;
+
+    /**
+     * 全量校准 cron，需与 {@code BookRankCacheJob} 上的占位符默认值保持一致。
+     */
+    private String reconcileCron = "0 30 4 * * ?";
+
+    /**
+     * 全量校准单批次扫描书籍数。
+     */
+    private int scanBatchSize = CacheConsts.BOOK_VISIT_RANK_SCAN_BATCH_SIZE;
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    public void setSyncIntervalMillis(long syncIntervalMillis) {
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    public long getOutsiderCacheSize() {
+        return outsiderCacheSize;
+    }
+
+    public void setOutsiderCacheSize(long outsiderCacheSize) {
+        this.outsiderCacheSize = outsiderCacheSize;
+    }
+
+    public String getReconcileCron() {
+        return reconcileCron;
+    }
+
+    public void setReconcileCron(String reconcileCron) {
+        this.reconcileCron = reconcileCron;
+    }
+
+    public int getScanBatchSize() {
+        return scanBatchSize;
+    }
+
+    public void setScanBatchSize(int scanBatchSize) {
+        this.scanBatchSize = scanBatchSize;
+    }
+}
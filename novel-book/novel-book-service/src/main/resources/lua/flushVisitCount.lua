@@ -0,0 +1,31 @@
+-- 批量回写本地聚合的访问量（带窗口去重），语义与 incrementVisitCount.lua 一致，只是一次处理同一窗口的多个访客
+-- KEYS[1]: ZSet key (访问排行榜)
+-- KEYS[2]: Hash key (访问量缓冲)
+-- KEYS[3]: 书籍详情 Hash key (book_info:{bookId})
+-- KEYS[4]: UV 去重 Set key (book_visit_uv:{bookId}:{bucket})
+-- ARGV[1]: bookId (书籍ID)
+-- ARGV[2]: uvSetTtlSeconds (UV去重集合TTL秒数)
+-- ARGV[3..]: userIdentity 列表（本实例在该窗口内首次见到的访客）
+
+local zsetKey = KEYS[1]
+local hashKey = KEYS[2]
+local bookInfoHashKey = KEYS[3]
+local uvSetKey = KEYS[4]
+local bookId = ARGV[1]
+local uvSetTtlSeconds = tonumber(ARGV[2]) or 300
+
+-- 集群级去重：SADD 只返回真正新增的成员数，其他实例已统计过的访客不会重复计数；
+-- 回写失败重试时同样依赖这一点，已写入的访客不会被二次计数
+local added = redis.call('SADD', uvSetKey, unpack(ARGV, 3))
+
+redis.call('EXPIRE', uvSetKey, uvSetTtlSeconds)
+
+if added > 0 then
+    redis.call('ZINCRBY', zsetKey, added, bookId)
+    redis.call('HINCRBY', hashKey, bookId, added)
+    if redis.call('EXISTS', bookInfoHashKey) == 1 then
+        redis.call('HINCRBY', bookInfoHashKey, 'visitCount', added)
+    end
+end
+
+return added
@@ -0,0 +1,53 @@
+-- 批量回写本地聚合的访问量（HyperLogLog 窗口去重），语义与 incrementVisitCountHll.lua 一致
+-- KEYS[1]: ZSet key (访问排行榜)
+-- KEYS[2]: Hash key (访问量缓冲)
+-- KEYS[3]: 书籍详情 Hash key (book_info:{bookId})
+-- KEYS[4]: UV 去重 HLL key (book_visit_uv_hll:{bookId}:{bucket})
+-- KEYS[5]: 同窗口的旧 UV 去重 Set key (book_visit_uv:{bookId}:{bucket})，仅切换模式的窗口内存在
+-- ARGV[1]: bookId (书籍ID)
+-- ARGV[2]: uvSetTtlSeconds (去重 key TTL 秒数)
+-- ARGV[3..]: userIdentity 列表
+
+local zsetKey = KEYS[1]
+local hashKey = KEYS[2]
+local bookInfoHashKey = KEYS[3]
+local hllKey = KEYS[4]
+local legacySetKey = KEYS[5]
+local bookId = ARGV[1]
+local uvSetTtlSeconds = tonumber(ARGV[2]) or 300
+
+local identities = {}
+if redis.call('EXISTS', legacySetKey) == 1 then
+    for i = 3, #ARGV do
+        if redis.call('SISMEMBER', legacySetKey, ARGV[i]) == 0 then
+            identities[#identities + 1] = ARGV[i]
+        end
+    end
+else
+    for i = 3, #ARGV do
+        identities[#identities + 1] = ARGV[i]
+    end
+end
+if #identities == 0 then
+    return 0
+end
+
+local before = redis.call('PFCOUNT', hllKey)
+local changed = redis.call('PFADD', hllKey, unpack(identities))
+redis.call('EXPIRE', hllKey, uvSetTtlSeconds)
+if changed == 0 then
+    return 0
+end
+
+local added = redis.call('PFCOUNT', hllKey) - before
+if added <= 0 then
+    return 0
+end
+
+redis.call('ZINCRBY', zsetKey, added, bookId)
+redis.call('HINCRBY', hashKey, bookId, added)
+if redis.call('EXISTS', bookInfoHashKey) == 1 then
+    redis.call('HINCRBY', bookInfoHashKey, 'visitCount', added)
+end
+
+return added
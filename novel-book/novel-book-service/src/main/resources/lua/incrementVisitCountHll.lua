@@ -0,0 +1,44 @@
+-- 原子性地增加书籍访问量（HyperLogLog 窗口去重），返回值与 incrementVisitCount.lua 一致
+-- KEYS[1]: ZSet key (访问排行榜)
+-- KEYS[2]: Hash key (访问量缓冲)
+-- KEYS[3]: 书籍详情 Hash key (book_info:{bookId})
+-- KEYS[4]: UV 去重 HLL key (book_visit_uv_hll:{bookId}:{bucket})
+-- KEYS[5]: 同窗口的旧 UV 去重 Set key (book_visit_uv:{bookId}:{bucket})，仅切换模式的窗口内存在
+-- ARGV[1]: bookId (书籍ID)
+-- ARGV[2]: userIdentity (用户标识，优先 userId，匿名时可为ip/device)
+-- ARGV[3]: uvSetTtlSeconds (去重 key TTL 秒数)
+
+local zsetKey = KEYS[1]
+local hashKey = KEYS[2]
+local bookInfoHashKey = KEYS[3]
+local hllKey = KEYS[4]
+local legacySetKey = KEYS[5]
+local bookId = ARGV[1]
+local userIdentity = ARGV[2]
+local uvSetTtlSeconds = tonumber(ARGV[3]) or 300
+
+-- 迁移：Set 模式下本窗口已计数的访客不再重复计数（旧 Set 到期后该判断恒为 0）
+if redis.call('SISMEMBER', legacySetKey, userIdentity) == 1 then
+    return {0, -1, -1}
+end
+
+-- 计数增量 = 加入前后 HLL 基数估计之差；PFADD 未改动任何寄存器时基数必然不变，省去第二次 PFCOUNT
+local before = redis.call('PFCOUNT', hllKey)
+local changed = redis.call('PFADD', hllKey, userIdentity)
+redis.call('EXPIRE', hllKey, uvSetTtlSeconds)
+if changed == 0 then
+    return {0, -1, -1}
+end
+
+local added = redis.call('PFCOUNT', hllKey) - before
+if added <= 0 then
+    return {0, -1, -1}
+end
+
+local zsetScore = redis.call('ZINCRBY', zsetKey, added, bookId)
+local hashValue = redis.call('HINCRBY', hashKey, bookId, added)
+if redis.call('EXISTS', bookInfoHashKey) == 1 then
+    redis.call('HINCRBY', bookInfoHashKey, 'visitCount', added)
+end
+
+return {1, zsetScore, hashValue}
@@ -0,0 +1,28 @@
+-- 全量写入书籍章节序号索引：仅当代数与查询 DB 之前读到的一致时才覆盖，期间有增量维护则放弃
+-- KEYS[1]: 章节索引 ZSet key (chapter_index:{bookId})，member=score=章节号
+-- KEYS[2]: 索引代数 key (chapter_index_gen:{bookId})
+-- ARGV[1]: 查询 DB 之前读到的代数（key 不存在记为 0）
+-- ARGV[2]: 索引过期秒数
+-- ARGV[3]: 哨兵成员（score=-1）
+-- ARGV[4..]: 已审核章节号
+-- 返回：1 已写入；0 代数已变化未写入
+
+local indexKey = KEYS[1]
+local genKey = KEYS[2]
+if (redis.call('GET', genKey) or '0') ~= ARGV[1] then
+    return 0
+end
+redis.call('DEL', indexKey)
+redis.call('ZADD', indexKey, -1, ARGV[3])
+-- 分段 ZADD，避免章节很多时 unpack 超出 Lua 栈限制
+local batch = 500
+for i = 4, #ARGV, batch do
+    local args = {}
+    for j = i, math.min(i + batch - 1, #ARGV) do
+        args[#args + 1] = tonumber(ARGV[j])
+        args[#args + 1] = ARGV[j]
+    end
+    redis.call('ZADD', indexKey, unpack(args))
+end
+redis.call('EXPIRE', indexKey, tonumber(ARGV[2]))
+return 1
@@ -0,0 +1,22 @@
+-- 增量维护书籍章节序号索引：先递增代数，再只在索引已存在时修改，不存在时留给读路径从 DB 全量构建
+-- KEYS[1]: 章节索引 ZSet key (chapter_index:{bookId})，member=score=章节号
+-- KEYS[2]: 索引代数 key (chapter_index_gen:{bookId})
+-- ARGV[1]: 操作类型 add / rem
+-- ARGV[2]: 章节号
+-- ARGV[3]: 代数 key 过期秒数
+-- 返回：1 已修改；0 索引不存在未修改
+
+local indexKey = KEYS[1]
+local genKey = KEYS[2]
+-- 代数递增后，变更之前读取 DB 的全量构建（seedChapterIndex.lua）会放弃写入，不会覆盖本次变更
+redis.call('INCR', genKey)
+redis.call('EXPIRE', genKey, tonumber(ARGV[3]))
+if redis.call('EXISTS', indexKey) == 0 then
+    return 0
+end
+if ARGV[1] == 'add' then
+    redis.call('ZADD', indexKey, tonumber(ARGV[2]), ARGV[2])
+else
+    redis.call('ZREM', indexKey, ARGV[2])
+end
+return 1
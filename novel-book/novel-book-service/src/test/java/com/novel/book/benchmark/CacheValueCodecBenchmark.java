@@ -0,0 +1,129 @@
+package com.novel.book.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.novel.book.cache.codec.CacheValueFormat;
+import com.novel.book.cache.codec.SmileCacheValueCodec;
+import com.novel.book.dto.resp.BookContentAboutRespDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 章节内容缓存值编解码基准：对比现有 JSON 字符串（{@code StringRedisTemplate} 写入 UTF-8）与 Smile / Smile+LZ4。
+ * <p>
+ * 运行：{@code mvn -pl novel-book/novel-book-service -am test-compile} 后直接执行 {@link #main(String[])}；
+ * 每组参数的编码后字节数会在 Trial 开始时打印，用于估算 Redis 内存与网络流量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheValueCodecBenchmark {
+
+    /** 常用汉字 + 中文标点，按真实章节的段落结构拼接 */
+    private static final String CHARS =
+            "的一是了我不人在他有这个上们来到时大地为子中你说生国年着就那和要她出也得里后自以会家可下而过天去能对小多然于心学么之都好看起发当没成只如事把还用第样道想作种开美总从无情己面最女但现前些所同日手又行意动方期它头经长儿回位分爱老因很给名法间斯知世什两次使身者被高已亲其进此话常与活正感";
+    private static final String PUNCTUATION = "，。！？；：";
+
+    @Param({"3000", "8000", "20000"})
+    public int chars;
+
+    @Param({"json", "smile", "smile-lz4"})
+    public String codec;
+
+    private final ObjectMapper legacyMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final JavaType type = TypeFactory.defaultInstance().constructType(BookContentAboutRespDto.class);
+
+    private CacheValueFormat format;
+    private BookContentAboutRespDto value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        format = switch (codec) {
+            case "json" -> null;
+            case "smile" -> new CacheValueFormat(new SmileCacheValueCodec(), false, 0);
+            case "smile-lz4" -> new CacheValueFormat(new SmileCacheValueCodec(), true, 1024);
+            default -> throw new IllegalArgumentException(codec);
+        };
+        value = chapter(chars);
+        encoded = encode();
+        System.out.printf("%n>>> codec=%s, chars=%d, payloadBytes=%d%n", codec, chars, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (format == null) {
+            // 与现状一致：先序列化为 String，再由 StringRedisSerializer 转 UTF-8
+            return legacyMapper.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+        }
+        return format.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        if (format == null) {
+            return legacyMapper.readValue(new String(encoded, StandardCharsets.UTF_8), BookContentAboutRespDto.class);
+        }
+        return format.decode(encoded, type);
+    }
+
+    private static BookContentAboutRespDto chapter(int length) {
+        Random random = new Random(length);
+        StringBuilder content = new StringBuilder(length + 64);
+        int sentence = 0;
+        while (content.length() < length) {
+            content.append(CHARS.charAt(random.nextInt(CHARS.length())));
+            if (++sentence > 8 + random.nextInt(20)) {
+                content.append(PUNCTUATION.charAt(random.nextInt(PUNCTUATION.length())));
+                sentence = 0;
+                if (random.nextInt(6) == 0) {
+                    content.append("\n\n　　");
+                }
+            }
+        }
+        return BookContentAboutRespDto.builder()
+                .bookInfo(BookContentAboutRespDto.BookInfo.builder()
+                        .categoryName("玄幻奇幻")
+                        .authorName("天蚕土豆")
+                        .build())
+                .chapterInfo(BookContentAboutRespDto.ChapterInfo.builder()
+                        .bookId(1431630596354977792L)
+                        .chapterNum(128)
+                        .chapterName("第一百二十八章 风起云涌")
+                        .chapterWordCount(length)
+                        .chapterUpdateTime(LocalDateTime.of(2024, 5, 1, 12, 0))
+                        .build())
+                .bookContent(content.toString())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheValueCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
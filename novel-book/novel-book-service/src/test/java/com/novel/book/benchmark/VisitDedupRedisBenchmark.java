@@ -0,0 +1,143 @@
+package com.novel.book.benchmark;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问量窗口去重基准：Set 模式（incrementVisitCount.lua）与 HLL 模式（incrementVisitCountHll.lua）
+ * 在单窗口已有 10k / 100k / 1M 访客时的单次脚本延迟与去重 key 内存（MEMORY USAGE）。
+ * <p>
+ * 需要一个可写的 Redis，默认 {@code redis://127.0.0.1:6379/15}，可用 {@code -Dbenchmark.redis.uri=...} 覆盖；
+ * 仅使用 {@code bench:} 前缀的 key，结束后删除。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitDedupRedisBenchmark {
+
+    private static final String BOOK_ID = "1";
+    private static final String RANK_ZSET = "bench:visit_rank";
+    private static final String VISIT_HASH = "bench:book_visit_buffer";
+    private static final String BOOK_INFO = "bench:book_info:" + BOOK_ID;
+    private static final String UV_SET = "bench:book_visit_uv:" + BOOK_ID + ":0";
+    private static final String UV_HLL = "bench:book_visit_uv_hll:" + BOOK_ID + ":0";
+    private static final String TTL = "300";
+    private static final int PREFILL_CHUNK = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int visitors;
+
+    @Param({"set", "hll"})
+    public String mode;
+
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+    private RedisCommands<String, String> commands;
+    private String scriptSha;
+    private String[] keys;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        client = RedisClient.create(System.getProperty("benchmark.redis.uri", "redis://127.0.0.1:6379/15"));
+        connection = client.connect();
+        commands = connection.sync();
+        commands.del(RANK_ZSET, VISIT_HASH, BOOK_INFO, UV_SET, UV_HLL);
+        boolean hll = "hll".equals(mode);
+        scriptSha = commands.scriptLoad(readScript(hll ? "lua/incrementVisitCountHll.lua" : "lua/incrementVisitCount.lua"));
+        keys = hll
+                ? new String[]{RANK_ZSET, VISIT_HASH, BOOK_INFO, UV_HLL, UV_SET}
+                : new String[]{RANK_ZSET, VISIT_HASH, BOOK_INFO, UV_SET};
+        prefill(hll ? UV_HLL : UV_SET, hll);
+        sequence = visitors;
+        Long memory = commands.memoryUsage(hll ? UV_HLL : UV_SET);
+        System.out.printf("%n>>> mode=%s, visitors=%d, uvKeyMemoryBytes=%d%n", mode, visitors, memory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        commands.del(RANK_ZSET, VISIT_HASH, BOOK_INFO, UV_SET, UV_HLL);
+        connection.close();
+        client.shutdown();
+    }
+
+    /**
+     * 新访客的一次计数（去重结构需要写入，是两种模式的最坏路径）。
+     */
+    @Benchmark
+    public Object newVisitor() {
+        return commands.evalsha(scriptSha, ScriptOutputType.MULTI, keys, BOOK_ID, "user-" + (sequence++), TTL);
+    }
+
+    /**
+     * 窗口内重复访客的一次去重判断。
+     */
+    @Benchmark
+    public Object repeatVisitor() {
+        return commands.evalsha(scriptSha, ScriptOutputType.MULTI, keys, BOOK_ID, "user-0", TTL);
+    }
+
+    private void prefill(String key, boolean hll) {
+        RedisAsyncCommands<String, String> async = connection.async();
+        List<RedisFuture<?>> futures = new ArrayList<>();
+        String[] chunk = new String[PREFILL_CHUNK];
+        for (int from = 0; from < visitors; from += PREFILL_CHUNK) {
+            int size = Math.min(PREFILL_CHUNK, visitors - from);
+            if (size != chunk.length) {
+                chunk = new String[size];
+            }
+            for (int i = 0; i < size; i++) {
+                chunk[i] = "user-" + (from + i);
+            }
+            futures.add(hll ? async.pfadd(key, chunk.clone()) : async.sadd(key, chunk.clone()));
+        }
+        LettuceFutures.awaitAll(5, TimeUnit.MINUTES, futures.toArray(new RedisFuture[0]));
+        commands.expire(key, 3600);
+    }
+
+    private static String readScript(String location) throws IOException {
+        try (InputStream in = VisitDedupRedisBenchmark.class.getClassLoader().getResourceAsStream(location)) {
+            if (in == null) {
+                throw new IOException("脚本不存在：" + location);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VisitDedupRedisBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
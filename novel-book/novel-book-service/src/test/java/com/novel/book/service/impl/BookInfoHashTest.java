@@ -0,0 +1,76 @@
+package com.novel.book.service.impl;
+
+import com.novel.book.dao.entity.BookInfo;
+import com.novel.book.dto.resp.BookInfoRespDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 详情页 Redis Hash 的写入与还原：
+ * <ul>
+ *     <li>没有已审核章节的书籍不写 firstChapterNum，读取时仍命中并返回与 DB 回源一致的默认首章；</li>
+ *     <li>字段存在但无法解析、或缺少书名时视为缓存不完整，回源 DB。</li>
+ * </ul>
+ */
+class BookInfoHashTest {
+
+    private BookInfo book() {
+        return BookInfo.builder()
+                .id(42L)
+                .bookName("无章节新书")
+                .authorId(7L)
+                .authorName("作者")
+                .bookStatus(0)
+                .visitCount(0L)
+                .updateTime(LocalDateTime.of(2026, 1, 2, 3, 4, 5))
+                .build();
+    }
+
+    private Map<Object, Object> toHash(Map<String, String> map) {
+        return new HashMap<>(map);
+    }
+
+    @Test
+    void book_without_chapters_hits_with_default_first_chapter() {
+        Map<String, String> written = BookSearchServiceImpl.buildBookInfoMap(book(), null);
+        assertThat(written).doesNotContainKey("firstChapterNum");
+
+        BookInfoRespDto dto = BookSearchServiceImpl.fromBookInfoHash(42L, toHash(written));
+
+        assertThat(dto).isNotNull();
+        assertThat(dto.getFirstChapterNum()).isEqualTo(1);
+        assertThat(dto.getBookName()).isEqualTo("无章节新书");
+        assertThat(dto.getUpdateTime()).isEqualTo(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+    }
+
+    @Test
+    void cached_first_chapter_is_returned_as_is() {
+        Map<String, String> written = BookSearchServiceImpl.buildBookInfoMap(book(), 3);
+
+        BookInfoRespDto dto = BookSearchServiceImpl.fromBookInfoHash(42L, toHash(written));
+
+        assertThat(dto).isNotNull();
+        assertThat(dto.getFirstChapterNum()).isEqualTo(3);
+    }
+
+    @Test
+    void unparsable_first_chapter_falls_back_to_db() {
+        Map<Object, Object> hash = toHash(BookSearchServiceImpl.buildBookInfoMap(book(), null));
+        hash.put("firstChapterNum", "null");
+
+        assertThat(BookSearchServiceImpl.fromBookInfoHash(42L, hash)).isNull();
+    }
+
+    @Test
+    void hash_without_book_name_falls_back_to_db() {
+        Map<Object, Object> hash = new HashMap<>();
+        hash.put("visitCount", "10");
+
+        assertThat(BookSearchServiceImpl.fromBookInfoHash(42L, hash)).isNull();
+    }
+}
@@ -26,11 +26,31 @@ public class AmqpConsts {
          */
         public static final String TAG_CHAPTER_UPDATE = "chapter_update";
 
+        /**
+         * 消息 Tag: 仅访问量变化（ES 局部更新 visitCount，不回查书籍、不重新生成向量）
+         */
+        public static final String TAG_VISIT_COUNT = "visit_count";
+
         /**
          * 消费者组 - ES 同步
          */
         public static final String CONSUMER_GROUP_ES = "group-book-es-sync";
 
+        /**
+         * 消费者组 - ES 访问量局部同步
+         */
+        public static final String CONSUMER_GROUP_ES_VISIT_COUNT = "group-book-es-visit-count-sync";
+
+        /**
+         * 消费者组 - 书籍服务章节内容本地缓存失效（广播消费，每个实例都要收到）
+         */
+        public static final String CONSUMER_GROUP_CONTENT_CACHE_EVICT = "group-book-content-cache-evict";
+
+        /**
+         * 消费者组 - 书籍服务点击榜增量引擎（广播消费，每个实例维护自己的 TopK 堆）
+         */
+        public static final String CONSUMER_GROUP_VISIT_RANK = "group-book-visit-rank";
+
     }
 
     /**
@@ -178,9 +178,56 @@ public class CacheConsts {
      */
     public static final int BOOK_VISIT_RANK_CANDIDATE_SIZE = 200;
     /**
-     * 点击榜全量扫描单批次大小
+     * 点击榜全量扫描单批次大小（主键范围扫描 + 两次 HMGET，批次越大往返越少）
      */
-    public static final int BOOK_VISIT_RANK_SCAN_BATCH_SIZE = 50;
+    public static final int BOOK_VISIT_RANK_SCAN_BATCH_SIZE = 1000;
+    /**
+     * 点击榜构建中 ZSet 过期时间（秒），中断的轮次在此时间内可从游标续扫
+     */
+    public static final long BOOK_VISIT_RANK_BUILD_ZSET_TTL_SECONDS = 24 * 60 * 60;
+
+    /**
+     * 小说热榜小时桶 ZSet Key 前缀（按 epoch 小时分桶，member=bookId，score=该小时去重后访问量）
+     */
+    public static final String BOOK_HOT_RANK_HOUR_ZSET_PREFIX = REDIS_CACHE_PREFIX + "hot_rank:hour:";
+    /**
+     * 小说热榜天桶 ZSet Key 前缀（按自然日分桶，周榜/月榜由天桶合并）
+     */
+    public static final String BOOK_HOT_RANK_DAY_ZSET_PREFIX = REDIS_CACHE_PREFIX + "hot_rank:day:";
+    /**
+     * 小说热榜合并结果 ZSet Key 前缀（ZUNIONSTORE 目标，后接窗口名）
+     */
+    public static final String BOOK_HOT_RANK_MERGED_ZSET_PREFIX = REDIS_CACHE_PREFIX + "hot_rank:merged:";
+    /**
+     * 小说热榜成品缓存 Key 前缀（组装好的榜单列表，后接窗口名与展示形态）
+     */
+    public static final String BOOK_HOT_RANK_BOARD_PREFIX = REDIS_CACHE_PREFIX + "hot_rank:board:";
+    /**
+     * 小说热榜刷新锁 Key（多实例同一刷新周期只有一个实例合并）
+     */
+    public static final String BOOK_HOT_RANK_REFRESH_LOCK_KEY = REDIS_CACHE_PREFIX + "hot_rank:refresh:lock";
+
+    /**
+     * 排行榜快照 Key（点击榜/新书榜/更新榜全部形态，由重建实例写入）
+     */
+    public static final String BOOK_RANK_SNAPSHOT_KEY = REDIS_CACHE_PREFIX + "rank_snapshot:data";
+    /**
+     * 排行榜快照版本号 Key（重建后递增，其他实例轮询比对）
+     */
+    public static final String BOOK_RANK_SNAPSHOT_VERSION_KEY = REDIS_CACHE_PREFIX + "rank_snapshot:version";
+    /**
+     * 排行榜快照重建锁 Key
+     */
+    public static final String BOOK_RANK_SNAPSHOT_LOCK_KEY = REDIS_CACHE_PREFIX + "rank_snapshot:lock";
+
+    /**
+     * 书籍章节序号索引 ZSet Key 前缀（member=score=已审核章节号，含一个哨兵成员表示"已构建但为空"）
+     */
+    public static final String BOOK_CHAPTER_INDEX_PREFIX = REDIS_CACHE_PREFIX + "chapter_index:";
+    /**
+     * 书籍章节序号索引代数 Key 前缀（每次增量维护递增，全量写入前比对，防止旧 DB 快照覆盖新变更）
+     */
+    public static final String BOOK_CHAPTER_INDEX_GEN_PREFIX = REDIS_CACHE_PREFIX + "chapter_index_gen:";
 
     /**
      * 小说信息 Hash 缓存 Key 前缀
@@ -199,6 +246,26 @@ public class CacheConsts {
      * 小说点击量缓冲 Hash Key (用于批量更新 DB)
      */
     public static final String BOOK_VISIT_COUNT_HASH = REDIS_CACHE_PREFIX + "book_visit_buffer";
+    /**
+     * 访问量已落库、待同步到 ES 的书籍 ID 集合（BookVisitSyncJob 写入，BookVisitEsSyncJob 消费）
+     */
+    public static final String BOOK_VISIT_ES_DIRTY_SET = REDIS_CACHE_PREFIX + "book_visit_es_dirty";
+    /**
+     * 书籍搜索结果缓存 Key 前缀，后接 {索引代数}:{检索条件摘要}:{页码}
+     */
+    public static final String BOOK_SEARCH_RESULT_PREFIX = REDIS_CACHE_PREFIX + "book_search:result:";
+    /**
+     * 书籍索引代数 Key（ES 书籍索引每次写入后递增，旧代数的搜索结果缓存随之作废）
+     */
+    public static final String BOOK_SEARCH_GENERATION_KEY = REDIS_CACHE_PREFIX + "book_search:generation";
+    /**
+     * 书籍索引全量重建进行中的标记，值为新版本索引名；存在期间增量写入会记下变更的书籍 ID
+     */
+    public static final String BOOK_REINDEX_MARKER_KEY = REDIS_CACHE_PREFIX + "book_search:reindex:marker";
+    /**
+     * 全量重建期间发生增量写入的书籍 ID 集合，切换别名前后回放到新版本索引
+     */
+    public static final String BOOK_REINDEX_CHANGED_SET = REDIS_CACHE_PREFIX + "book_search:reindex:changed";
     /**
      * 书籍存在性布隆过滤器 Key（线上生效）
      */
@@ -219,12 +286,16 @@ public class CacheConsts {
      * 小说访问 UV 去重集合 Key 前缀
      */
     public static final String BOOK_VISIT_UV_SET_PREFIX = REDIS_CACHE_PREFIX + "book_visit_uv:";
+    /**
+     * 小说访问 UV 去重 HyperLogLog Key 前缀（HLL 去重模式，按窗口分 key，单 key 最大约 12KB）
+     */
+    public static final String BOOK_VISIT_UV_HLL_PREFIX = REDIS_CACHE_PREFIX + "book_visit_uv_hll:";
     /**
      * 小说访问 UV 去重窗口秒数（按窗口去重）
      */
     public static final long BOOK_VISIT_UV_WINDOW_SECONDS = 120;
     /**
-     * 小说访问 UV 去重集合 TTL 秒数（略大于窗口，避免边界丢计数）
+     * 小说访问 UV 去重集合/HLL TTL 秒数（略大于窗口，避免边界丢计数）
      */
     public static final long BOOK_VISIT_UV_SET_TTL_SECONDS = 300;
     /**
@@ -30,10 +30,20 @@ public class EsConsts {
         }
 
         /**
-         * 索引名
+         * 索引名（读写均走该别名，指向当前版本索引）
          */
         public static final String INDEX_NAME = "book";
 
+        /**
+         * 全量重建时的版本索引前缀，如 book_v20261017020000
+         */
+        public static final String INDEX_VERSION_PREFIX = "book_v";
+
+        /**
+         * 全量重建断点索引
+         */
+        public static final String REINDEX_CHECKPOINT_INDEX = "book_reindex_checkpoint";
+
         /**
          * id
          */
@@ -60,11 +70,27 @@ public class EsConsts {
         public static final String FIELD_BOOK_NAME = "bookName";
 
 
+        /**
+         * 小说名 1~2 字 ngram 子字段，书名子串匹配（替代 *keyword* 通配符）
+         */
+        public static final String FIELD_BOOK_NAME_NGRAM = "bookName.ngram";
+
+        /**
+         * 小说名 completion 子字段，搜索框联想
+         */
+        public static final String FIELD_BOOK_NAME_SUGGEST = "bookName.suggest";
+
+
         /**
          * 作家名
          */
         public static final String FIELD_AUTHOR_NAME = "authorName";
 
+        /**
+         * 作家名 completion 子字段，搜索框联想
+         */
+        public static final String FIELD_AUTHOR_NAME_SUGGEST = "authorName.suggest";
+
         /**
          * 书籍描述
          */
@@ -109,20 +135,27 @@ public class EsConsts {
          * 是否收费;1-收费 0-免费
          */
         public static final String FIELD_IS_VIP = "isVip";
+
+        /**
+         * 向量数据
+         */
+        public static final String FIELD_EMBEDDING = "embedding";
+
+        /**
+         * 向量对应文本的摘要
+         */
+        public static final String FIELD_EMBEDDING_HASH = "embeddingHash";
     }
 
-    public class AuditExperienceIndex {
-        private AuditExperienceIndex() {
+    public class AuditExperienceIngest {
+        private AuditExperienceIngest() {
             throw new IllegalStateException(SystemConfigConsts.CONST_INSTANCE_EXCEPTION_MSG);
         }
 
-        public static final String INDEX_NAME = "audit_experience_index";
-        public static final String FIELD_ID = "id";
-        public static final String FIELD_AUDIT_STATUS = "audit_status";
-        public static final String FIELD_VIOLATION_LABEL = "violation_label";
-        public static final String FIELD_KEY_SNIPPET = "key_snippet";
-        public static final String FIELD_AUDIT_RULE = "audit_rule";
-        public static final String FIELD_CONTENT_VECTOR = "content_vector";
+        /**
+         * 审核经验判例导入断点索引
+         */
+        public static final String CHECKPOINT_INDEX = "audit_experience_ingest_checkpoint";
     }
 
 }
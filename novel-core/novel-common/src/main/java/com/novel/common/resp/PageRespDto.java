@@ -31,17 +31,28 @@ public class PageRespDto<T> {
     private final List<? extends T> list;
 
     /**
-     * 该构造函数用于通用分页查询的场景 接收普通分页数据和普通集合
+     * 下一页游标，不透明字符串，原样回传即可继续翻页；没有下一页或不支持游标分页时为 null
      */
-    public PageRespDto(long pageNum, long pageSize, long total, List<T> list) {
+    private final String nextCursor;
+
+    /**
+     * 该构造函数用于通用分页查询的场景 接收普通分页数据和普通集合，游标分页时带上 nextCursor
+     * （只保留这一个构造函数，Feign 反序列化时按参数名匹配）
+     */
+    public PageRespDto(long pageNum, long pageSize, long total, List<T> list, String nextCursor) {
         this.pageNum = pageNum;
         this.pageSize = pageSize;
         this.total = total;
         this.list = list;
+        this.nextCursor = nextCursor;
     }
 
     public static <T> PageRespDto<T> of(long pageNum, long pageSize, long total, List<T> list) {
-        return new PageRespDto<>(pageNum, pageSize, total, list);
+        return new PageRespDto<>(pageNum, pageSize, total, list, null);
+    }
+
+    public static <T> PageRespDto<T> of(long pageNum, long pageSize, long total, List<T> list, String nextCursor) {
+        return new PageRespDto<>(pageNum, pageSize, total, list, nextCursor);
     }
 
     /**
@@ -1,15 +1,27 @@
 package com.novel.search;
 
+import com.novel.search.cache.SearchResultCacheProperties;
+import com.novel.search.config.HybridSearchProperties;
+import com.novel.search.cursor.SearchCursorProperties;
+import com.novel.search.embedding.BookEmbeddingProperties;
+import com.novel.search.ingest.AuditExperienceIngestProperties;
+import com.novel.search.reindex.BookReindexProperties;
+import com.novel.search.sync.BookChangeCoalesceProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.novel"})
 @EnableDiscoveryClient
-@EnableFeignClients(basePackages = {"com.novel.book.feign"})
+@EnableFeignClients(basePackages = {"com.novel.book.feign", "com.novel.ai.feign"})
 @EnableScheduling
+@EnableConfigurationProperties({BookEmbeddingProperties.class, BookReindexProperties.class,
+        BookChangeCoalesceProperties.class, HybridSearchProperties.class,
+        SearchCursorProperties.class, SearchResultCacheProperties.class,
+        AuditExperienceIngestProperties.class})
 public class NovelSearchApplication {
 
     public static void main(String[] args) {
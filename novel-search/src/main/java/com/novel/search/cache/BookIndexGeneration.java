@@ -0,0 +1,86 @@
+package com.novel.search.cache;
+
+import com.novel.common.constant.CacheConsts;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 书籍索引代数：ES 书籍索引有写入就递增一次，搜索结果缓存的 key 带上代数，
+ * 代数变化后旧缓存不再被读到，随 TTL 自然过期，无需扫描删除。
+ * <p>
+ * 代数存放在 Redis 中供所有实例共享，本实例读的是定时同步的本地副本，读缓存时不额外访问 Redis。
+ * 写入后延迟递增（不小于 refresh_interval），短时间内的多次写入合并为一次递增。
+ */
+@Slf4j
+@Component
+public class BookIndexGeneration {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SearchResultCacheProperties properties;
+    private final AtomicLong current = new AtomicLong();
+    private final AtomicBoolean bumpScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "book-index-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookIndexGeneration(StringRedisTemplate stringRedisTemplate, SearchResultCacheProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+    }
+
+    public long current() {
+        return current.get();
+    }
+
+    /**
+     * 书籍索引已写入，延迟递增代数
+     */
+    public void onIndexChanged() {
+        if (bumpScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::bump, properties.getGenerationBumpDelayMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${novel.search.result-cache.generation-refresh-millis:1000}")
+    public void refresh() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(CacheConsts.BOOK_SEARCH_GENERATION_KEY);
+            if (value != null) {
+                current.accumulateAndGet(Long.parseLong(value), Math::max);
+            }
+        } catch (Exception e) {
+            log.debug(">>> 同步书籍索引代数失败，沿用本地值 {}。原因={}", current.get(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private void bump() {
+        bumpScheduled.set(false);
+        try {
+            Long value = stringRedisTemplate.opsForValue().increment(CacheConsts.BOOK_SEARCH_GENERATION_KEY);
+            if (value != null) {
+                current.accumulateAndGet(value, Math::max);
+                return;
+            }
+        } catch (Exception e) {
+            log.warn(">>> 递增书籍索引代数失败，仅本实例失效。原因={}", e.getMessage());
+        }
+        // Redis 不可用时至少让本实例的本地缓存失效
+        current.incrementAndGet();
+    }
+}
@@ -0,0 +1,162 @@
+package com.novel.search.cache;
+
+import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.book.dto.req.BookSearchReqDto;
+import com.novel.book.dto.resp.BookInfoRespDto;
+import com.novel.common.constant.CacheConsts;
+import com.novel.common.resp.PageRespDto;
+import com.novel.search.cursor.BookSearchCursorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 书籍搜索结果缓存：分类浏览、纯筛选等文本搜索在大量请求间完全相同，按规范化后的检索条件缓存整页结果。
+ * <ul>
+ *     <li>两级：本地 Caffeine（秒级 TTL）→ Redis（分钟级 TTL）→ ES；</li>
+ *     <li>key 带 {@link BookIndexGeneration 索引代数}，书籍索引写入后代数递增，旧结果不再命中；</li>
+ *     <li>指标 {@code novel.search.result.cache.requests} 带 {@code shape}（查询形态：用到了哪些条件）、
+ *     {@code tier=local|redis}、{@code result=hit|miss}，按形态观察命中率。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class BookSearchResultCache {
+
+    public static final String METRIC_REQUESTS = "novel.search.result.cache.requests";
+
+    private static final String TIER_LOCAL = "local";
+    private static final String TIER_REDIS = "redis";
+
+    private final SearchResultCacheProperties properties;
+    private final BookIndexGeneration bookIndexGeneration;
+    private final BookSearchCursorCodec bookSearchCursorCodec;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CachedPage> local;
+
+    public BookSearchResultCache(SearchResultCacheProperties properties,
+                                 BookIndexGeneration bookIndexGeneration,
+                                 BookSearchCursorCodec bookSearchCursorCodec,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 ObjectMapper objectMapper,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.properties = properties;
+        this.bookIndexGeneration = bookIndexGeneration;
+        this.bookSearchCursorCodec = bookSearchCursorCodec;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getLocalTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "bookSearchResult");
+    }
+
+    /**
+     * 读取一页文本搜索结果，未命中时调用 {@code loader} 查询 ES 并回填两级缓存
+     */
+    public PageRespDto<BookInfoRespDto> get(BookSearchReqDto condition, Supplier<PageRespDto<BookInfoRespDto>> loader) {
+        if (!properties.isEnabled() || condition.getPageNum() > properties.getMaxPageNum()) {
+            return loader.get();
+        }
+        String shape = shape(condition);
+        String key = CacheConsts.BOOK_SEARCH_RESULT_PREFIX + bookIndexGeneration.current() + ":"
+                + bookSearchCursorCodec.fingerprint(condition) + ":" + condition.getPageNum();
+
+        CachedPage cached = local.getIfPresent(key);
+        record(shape, TIER_LOCAL, cached != null);
+        if (cached == null) {
+            cached = readRedis(key);
+            record(shape, TIER_REDIS, cached != null);
+            if (cached != null) {
+                local.put(key, cached);
+            }
+        }
+        if (cached != null) {
+            return PageRespDto.of(condition.getPageNum(), condition.getPageSize(), cached.total(),
+                    new ArrayList<>(cached.list()), cached.nextCursor());
+        }
+
+        PageRespDto<BookInfoRespDto> page = loader.get();
+        CachedPage fresh = new CachedPage(page.getTotal(), List.copyOf(page.getList()), page.getNextCursor());
+        local.put(key, fresh);
+        writeRedis(key, fresh);
+        return page;
+    }
+
+    private CachedPage readRedis(String key) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            return json == null ? null : objectMapper.readValue(json, CachedPage.class);
+        } catch (Exception e) {
+            log.debug(">>> 读取搜索结果缓存失败，回源 ES。key={}, 原因={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, CachedPage page) {
+        try {
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(page),
+                    Duration.ofSeconds(properties.getRedisTtlSeconds()));
+        } catch (Exception e) {
+            log.debug(">>> 写入搜索结果缓存失败。key={}, 原因={}", key, e.getMessage());
+        }
+    }
+
+    private void record(String shape, String tier, boolean hit) {
+        meterRegistry.counter(METRIC_REQUESTS, "shape", shape, "tier", tier, "result", hit ? "hit" : "miss")
+                .increment();
+    }
+
+    /**
+     * 查询形态：只看用到了哪些条件，不看取值，标签基数固定
+     */
+    static String shape(BookSearchReqDto condition) {
+        List<String> parts = new ArrayList<>();
+        if (StringUtils.isNotBlank(condition.getKeyword())) {
+            parts.add("keyword");
+        }
+        if (Objects.nonNull(condition.getWorkDirection())) {
+            parts.add("direction");
+        }
+        if (Objects.nonNull(condition.getCategoryId())) {
+            parts.add("category");
+        }
+        if (Objects.nonNull(condition.getBookStatus())) {
+            parts.add("status");
+        }
+        if (Objects.nonNull(condition.getWordCountMin()) || Objects.nonNull(condition.getWordCountMax())) {
+            parts.add("wordCount");
+        }
+        if (Objects.nonNull(condition.getUpdateTimeMin())) {
+            parts.add("updateTime");
+        }
+        if (StringUtils.isNotBlank(condition.getSort())) {
+            parts.add("sort");
+        }
+        return parts.isEmpty() ? "all" : String.join("+", parts);
+    }
+
+    /**
+     * 缓存的一页结果，页码与页大小由请求决定，不重复存放
+     */
+    public record CachedPage(long total, List<BookInfoRespDto> list, String nextCursor) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.novel.search.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍搜索结果缓存参数（本地 Caffeine + Redis 两级，均为短 TTL）。
+ */
+@ConfigurationProperties(prefix = "novel.search.result-cache")
+public class SearchResultCacheProperties {
+
+    /**
+     * 是否启用搜索结果缓存。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地缓存条数上限。
+     */
+    private long localMaxSize = 5000;
+
+    /**
+     * 本地缓存过期秒数。
+     */
+    private long localTtlSeconds = 10;
+
+    /**
+     * Redis 缓存过期秒数。
+     */
+    private long redisTtlSeconds = 60;
+
+    /**
+     * 只缓存前若干页，深页命中率低，不占缓存。
+     */
+    private int maxPageNum = 5;
+
+    /**
+     * 从 Redis 同步索引代数的间隔毫秒数，其他实例写入 ES 后本实例最多滞后这么久。
+     */
+    private long generationRefreshMillis = 1000;
+
+    /**
+     * 写入 ES 后延迟多少毫秒递增代数，应不小于索引 refresh_interval，保证新代数下查到的是已刷新的数据。
+     */
+    private long generationBumpDelayMillis = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getLocalMaxSize() {
+        return localMaxSize;
+    }
+
+    public void setLocalMaxSize(long localMaxSize) {
+        this.localMaxSize = localMaxSize;
+    }
+
+    public long getLocalTtlSeconds() {
+        return localTtlSeconds;
+    }
+
+    public void setLocalTtlSeconds(long localTtlSeconds) {
+        this.localTtlSeconds = localTtlSeconds;
+    }
+
+    public long getRedisTtlSeconds() {
+        return redisTtlSeconds;
+    }
+
+    public void setRedisTtlSeconds(long redisTtlSeconds) {
+        this.redisTtlSeconds = redisTtlSeconds;
+    }
+
+    public int getMaxPageNum() {
+        return maxPageNum;
+    }
+
+    public void setMaxPageNum(int maxPageNum) {
+        this.maxPageNum = maxPageNum;
+    }
+
+    public long getGenerationRefreshMillis() {
+        return generationRefreshMillis;
+    }
+
+    public void setGenerationRefreshMillis(long generationRefreshMillis) {
+        this.generationRefreshMillis = generationRefreshMillis;
+    }
+
+    public long getGenerationBumpDelayMillis() {
+        return generationBumpDelayMillis;
+    }
+
+    public void setGenerationBumpDelayMillis(long generationBumpDelayMillis) {
+        this.generationBumpDelayMillis = generationBumpDelayMillis;
+    }
+}
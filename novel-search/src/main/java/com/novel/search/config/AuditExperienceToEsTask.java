@@ -2,6 +2,7 @@ package com.novel.search.config;
 
 import com.novel.search.service.AuditExperienceSyncService;
 import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,16 +16,21 @@ public class AuditExperienceToEsTask {
     private final AuditExperienceSyncService auditExperienceSyncService;
 
     /**
-     * 全量审核经验数据同步
-     * 可以通过 XXL-Job 手动触发或定时执行
+     * 审核经验数据导入
+     * 可以通过 XXL-Job 手动触发或定时执行；默认从断点续跑（增量），任务参数为 {@code restart} 时从头全量导入
      */
     @XxlJob("syncAuditExperienceToEsJobHandler")
     public ReturnT<String> syncAuditExperienceToEs() {
         log.info(">>> ========== 开始执行审核经验全量同步任务 ==========");
         try {
-            auditExperienceSyncService.syncAllAuditExperienceToEs();
-            log.info(">>> ========== 审核经验全量同步任务执行完成 ==========");
-            return ReturnT.SUCCESS;
+            String param = XxlJobHelper.getJobParam();
+            boolean restart = param != null && "restart".equalsIgnoreCase(param.trim());
+            if (auditExperienceSyncService.syncAllAuditExperienceToEs(restart)) {
+                log.info(">>> ========== 审核经验全量同步任务执行完成 ==========");
+                return ReturnT.SUCCESS;
+            }
+            log.error(">>> ========== 审核经验全量同步任务未完成，可重新触发从断点续跑 ==========");
+            return ReturnT.FAIL;
         } catch (Exception e) {
             log.error(">>> ========== 审核经验全量同步任务执行失败 ==========", e);
             return ReturnT.FAIL;
@@ -0,0 +1,81 @@
+package com.novel.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍混合检索（向量 KNN + 文本 BM25）参数。
+ */
+@ConfigurationProperties(prefix = "novel.search.hybrid")
+public class HybridSearchProperties {
+
+    public static final String MODE_RRF = "rrf";
+
+    /**
+     * 混合检索模式：parallel —— 向量与文本两路并行请求、Java 端按排名倒数加权合并；rrf —— 单次请求由 ES 原生 RRF 合并（需 ES 8.8+ 且许可证支持）。
+     */
+    private String mode = "parallel";
+
+    /**
+     * parallel 模式下等待两路结果的最长毫秒数，超时降级为纯文本搜索。
+     */
+    private long legTimeoutMillis = 3000;
+
+    /**
+     * 查询向量缓存条数上限（按规范化后的关键词）。
+     */
+    private long queryEmbeddingCacheSize = 10000;
+
+    /**
+     * 查询向量缓存过期分钟数。
+     */
+    private long queryEmbeddingCacheTtlMinutes = 60;
+
+    /**
+     * rrf 模式的 rank_constant。
+     */
+    private long rrfRankConstant = 60;
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public long getLegTimeoutMillis() {
+        return legTimeoutMillis;
+    }
+
+    public void setLegTimeoutMillis(long legTimeoutMillis) {
+        this.legTimeoutMillis = legTimeoutMillis;
+    }
+
+    public long getQueryEmbeddingCacheSize() {
+        return queryEmbeddingCacheSize;
+    }
+
+    public void setQueryEmbeddingCacheSize(long queryEmbeddingCacheSize) {
+        this.queryEmbeddingCacheSize = queryEmbeddingCacheSize;
+    }
+
+    public long getQueryEmbeddingCacheTtlMinutes() {
+        return queryEmbeddingCacheTtlMinutes;
+    }
+
+    public void setQueryEmbeddingCacheTtlMinutes(long queryEmbeddingCacheTtlMinutes) {
+        this.queryEmbeddingCacheTtlMinutes = queryEmbeddingCacheTtlMinutes;
+    }
+
+    public long getRrfRankConstant() {
+        return rrfRankConstant;
+    }
+
+    public void setRrfRankConstant(long rrfRankConstant) {
+        this.rrfRankConstant = rrfRankConstant;
+    }
+
+    public boolean isRrf() {
+        return MODE_RRF.equalsIgnoreCase(mode);
+    }
+}
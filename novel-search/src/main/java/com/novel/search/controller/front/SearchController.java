@@ -5,6 +5,7 @@ import com.novel.book.dto.resp.BookInfoRespDto;
 import com.novel.common.constant.ApiRouterConsts;
 import com.novel.common.resp.PageRespDto;
 import com.novel.common.resp.RestResp;
+import com.novel.search.dto.resp.BookSuggestRespDto;
 import com.novel.search.service.SearchService;
 import com.novel.search.service.AuditExperienceSyncService;
 import com.novel.search.config.AllBookToEsTask;
@@ -15,8 +16,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "SearchController", description = "前端门户-搜索模块")
@@ -43,6 +46,17 @@ public class SearchController {
         return searchService.searchBooks(bookSearchReqDto);
     }
 
+    /**
+     * 搜索框联想接口，输入时按前缀返回书名与作者名
+     */
+    @Operation(summary = "搜索联想接口")
+    @GetMapping("suggest")
+    public RestResp<List<BookSuggestRespDto>> suggest(
+            @Parameter(description = "已输入的前缀") @RequestParam("keyword") String keyword,
+            @Parameter(description = "返回条数，默认 10，最多 20") @RequestParam(value = "size", defaultValue = "10") int size) {
+        return searchService.suggest(keyword, Math.max(1, Math.min(size, 20)));
+    }
+
     /** 测试接口，用于验证服务是否正常
      */
     @GetMapping("test")
@@ -82,10 +96,12 @@ public class SearchController {
 
     /** 临时手动触发审核经验全量同步的接口
      *  执行只需打开网址：<a href="http://localhost:8888/api/front/search/sync/audit-experience">...</a>
-     *  注意：此接口会异步执行全量同步任务，立即返回响应，实际同步任务在后台执行
+     *  注意：此接口会异步执行全量同步任务，立即返回响应，实际同步任务在后台执行；
+     *  默认从断点续跑，{@code restart=true} 时从头导入
      */
     @GetMapping("sync/audit-experience")
-    public RestResp<String> syncAuditExperience() {
+    public RestResp<String> syncAuditExperience(
+            @RequestParam(value = "restart", defaultValue = "false") boolean restart) {
         log.info(">>> ========== syncAuditExperience 方法被调用 ==========");
         try {
             log.info(">>> 收到审核经验全量同步请求，开始异步执行同步任务");
@@ -93,7 +109,7 @@ public class SearchController {
             CompletableFuture.runAsync(() -> {
                 try {
                     log.info(">>> 异步任务开始执行审核经验全量同步");
-                    auditExperienceSyncService.syncAllAuditExperienceToEs();
+                    auditExperienceSyncService.syncAllAuditExperienceToEs(restart);
                     log.info(">>> 异步任务审核经验全量同步执行完成");
                 } catch (Exception e) {
                     log.error(">>> 异步任务执行审核经验全量同步时发生异常", e);
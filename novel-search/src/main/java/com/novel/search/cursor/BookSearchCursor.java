@@ -0,0 +1,56 @@
+package com.novel.search.cursor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 书籍搜索续页游标，编码后作为 {@code nextCursor} 返回给前端，前端原样放回 {@code cursor} 请求下一页
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchCursor {
+
+    public static final String TYPE_TEXT = "text";
+    public static final String TYPE_HYBRID = "hybrid";
+
+    /**
+     * text / hybrid
+     */
+    private String type;
+
+    /**
+     * 生成游标时的检索条件摘要，条件变化后游标作废
+     */
+    private String fingerprint;
+
+    /**
+     * 游标指向的页码，仅用于响应中的 pageNum
+     */
+    private Long pageNum;
+
+    /**
+     * 文本搜索：point-in-time ID，首页不开快照，第一次续页时打开
+     */
+    private String pitId;
+
+    /**
+     * 文本搜索：上一页最后一条的排序值
+     */
+    private List<Object> searchAfter;
+
+    /**
+     * 混合搜索：候选列表会话ID
+     */
+    private String sessionId;
+
+    /**
+     * 混合搜索：下一页在候选列表中的起始位置
+     */
+    private Integer offset;
+}
@@ -0,0 +1,108 @@
+package com.novel.search.cursor;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.book.dto.req.BookSearchReqDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 游标与不透明字符串（URL 安全的 Base64 JSON）互转。
+ * 游标里带检索条件摘要，解码时条件不一致、格式损坏均视为没有游标，从 pageNum 重新开始。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchCursorCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(BookSearchCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new IllegalStateException("游标序列化失败", e);
+        }
+    }
+
+    /**
+     * @return 与当前检索条件匹配的游标；没有或无效时返回 null
+     */
+    public BookSearchCursor decode(BookSearchReqDto condition) {
+        String token = condition.getCursor();
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            BookSearchCursor cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(token), BookSearchCursor.class);
+            if (!fingerprint(condition).equals(cursor.getFingerprint())) {
+                log.debug(">>> 搜索游标与检索条件不一致，忽略游标");
+                return null;
+            }
+            return cursor;
+        } catch (Exception e) {
+            log.debug(">>> 搜索游标无法解析，忽略游标。cursor={}", token);
+            return null;
+        }
+    }
+
+    /**
+     * 除页码与游标外的全部检索条件
+     */
+    public String fingerprint(BookSearchReqDto condition) {
+        String key = String.join("\u0001",
+                Objects.toString(condition.getKeyword(), ""),
+                Objects.toString(condition.getWorkDirection(), ""),
+                Objects.toString(condition.getCategoryId(), ""),
+                Objects.toString(condition.getIsVip(), ""),
+                Objects.toString(condition.getBookStatus(), ""),
+                Objects.toString(condition.getWordCountMin(), ""),
+                Objects.toString(condition.getWordCountMax(), ""),
+                condition.getUpdateTimeMin() == null ? "" : String.valueOf(condition.getUpdateTimeMin().getTime()),
+                Objects.toString(condition.getSort(), ""),
+                Objects.toString(condition.getSearchMode(), ""),
+                String.valueOf(condition.getPageSize()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static List<Object> fromSortValues(List<FieldValue> sortValues) {
+        List<Object> values = new ArrayList<>(sortValues.size());
+        for (FieldValue value : sortValues) {
+            values.add(value.isNull() ? null : value._get());
+        }
+        return values;
+    }
+
+    public static List<FieldValue> toSortValues(List<Object> values) {
+        List<FieldValue> sortValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value == null) {
+                sortValues.add(FieldValue.NULL);
+            } else if (value instanceof Double || value instanceof Float) {
+                sortValues.add(FieldValue.of(((Number) value).doubleValue()));
+            } else if (value instanceof Number number) {
+                sortValues.add(FieldValue.of(number.longValue()));
+            } else if (value instanceof Boolean bool) {
+                sortValues.add(FieldValue.of(bool));
+            } else {
+                sortValues.add(FieldValue.of(value.toString()));
+            }
+        }
+        return sortValues;
+    }
+}
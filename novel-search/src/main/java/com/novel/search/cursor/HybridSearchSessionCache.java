@@ -0,0 +1,50 @@
+package com.novel.search.cursor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.book.dto.resp.BookInfoRespDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 混合搜索会话：首页召回并合并后的完整候选列表按会话缓存，续页直接在内存中切片，不再重复 KNN/BM25 召回
+ */
+@Component
+public class HybridSearchSessionCache {
+
+    private final Cache<String, List<BookInfoRespDto>> cache;
+
+    public HybridSearchSessionCache(SearchCursorProperties properties,
+                                    ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getHybridSessionCacheSize())
+                .expireAfterAccess(Duration.ofMinutes(properties.getHybridSessionTtlMinutes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new),
+                cache, "hybridSearchSession");
+    }
+
+    /**
+     * @return 会话ID
+     */
+    public String put(List<BookInfoRespDto> candidates) {
+        String sessionId = UUID.randomUUID().toString();
+        cache.put(sessionId, List.copyOf(candidates));
+        return sessionId;
+    }
+
+    /**
+     * @return 候选列表；会话不存在或已过期时返回 null
+     */
+    public List<BookInfoRespDto> get(String sessionId) {
+        return sessionId == null ? null : cache.getIfPresent(sessionId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.novel.search.cursor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍搜索游标分页参数。
+ */
+@ConfigurationProperties(prefix = "novel.search.cursor")
+public class SearchCursorProperties {
+
+    /**
+     * 文本搜索 point-in-time 的保活时长（ES 时间格式），每翻一页续期一次；超时后游标退化为无快照的 search_after。
+     */
+    private String pitKeepAlive = "1m";
+
+    /**
+     * 混合搜索会话（合并后的候选列表）缓存条数上限。
+     */
+    private long hybridSessionCacheSize = 2000;
+
+    /**
+     * 混合搜索会话空闲过期分钟数，过期后按游标中的偏移量重新召回。
+     */
+    private long hybridSessionTtlMinutes = 10;
+
+    public String getPitKeepAlive() {
+        return pitKeepAlive;
+    }
+
+    public void setPitKeepAlive(String pitKeepAlive) {
+        this.pitKeepAlive = pitKeepAlive;
+    }
+
+    public long getHybridSessionCacheSize() {
+        return hybridSessionCacheSize;
+    }
+
+    public void setHybridSessionCacheSize(long hybridSessionCacheSize) {
+        this.hybridSessionCacheSize = hybridSessionCacheSize;
+    }
+
+    public long getHybridSessionTtlMinutes() {
+        return hybridSessionTtlMinutes;
+    }
+
+    public void setHybridSessionTtlMinutes(long hybridSessionTtlMinutes) {
+        this.hybridSessionTtlMinutes = hybridSessionTtlMinutes;
+    }
+}
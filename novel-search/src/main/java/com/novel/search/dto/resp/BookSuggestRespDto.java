@@ -0,0 +1,24 @@
+package com.novel.search.dto.resp;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestRespDto {
+
+    public static final String TYPE_BOOK = "book";
+    public static final String TYPE_AUTHOR = "author";
+
+    @Schema(description = "联想词（书名或作者名）")
+    private String text;
+
+    @Schema(description = "联想词类型;book-书名 author-作者名")
+    private String type;
+
+    @Schema(description = "书名联想对应的小说ID，作者名联想为空")
+    private Long bookId;
+}
@@ -0,0 +1,71 @@
+package com.novel.search.embedding;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应令牌桶（AIMD）：调用成功时速率加性增长，收到 HTTP 429 时乘性衰减并清空已积累的令牌。
+ * <p>
+ * 采用预约模型：{@link #acquire()} 先扣令牌再按欠额休眠，多个调用方公平排队；桶容量为 1 秒的令牌，限制突发。
+ */
+public class AdaptiveRateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public AdaptiveRateLimiter(double initialRate, double minRate, double maxRate,
+                               double increaseStep, double decreaseFactor) {
+        this.minRate = Math.max(0.01, minRate);
+        this.maxRate = Math.max(this.minRate, maxRate);
+        this.increaseStep = Math.max(0, increaseStep);
+        this.decreaseFactor = Math.min(1, Math.max(0.01, decreaseFactor));
+        this.rate = clamp(initialRate);
+        this.tokens = 1;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个令牌，不足时阻塞到预约时刻。
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / rate * 1_000_000_000L);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        rate = clamp(rate + increaseStep);
+    }
+
+    public synchronized void onThrottled() {
+        refill();
+        rate = clamp(rate * decreaseFactor);
+        // 丢弃已积累的令牌，下一次调用至少等待一个新周期
+        tokens = Math.min(tokens, 0);
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefillNanos) / 1_000_000_000d * rate);
+        lastRefillNanos = now;
+    }
+
+    private double clamp(double value) {
+        return Math.min(maxRate, Math.max(minRate, value));
+    }
+}
@@ -0,0 +1,127 @@
+package com.novel.search.embedding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍向量生成参数：按文本摘要跳过未变化的书籍，批量调用模型，并以自适应令牌桶替代固定休眠。
+ */
+@ConfigurationProperties(prefix = "novel.search.embedding")
+public class BookEmbeddingProperties {
+
+    /**
+     * 单次 embed(List) 调用携带的文本数上限（DashScope text-embedding-v3 单批上限为 10）。
+     */
+    private int batchSize = 10;
+
+    /**
+     * 参与向量化的文本最大长度，超出截断。
+     */
+    private int maxTextLength = 2000;
+
+    /**
+     * 参与摘要计算的文本版本号；更换模型或拼接方式时修改，强制全部重新生成向量。
+     */
+    private String textVersion = "v1";
+
+    /**
+     * 限流器初始速率（模型调用次数/秒）。
+     */
+    private double initialPermitsPerSecond = 2.0;
+
+    /**
+     * 限流器速率下限。
+     */
+    private double minPermitsPerSecond = 0.2;
+
+    /**
+     * 限流器速率上限。
+     */
+    private double maxPermitsPerSecond = 20.0;
+
+    /**
+     * 每次调用成功后速率的加性增量。
+     */
+    private double increasePerSecond = 0.1;
+
+    /**
+     * 收到 HTTP 429 后速率的乘性衰减系数。
+     */
+    private double throttleDecreaseFactor = 0.5;
+
+    /**
+     * 单批被限流（429）时的最大重试次数，其他异常不重试。
+     */
+    private int maxRetries = 3;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxTextLength() {
+        return maxTextLength;
+    }
+
+    public void setMaxTextLength(int maxTextLength) {
+        this.maxTextLength = maxTextLength;
+    }
+
+    public String getTextVersion() {
+        return textVersion;
+    }
+
+    public void setTextVersion(String textVersion) {
+        this.textVersion = textVersion;
+    }
+
+    public double getInitialPermitsPerSecond() {
+        return initialPermitsPerSecond;
+    }
+
+    public void setInitialPermitsPerSecond(double initialPermitsPerSecond) {
+        this.initialPermitsPerSecond = initialPermitsPerSecond;
+    }
+
+    public double getMinPermitsPerSecond() {
+        return minPermitsPerSecond;
+    }
+
+    public void setMinPermitsPerSecond(double minPermitsPerSecond) {
+        this.minPermitsPerSecond = minPermitsPerSecond;
+    }
+
+    public double getMaxPermitsPerSecond() {
+        return maxPermitsPerSecond;
+    }
+
+    public void setMaxPermitsPerSecond(double maxPermitsPerSecond) {
+        this.maxPermitsPerSecond = maxPermitsPerSecond;
+    }
+
+    public double getIncreasePerSecond() {
+        return increasePerSecond;
+    }
+
+    public void setIncreasePerSecond(double increasePerSecond) {
+        this.increasePerSecond = increasePerSecond;
+    }
+
+    public double getThrottleDecreaseFactor() {
+        return throttleDecreaseFactor;
+    }
+
+    public void setThrottleDecreaseFactor(double throttleDecreaseFactor) {
+        this.throttleDecreaseFactor = throttleDecreaseFactor;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+}
@@ -0,0 +1,252 @@
+package com.novel.search.embedding;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import com.novel.book.dto.resp.BookEsRespDto;
+import com.novel.common.constant.EsConsts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 书籍向量生成：全量同步与 MQ 增量同步共用。
+ * <ol>
+ *     <li>对"书名/作者/简介"文本计算摘要，与 ES 中已有文档的 {@code embeddingHash} 一致时直接复用已有向量，不调用模型；</li>
+ *     <li>其余文本按 {@code batchSize} 合并为一次 {@link EmbeddingModel#embed(List)} 调用；</li>
+ *     <li>每次调用前从 {@link AdaptiveRateLimiter} 取令牌，429 时降速并重试，替代固定 {@code Thread.sleep}。</li>
+ * </ol>
+ * 指标：
+ * <ul>
+ *     <li>{@code novel.search.embedding.docs} —— {@code result=embedded|reused|failed}，其速率即吞吐（docs/sec）；</li>
+ *     <li>{@code novel.search.embedding.calls} —— 模型调用 {@code result=success|throttled|failed}；</li>
+ *     <li>{@code novel.search.embedding.calls.saved} —— 相比逐本调用省下的次数 {@code reason=unchanged|batched}；</li>
+ *     <li>{@code novel.search.embedding.rate} —— 限流器当前速率。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class BookEmbeddingService {
+
+    public static final String METRIC_DOCS = "novel.search.embedding.docs";
+    public static final String METRIC_CALLS = "novel.search.embedding.calls";
+    public static final String METRIC_SAVED = "novel.search.embedding.calls.saved";
+
+    private static final int TOO_MANY_REQUESTS = HttpStatus.TOO_MANY_REQUESTS.value();
+
+    private final EmbeddingModel embeddingModel;
+    private final ElasticsearchClient elasticsearchClient;
+    private final BookEmbeddingProperties properties;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+
+    public BookEmbeddingService(EmbeddingModel embeddingModel,
+                                ElasticsearchClient elasticsearchClient,
+                                BookEmbeddingProperties properties,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.embeddingModel = embeddingModel;
+        this.elasticsearchClient = elasticsearchClient;
+        this.properties = properties;
+        this.rateLimiter = new AdaptiveRateLimiter(properties.getInitialPermitsPerSecond(),
+                properties.getMinPermitsPerSecond(), properties.getMaxPermitsPerSecond(),
+                properties.getIncreasePerSecond(), properties.getThrottleDecreaseFactor());
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.batchTimer = Timer.builder("novel.search.embedding.batch")
+                .description("Duration of one batched embedding model call")
+                .register(meterRegistry);
+        Gauge.builder("novel.search.embedding.rate", rateLimiter, AdaptiveRateLimiter::getRate)
+                .description("Current embedding calls per second allowed by the adaptive limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 为书籍填充 {@code embedding} 与 {@code embeddingHash}。
+     * 生成失败的书籍两者均为 null，调用方照常写入文本字段，下次变更时再重试向量化。
+     */
+    public void embed(List<BookEsRespDto> books) {
+        if (books == null || books.isEmpty()) {
+            return;
+        }
+        Map<String, BookEsRespDto> existing = loadExisting(books);
+        List<BookEsRespDto> pending = new ArrayList<>();
+        List<String> pendingTexts = new ArrayList<>();
+        int reused = 0;
+        for (BookEsRespDto book : books) {
+            String text = buildText(book);
+            String hash = hash(text);
+            BookEsRespDto old = existing.get(book.getId().toString());
+            if (old != null && hash.equals(old.getEmbeddingHash()) && old.getEmbedding() != null) {
+                book.setEmbedding(old.getEmbedding());
+                book.setEmbeddingHash(hash);
+                reused++;
+                continue;
+            }
+            book.setEmbedding(null);
+            book.setEmbeddingHash(hash);
+            pending.add(book);
+            pendingTexts.add(text);
+        }
+        if (reused > 0) {
+            meterRegistry.counter(METRIC_DOCS, "result", "reused").increment(reused);
+            meterRegistry.counter(METRIC_SAVED, "reason", "unchanged").increment(reused);
+        }
+
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, pending.size());
+            List<BookEsRespDto> batch = pending.subList(from, to);
+            List<float[]> vectors = embedBatch(pendingTexts.subList(from, to));
+            if (vectors == null || vectors.size() != batch.size()) {
+                batch.forEach(book -> book.setEmbeddingHash(null));
+                meterRegistry.counter(METRIC_DOCS, "result", "failed").increment(batch.size());
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setEmbedding(toList(vectors.get(i)));
+            }
+            meterRegistry.counter(METRIC_DOCS, "result", "embedded").increment(batch.size());
+            if (batch.size() > 1) {
+                meterRegistry.counter(METRIC_SAVED, "reason", "batched").increment(batch.size() - 1);
+            }
+        }
+        log.debug(">>> 书籍向量生成完成，总数={}，复用={}，调用模型={}", books.size(), reused, pending.size());
+    }
+
+    /**
+     * 单批调用模型；429 时降速重试，其他异常直接放弃本批
+     */
+    private List<float[]> embedBatch(List<String> texts) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimiter.acquire();
+                List<float[]> vectors = batchTimer.recordCallable(() -> embeddingModel.embed(texts));
+                rateLimiter.onSuccess();
+                meterRegistry.counter(METRIC_CALLS, "result", "success").increment();
+                return vectors;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                if (isThrottled(e)) {
+                    rateLimiter.onThrottled();
+                    meterRegistry.counter(METRIC_CALLS, "result", "throttled").increment();
+                    if (attempt < properties.getMaxRetries()) {
+                        log.warn(">>> 向量模型限流(429)，降速至 {}/s 后重试，批大小={}，第 {} 次",
+                                String.format("%.2f", rateLimiter.getRate()), texts.size(), attempt + 1);
+                        continue;
+                    }
+                }
+                meterRegistry.counter(METRIC_CALLS, "result", "failed").increment();
+                log.error(">>> 批量向量生成失败，将只保存文本字段。批大小={}", texts.size(), e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 只取 ES 中已有文档的向量与摘要；查询失败时全部按未命中处理
+     */
+    private Map<String, BookEsRespDto> loadExisting(List<BookEsRespDto> books) {
+        Map<String, BookEsRespDto> result = new HashMap<>(books.size() * 2);
+        List<String> ids = books.stream().map(book -> book.getId().toString()).distinct().toList();
+        try {
+            MgetResponse<BookEsRespDto> response = elasticsearchClient.mget(m -> m
+                    .index(EsConsts.BookIndex.INDEX_NAME)
+                    .ids(ids)
+                    .sourceIncludes(EsConsts.BookIndex.FIELD_EMBEDDING, EsConsts.BookIndex.FIELD_EMBEDDING_HASH),
+                    BookEsRespDto.class);
+            for (MultiGetResponseItem<BookEsRespDto> item : response.docs()) {
+                if (item.isResult() && item.result().found() && item.result().source() != null) {
+                    result.put(item.result().id(), item.result().source());
+                }
+            }
+        } catch (Exception e) {
+            log.warn(">>> 查询 ES 已有向量失败，本批全部重新生成。数量={}", ids.size(), e);
+        }
+        return result;
+    }
+
+    private String buildText(BookEsRespDto book) {
+        // 组合书名、作者和简介作为向量化内容
+        String text = "书名:" + book.getBookName() +
+                "; 作者:" + book.getAuthorName() +
+                "; 简介:" + book.getBookDesc();
+        int maxLength = properties.getMaxTextLength();
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+
+    private String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Objects.toString(properties.getTextVersion(), "").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 按 HTTP 状态判断是否被限流：RestClient/WebClient 抛出的异常直接带状态码；DashScope 经 Spring AI
+     * {@code RetryUtils} 的错误处理器转成 {@link TransientAiException}/{@link NonTransientAiException}，
+     * 消息固定以状态码开头（{@code "429 TOO_MANY_REQUESTS - ..."}），只解析开头的状态码，不在消息中任意匹配。
+     */
+    private static boolean isThrottled(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof HttpStatusCodeException http) {
+                return http.getStatusCode().value() == TOO_MANY_REQUESTS;
+            }
+            if (t instanceof WebClientResponseException http) {
+                return http.getStatusCode().value() == TOO_MANY_REQUESTS;
+            }
+            if (t instanceof TransientAiException || t instanceof NonTransientAiException) {
+                return leadingStatus(t.getMessage()) == TOO_MANY_REQUESTS;
+            }
+        }
+        return false;
+    }
+
+    private static int leadingStatus(String message) {
+        if (message == null || message.length() < 3) {
+            return -1;
+        }
+        if (message.length() > 3 && Character.isDigit(message.charAt(3))) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(message.substring(0, 3));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static List<Float> toList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float v : vector) {
+            list.add(v);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,50 @@
+package com.novel.search.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novel.search.config.HybridSearchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 搜索关键词向量缓存：热门搜索反复出现，按规范化关键词（去首尾空白、合并连续空白、小写）缓存向量，
+ * 命中时省去一次模型调用；同一关键词并发未命中时只调用一次模型。
+ */
+@Component
+public class QueryEmbeddingCache {
+
+    private final EmbeddingModel embeddingModel;
+    private final Cache<String, float[]> cache;
+
+    public QueryEmbeddingCache(EmbeddingModel embeddingModel,
+                               HybridSearchProperties properties,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.embeddingModel = embeddingModel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getQueryEmbeddingCacheSize())
+                .expireAfterWrite(Duration.ofMinutes(properties.getQueryEmbeddingCacheTtlMinutes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new),
+                cache, "queryEmbedding");
+    }
+
+    /**
+     * @return 关键词向量（调用方不得修改返回的数组）
+     */
+    public float[] embed(String keyword) {
+        String normalized = normalize(keyword);
+        return cache.get(normalized, embeddingModel::embed);
+    }
+
+    static String normalize(String keyword) {
+        return keyword.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,4 +1,63 @@
 package com.novel.search.feign;
 
+import com.novel.ai.dto.req.AuditExperienceUpsertReqDto;
+import com.novel.ai.dto.resp.AuditExperienceUpsertRespDto;
+import com.novel.ai.feign.AiFeign;
+import com.novel.book.dto.resp.ContentAuditRespDto;
+import com.novel.book.feign.BookFeign;
+import com.novel.common.constant.ErrorCodeEnum;
+import com.novel.common.resp.RestResp;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 审核经验导入用到的远程调用：从 novel-book 拉取人审终审记录，推送给 novel-ai 写入判例向量库。
+ * 失败时抛出异常，由调用方区分"已无数据"与"本批失败"
+ */
+@Component
+@RequiredArgsConstructor
 public class AuditFeignManager {
+
+    private final BookFeign bookFeign;
+    private final AiFeign aiFeign;
+
+    /**
+     * 拉取 ID 大于 {@code maxId} 的下一批审核经验
+     */
+    public List<ContentAuditRespDto> listNextAuditExperienceOrThrow(Long maxId) {
+        RestResp<List<ContentAuditRespDto>> resp = bookFeign.listNextAuditExperience(maxId);
+        if (Objects.equals(ErrorCodeEnum.OK.getCode(), resp.getCode())) {
+            return resp.getData() == null ? new ArrayList<>(0) : resp.getData();
+        }
+        throw new IllegalStateException("listNextAuditExperience 调用失败，maxId=" + maxId
+                + "，Code=" + resp.getCode() + "，Msg=" + resp.getMessage());
+    }
+
+    /**
+     * 根据 ID 批量拉取审核经验；已不满足导入条件的记录不返回
+     */
+    public List<ContentAuditRespDto> listAuditExperienceByIdsOrThrow(List<Long> auditIds) {
+        RestResp<List<ContentAuditRespDto>> resp = bookFeign.listAuditExperienceByIds(auditIds);
+        if (Objects.equals(ErrorCodeEnum.OK.getCode(), resp.getCode())) {
+            return resp.getData() == null ? new ArrayList<>(0) : resp.getData();
+        }
+        throw new IllegalStateException("listAuditExperienceByIds 调用失败，数量=" + auditIds.size()
+                + "，Code=" + resp.getCode() + "，Msg=" + resp.getMessage());
+    }
+
+    /**
+     * 通过 novel-ai 的判例写入接口入库，与在线沉淀走同一条写入链路（同一索引、同一文档结构）
+     */
+    public AuditExperienceUpsertRespDto upsertAuditExperienceOrThrow(List<AuditExperienceUpsertReqDto> experiences) {
+        RestResp<AuditExperienceUpsertRespDto> resp = aiFeign.upsertAuditExperience(experiences, false);
+        if (Objects.equals(ErrorCodeEnum.OK.getCode(), resp.getCode()) && resp.getData() != null) {
+            return resp.getData();
+        }
+        throw new IllegalStateException("upsertAuditExperience 调用失败，数量=" + experiences.size()
+                + "，Code=" + resp.getCode() + "，Msg=" + resp.getMessage());
+    }
 }
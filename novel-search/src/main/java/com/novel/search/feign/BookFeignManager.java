@@ -36,6 +36,32 @@ public class BookFeignManager {
         return new ArrayList<>(0);
     }
 
+    /**
+     * 与 {@link #listEsBooks} 相同，但调用失败时抛出异常而不是返回空列表，
+     * 供全量重建区分"已无数据"与"本批失败"，失败时保留断点
+     */
+    public List<BookEsRespDto> listEsBooksOrThrow(Long maxBookId) {
+        RestResp<List<BookEsRespDto>> listRestResp = bookFeign.listNextEsBooks(maxBookId);
+        if (Objects.equals(ErrorCodeEnum.OK.getCode(), listRestResp.getCode())) {
+            return listRestResp.getData() == null ? new ArrayList<>(0) : listRestResp.getData();
+        }
+        throw new IllegalStateException("listNextEsBooks 调用失败，maxBookId=" + maxBookId
+                + "，Code=" + listRestResp.getCode() + "，Msg=" + listRestResp.getMessage());
+    }
+
+    /**
+     * 根据 ID 批量获取 ES 书籍数据；返回中缺少的书籍表示已删除或未审核通过。
+     * 调用失败时抛出异常，避免把"服务不可用"误判为"书籍不存在"而删除索引
+     */
+    public List<BookEsRespDto> listEsBooksByIds(List<Long> bookIds) {
+        RestResp<List<BookEsRespDto>> resp = bookFeign.listEsBooksByIds(bookIds);
+        if (Objects.equals(ErrorCodeEnum.OK.getCode(), resp.getCode())) {
+            return resp.getData() == null ? new ArrayList<>(0) : resp.getData();
+        }
+        throw new IllegalStateException("listEsBooksByIds 调用失败，数量=" + bookIds.size()
+                + "，Code=" + resp.getCode() + "，Msg=" + resp.getMessage());
+    }
+
     /**
      * 根据 ID 获取 ES 书籍数据
      */
@@ -0,0 +1,57 @@
+package com.novel.search.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 审核经验导入断点，存放在 {@code audit_experience_ingest_checkpoint} 索引中
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditExperienceIngestCheckpoint {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+
+    /**
+     * 之前所有记录均已处理（写入、跳过或记为失败）的最大审核记录ID，重跑时从其后开始拉取
+     */
+    private Long lastId;
+
+    /**
+     * 累计写入向量库的判例数
+     */
+    private Long indexedCount;
+
+    /**
+     * 累计因缺少标签/规则被跳过的记录数
+     */
+    private Long skippedCount;
+
+    /**
+     * 累计重试后仍失败的记录数
+     */
+    private Long failedCount;
+
+    /**
+     * 重试后仍失败的 auditId（最多 {@code maxRecordedFailures} 条），每次运行开始时重推；放不下的批次不推进水位
+     */
+    private List<Long> failedIds;
+
+    /**
+     * RUNNING / DONE
+     */
+    private String status;
+
+    /**
+     * 更新时间（毫秒时间戳）
+     */
+    private Long updateTime;
+
+}
@@ -0,0 +1,88 @@
+package com.novel.search.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 审核经验判例导入参数：拉取 → 推送 novel-ai 写入两段流水线，按连续水位保存断点。
+ */
+@ConfigurationProperties(prefix = "novel.search.audit-ingest")
+public class AuditExperienceIngestProperties {
+
+    /**
+     * 拉取阶段与推送阶段之间的有界队列容量（批）。
+     */
+    private int queueCapacity = 4;
+
+    /**
+     * 并发推送的批数。novel-ai 侧每批会合并调用 embedding 模型，并发过高会触发模型限流。
+     */
+    private int concurrency = 2;
+
+    /**
+     * 单次推送给 novel-ai 的判例数，拉取到的一页会按此拆分。
+     */
+    private int pushBatchSize = 50;
+
+    /**
+     * 失败记录的最大重试次数（只重推失败的那部分记录）。
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 重试退避基数（毫秒），第 n 次重试等待 n 倍。
+     */
+    private long retryBackoffMillis = 2000;
+
+    /**
+     * 断点中最多保留的失败 auditId 数；某批的失败记录放不下时导入中断，水位停在该批之前。
+     */
+    private int maxRecordedFailures = 1000;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getPushBatchSize() {
+        return pushBatchSize;
+    }
+
+    public void setPushBatchSize(int pushBatchSize) {
+        this.pushBatchSize = pushBatchSize;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public int getMaxRecordedFailures() {
+        return maxRecordedFailures;
+    }
+
+    public void setMaxRecordedFailures(int maxRecordedFailures) {
+        this.maxRecordedFailures = maxRecordedFailures;
+    }
+}
@@ -0,0 +1,110 @@
+package com.novel.search.listener;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novel.book.dto.mq.BookVisitCountMqDto;
+import com.novel.common.constant.AmqpConsts;
+import com.novel.common.constant.EsConsts;
+import com.novel.search.cache.BookIndexGeneration;
+import com.novel.search.reindex.BookReindexChangeLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 书籍访问量变更 MQ 监听器
+ * 一条消息一批书籍，以 bulk 局部 update 只改 visitCount 字段：
+ * 不回查书籍服务、不重新生成向量，全量文档与向量只在内容变更（{@link BookChangeMqListener}）时重建。
+ * 全量重建进行中时先记下这些书籍，重建切换别名前后从已落库的数据回放到新索引
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+    topic = AmqpConsts.BookChangeMq.TOPIC,
+    selectorExpression = AmqpConsts.BookChangeMq.TAG_VISIT_COUNT,
+    consumerGroup = AmqpConsts.BookChangeMq.CONSUMER_GROUP_ES_VISIT_COUNT
+)
+public class BookVisitCountMqListener implements RocketMQListener<String> {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+    private final BookIndexGeneration bookIndexGeneration;
+    private final BookReindexChangeLog bookReindexChangeLog;
+
+    @Override
+    public void onMessage(String message) {
+        if (message == null || message.isEmpty()) {
+            return;
+        }
+
+        List<BookVisitCountMqDto> items;
+        try {
+            items = objectMapper.readValue(message, new TypeReference<List<BookVisitCountMqDto>>() {});
+        } catch (JsonProcessingException e) {
+            log.error(">>> [MQ] 访问量消息格式错误，无法解析: {}", message, e);
+            // 格式错误不需要重试，直接返回
+            return;
+        }
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        bookReindexChangeLog.recordIfReindexing(items.stream().map(BookVisitCountMqDto::getBookId).toList());
+
+        BulkRequest.Builder bulk = new BulkRequest.Builder();
+        for (BookVisitCountMqDto item : items) {
+            Map<String, Object> doc = Map.of(EsConsts.BookIndex.FIELD_VISIT_COUNT, item.getVisitCount());
+            bulk.operations(op -> op.update(u -> u
+                    .index(EsConsts.BookIndex.INDEX_NAME)
+                    .id(item.getBookId().toString())
+                    .action(a -> a.doc(doc))
+            ));
+        }
+
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(bulk.build());
+        } catch (Exception e) {
+            log.error(">>> [MQ] ES 访问量批量更新失败，数量={}", items.size(), e);
+            // 抛出异常，RocketMQ 会整批重试；visitCount 为绝对值，重复更新无副作用
+            throw new RuntimeException("ES访问量同步失败", e);
+        }
+
+        // 按访问量排序的搜索结果随之变化
+        bookIndexGeneration.onIndexChanged();
+
+        int missing = 0;
+        int failed = 0;
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() == null) {
+                    continue;
+                }
+                if (item.status() == 404) {
+                    // ES 中尚无该书（新书全量索引未完成），等全量同步带上最新访问量
+                    missing++;
+                } else {
+                    failed++;
+                    log.warn(">>> [MQ] ES 访问量更新失败。bookId={}, status={}, reason={}",
+                            item.id(), item.status(), item.error().reason());
+                }
+            }
+        }
+        log.info(">>> [MQ] ES 访问量批量更新完成，数量={}，不存在={}，失败={}，耗时={}ms",
+                items.size(), missing, failed, response.took());
+        if (failed > 0) {
+            throw new RuntimeException("ES访问量同步部分失败，失败数量：" + failed);
+        }
+    }
+}
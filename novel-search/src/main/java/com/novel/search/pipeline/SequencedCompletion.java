@@ -0,0 +1,33 @@
+package com.novel.search.pipeline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按批次序号（从 0 连续编号）推进的连续水位：批次乱序完成，只有之前所有批次都完成，才把它们按序交还给调用方推进断点。
+ * 非线程安全，由调用方在推进断点的同一把锁内使用。
+ *
+ * @param <T> 批次完成时登记的内容
+ */
+public final class SequencedCompletion<T> {
+
+    private final Map<Long, T> completed = new HashMap<>();
+    private long nextSeq;
+
+    /**
+     * 登记序号为 {@code seq} 的批次完成
+     *
+     * @return 因此变为连续的批次（按序号升序），为空表示水位不动
+     */
+    public List<T> complete(long seq, T item) {
+        completed.put(seq, item);
+        List<T> advanced = new ArrayList<>();
+        for (T next = completed.remove(nextSeq); next != null; next = completed.remove(nextSeq)) {
+            advanced.add(next);
+            nextSeq++;
+        }
+        return advanced;
+    }
+}
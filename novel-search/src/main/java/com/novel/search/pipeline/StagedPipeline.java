@@ -0,0 +1,195 @@
+package com.novel.search.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单线程拉取 + 若干段并行处理的批量流水线，供全量重建、判例导入等按 ID 游标分批处理的任务共用。
+ * <p>
+ * 每段之前是一个有界队列，队列满时上游阻塞形成背压；每段有自己的线程数，处理完的批次原样交给下一段。
+ * 任一线程抛出异常即记为失败：拉取停止，下游各段取走剩余批次但不再处理（避免上游阻塞在满队列上），
+ * 全部线程退出后 {@link #run()} 返回 false。批次会乱序完成，断点推进用 {@link SequencedCompletion}。
+ * <pre>{@code
+ * boolean completed = new StagedPipeline<Batch>("book-reindex")
+ *         .source(sink -> { ... sink.put(batch) ... })
+ *         .stage(embedParallelism, fetchQueueCapacity, this::embed)
+ *         .stage(bulkParallelism, bulkQueueCapacity, this::bulk)
+ *         .run();
+ * }</pre>
+ *
+ * @param <T> 批次类型
+ */
+@Slf4j
+public final class StagedPipeline<T> {
+
+    private static final Object POISON = new Object();
+
+    private final String name;
+    private final List<Stage<T>> stages = new ArrayList<>();
+    private Source<T> source;
+
+    /**
+     * @param name 线程名前缀，同时用于日志
+     */
+    public StagedPipeline(String name) {
+        this.name = name;
+    }
+
+    public StagedPipeline<T> source(Source<T> source) {
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * 追加一段处理
+     *
+     * @param parallelism   本段线程数
+     * @param queueCapacity 本段之前的队列容量（批）
+     */
+    public StagedPipeline<T> stage(int parallelism, int queueCapacity, Handler<T> handler) {
+        stages.add(new Stage<>(Math.max(1, parallelism), Math.max(1, queueCapacity), handler));
+        return this;
+    }
+
+    /**
+     * 运行到拉取结束且所有批次处理完，或任一处出错后各线程退出
+     *
+     * @return 全部正常结束返回 true
+     */
+    public boolean run() {
+        if (source == null || stages.isEmpty()) {
+            throw new IllegalStateException("流水线 " + name + " 缺少拉取或处理阶段");
+        }
+        List<BlockingQueue<Object>> queues = new ArrayList<>(stages.size());
+        int threads = 1;
+        for (Stage<T> stage : stages) {
+            queues.add(new ArrayBlockingQueue<>(stage.queueCapacity()));
+            threads += stage.parallelism();
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        AtomicInteger threadSeq = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            executor.execute(() -> runSource(queues.get(0), failure));
+            for (int i = 0; i < stages.size(); i++) {
+                int index = i;
+                AtomicInteger workers = new AtomicInteger(stages.get(i).parallelism());
+                for (int w = 0; w < stages.get(i).parallelism(); w++) {
+                    executor.execute(() -> runStage(index, queues, failure, workers));
+                }
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            failure.compareAndSet(null, e);
+        }
+        Throwable error = failure.get();
+        if (error != null) {
+            log.error(">>> 流水线 {} 异常", name, error);
+            return false;
+        }
+        return true;
+    }
+
+    private void runSource(BlockingQueue<Object> out, AtomicReference<Throwable> failure) {
+        try {
+            source.produce(batch -> {
+                if (failure.get() != null) {
+                    return false;
+                }
+                out.put(batch);
+                return true;
+            });
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            putPoison(out, stages.get(0).parallelism());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runStage(int index, List<BlockingQueue<Object>> queues, AtomicReference<Throwable> failure,
+                          AtomicInteger workers) {
+        BlockingQueue<Object> in = queues.get(index);
+        BlockingQueue<Object> out = index + 1 < queues.size() ? queues.get(index + 1) : null;
+        Handler<T> handler = stages.get(index).handler();
+        try {
+            for (Object item = in.take(); item != POISON; item = in.take()) {
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    handler.handle((T) item);
+                    if (out != null) {
+                        out.put(item);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            if (out != null && workers.decrementAndGet() == 0) {
+                putPoison(out, stages.get(index + 1).parallelism());
+            }
+        }
+    }
+
+    private static void putPoison(BlockingQueue<Object> queue, int count) {
+        for (int i = 0; i < count; i++) {
+            try {
+                queue.put(POISON);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 拉取阶段：在单个线程中运行，把批次依次交给 {@link Sink}
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void produce(Sink<T> sink) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Sink<T> {
+        /**
+         * 放入下一段的队列，队列满时阻塞
+         *
+         * @return 流水线已失败时返回 false，拉取应立即结束
+         */
+        boolean put(T batch) throws InterruptedException;
+    }
+
+    /**
+     * 处理一个批次；抛出异常即整个流水线失败
+     */
+    @FunctionalInterface
+    public interface Handler<T> {
+        void handle(T batch) throws Exception;
+    }
+
+    private record Stage<T>(int parallelism, int queueCapacity, Handler<T> handler) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.novel.search.reindex;
+
+import com.novel.common.constant.CacheConsts;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 全量重建期间的增量变更记录。
+ * <p>
+ * 导入期间线上的增量写入（书籍变更、访问量）仍写别名指向的旧索引。写入前若重建标记存在，先把书籍 ID 记入 Redis Set，
+ * 重建在切换别名前后各回放一次：取出这些 ID，从 novel-book 重新拉取后写入新版本索引。
+ * 标记与集合都带 TTL（导入期间随断点续期），重建进程崩溃后不会永久残留。
+ */
+@Component
+@RequiredArgsConstructor
+public class BookReindexChangeLog {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BookReindexProperties properties;
+
+    /**
+     * 开始或续跑重建：写入标记；新开的重建先清掉上一次遗留的记录
+     */
+    public void begin(String target, boolean fresh) {
+        if (fresh) {
+            stringRedisTemplate.delete(CacheConsts.BOOK_REINDEX_CHANGED_SET);
+        }
+        stringRedisTemplate.opsForValue().set(CacheConsts.BOOK_REINDEX_MARKER_KEY, target, ttl());
+    }
+
+    /**
+     * 导入仍在进行，延长标记有效期
+     */
+    public void keepAlive() {
+        stringRedisTemplate.expire(CacheConsts.BOOK_REINDEX_MARKER_KEY, ttl());
+    }
+
+    /**
+     * 增量写入前调用：重建进行中则记下这些书籍 ID。Redis 异常直接抛出，由调用方按写入失败重试，避免漏记
+     */
+    public void recordIfReindexing(Collection<Long> bookIds) {
+        if (bookIds.isEmpty() || !Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConsts.BOOK_REINDEX_MARKER_KEY))) {
+            return;
+        }
+        stringRedisTemplate.opsForSet().add(CacheConsts.BOOK_REINDEX_CHANGED_SET,
+                bookIds.stream().map(String::valueOf).toArray(String[]::new));
+        stringRedisTemplate.expire(CacheConsts.BOOK_REINDEX_CHANGED_SET, ttl());
+    }
+
+    /**
+     * 取出（同时移除）至多 {@code count} 个记录的书籍 ID，没有时返回空列表
+     */
+    public List<Long> poll(int count) {
+        List<String> popped = stringRedisTemplate.opsForSet().pop(CacheConsts.BOOK_REINDEX_CHANGED_SET, count);
+        List<Long> bookIds = new ArrayList<>();
+        if (popped != null) {
+            popped.forEach(id -> bookIds.add(Long.valueOf(id)));
+        }
+        return bookIds;
+    }
+
+    /**
+     * 回放失败的书籍 ID 放回集合，下次回放再试
+     */
+    public void requeue(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.opsForSet().add(CacheConsts.BOOK_REINDEX_CHANGED_SET,
+                bookIds.stream().map(String::valueOf).toArray(String[]::new));
+        stringRedisTemplate.expire(CacheConsts.BOOK_REINDEX_CHANGED_SET, ttl());
+    }
+
+    /**
+     * 别名已切换：删除标记，此后增量写入经别名直接写入新索引
+     */
+    public void end() {
+        stringRedisTemplate.delete(CacheConsts.BOOK_REINDEX_MARKER_KEY);
+    }
+
+    private Duration ttl() {
+        return Duration.ofHours(Math.max(1, properties.getChangeLogTtlHours()));
+    }
+}
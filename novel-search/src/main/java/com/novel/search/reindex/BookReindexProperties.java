@@ -0,0 +1,166 @@
+package com.novel.search.reindex;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍索引全量重建参数：拉取 → 向量 → 写入三段流水线，写入新版本索引后原子切换别名。
+ */
+@ConfigurationProperties(prefix = "novel.search.reindex")
+public class BookReindexProperties {
+
+    /**
+     * 拉取阶段与向量阶段之间的有界队列容量（批）。
+     */
+    private int fetchQueueCapacity = 4;
+
+    /**
+     * 向量阶段与写入阶段之间的有界队列容量（批）。
+     */
+    private int bulkQueueCapacity = 4;
+
+    /**
+     * 向量阶段并行线程数。
+     */
+    private int embedParallelism = 2;
+
+    /**
+     * 写入阶段并行线程数。
+     */
+    private int bulkParallelism = 2;
+
+    /**
+     * 导入期间新索引的 refresh_interval，-1 表示关闭刷新。
+     */
+    private String bulkRefreshInterval = "-1";
+
+    /**
+     * 导入期间新索引的副本数。
+     */
+    private int bulkReplicas = 0;
+
+    /**
+     * 导入完成后恢复的 refresh_interval（读取不到旧索引设置时使用）。
+     */
+    private String refreshInterval = "1s";
+
+    /**
+     * 导入完成后恢复的副本数（读取不到旧索引设置时使用）。
+     */
+    private int replicas = 1;
+
+    /**
+     * 别名切换后是否删除旧版本索引。
+     */
+    private boolean deleteOldIndex = true;
+
+    /**
+     * 拉取必须到达线上索引的最大书籍 ID 才允许切换别名；线上最大 ID 的书确已下架时可临时关闭。
+     */
+    private boolean requireServingMaxId = true;
+
+    /**
+     * 回放导入期间增量变更时每批的书籍数。
+     */
+    private int replayBatchSize = 200;
+
+    /**
+     * 重建标记与变更记录的有效期（小时），导入期间随断点续期；重建进程崩溃后到期自动清除。
+     */
+    private long changeLogTtlHours = 24;
+
+    public int getFetchQueueCapacity() {
+        return fetchQueueCapacity;
+    }
+
+    public void setFetchQueueCapacity(int fetchQueueCapacity) {
+        this.fetchQueueCapacity = fetchQueueCapacity;
+    }
+
+    public int getBulkQueueCapacity() {
+        return bulkQueueCapacity;
+    }
+
+    public void setBulkQueueCapacity(int bulkQueueCapacity) {
+        this.bulkQueueCapacity = bulkQueueCapacity;
+    }
+
+    public int getEmbedParallelism() {
+        return embedParallelism;
+    }
+
+    public void setEmbedParallelism(int embedParallelism) {
+        this.embedParallelism = embedParallelism;
+    }
+
+    public int getBulkParallelism() {
+        return bulkParallelism;
+    }
+
+    public void setBulkParallelism(int bulkParallelism) {
+        this.bulkParallelism = bulkParallelism;
+    }
+
+    public String getBulkRefreshInterval() {
+        return bulkRefreshInterval;
+    }
+
+    public void setBulkRefreshInterval(String bulkRefreshInterval) {
+        this.bulkRefreshInterval = bulkRefreshInterval;
+    }
+
+    public int getBulkReplicas() {
+        return bulkReplicas;
+    }
+
+    public void setBulkReplicas(int bulkReplicas) {
+        this.bulkReplicas = bulkReplicas;
+    }
+
+    public String getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(String refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(int replicas) {
+        this.replicas = replicas;
+    }
+
+    public boolean isDeleteOldIndex() {
+        return deleteOldIndex;
+    }
+
+    public void setDeleteOldIndex(boolean deleteOldIndex) {
+        this.deleteOldIndex = deleteOldIndex;
+    }
+
+    public boolean isRequireServingMaxId() {
+        return requireServingMaxId;
+    }
+
+    public void setRequireServingMaxId(boolean requireServingMaxId) {
+        this.requireServingMaxId = requireServingMaxId;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    public long getChangeLogTtlHours() {
+        return changeLogTtlHours;
+    }
+
+    public void setChangeLogTtlHours(long changeLogTtlHours) {
+        this.changeLogTtlHours = changeLogTtlHours;
+    }
+}
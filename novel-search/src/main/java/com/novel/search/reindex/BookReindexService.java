@@ -0,0 +1,420 @@
+package com.novel.search.reindex;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.novel.book.dto.resp.BookEsRespDto;
+import com.novel.common.constant.EsConsts;
+import com.novel.search.cache.BookIndexGeneration;
+import com.novel.search.embedding.BookEmbeddingService;
+import com.novel.search.feign.BookFeignManager;
+import com.novel.search.pipeline.SequencedCompletion;
+import com.novel.search.pipeline.StagedPipeline;
+import com.novel.search.sync.BookEsBatchWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 书籍索引全量重建：写入新的版本索引 {@code book_v{时间}}，完成后原子切换别名 {@code book}，切换前线上读写不受影响。
+ * <p>
+ * 流水线：
+ * <ol>
+ *     <li>拉取（单线程，按 maxId 游标调用 {@code listNextEsBooks}）→ 有界队列；</li>
+ *     <li>向量（{@code embedParallelism} 个线程，复用 {@link BookEmbeddingService} 的摘要跳过与批量调用）→ 有界队列；</li>
+ *     <li>写入（{@code bulkParallelism} 个线程，Bulk 写入版本索引）。</li>
+ * </ol>
+ * 流水线由 {@link StagedPipeline} 驱动，队列满时上游阻塞，形成背压。批次乱序完成，断点只推进到"之前所有批次均已写入"的最大 ID，
+ * 进程崩溃或任一阶段失败后重新触发，从断点续跑到同一个版本索引。
+ * <p>
+ * 导入期间关闭 refresh、副本数置 0；完成后恢复为旧索引的设置（读取不到时用配置值），刷新后再切换别名。
+ * 导入期间的增量变更仍写入旧索引，同时由 {@link BookReindexChangeLog} 记下变更的书籍；切换别名前把这些书回放到新索引，
+ * 切换后删除重建标记再回放一次，补上切换瞬间仍写到旧索引的变更。
+ * <p>
+ * 拉取返回空列表即视为已无数据。为防止 novel-book 异常被当成「已拉完」、把残缺的新索引切上线并删掉完整的旧索引，
+ * 开始前先读出线上索引的最大书籍 ID，拉取在此之前就返回空时按失败处理（断点保留，重新触发续跑）。
+ */
+@Slf4j
+@Component
+public class BookReindexService {
+
+    private static final String CHECKPOINT_ID = EsConsts.BookIndex.INDEX_NAME;
+    private static final DateTimeFormatter VERSION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final BookFeignManager bookFeignManager;
+    private final ElasticsearchClient elasticsearchClient;
+    private final BookEmbeddingService bookEmbeddingService;
+    private final BookReindexProperties properties;
+    private final BookIndexGeneration bookIndexGeneration;
+    private final BookReindexChangeLog changeLog;
+    private final BookEsBatchWriter bookEsBatchWriter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BookReindexService(BookFeignManager bookFeignManager,
+                              ElasticsearchClient elasticsearchClient,
+                              BookEmbeddingService bookEmbeddingService,
+                              BookReindexProperties properties,
+                              BookIndexGeneration bookIndexGeneration,
+                              BookReindexChangeLog changeLog,
+                              BookEsBatchWriter bookEsBatchWriter) {
+        this.bookFeignManager = bookFeignManager;
+        this.elasticsearchClient = elasticsearchClient;
+        this.bookEmbeddingService = bookEmbeddingService;
+        this.properties = properties;
+        this.bookIndexGeneration = bookIndexGeneration;
+        this.changeLog = changeLog;
+        this.bookEsBatchWriter = bookEsBatchWriter;
+    }
+
+    /**
+     * 执行一次全量重建（同一实例内不可并发）
+     *
+     * @return 是否完成并切换别名
+     */
+    public boolean reindex() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            log.warn(">>> 全量重建正在执行中，忽略本次触发");
+            return false;
+        }
+        try {
+            return doReindex();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean doReindex() throws IOException {
+        long startTime = System.currentTimeMillis();
+        ReindexCheckpoint checkpoint = loadCheckpoint();
+        String target;
+        Progress progress;
+        if (checkpoint != null && ReindexCheckpoint.STATUS_RUNNING.equals(checkpoint.getStatus())
+                && indexExists(checkpoint.getTargetIndex())) {
+            target = checkpoint.getTargetIndex();
+            progress = new Progress(target, nullToZero(checkpoint.getLastId()), nullToZero(checkpoint.getIndexedCount()));
+            log.info(">>> 全量重建从断点续跑，targetIndex={}，lastId={}，已写入={}", target,
+                    progress.lastId, progress.indexedCount);
+            changeLog.begin(target, false);
+        } else {
+            target = EsConsts.BookIndex.INDEX_VERSION_PREFIX + LocalDateTime.now().format(VERSION_FORMATTER);
+            // 先写标记再建索引、开始拉取：此后的增量写入都会被记下
+            changeLog.begin(target, true);
+            createIndex(target);
+            progress = new Progress(target, 0, 0);
+            saveCheckpoint(progress, ReindexCheckpoint.STATUS_RUNNING);
+            log.info(">>> 全量重建开始，targetIndex={}", target);
+        }
+
+        Map<String, String> servingSettings = readServingSettings();
+        long expectedMaxId = properties.isRequireServingMaxId() ? readServingMaxId() : 0;
+        putSettings(target, properties.getBulkRefreshInterval(), String.valueOf(properties.getBulkReplicas()));
+
+        if (!runPipeline(target, progress, expectedMaxId)) {
+            log.error(">>> 全量重建失败，断点已保存，targetIndex={}，lastId={}，已写入={}，耗时={}ms",
+                    target, progress.lastId, progress.indexedCount, System.currentTimeMillis() - startTime);
+            return false;
+        }
+
+        int replayed;
+        try {
+            replayed = replayChanges(target);
+        } catch (Exception e) {
+            log.error(">>> 回放导入期间的增量变更失败，断点已保存，重新触发续跑，targetIndex={}", target, e);
+            return false;
+        }
+
+        putSettings(target, servingSettings.get("refresh_interval"), servingSettings.get("number_of_replicas"));
+        elasticsearchClient.indices().refresh(r -> r.index(target));
+        swapAlias(target);
+        changeLog.end();
+        try {
+            replayed += replayChanges(target);
+        } catch (Exception e) {
+            log.error(">>> 别名切换后回放增量变更失败，这些书籍等下次变更补齐，targetIndex={}", target, e);
+        }
+        bookIndexGeneration.onIndexChanged();
+        saveCheckpoint(progress, ReindexCheckpoint.STATUS_DONE);
+        log.info(">>> 全量重建完成并切换别名，targetIndex={}，总写入={}，回放增量变更={}，耗时={}ms",
+                target, progress.indexedCount, replayed, System.currentTimeMillis() - startTime);
+        return true;
+    }
+
+    /**
+     * 把导入期间记下的书籍从 novel-book 重新拉取并写入新索引，直到记录取空；失败的书籍放回记录后抛出
+     *
+     * @return 回放的书籍数
+     */
+    private int replayChanges(String target) throws IOException {
+        int replayed = 0;
+        int batchSize = Math.max(1, properties.getReplayBatchSize());
+        while (true) {
+            List<Long> bookIds = changeLog.poll(batchSize);
+            if (bookIds.isEmpty()) {
+                return replayed;
+            }
+            Set<Long> failed;
+            try {
+                failed = bookEsBatchWriter.write(bookIds, target);
+            } catch (IOException | RuntimeException e) {
+                changeLog.requeue(bookIds);
+                throw e;
+            }
+            if (!failed.isEmpty()) {
+                changeLog.requeue(failed);
+                throw new IllegalStateException("回放增量变更写入失败，bookIds=" + failed);
+            }
+            replayed += bookIds.size();
+        }
+    }
+
+    /**
+     * 运行三段流水线，所有阶段正常结束返回 true；任一阶段异常时各阶段尽快退出并返回 false
+     */
+    private boolean runPipeline(String target, Progress progress, long expectedMaxId) {
+        return new StagedPipeline<Batch>("book-reindex")
+                .source(sink -> fetch(progress.lastId, expectedMaxId, sink))
+                .stage(properties.getEmbedParallelism(), properties.getFetchQueueCapacity(),
+                        batch -> bookEmbeddingService.embed(batch.books()))
+                .stage(properties.getBulkParallelism(), properties.getBulkQueueCapacity(), batch -> {
+                    bulk(target, batch.books());
+                    if (progress.complete(batch)) {
+                        saveCheckpoint(progress, ReindexCheckpoint.STATUS_RUNNING);
+                        changeLog.keepAlive();
+                    }
+                })
+                .run();
+    }
+
+    private void fetch(long startId, long expectedMaxId, StagedPipeline.Sink<Batch> out) throws InterruptedException {
+        long maxId = startId;
+        long seq = 0;
+        while (true) {
+            List<BookEsRespDto> books = bookFeignManager.listEsBooksOrThrow(maxId);
+            if (books.isEmpty()) {
+                if (maxId < expectedMaxId) {
+                    throw new IllegalStateException("拉取在 maxId=" + maxId + " 处提前结束，线上索引最大书籍ID="
+                            + expectedMaxId + "，疑似 novel-book 异常，不切换别名");
+                }
+                return;
+            }
+            maxId = books.get(books.size() - 1).getId();
+            if (!out.put(new Batch(seq++, books, maxId))) {
+                return;
+            }
+        }
+    }
+
+    private void bulk(String target, List<BookEsRespDto> books) throws IOException {
+        BulkRequest.Builder br = new BulkRequest.Builder();
+        for (BookEsRespDto book : books) {
+            br.operations(op -> op
+                    .index(idx -> idx
+                            .index(target)
+                            .id(book.getId().toString())
+                            .document(book)
+                    )
+            );
+        }
+        BulkResponse result = elasticsearchClient.bulk(br.timeout(Time.of(t -> t.time("30s"))).build());
+        if (result.errors()) {
+            for (BulkResponseItem item : result.items()) {
+                if (item.error() != null) {
+                    throw new IllegalStateException("Bulk 写入失败，文档ID=" + item.id()
+                            + "，错误类型=" + item.error().type() + "，错误原因=" + item.error().reason());
+                }
+            }
+        }
+        log.debug(">>> 全量重建写入 {} 条，耗时={}ms", books.size(), result.took());
+    }
+
+    private void createIndex(String index) throws IOException {
+        try (InputStream in = new ClassPathResource("es/book_index.json").getInputStream()) {
+            elasticsearchClient.indices().create(c -> c.withJson(in).index(index));
+        }
+    }
+
+    private boolean indexExists(String index) throws IOException {
+        return index != null && elasticsearchClient.indices().exists(e -> e.index(index)).value();
+    }
+
+    private void putSettings(String index, String refreshInterval, String replicas) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s
+                        .refreshInterval(Time.of(t -> t.time(refreshInterval)))
+                        .numberOfReplicas(replicas)
+                )
+        );
+    }
+
+    /**
+     * 读取当前线上索引的 refresh_interval 与副本数，导入完成后恢复为相同设置
+     */
+    private Map<String, String> readServingSettings() {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("refresh_interval", properties.getRefreshInterval());
+        settings.put("number_of_replicas", String.valueOf(properties.getReplicas()));
+        try {
+            if (!indexExists(EsConsts.BookIndex.INDEX_NAME)) {
+                return settings;
+            }
+            GetIndicesSettingsResponse response = elasticsearchClient.indices()
+                    .getSettings(g -> g.index(EsConsts.BookIndex.INDEX_NAME));
+            for (IndexState state : response.result().values()) {
+                IndexSettings index = state.settings() == null ? null : state.settings().index();
+                if (index == null) {
+                    continue;
+                }
+                if (index.refreshInterval() != null && index.refreshInterval().isTime()) {
+                    settings.put("refresh_interval", index.refreshInterval().time());
+                }
+                if (index.numberOfReplicas() != null) {
+                    settings.put("number_of_replicas", index.numberOfReplicas());
+                }
+            }
+        } catch (Exception e) {
+            log.warn(">>> 读取线上索引设置失败，导入完成后使用配置值恢复，settings={}", settings, e);
+        }
+        return settings;
+    }
+
+    /**
+     * 线上索引中的最大书籍 ID，作为本次拉取至少应到达的位置；线上索引不存在或为空时返回 0（不校验）
+     */
+    private long readServingMaxId() throws IOException {
+        if (!indexExists(EsConsts.BookIndex.INDEX_NAME)) {
+            return 0;
+        }
+        SearchResponse<BookEsRespDto> response = elasticsearchClient.search(s -> s
+                .index(EsConsts.BookIndex.INDEX_NAME)
+                .size(1)
+                .sort(o -> o.field(f -> f.field(EsConsts.BookIndex.FIELD_ID).order(SortOrder.Desc)))
+                .source(src -> src.filter(f -> f.includes(EsConsts.BookIndex.FIELD_ID))), BookEsRespDto.class);
+        if (response.hits().hits().isEmpty() || response.hits().hits().get(0).source() == null) {
+            return 0;
+        }
+        Long id = response.hits().hits().get(0).source().getId();
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * 原子切换：别名指向新索引，同时摘除旧索引；旧的 {@code book} 若是实体索引（首次迁移到别名），在同一请求中删除
+     */
+    private void swapAlias(String target) throws IOException {
+        String alias = EsConsts.BookIndex.INDEX_NAME;
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(a -> a.add(add -> add.index(target).alias(alias))));
+        List<String> oldIndices = new ArrayList<>();
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+            Set<String> current = elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet();
+            for (String index : current) {
+                if (!index.equals(target)) {
+                    actions.add(Action.of(a -> a.remove(remove -> remove.index(index).alias(alias))));
+                    oldIndices.add(index);
+                }
+            }
+        } else if (indexExists(alias)) {
+            actions.add(Action.of(a -> a.removeIndex(remove -> remove.index(alias))));
+        }
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        log.info(">>> 别名 {} 已切换到 {}，摘除旧索引 {}", alias, target, oldIndices);
+
+        if (properties.isDeleteOldIndex()) {
+            for (String index : oldIndices) {
+                try {
+                    elasticsearchClient.indices().delete(d -> d.index(index));
+                } catch (Exception e) {
+                    log.warn(">>> 删除旧版本索引失败，index={}", index, e);
+                }
+            }
+        }
+    }
+
+    private ReindexCheckpoint loadCheckpoint() throws IOException {
+        try {
+            GetResponse<ReindexCheckpoint> response = elasticsearchClient.get(g -> g
+                    .index(EsConsts.BookIndex.REINDEX_CHECKPOINT_INDEX)
+                    .id(CHECKPOINT_ID), ReindexCheckpoint.class);
+            return response.found() ? response.source() : null;
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private void saveCheckpoint(Progress progress, String status) throws IOException {
+        // 多个写入线程都会保存断点，整体加锁保证后写入的断点不会比先写入的旧
+        synchronized (progress) {
+            ReindexCheckpoint checkpoint = ReindexCheckpoint.builder()
+                    .targetIndex(progress.target)
+                    .lastId(progress.lastId)
+                    .indexedCount(progress.indexedCount)
+                    .status(status)
+                    .updateTime(System.currentTimeMillis())
+                    .build();
+            elasticsearchClient.index(i -> i
+                    .index(EsConsts.BookIndex.REINDEX_CHECKPOINT_INDEX)
+                    .id(CHECKPOINT_ID)
+                    .document(checkpoint));
+        }
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    record Batch(long seq, List<BookEsRespDto> books, long lastId) {
+    }
+
+    /**
+     * 按批次序号推进的连续水位：只有之前所有批次都写入成功，断点才前移
+     */
+    static final class Progress {
+
+        private final String target;
+        private final SequencedCompletion<Batch> completion = new SequencedCompletion<>();
+        private long lastId;
+        private long indexedCount;
+
+        Progress(String target, long lastId, long indexedCount) {
+            this.target = target;
+            this.lastId = lastId;
+            this.indexedCount = indexedCount;
+        }
+
+        /**
+         * @return 水位是否前移
+         */
+        synchronized boolean complete(Batch batch) {
+            List<Batch> advanced = completion.complete(batch.seq(), batch);
+            for (Batch next : advanced) {
+                lastId = next.lastId();
+                indexedCount += next.books().size();
+            }
+            return !advanced.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.novel.search.reindex;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 全量重建断点，存放在 {@code book_reindex_checkpoint} 索引中
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexCheckpoint {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_DONE = "DONE";
+
+    /**
+     * 写入中的版本索引
+     */
+    private String targetIndex;
+
+    /**
+     * 已连续写入成功的最大书籍ID，续跑时从其后开始拉取
+     */
+    private Long lastId;
+
+    /**
+     * 已写入文档数
+     */
+    private Long indexedCount;
+
+    /**
+     * RUNNING / DONE
+     */
+    private String status;
+
+    /**
+     * 更新时间（毫秒时间戳）
+     */
+    private Long updateTime;
+
+}
@@ -1,8 +1,13 @@
 package com.novel.search.service;
 
+import java.io.IOException;
+
 public interface AuditExperienceSyncService {
     /**
-     * 全量同步已审核的数据到 ES 向量库
+     * 导入人审终审的审核经验到 novel-ai 判例向量库（同一实例内不可并发）
+     *
+     * @param restart true 时忽略断点从头导入；否则从上次水位之后续跑/增量导入
+     * @return 是否拉取到末尾正常结束；失败记录不影响返回值，记录在断点中
      */
-    void syncAllAuditExperienceToEs();
+    boolean syncAllAuditExperienceToEs(boolean restart) throws IOException;
 }
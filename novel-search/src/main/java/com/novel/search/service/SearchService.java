@@ -4,8 +4,7 @@ import com.novel.book.dto.req.BookSearchReqDto;
 import com.novel.book.dto.resp.BookInfoRespDto;
 import com.novel.common.resp.PageRespDto;
 import com.novel.common.resp.RestResp;
-import com.novel.search.dto.req.AuditExperienceSearchReqDto;
-import com.novel.search.dto.resp.AuditExperienceSearchRespDto;
+import com.novel.search.dto.resp.BookSuggestRespDto;
 
 import java.util.List;
 
@@ -13,5 +12,8 @@ public interface SearchService {
 
     RestResp<PageRespDto<BookInfoRespDto>> searchBooks(BookSearchReqDto bookSearchReqDto);
 
-    RestResp<List<AuditExperienceSearchRespDto>> searchAuditExperience(AuditExperienceSearchReqDto reqDto);
+    /**
+     * 搜索框联想（书名、作者名前缀）
+     */
+    RestResp<List<BookSuggestRespDto>> suggest(String keyword, int size);
 }
@@ -1,121 +1,404 @@
 package com.novel.search.service.impl;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import com.novel.ai.dto.req.AuditExperienceUpsertReqDto;
+import com.novel.ai.dto.resp.AuditExperienceUpsertRespDto;
 import com.novel.book.dto.resp.ContentAuditRespDto;
-import com.novel.book.feign.BookFeign;
-import com.novel.common.resp.RestResp;
+import com.novel.common.constant.EsConsts;
+import com.novel.search.feign.AuditFeignManager;
+import com.novel.search.ingest.AuditExperienceIngestCheckpoint;
+import com.novel.search.ingest.AuditExperienceIngestProperties;
+import com.novel.search.pipeline.SequencedCompletion;
+import com.novel.search.pipeline.StagedPipeline;
 import com.novel.search.service.AuditExperienceSyncService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 审核经验判例导入：把 novel-book 中人审终审的审核记录推送给 novel-ai 写入判例向量库。
+ * <p>
+ * 写入统一走 novel-ai 的 {@code /audit-experience/upsert}（即 {@code AuditExperienceIndexer}），与在线沉淀共用
+ * 同一索引、同一文档结构和同一 embedding 批量调用，novel-ai 的本地兜底索引也随之更新，不会出现两条写入链路各写各的。
+ * <p>
+ * 流水线：
+ * <ol>
+ *     <li>拉取（单线程，按 maxId 游标调用 {@code listNextAuditExperience}）→ 按 {@code pushBatchSize} 拆批 → 有界队列；</li>
+ *     <li>推送（{@code concurrency} 个线程），novel-ai 返回逐条重试后仍失败的 auditId，只对这些记录退避重推，
+ *         超过 {@code maxRetries} 记入断点的失败列表，不中断整个导入；整批调用在重试后仍失败（novel-ai 不可用），
+ *         或失败列表已容不下该批的失败记录（超过 {@code maxRecordedFailures}），则中断导入，该批不计入水位，重新触发时从它开始。</li>
+ * </ol>
+ * 每次运行开始先重推断点中记录的失败 auditId，成功的移出失败列表。
+ * 流水线由 {@link StagedPipeline} 驱动。断点按批次序号推进连续水位，保存在 {@code audit_experience_ingest_checkpoint} 索引；完成后再次触发从水位之后增量导入，
+ * {@code restart=true} 时从头全量导入（判例写入是幂等 upsert）。拉取失败或进程崩溃时保留断点，重新触发即续跑。
+ * <p>
+ * 指标：{@code novel.search.audit.ingest.records}（{@code result=indexed|skipped|failed|retried}，其速率即吞吐）、
+ * {@code novel.search.audit.ingest.push}（单批推送耗时）、{@code novel.search.audit.ingest.watermark}（已完成水位ID）。
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuditExperienceSyncServiceImpl implements AuditExperienceSyncService {
 
-    private final BookFeign bookFeign;
-    private final EmbeddingModel embeddingModel;
+    private static final String CHECKPOINT_ID = "audit_experience_ingest";
+    private static final String METRIC_RECORDS = "novel.search.audit.ingest.records";
+    private static final String SOURCE_TYPE_BOOK = "book";
+    private static final String SOURCE_TYPE_CHAPTER = "chapter";
+
+    private final AuditFeignManager auditFeignManager;
     private final ElasticsearchClient elasticsearchClient;
+    private final AuditExperienceIngestProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer pushTimer;
+    private final AtomicLong watermark = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean();
 
-    private static final String INDEX_NAME = "audit_experience_index";
+    public AuditExperienceSyncServiceImpl(AuditFeignManager auditFeignManager,
+                                          ElasticsearchClient elasticsearchClient,
+                                          AuditExperienceIngestProperties properties,
+                                          ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.auditFeignManager = auditFeignManager;
+        this.elasticsearchClient = elasticsearchClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.pushTimer = Timer.builder("novel.search.audit.ingest.push")
+                .description("Duration of one audit experience batch pushed to novel-ai")
+                .register(meterRegistry);
+        Gauge.builder("novel.search.audit.ingest.watermark", watermark, AtomicLong::get)
+                .description("Highest audit id below which every record has been processed")
+                .register(meterRegistry);
+    }
 
     @Override
-    public void syncAllAuditExperienceToEs() {
-        log.info("开始全量同步审核经验到 ES 向量库...");
-        
-        Long maxId = 0L;
-        int totalCount = 0;
-        
+    public boolean syncAllAuditExperienceToEs(boolean restart) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            log.warn(">>> 审核经验导入正在执行中，忽略本次触发");
+            return false;
+        }
+        try {
+            return doSync(restart);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean doSync(boolean restart) throws IOException {
+        long startTime = System.currentTimeMillis();
+        AuditExperienceIngestCheckpoint checkpoint = restart ? null : loadCheckpoint();
+        Progress progress = checkpoint == null
+                ? new Progress(0, 0, 0, 0, List.of(), properties.getMaxRecordedFailures())
+                : new Progress(nullToZero(checkpoint.getLastId()), nullToZero(checkpoint.getIndexedCount()),
+                        nullToZero(checkpoint.getSkippedCount()), nullToZero(checkpoint.getFailedCount()),
+                        checkpoint.getFailedIds(), properties.getMaxRecordedFailures());
+        long startIndexed = progress.indexedCount;
+        watermark.set(progress.lastId);
+        log.info(">>> 审核经验导入开始，restart={}，从 lastId={} 之后拉取，已写入={}",
+                restart, progress.lastId, progress.indexedCount);
+        saveCheckpoint(progress, AuditExperienceIngestCheckpoint.STATUS_RUNNING);
+
+        boolean completed = retryRecordedFailures(progress) && runPipeline(progress);
+        saveCheckpoint(progress, completed
+                ? AuditExperienceIngestCheckpoint.STATUS_DONE : AuditExperienceIngestCheckpoint.STATUS_RUNNING);
+        long cost = Math.max(1, System.currentTimeMillis() - startTime);
+        log.info(">>> 审核经验导入{}，lastId={}，本次写入={}，累计写入={}，跳过={}，失败={}，耗时={}ms，吞吐={}/s",
+                completed ? "完成" : "中断（断点已保存，可重新触发续跑）", progress.lastId,
+                progress.indexedCount - startIndexed, progress.indexedCount, progress.skippedCount,
+                progress.failedCount, cost, String.format("%.1f", (progress.indexedCount - startIndexed) * 1000.0 / cost));
+        if (!progress.failedIds.isEmpty()) {
+            log.warn(">>> 审核经验导入有 {} 条记录重试后仍失败，auditIds={}", progress.failedCount, progress.failedIds);
+        }
+        return completed;
+    }
+
+    /**
+     * 运行两段流水线，拉取正常结束返回 true；拉取失败时各阶段尽快退出并返回 false
+     */
+    private boolean runPipeline(Progress progress) {
+        return new StagedPipeline<Batch>("audit-ingest")
+                .source(sink -> fetch(progress.lastId, sink))
+                .stage(properties.getConcurrency(), properties.getQueueCapacity(), batch -> {
+                    BatchResult result = push(batch);
+                    if (progress.complete(batch, result)) {
+                        watermark.set(progress.lastId);
+                        saveCheckpoint(progress, AuditExperienceIngestCheckpoint.STATUS_RUNNING);
+                    }
+                })
+                .run();
+    }
+
+    private void fetch(long startId, StagedPipeline.Sink<Batch> out) throws InterruptedException {
+        long maxId = startId;
+        long seq = 0;
+        int chunkSize = Math.max(1, properties.getPushBatchSize());
         while (true) {
-            try {
-                RestResp<List<ContentAuditRespDto>> resp = bookFeign.listNextAuditExperience(maxId);
-                if (!resp.isOk() || resp.getData() == null || resp.getData().isEmpty()) {
+            List<ContentAuditRespDto> page = auditFeignManager.listNextAuditExperienceOrThrow(maxId);
+            if (page.isEmpty()) {
+                return;
+            }
+            // 按原始记录拆批，批的 lastId 取批内最后一条原始记录，跳过的记录也随批推进水位
+            for (int from = 0; from < page.size(); from += chunkSize) {
+                List<ContentAuditRespDto> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+                if (!out.put(new Batch(seq++, toExperiences(chunk), chunk.size(), chunk.get(chunk.size() - 1).getId()))) {
+                    return;
+                }
+            }
+            maxId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 重推断点中记录的失败 auditId：重新从 novel-book 拉取（已不满足导入条件的直接移出），推送成功的移出失败列表
+     *
+     * @return 调用失败（novel-book / novel-ai 不可用）返回 false，本次导入中断
+     */
+    private boolean retryRecordedFailures(Progress progress) throws IOException {
+        List<Long> failedIds = progress.failedIdsSnapshot();
+        if (failedIds.isEmpty()) {
+            return true;
+        }
+        log.info(">>> 审核经验导入先重推上次失败的 {} 条记录", failedIds.size());
+        int chunkSize = Math.max(1, properties.getPushBatchSize());
+        try {
+            for (int from = 0; from < failedIds.size(); from += chunkSize) {
+                List<Long> ids = failedIds.subList(from, Math.min(from + chunkSize, failedIds.size()));
+                List<ContentAuditRespDto> audits = auditFeignManager.listAuditExperienceByIdsOrThrow(ids);
+                BatchResult result = push(new Batch(-1, toExperiences(audits), audits.size(), -1));
+                Set<Long> stillFailed = new HashSet<>(result.failedIds);
+                List<Long> resolved = ids.stream().filter(id -> !stillFailed.contains(id)).toList();
+                progress.resolveFailures(resolved, result.indexed);
+            }
+        } catch (Exception e) {
+            log.error(">>> 重推失败记录时调用异常，本次导入中断", e);
+            return false;
+        } finally {
+            saveCheckpoint(progress, AuditExperienceIngestCheckpoint.STATUS_RUNNING);
+        }
+        log.info(">>> 失败记录重推完成，仍失败 {} 条", progress.failedIdsSnapshot().size());
+        return true;
+    }
+
+    /**
+     * 推送一批并只重推失败的记录；整批调用失败（novel-ai 不可用）同样按退避重试。
+     * 用尽重试后：仅部分记录写入失败时把这些记录记为失败并返回；最后一次仍是整批调用失败则抛出异常，
+     * 由流水线中断导入，避免水位越过从未写入的记录
+     */
+    private BatchResult push(Batch batch) throws InterruptedException {
+        BatchResult result = new BatchResult();
+        result.skipped = batch.skipped();
+        meterRegistry.counter(METRIC_RECORDS, "result", "skipped").increment(result.skipped);
+        List<AuditExperienceUpsertReqDto> remaining = batch.experiences();
+        Exception callFailure = null;
+        for (int attempt = 0; !remaining.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                if (attempt > properties.getMaxRetries()) {
+                    if (callFailure != null) {
+                        throw new IllegalStateException("审核经验推送整批调用重试 " + properties.getMaxRetries()
+                                + " 次后仍失败，数量=" + remaining.size(), callFailure);
+                    }
+                    remaining.forEach(experience -> result.failedIds.add(experience.getAuditId()));
+                    meterRegistry.counter(METRIC_RECORDS, "result", "failed").increment(remaining.size());
+                    log.error(">>> 审核经验推送重试 {} 次后仍失败，记入断点。auditIds={}",
+                            properties.getMaxRetries(), result.failedIds);
                     break;
                 }
-                
-                List<ContentAuditRespDto> auditList = resp.getData();
-                processBatch(auditList);
-                
-                totalCount += auditList.size();
-                maxId = auditList.get(auditList.size() - 1).getId();
-                
-                log.info("已同步 {} 条记录，当前 maxId: {}", totalCount, maxId);
+                meterRegistry.counter(METRIC_RECORDS, "result", "retried").increment(remaining.size());
+                Thread.sleep(properties.getRetryBackoffMillis() * attempt);
+            }
+            List<AuditExperienceUpsertReqDto> sending = remaining;
+            try {
+                AuditExperienceUpsertRespDto resp = pushTimer.recordCallable(
+                        () -> auditFeignManager.upsertAuditExperienceOrThrow(sending));
+                callFailure = null;
+                result.indexed += resp.getAccepted();
+                result.skipped += resp.getSkipped();
+                meterRegistry.counter(METRIC_RECORDS, "result", "indexed").increment(resp.getAccepted());
+                meterRegistry.counter(METRIC_RECORDS, "result", "skipped").increment(resp.getSkipped());
+                Set<Long> failed = resp.getFailedAuditIds() == null
+                        ? Set.of() : new HashSet<>(resp.getFailedAuditIds());
+                remaining = sending.stream().filter(experience -> failed.contains(experience.getAuditId())).toList();
+                if (!remaining.isEmpty()) {
+                    log.warn(">>> 审核经验推送有 {} 条写入失败，第 {} 次重试这些记录", remaining.size(), attempt + 1);
+                }
             } catch (Exception e) {
-                log.error("同步批次数据到 ES 失败, maxId: {}", maxId, e);
-                break;
+                callFailure = e;
+                log.warn(">>> 审核经验推送失败，第 {} 次重试整批，数量={}，原因={}",
+                        attempt + 1, sending.size(), e.getMessage());
             }
         }
-        
-        log.info("全量同步审核经验到 ES 向量库完成！共处理 {} 条记录", totalCount);
+        return result;
     }
 
-    private void processBatch(List<ContentAuditRespDto> auditList) throws Exception {
-        BulkRequest.Builder br = new BulkRequest.Builder();
-
-        for (ContentAuditRespDto audit : auditList) {
-            // 过滤掉尚未提炼标签的数据（保证只同步高质量经验）
-            if (audit.getViolationLabel() == null || audit.getViolationLabel().trim().isEmpty()) {
-                continue;
+    private List<AuditExperienceUpsertReqDto> toExperiences(List<ContentAuditRespDto> audits) {
+        List<AuditExperienceUpsertReqDto> experiences = new ArrayList<>(audits.size());
+        for (ContentAuditRespDto audit : audits) {
+            AuditExperienceUpsertReqDto experience = toExperience(audit);
+            if (experience != null) {
+                experiences.add(experience);
             }
+        }
+        return experiences;
+    }
 
-            // 组合提炼后的核心字段作为向量化内容
-            String textToEmbed = "标签:" + audit.getViolationLabel() + 
-                               " 规则:" + audit.getAuditRule() + 
-                               " 片段:" + audit.getKeySnippet();
+    /**
+     * 转为 novel-ai 判例写入请求；没有违规标签或规则/片段均为空的记录不构成判例，返回 null
+     */
+    private AuditExperienceUpsertReqDto toExperience(ContentAuditRespDto audit) {
+        if (StringUtils.isBlank(audit.getViolationLabel())
+                || (StringUtils.isBlank(audit.getAuditRule()) && StringUtils.isBlank(audit.getKeySnippet()))) {
+            return null;
+        }
+        AuditExperienceUpsertReqDto experience = new AuditExperienceUpsertReqDto();
+        experience.setAuditId(audit.getId());
+        // content_audit.source_type：0-小说基本信息表 1-小说章节表
+        experience.setSourceType(Integer.valueOf(1).equals(audit.getSourceType()) ? SOURCE_TYPE_CHAPTER : SOURCE_TYPE_BOOK);
+        experience.setSourceId(audit.getSourceId());
+        experience.setAuditStatus(audit.getAuditStatus());
+        experience.setViolationLabel(audit.getViolationLabel());
+        experience.setAuditRule(audit.getAuditRule());
+        experience.setKeySnippet(audit.getKeySnippet());
+        experience.setConfidence(audit.getAiConfidence());
+        if (audit.getCreateTime() != null) {
+            experience.setCreatedAtMs(audit.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return experience;
+    }
 
-            // 调用大模型生成文本的向量 (Embedding)
-            float[] embeddingArray = embeddingModel.embed(textToEmbed);
-            List<Float> vector = new java.util.ArrayList<>();
-            for (float v : embeddingArray) {
-                vector.add(v);
-            }
-            
-            // 添加延迟，避免触发大模型 API 的流控限制 (HTTP 429)
-            try {
-                Thread.sleep(500); // 延迟 500ms
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
+    private AuditExperienceIngestCheckpoint loadCheckpoint() throws IOException {
+        try {
+            GetResponse<AuditExperienceIngestCheckpoint> response = elasticsearchClient.get(g -> g
+                    .index(EsConsts.AuditExperienceIngest.CHECKPOINT_INDEX)
+                    .id(CHECKPOINT_ID), AuditExperienceIngestCheckpoint.class);
+            return response.found() ? response.source() : null;
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return null;
             }
+            throw e;
+        }
+    }
 
-            // 构建存入 ES 的文档结构（极简模式，专为 RAG 优化）
-            Map<String, Object> doc = new HashMap<>();
-            doc.put("id", audit.getId().toString()); // 保留ID用于幂等更新和溯源
-            doc.put("audit_status", audit.getAuditStatus()); // 必须保留：告诉大模型这个案例是“通过”还是“不通过”
-            doc.put("violation_label", audit.getViolationLabel()); // 必须保留：分类标签
-            doc.put("key_snippet", audit.getKeySnippet()); // 必须保留：核心争议片段
-            doc.put("audit_rule", audit.getAuditRule()); // 必须保留：判例规则
-            doc.put("content_vector", vector); // 必须保留：用于KNN检索
-
-            // 添加到批量请求中
-            br.operations(op -> op
-                .index(idx -> idx
-                    .index(INDEX_NAME)
-                    .id(audit.getId().toString())
-                    .document(doc)
-                )
-            );
-        }
-
-        // 执行批量写入
-        BulkRequest request = br.build();
-        if (!request.operations().isEmpty()) {
-            BulkResponse result = elasticsearchClient.bulk(request);
-            if (result.errors()) {
-                log.error("批量写入 ES 存在错误: {}", result.items().stream()
-                        .filter(item -> item.error() != null)
-                        .map(item -> item.error().reason())
-                        .findFirst().orElse("Unknown error"));
-            } else {
-                log.info("成功批量写入 {} 条记录到 ES", auditList.size());
+    private void saveCheckpoint(Progress progress, String status) throws IOException {
+        // 多个推送线程都会保存断点，整体加锁保证后写入的断点不会比先写入的旧
+        synchronized (progress) {
+            AuditExperienceIngestCheckpoint checkpoint = AuditExperienceIngestCheckpoint.builder()
+                    .lastId(progress.lastId)
+                    .indexedCount(progress.indexedCount)
+                    .skippedCount(progress.skippedCount)
+                    .failedCount(progress.failedCount)
+                    .failedIds(new ArrayList<>(progress.failedIds))
+                    .status(status)
+                    .updateTime(System.currentTimeMillis())
+                    .build();
+            elasticsearchClient.index(i -> i
+                    .index(EsConsts.AuditExperienceIngest.CHECKPOINT_INDEX)
+                    .id(CHECKPOINT_ID)
+                    .document(checkpoint));
+        }
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * @param records 批内原始记录数，与判例数之差即拉取时被过滤掉的记录数
+     * @param lastId  批内最后一条原始记录的ID
+     */
+    record Batch(long seq, List<AuditExperienceUpsertReqDto> experiences, int records, long lastId) {
+
+        int skipped() {
+            return records - experiences.size();
+        }
+    }
+
+    static final class BatchResult {
+        private long lastId;
+        private long indexed;
+        private long skipped;
+        private final List<Long> failedIds = new ArrayList<>();
+    }
+
+    /**
+     * 按批次序号推进的连续水位：只有之前所有批次都处理完成，断点才前移
+     */
+    static final class Progress {
+
+        private final SequencedCompletion<BatchResult> completion = new SequencedCompletion<>();
+        private final int maxRecordedFailures;
+        private final List<Long> failedIds;
+        /** 某批失败记录超出失败列表上限后置位，此后不再推进水位 */
+        private boolean overflowed;
+        private long lastId;
+        private long indexedCount;
+        private long skippedCount;
+        private long failedCount;
+
+        Progress(long lastId, long indexedCount, long skippedCount, long failedCount,
+                 List<Long> failedIds, int maxRecordedFailures) {
+            this.lastId = lastId;
+            this.indexedCount = indexedCount;
+            this.skippedCount = skippedCount;
+            this.failedCount = failedCount;
+            this.failedIds = failedIds == null ? new ArrayList<>() : new ArrayList<>(failedIds);
+            this.maxRecordedFailures = maxRecordedFailures;
+        }
+
+        synchronized List<Long> failedIdsSnapshot() {
+            return new ArrayList<>(failedIds);
+        }
+
+        /**
+         * 重推成功（或已不需要导入）的记录移出失败列表
+         */
+        synchronized void resolveFailures(List<Long> resolved, long indexed) {
+            int before = failedIds.size();
+            failedIds.removeAll(resolved);
+            failedCount = Math.max(0, failedCount - (before - failedIds.size()));
+            indexedCount += indexed;
+        }
+
+        /**
+         * 按序推进水位；某批的失败记录放不进失败列表时停在该批之前并抛出异常中断导入，
+         * 水位不会越过未能记录的失败记录，重新触发时先重推已记录的失败再从该批续跑
+         *
+         * @return 水位是否前移
+         */
+        synchronized boolean complete(Batch batch, BatchResult result) {
+            if (overflowed) {
+                return false;
+            }
+            result.lastId = batch.lastId();
+            List<BatchResult> advanced = completion.complete(batch.seq(), result);
+            boolean moved = false;
+            for (BatchResult nextResult : advanced) {
+                if (failedIds.size() + nextResult.failedIds.size() > maxRecordedFailures) {
+                    overflowed = true;
+                    throw new IllegalStateException("审核经验导入失败记录超过上限 " + maxRecordedFailures
+                            + "，水位停在 lastId=" + lastId + "，本批失败 auditIds=" + nextResult.failedIds);
+                }
+                lastId = nextResult.lastId;
+                indexedCount += nextResult.indexed;
+                skippedCount += nextResult.skipped;
+                failedCount += nextResult.failedIds.size();
+                failedIds.addAll(nextResult.failedIds);
+                moved = true;
             }
+            return moved;
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.novel.search.service.impl;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
@@ -8,7 +9,9 @@ import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
 import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import co.elastic.clients.json.JsonData;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
@@ -19,25 +22,80 @@ import com.novel.book.dto.resp.BookInfoRespDto;
 import com.novel.common.resp.PageRespDto;
 import com.novel.common.resp.RestResp;
 import com.novel.common.constant.EsConsts;
-import com.novel.search.dto.req.AuditExperienceSearchReqDto;
-import com.novel.search.dto.resp.AuditExperienceSearchRespDto;
+import com.novel.search.dto.resp.BookSuggestRespDto;
 import com.novel.search.service.SearchService;
-import lombok.RequiredArgsConstructor;
+import com.novel.search.cache.BookSearchResultCache;
+import com.novel.search.config.HybridSearchProperties;
+import com.novel.search.cursor.BookSearchCursor;
+import com.novel.search.cursor.BookSearchCursorCodec;
+import com.novel.search.cursor.HybridSearchSessionCache;
+import com.novel.search.cursor.SearchCursorProperties;
+import com.novel.search.embedding.QueryEmbeddingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SearchServiceImpl implements SearchService {
 
+    private static final String METRIC_HYBRID_LEG = "novel.search.hybrid.leg";
+
     private final ElasticsearchClient esClient;
-    private final EmbeddingModel embeddingModel;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final HybridSearchProperties hybridSearchProperties;
+    private final SearchCursorProperties searchCursorProperties;
+    private final BookSearchCursorCodec bookSearchCursorCodec;
+    private final HybridSearchSessionCache hybridSearchSessionCache;
+    private final BookSearchResultCache bookSearchResultCache;
+    /** 混合检索两路请求各占一个虚拟线程，等待 ES 期间不占用平台线程 */
+    private final ExecutorService searchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer embedLegTimer;
+    private final Timer knnLegTimer;
+    private final Timer bm25LegTimer;
+    private final Timer rrfLegTimer;
+
+    public SearchServiceImpl(ElasticsearchClient esClient,
+                             QueryEmbeddingCache queryEmbeddingCache,
+                             HybridSearchProperties hybridSearchProperties,
+                             SearchCursorProperties searchCursorProperties,
+                             BookSearchCursorCodec bookSearchCursorCodec,
+                             HybridSearchSessionCache hybridSearchSessionCache,
+                             BookSearchResultCache bookSearchResultCache,
+                             ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.esClient = esClient;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.hybridSearchProperties = hybridSearchProperties;
+        this.searchCursorProperties = searchCursorProperties;
+        this.bookSearchCursorCodec = bookSearchCursorCodec;
+        this.hybridSearchSessionCache = hybridSearchSessionCache;
+        this.bookSearchResultCache = bookSearchResultCache;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.embedLegTimer = legTimer(meterRegistry, "embed");
+        this.knnLegTimer = legTimer(meterRegistry, "knn");
+        this.bm25LegTimer = legTimer(meterRegistry, "bm25");
+        this.rrfLegTimer = legTimer(meterRegistry, "rrf");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+    }
 
     @SneakyThrows
     @Override
@@ -49,6 +107,9 @@ public class SearchServiceImpl implements SearchService {
         buildSearchCondition(condition, boolQueryBuilder);
         BoolQuery boolQuery = boolQueryBuilder.build();
 
+        // 续页游标（与当前条件不匹配时为 null，按 pageNum 处理）
+        BookSearchCursor cursor = bookSearchCursorCodec.decode(condition);
+
         // 2. 核心逻辑：判断是 Hybrid Search 还是 普通 Search
         boolean useHybridSearch = false;
         if (!StringUtils.isBlank(condition.getKeyword())) {
@@ -68,257 +129,398 @@ public class SearchServiceImpl implements SearchService {
 
         if (useHybridSearch) {
             try {
-                // --- Hybrid Search 模式（手动合并，不使用 RRF）---
-                // 分别执行 KNN 和 BM25 查询，然后在 Java 端合并结果
-
-                // A. 生成查询向量
-                float[] queryVectorArray = embeddingModel.embed(condition.getKeyword());
-                List<Float> queryVector = new ArrayList<>();
-                for (float v : queryVectorArray) {
-                    queryVector.add(v);
+                boolean continuation = cursor != null && BookSearchCursor.TYPE_HYBRID.equals(cursor.getType());
+                long pageNum = continuation ? cursor.getPageNum() : condition.getPageNum();
+                int offset = continuation ? cursor.getOffset() : (condition.getPageNum() - 1) * condition.getPageSize();
+
+                // 续页优先使用会话中已合并的候选列表，会话过期时重新召回（同一查询的召回结果基本一致）
+                if (continuation) {
+                    List<BookInfoRespDto> candidates = hybridSearchSessionCache.get(cursor.getSessionId());
+                    if (candidates != null) {
+                        return pageHybrid(condition, cursor.getSessionId(), candidates, pageNum, offset);
+                    }
                 }
 
-                // B. 执行 KNN 查询（向量检索）
                 int recallSize = Math.max(condition.getPageSize() * 3, 100); // 召回更多结果用于合并
-                SearchResponse<BookEsRespDto> knnResponse = esClient.search(s -> s
-                    .index(EsConsts.BookIndex.INDEX_NAME)
-                    .knn(knn -> knn
-                        .field("embedding")
-                        .k(recallSize)
-                        .numCandidates(Math.max(recallSize * 2, 200))
-                        .queryVector(queryVector)
-                        .filter(f -> f.bool(boolQuery))
-                    )
-                    .size(recallSize)
-                    .source(src -> src.filter(f -> f.includes("*")))
-                , BookEsRespDto.class);
-
-                // C. 执行 BM25 查询（文本检索）
-                SearchResponse<BookEsRespDto> bm25Response = esClient.search(s -> {
+                List<BookInfoRespDto> candidates = hybridSearchProperties.isRrf()
+                        // --- 单次请求，由 ES 原生 RRF 合并 ---
+                        ? recallRrf(condition, boolQuery, recallSize)
+                        // --- 两路并行请求，Java 端合并 ---
+                        : recallParallel(condition, boolQuery, recallSize);
+                String sessionId = hybridSearchSessionCache.put(candidates);
+                return pageHybrid(condition, sessionId, candidates, pageNum, offset);
+
+            } catch (Exception e) {
+                log.error("向量生成或混合检索失败，降级为普通文本搜索", e);
+                // 降级：只使用文本搜索
+                return executeTextOnlySearch(condition, boolQuery, null);
+            }
+        } else {
+            // --- 普通筛选模式 ---
+            if (cursor == null) {
+                // 分类浏览、纯筛选等请求大量重复，按检索条件走结果缓存；续页（带游标）不缓存
+                return RestResp.ok(bookSearchResultCache.get(condition,
+                        () -> executeTextOnlySearch(condition, boolQuery, null).getData()));
+            }
+            return executeTextOnlySearch(condition, boolQuery, cursor);
+        }
+    }
+
+    /**
+     * 混合检索（parallel 模式）：BM25 不依赖向量，立即发出；向量（优先查缓存）生成后再发 KNN，两路并行，耗时取两者较大值
+     *
+     * @return 按综合分数排序的全部候选
+     */
+    private List<BookInfoRespDto> recallParallel(BookSearchReqDto condition, BoolQuery boolQuery, int recallSize)
+            throws Exception {
+        // A. 执行 BM25 查询（文本检索）
+        CompletableFuture<SearchResponse<BookEsRespDto>> bm25Future = CompletableFuture.supplyAsync(
+                () -> timed(bm25LegTimer, () -> esClient.search(s -> {
                     SearchRequest.Builder builder = s.index(EsConsts.BookIndex.INDEX_NAME)
                         .query(q -> q.bool(boolQuery))
                         .size(recallSize)
+                        .source(src -> src.filter(f -> f.excludes(EsConsts.BookIndex.FIELD_EMBEDDING)))
                         .highlight(h -> h.fields(EsConsts.BookIndex.FIELD_BOOK_NAME,
                                         t -> t.preTags("<em style='color:red'>").postTags("</em>"))
                                 .fields(EsConsts.BookIndex.FIELD_AUTHOR_NAME,
                                         t -> t.preTags("<em style='color:red'>").postTags("</em>")));
                     applySort(condition, builder);
                     return builder;
-                }, BookEsRespDto.class);
-
-                // D. 手动合并结果（使用简单的分数加权）
-                Map<Long, CombinedResult> combinedMap = new HashMap<>();
-                
-                // 处理 KNN 结果（向量相似度分数）
-                List<Hit<BookEsRespDto>> knnHits = knnResponse.hits().hits();
-                for (int i = 0; i < knnHits.size(); i++) {
-                    Hit<BookEsRespDto> hit = knnHits.get(i);
-                    BookEsRespDto book = hit.source();
-                    if (book == null) continue;
-                    
-                    // KNN 分数：使用排名倒数（RRF 的简化版）
-                    double knnScore = 1.0 / (i + 1.0);
-                    CombinedResult result = combinedMap.computeIfAbsent(book.getId(), 
-                        k -> new CombinedResult(book));
-                    result.knnScore = knnScore;
-                }
+                }, BookEsRespDto.class)), searchExecutor);
+
+        // B. 生成查询向量 → C. 执行 KNN 查询（向量检索）
+        CompletableFuture<SearchResponse<BookEsRespDto>> knnFuture = CompletableFuture.supplyAsync(() -> {
+            List<Float> queryVector = timed(embedLegTimer,
+                    () -> toFloatList(queryEmbeddingCache.embed(condition.getKeyword())));
+            return timed(knnLegTimer, () -> esClient.search(s -> s
+                .index(EsConsts.BookIndex.INDEX_NAME)
+                .knn(knn -> knn
+                    .field(EsConsts.BookIndex.FIELD_EMBEDDING)
+                    .k(recallSize)
+                    .numCandidates(Math.max(recallSize * 2, 200))
+                    .queryVector(queryVector)
+                    .filter(f -> f.bool(boolQuery))
+                )
+                .size(recallSize)
+                .source(src -> src.filter(f -> f.excludes(EsConsts.BookIndex.FIELD_EMBEDDING)))
+            , BookEsRespDto.class));
+        }, searchExecutor);
+
+        SearchResponse<BookEsRespDto> knnResponse;
+        SearchResponse<BookEsRespDto> bm25Response;
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hybridSearchProperties.getLegTimeoutMillis());
+            knnResponse = knnFuture.get(hybridSearchProperties.getLegTimeoutMillis(), TimeUnit.MILLISECONDS);
+            bm25Response = bm25Future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            knnFuture.cancel(true);
+            bm25Future.cancel(true);
+            throw e;
+        }
 
-                // 处理 BM25 结果（文本匹配分数）
-                List<Hit<BookEsRespDto>> bm25Hits = bm25Response.hits().hits();
-                for (int i = 0; i < bm25Hits.size(); i++) {
-                    Hit<BookEsRespDto> hit = bm25Hits.get(i);
-                    BookEsRespDto book = hit.source();
-                    if (book == null) continue;
-                    
-                    // BM25 分数：使用排名倒数
-                    double bm25Score = 1.0 / (i + 1.0);
-                    CombinedResult result = combinedMap.computeIfAbsent(book.getId(), 
-                        k -> new CombinedResult(book));
-                    result.bm25Score = bm25Score;
-                    
-                    // 保存高亮信息（BM25 才有高亮）
-                    if (hit.highlight() != null) {
-                        if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME))) {
-                            result.book.setBookName(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME).getFirst());
-                        }
-                        if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME))) {
-                            result.book.setAuthorName(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME).getFirst());
-                        }
-                    }
-                }
+        // D. 手动合并结果（使用简单的分数加权）
+        Map<Long, CombinedResult> combinedMap = new HashMap<>();
 
-                // E. 按综合分数排序（权重：向量 0.6，文本 0.4，可根据效果调整）
-                double vectorWeight = 0.6;
-                double textWeight = 0.4;
-                
-                List<CombinedResult> sortedResults = combinedMap.values().stream()
-                    .peek(r -> r.combinedScore = r.knnScore * vectorWeight + r.bm25Score * textWeight)
-                    .sorted((a, b) -> Double.compare(b.combinedScore, a.combinedScore))
-                    .toList();
-
-                // F. 分页
-                int from = (condition.getPageNum() - 1) * condition.getPageSize();
-                int to = Math.min(from + condition.getPageSize(), sortedResults.size());
-                List<CombinedResult> pagedResults = sortedResults.subList(from, to);
-
-                // G. 转换为 DTO
-                List<BookInfoRespDto> list = pagedResults.stream()
-                    .map(r -> BookInfoRespDto.builder()
-                        .id(r.book.getId())
-                        .bookName(r.book.getBookName())
-                        .categoryName(r.book.getCategoryName())
-                        .authorName(r.book.getAuthorName())
-                        .wordCount(r.book.getWordCount())
-                        .lastChapterName(r.book.getLastChapterName())
-                        .bookStatus(r.book.getBookStatus())
-                        .picUrl(r.book.getPicUrl())
-                        .build())
-                    .collect(Collectors.toList());
-
-                long totalValue = combinedMap.size();
-                
-                return RestResp.ok(
-                    PageRespDto.of(condition.getPageNum(), condition.getPageSize(), totalValue, list));
+        // 处理 KNN 结果（向量相似度分数）
+        List<Hit<BookEsRespDto>> knnHits = knnResponse.hits().hits();
+        for (int i = 0; i < knnHits.size(); i++) {
+            Hit<BookEsRespDto> hit = knnHits.get(i);
+            BookEsRespDto book = hit.source();
+            if (book == null) continue;
 
-            } catch (Exception e) {
-                log.error("向量生成或混合检索失败，降级为普通文本搜索", e);
-                // 降级：只使用文本搜索
-                return executeTextOnlySearch(condition, boolQuery);
-            }
-        } else {
-            // --- 普通筛选模式 ---
-            return executeTextOnlySearch(condition, boolQuery);
+            // KNN 分数：使用排名倒数（RRF 的简化版）
+            double knnScore = 1.0 / (i + 1.0);
+            CombinedResult result = combinedMap.computeIfAbsent(book.getId(),
+                k -> new CombinedResult(book));
+            result.knnScore = knnScore;
         }
+
+        // 处理 BM25 结果（文本匹配分数）
+        List<Hit<BookEsRespDto>> bm25Hits = bm25Response.hits().hits();
+        for (int i = 0; i < bm25Hits.size(); i++) {
+            Hit<BookEsRespDto> hit = bm25Hits.get(i);
+            BookEsRespDto book = hit.source();
+            if (book == null) continue;
+
+            // BM25 分数：使用排名倒数
+            double bm25Score = 1.0 / (i + 1.0);
+            CombinedResult result = combinedMap.computeIfAbsent(book.getId(),
+                k -> new CombinedResult(book));
+            result.bm25Score = bm25Score;
+
+            // 保存高亮信息（BM25 才有高亮）
+            applyHighlight(hit, result.book);
+        }
+
+        // E. 按综合分数排序（权重：向量 0.6，文本 0.4，可根据效果调整）；同分按 ID，保证会话过期后重新召回的顺序一致
+        double vectorWeight = 0.6;
+        double textWeight = 0.4;
+
+        return combinedMap.values().stream()
+            .peek(r -> r.combinedScore = r.knnScore * vectorWeight + r.bm25Score * textWeight)
+            .sorted(Comparator.comparingDouble((CombinedResult r) -> r.combinedScore).reversed()
+                .thenComparing(r -> r.book.getId()))
+            .map(r -> toBookInfo(r.book))
+            .collect(Collectors.toList());
     }
 
     /**
-     * 执行纯文本搜索（无向量）
+     * 混合检索（rrf 模式）：KNN 与 BM25 放在同一个请求中，由 ES 按 Reciprocal Rank Fusion 合并，一次取回整个融合窗口
      */
-    @SneakyThrows
-    private RestResp<PageRespDto<BookInfoRespDto>> executeTextOnlySearch(
-            BookSearchReqDto condition, BoolQuery boolQuery) {
-                
-        SearchResponse<BookEsRespDto> response = esClient.search(s -> {
-            SearchRequest.Builder builder = s.index(EsConsts.BookIndex.INDEX_NAME)
+    private List<BookInfoRespDto> recallRrf(BookSearchReqDto condition, BoolQuery boolQuery, int recallSize) {
+        List<Float> queryVector = timed(embedLegTimer,
+                () -> toFloatList(queryEmbeddingCache.embed(condition.getKeyword())));
+        SearchResponse<BookEsRespDto> response = timed(rrfLegTimer, () -> esClient.search(s -> s
+                .index(EsConsts.BookIndex.INDEX_NAME)
+                .knn(knn -> knn
+                    .field(EsConsts.BookIndex.FIELD_EMBEDDING)
+                    .k(recallSize)
+                    .numCandidates(Math.max(recallSize * 2, 200))
+                    .queryVector(queryVector)
+                    .filter(f -> f.bool(boolQuery))
+                )
                 .query(q -> q.bool(boolQuery))
-                .from((condition.getPageNum() - 1) * condition.getPageSize())
-                .size(condition.getPageSize())
+                .rank(r -> r.rrf(rrf -> rrf
+                    .windowSize((long) recallSize)
+                    .rankConstant(hybridSearchProperties.getRrfRankConstant())))
+                .size(recallSize)
+                .source(src -> src.filter(f -> f.excludes(EsConsts.BookIndex.FIELD_EMBEDDING)))
                 .highlight(h -> h.fields(EsConsts.BookIndex.FIELD_BOOK_NAME,
                                 t -> t.preTags("<em style='color:red'>").postTags("</em>"))
                         .fields(EsConsts.BookIndex.FIELD_AUTHOR_NAME,
-                                t -> t.preTags("<em style='color:red'>").postTags("</em>")));
-            applySort(condition, builder);
-            return builder;
-        }, BookEsRespDto.class);
+                                t -> t.preTags("<em style='color:red'>").postTags("</em>")))
+            , BookEsRespDto.class));
 
-        TotalHits total = response.hits().total();
         List<BookInfoRespDto> list = new ArrayList<>();
-        
         for (Hit<BookEsRespDto> hit : response.hits().hits()) {
             BookEsRespDto book = hit.source();
             if (book == null) continue;
+            applyHighlight(hit, book);
+            list.add(toBookInfo(book));
+        }
+        return list;
+    }
 
-            // 处理高亮
-            if (hit.highlight() != null) {
-                if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME))) {
-                    book.setBookName(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME).getFirst());
-                }
-                if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME))) {
-                    book.setAuthorName(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME).getFirst());
-                }
-            }
-            
-            list.add(BookInfoRespDto.builder()
-                    .id(book.getId())
-                    .bookName(book.getBookName())
-                    .categoryName(book.getCategoryName())
-                    .authorName(book.getAuthorName())
-                    .wordCount(book.getWordCount())
-                    .lastChapterName(book.getLastChapterName())
-                    .bookStatus(book.getBookStatus())
-                    .picUrl(book.getPicUrl())
+    /**
+     * 从合并后的候选列表中切出一页；还有剩余候选时返回指向下一页的游标
+     */
+    private RestResp<PageRespDto<BookInfoRespDto>> pageHybrid(BookSearchReqDto condition, String sessionId,
+            List<BookInfoRespDto> candidates, long pageNum, int offset) {
+        int from = Math.min(Math.max(offset, 0), candidates.size());
+        int to = Math.min(from + condition.getPageSize(), candidates.size());
+        String nextCursor = null;
+        if (to < candidates.size()) {
+            nextCursor = bookSearchCursorCodec.encode(BookSearchCursor.builder()
+                    .type(BookSearchCursor.TYPE_HYBRID)
+                    .fingerprint(bookSearchCursorCodec.fingerprint(condition))
+                    .pageNum(pageNum + 1)
+                    .sessionId(sessionId)
+                    .offset(to)
                     .build());
         }
-
-        long totalValue = total != null ? total.value() : 0;
-        
-        return RestResp.ok(
-                PageRespDto.of(condition.getPageNum(), condition.getPageSize(), totalValue, list));
+        return RestResp.ok(PageRespDto.of(pageNum, condition.getPageSize(), candidates.size(),
+                new ArrayList<>(candidates.subList(from, to)), nextCursor));
     }
 
+    /**
+     * 执行纯文本搜索（无向量）
+     * <p>
+     * 首页按 from/size 查询，返回以最后一条排序值为起点的游标；续页用 search_after 翻页，
+     * 第一次续页时打开 point-in-time，之后的页都在同一快照上查询，不受实时写入影响，翻得再深也只取一页数据。
+     */
     @SneakyThrows
-    @Override
-    public RestResp<List<AuditExperienceSearchRespDto>> searchAuditExperience(AuditExperienceSearchReqDto reqDto) {
-        String contentText = reqDto.getContentText();
-        if (StringUtils.isBlank(contentText)) {
-            return RestResp.ok(Collections.emptyList());
+    private RestResp<PageRespDto<BookInfoRespDto>> executeTextOnlySearch(
+            BookSearchReqDto condition, BoolQuery boolQuery, BookSearchCursor cursor) {
+
+        boolean continuation = cursor != null && BookSearchCursor.TYPE_TEXT.equals(cursor.getType())
+                && cursor.getSearchAfter() != null;
+        long pageNum = continuation ? cursor.getPageNum() : condition.getPageNum();
+        String pitId = null;
+        if (continuation) {
+            pitId = cursor.getPitId();
+            if (pitId == null) {
+                pitId = esClient.openPointInTime(o -> o
+                        .index(EsConsts.BookIndex.INDEX_NAME)
+                        .keepAlive(t -> t.time(searchCursorProperties.getPitKeepAlive()))).id();
+            }
         }
-        
-        // 截断文本以防过长导致 embedding 报错
-        if (contentText.length() > 2000) {
-            contentText = contentText.substring(0, 2000);
+
+        SearchResponse<BookEsRespDto> response;
+        try {
+            response = searchTextPage(condition, boolQuery, continuation ? cursor : null, pitId);
+        } catch (ElasticsearchException e) {
+            if (pitId == null) {
+                throw e;
+            }
+            // 快照已过期：不带快照继续按 search_after 翻页，同样能接上排序位置
+            log.warn(">>> 搜索快照不可用，续页改为不带快照查询。原因={}", e.getMessage());
+            pitId = null;
+            response = searchTextPage(condition, boolQuery, cursor, null);
         }
 
-        // 1. 生成查询向量
-        float[] queryVectorArray = embeddingModel.embed(contentText);
-        List<Float> queryVector = new ArrayList<>();
-        for (float v : queryVectorArray) {
-            queryVector.add(v);
+        TotalHits total = response.hits().total();
+        List<BookInfoRespDto> list = new ArrayList<>();
+        List<Hit<BookEsRespDto>> hits = response.hits().hits();
+
+        for (Hit<BookEsRespDto> hit : hits) {
+            BookEsRespDto book = hit.source();
+            if (book == null) continue;
+
+            // 处理高亮
+            applyHighlight(hit, book);
+            list.add(toBookInfo(book));
         }
 
-        // 2. 执行 KNN 查询
-        int topK = reqDto.getTopK() != null ? reqDto.getTopK() : 3;
-        double threshold = reqDto.getSimilarityThreshold() != null ? reqDto.getSimilarityThreshold() : 0.75;
-
-        SearchResponse<Map> knnResponse = esClient.search(s -> s
-            .index(EsConsts.AuditExperienceIndex.INDEX_NAME)
-            .knn(knn -> knn
-                .field(EsConsts.AuditExperienceIndex.FIELD_CONTENT_VECTOR)
-                .k(topK)
-                .numCandidates(Math.max(topK * 2, 20))
-                .queryVector(queryVector)
-            )
-            .size(topK)
-        , Map.class);
-
-        // 3. 封装结果并过滤相似度
-        List<AuditExperienceSearchRespDto> resultList = new ArrayList<>();
-        for (Hit<Map> hit : knnResponse.hits().hits()) {
-            Double score = hit.score();
-            if (score == null || score < threshold) {
-                continue; // 过滤掉低于相似度阈值的结果
-            }
+        String currentPitId = response.pitId() != null ? response.pitId() : pitId;
+        String nextCursor = null;
+        if (!hits.isEmpty() && hits.size() == condition.getPageSize()) {
+            nextCursor = bookSearchCursorCodec.encode(BookSearchCursor.builder()
+                    .type(BookSearchCursor.TYPE_TEXT)
+                    .fingerprint(bookSearchCursorCodec.fingerprint(condition))
+                    .pageNum(pageNum + 1)
+                    .pitId(currentPitId)
+                    .searchAfter(BookSearchCursorCodec.fromSortValues(hits.getLast().sort()))
+                    .build());
+        } else if (currentPitId != null) {
+            // 已到最后一页，主动释放快照，不等保活超时
+            closePointInTime(currentPitId);
+        }
 
-            Map source = hit.source();
-            if (source == null) continue;
+        long totalValue = total != null ? total.value() : 0;
 
-            AuditExperienceSearchRespDto dto = new AuditExperienceSearchRespDto();
-            dto.setScore(score);
-            
-            Object auditStatusObj = source.get(EsConsts.AuditExperienceIndex.FIELD_AUDIT_STATUS);
-            if (auditStatusObj instanceof Number) {
-                dto.setAuditStatus(((Number) auditStatusObj).intValue());
-            }
-            
-            Object violationLabelObj = source.get(EsConsts.AuditExperienceIndex.FIELD_VIOLATION_LABEL);
-            if (violationLabelObj != null) {
-                dto.setViolationLabel(violationLabelObj.toString());
+        return RestResp.ok(
+                PageRespDto.of(pageNum, condition.getPageSize(), totalValue, list, nextCursor));
+    }
+
+    private SearchResponse<BookEsRespDto> searchTextPage(BookSearchReqDto condition, BoolQuery boolQuery,
+            BookSearchCursor cursor, String pitId) throws IOException {
+        return esClient.search(s -> {
+            SearchRequest.Builder builder = pitId != null
+                ? s.pit(p -> p.id(pitId).keepAlive(t -> t.time(searchCursorProperties.getPitKeepAlive())))
+                : s.index(EsConsts.BookIndex.INDEX_NAME);
+            builder.query(q -> q.bool(boolQuery))
+                .size(condition.getPageSize())
+                .source(src -> src.filter(f -> f.excludes(EsConsts.BookIndex.FIELD_EMBEDDING)))
+                .highlight(h -> h.fields(EsConsts.BookIndex.FIELD_BOOK_NAME,
+                                t -> t.preTags("<em style='color:red'>").postTags("</em>"))
+                        .fields(EsConsts.BookIndex.FIELD_AUTHOR_NAME,
+                                t -> t.preTags("<em style='color:red'>").postTags("</em>")));
+            if (cursor != null) {
+                builder.searchAfter(BookSearchCursorCodec.toSortValues(cursor.getSearchAfter()));
+            } else {
+                builder.from((condition.getPageNum() - 1) * condition.getPageSize());
             }
-            
-            Object keySnippetObj = source.get(EsConsts.AuditExperienceIndex.FIELD_KEY_SNIPPET);
-            if (keySnippetObj != null) {
-                dto.setKeySnippet(keySnippetObj.toString());
+            applySort(condition, builder);
+            return builder;
+        }, BookEsRespDto.class);
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            esClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            log.debug(">>> 关闭搜索快照失败，等待保活超时自动释放。原因={}", e.getMessage());
+        }
+    }
+
+    private static void applyHighlight(Hit<BookEsRespDto> hit, BookEsRespDto book) {
+        if (hit.highlight() != null) {
+            if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME))) {
+                book.setBookName(hit.highlight().get(EsConsts.BookIndex.FIELD_BOOK_NAME).getFirst());
             }
-            
-            Object auditRuleObj = source.get(EsConsts.AuditExperienceIndex.FIELD_AUDIT_RULE);
-            if (auditRuleObj != null) {
-                dto.setAuditRule(auditRuleObj.toString());
+            if (!CollectionUtils.isEmpty(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME))) {
+                book.setAuthorName(hit.highlight().get(EsConsts.BookIndex.FIELD_AUTHOR_NAME).getFirst());
             }
+        }
+    }
+
+    private static BookInfoRespDto toBookInfo(BookEsRespDto book) {
+        return BookInfoRespDto.builder()
+                .id(book.getId())
+                .bookName(book.getBookName())
+                .categoryName(book.getCategoryName())
+                .authorName(book.getAuthorName())
+                .wordCount(book.getWordCount())
+                .lastChapterName(book.getLastChapterName())
+                .bookStatus(book.getBookStatus())
+                .picUrl(book.getPicUrl())
+                .build();
+    }
+
+    /**
+     * 记录单路耗时（异常同样计入），检查型异常包装为 {@link CompletionException}
+     */
+    private static <T> T timed(Timer timer, Callable<T> leg) {
+        long start = System.nanoTime();
+        try {
+            return leg.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer legTimer(MeterRegistry meterRegistry, String leg) {
+        return Timer.builder(METRIC_HYBRID_LEG)
+                .tag("leg", leg)
+                .description("Latency of one leg of hybrid book search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-            resultList.add(dto);
+    private static List<Float> toFloatList(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float v : vector) {
+            list.add(v);
         }
+        return list;
+    }
 
-        return RestResp.ok(resultList);
+    /**
+     * 搜索框联想：书名与作者名 completion 子字段的前缀匹配，一次请求两个 suggester，不执行查询也不打分
+     */
+    @SneakyThrows
+    @Override
+    public RestResp<List<BookSuggestRespDto>> suggest(String keyword, int size) {
+        if (StringUtils.isBlank(keyword)) {
+            return RestResp.ok(Collections.emptyList());
+        }
+        String prefix = keyword.strip();
+        SearchResponse<BookEsRespDto> response = esClient.search(s -> s
+                .index(EsConsts.BookIndex.INDEX_NAME)
+                .suggest(sg -> sg
+                    .suggesters(BookSuggestRespDto.TYPE_BOOK, fs -> fs
+                        .prefix(prefix)
+                        .completion(c -> c
+                            .field(EsConsts.BookIndex.FIELD_BOOK_NAME_SUGGEST)
+                            .size(size)
+                            .skipDuplicates(true)))
+                    .suggesters(BookSuggestRespDto.TYPE_AUTHOR, fs -> fs
+                        .prefix(prefix)
+                        .completion(c -> c
+                            .field(EsConsts.BookIndex.FIELD_AUTHOR_NAME_SUGGEST)
+                            .size(size)
+                            .skipDuplicates(true))))
+                .source(src -> src.filter(f -> f.includes(EsConsts.BookIndex.FIELD_ID)))
+            , BookEsRespDto.class);
+
+        // 书名在前、作者名在后，同名去重
+        Map<String, BookSuggestRespDto> suggestions = new LinkedHashMap<>();
+        for (String type : List.of(BookSuggestRespDto.TYPE_BOOK, BookSuggestRespDto.TYPE_AUTHOR)) {
+            List<Suggestion<BookEsRespDto>> entries = response.suggest().getOrDefault(type, Collections.emptyList());
+            for (Suggestion<BookEsRespDto> entry : entries) {
+                for (CompletionSuggestOption<BookEsRespDto> option : entry.completion().options()) {
+                    Long bookId = BookSuggestRespDto.TYPE_BOOK.equals(type) && option.source() != null
+                            ? option.source().getId() : null;
+                    suggestions.putIfAbsent(type + ":" + option.text(),
+                            new BookSuggestRespDto(option.text(), type, bookId));
+                }
+            }
+        }
+        return RestResp.ok(suggestions.values().stream().limit(size).toList());
     }
 
     /**
@@ -345,7 +547,14 @@ public class SearchServiceImpl implements SearchService {
                     .field(StringUtils.underlineToCamel(condition.getSort().split(" ")[0]))
                     .order(SortOrder.Desc))
             );
+        } else {
+            searchBuilder.sort(o -> o.score(sc -> sc.order(SortOrder.Desc)));
         }
+        // 以 ID 兜底，排序唯一且稳定，search_after 才不会跨页重复或遗漏
+        searchBuilder.sort(o -> o.field(f -> f
+                .field(EsConsts.BookIndex.FIELD_ID)
+                .order(SortOrder.Asc))
+        );
     }
 
     /**
@@ -375,10 +584,12 @@ public class SearchServiceImpl implements SearchService {
                         .query(condition.getKeyword())
                         .operator(co.elastic.clients.elasticsearch._types.query_dsl.Operator.And)
                     ))
-                    // 策略 B: Keyword 通配符匹配 (解决分词搞不定的情况，类似 SQL 的 like %keyword%)
-                    .should(s -> s.wildcard(w -> w
-                        .field(EsConsts.BookIndex.FIELD_BOOK_NAME + ".keyword")
-                        .value("*" + condition.getKeyword() + "*")
+                    // 策略 B: ngram 子字段匹配，关键词的 1~2 字片段全部命中（解决分词搞不定的情况，类似 SQL 的 like %keyword%）
+                    // 走倒排索引，不再用 *keyword* 通配符扫描整个词典
+                    .should(s -> s.match(t -> t
+                        .field(EsConsts.BookIndex.FIELD_BOOK_NAME_NGRAM)
+                        .query(condition.getKeyword())
+                        .operator(co.elastic.clients.elasticsearch._types.query_dsl.Operator.And)
                     ))
                     // 只要满足 A 或 B 其中一个即可
                     .minimumShouldMatch("1") 
@@ -0,0 +1,62 @@
+package com.novel.search.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 书籍变更消息合并参数：短窗口内的同一本书只同步一次，整窗一次批量查询、一次 Bulk 写入。
+ */
+@ConfigurationProperties(prefix = "novel.search.book-change")
+public class BookChangeCoalesceProperties {
+
+    /**
+     * 合并窗口毫秒数：窗口内收到的书籍ID去重后一次处理。
+     */
+    private long windowMillis = 300;
+
+    /**
+     * 单个窗口的书籍数上限，达到后立即处理，不等窗口结束。
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 并行处理窗口的线程数。
+     */
+    private int flushThreads = 2;
+
+    /**
+     * 消费线程等待所在窗口处理结果的最长毫秒数，超时按失败交给 MQ 重试。
+     */
+    private long waitTimeoutMillis = 60000;
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getFlushThreads() {
+        return flushThreads;
+    }
+
+    public void setFlushThreads(int flushThreads) {
+        this.flushThreads = flushThreads;
+    }
+
+    public long getWaitTimeoutMillis() {
+        return waitTimeoutMillis;
+    }
+
+    public void setWaitTimeoutMillis(long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+}
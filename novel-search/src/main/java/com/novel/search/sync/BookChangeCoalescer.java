@@ -0,0 +1,97 @@
+package com.novel.search.sync;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 书籍变更合并窗口。
+ * <p>
+ * MQ 消费线程调用 {@link #submit} 把书籍ID放入当前窗口并等待窗口处理结果；窗口在首个ID进入
+ * {@code windowMillis} 后或达到 {@code maxBatchSize} 时交给 {@link BookEsBatchWriter} 一次处理，
+ * 同一本书在窗口内无论出现多少次只同步一次。消息仍由各自的消费线程确认，失败只影响包含失败书籍的消息。
+ */
+@Slf4j
+@Component
+public class BookChangeCoalescer {
+
+    private final BookEsBatchWriter bookEsBatchWriter;
+    private final BookChangeCoalesceProperties properties;
+    private final ScheduledExecutorService executor;
+    private Window current;
+
+    public BookChangeCoalescer(BookEsBatchWriter bookEsBatchWriter, BookChangeCoalesceProperties properties) {
+        this.bookEsBatchWriter = bookEsBatchWriter;
+        this.properties = properties;
+        AtomicInteger threadSeq = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, properties.getFlushThreads()), r -> {
+            Thread thread = new Thread(r, "book-change-coalesce-" + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return 窗口处理完成后，本窗口内仍失败的书籍ID；批量查询失败时异常完成
+     */
+    public CompletableFuture<Set<Long>> submit(Collection<Long> bookIds) {
+        Window window;
+        boolean full;
+        synchronized (this) {
+            if (current == null) {
+                Window created = new Window();
+                current = created;
+                executor.schedule(() -> flush(created), properties.getWindowMillis(), TimeUnit.MILLISECONDS);
+            }
+            window = current;
+            window.bookIds.addAll(bookIds);
+            full = window.bookIds.size() >= properties.getMaxBatchSize();
+            if (full) {
+                current = null;
+            }
+        }
+        if (full) {
+            executor.execute(() -> flush(window));
+        }
+        return window.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void flush(Window window) {
+        synchronized (this) {
+            if (current == window) {
+                current = null;
+            }
+            if (window.flushed) {
+                return;
+            }
+            window.flushed = true;
+        }
+        try {
+            window.result.complete(bookEsBatchWriter.write(window.bookIds));
+        } catch (Throwable e) {
+            log.error(">>> [MQ] ES 合并窗口同步失败，书籍数={}", window.bookIds.size(), e);
+            window.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class Window {
+        /** 只在持有外部锁时修改，flushed 之后只读 */
+        private final Set<Long> bookIds = new LinkedHashSet<>();
+        private final CompletableFuture<Set<Long>> result = new CompletableFuture<>();
+        private boolean flushed;
+    }
+}
@@ -0,0 +1,122 @@
+package com.novel.search.sync;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.novel.book.dto.resp.BookEsRespDto;
+import com.novel.common.constant.EsConsts;
+import com.novel.search.cache.BookIndexGeneration;
+import com.novel.search.embedding.BookEmbeddingService;
+import com.novel.search.feign.BookFeignManager;
+import com.novel.search.reindex.BookReindexChangeLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把一个合并窗口内的书籍同步到 ES：一次批量 Feign 查询、一次批量向量生成、一次 Bulk 写入。
+ * <ul>
+ *     <li>查询结果中存在的书籍整篇重建（index），缺失的书籍（已删除或未审核通过）删除，删除不存在的文档不算失败；</li>
+ *     <li>Bulk 中失败的文档单独组成一次 Bulk 重试，仍失败的返回给调用方，只让包含它们的消息重试，不重跑整窗。</li>
+ * </ul>
+ * 全量重建进行中时先经 {@link BookReindexChangeLog} 记下变更的书籍，重建切换别名前后回放到新索引。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookEsBatchWriter {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final BookFeignManager bookFeignManager;
+    private final BookEmbeddingService bookEmbeddingService;
+    private final BookIndexGeneration bookIndexGeneration;
+    private final BookReindexChangeLog bookReindexChangeLog;
+
+    /**
+     * 写入别名 {@code book}
+     *
+     * @return 重试后仍失败的书籍ID
+     * @throws IllegalStateException 批量查询书籍失败，整窗都应重试
+     */
+    public Set<Long> write(Collection<Long> bookIds) throws IOException {
+        bookReindexChangeLog.recordIfReindexing(bookIds);
+        return write(bookIds, EsConsts.BookIndex.INDEX_NAME);
+    }
+
+    /**
+     * 写入指定索引；全量重建回放变更时直接写新版本索引，不再记录变更
+     *
+     * @return 重试后仍失败的书籍ID
+     * @throws IllegalStateException 批量查询书籍失败，整批都应重试
+     */
+    public Set<Long> write(Collection<Long> bookIds, String index) throws IOException {
+        List<BookEsRespDto> books = bookFeignManager.listEsBooksByIds(new ArrayList<>(bookIds));
+        Set<Long> missing = new HashSet<>(bookIds);
+        books.forEach(book -> missing.remove(book.getId()));
+
+        // 文本未变的复用已有向量，其余合并为批量调用
+        bookEmbeddingService.embed(books);
+
+        Map<Long, BulkOperation> operations = new LinkedHashMap<>();
+        for (BookEsRespDto book : books) {
+            operations.put(book.getId(), BulkOperation.of(op -> op
+                    .index(idx -> idx
+                            .index(index)
+                            .id(book.getId().toString())
+                            .document(book))));
+        }
+        for (Long bookId : missing) {
+            operations.put(bookId, BulkOperation.of(op -> op
+                    .delete(d -> d
+                            .index(index)
+                            .id(bookId.toString()))));
+        }
+
+        Set<Long> failed = bulk(operations);
+        // 有文档写入即让搜索结果缓存失效（部分失败也可能已有成功写入）
+        if (!operations.isEmpty()) {
+            bookIndexGeneration.onIndexChanged();
+        }
+        if (!failed.isEmpty()) {
+            Map<Long, BulkOperation> retry = new LinkedHashMap<>();
+            failed.forEach(bookId -> retry.put(bookId, operations.get(bookId)));
+            log.warn(">>> [MQ] ES 批量同步有 {} 个文档失败，单独重试一次。bookIds={}", failed.size(), failed);
+            failed = bulk(retry);
+        }
+        log.info(">>> [MQ] ES 批量同步完成，书籍数={}，重建={}，删除={}，失败={}",
+                bookIds.size(), books.size(), missing.size(), failed.size());
+        return failed;
+    }
+
+    private Set<Long> bulk(Map<Long, BulkOperation> operations) throws IOException {
+        Set<Long> failed = new HashSet<>();
+        if (operations.isEmpty()) {
+            return failed;
+        }
+        BulkResponse response = elasticsearchClient.bulk(BulkRequest.of(b -> b
+                .operations(new ArrayList<>(operations.values()))));
+        if (!response.errors()) {
+            return failed;
+        }
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() == null) {
+                continue;
+            }
+            log.warn(">>> [MQ] ES 文档同步失败。bookId={}, status={}, 错误类型={}, 错误原因={}",
+                    item.id(), item.status(), item.error().type(), item.error().reason());
+            failed.add(Long.valueOf(item.id()));
+        }
+        return failed;
+    }
+}